@@ -27,6 +27,7 @@ import com.netflix.conductor.cassandra.dao.CassandraExecutionDAO;
 import com.netflix.conductor.cassandra.dao.CassandraMetadataDAO;
 import com.netflix.conductor.cassandra.dao.CassandraPollDataDAO;
 import com.netflix.conductor.cassandra.util.Statements;
+import com.netflix.conductor.core.utils.ModelSerializer;
 import com.netflix.conductor.dao.EventHandlerDAO;
 import com.netflix.conductor.dao.ExecutionDAO;
 import com.netflix.conductor.dao.MetadataDAO;
@@ -87,9 +88,11 @@ public class CassandraConfiguration {
     public ExecutionDAO cassandraExecutionDAO(
             Session session,
             ObjectMapper objectMapper,
+            ModelSerializer modelSerializer,
             CassandraProperties properties,
             Statements statements) {
-        return new CassandraExecutionDAO(session, objectMapper, properties, statements);
+        return new CassandraExecutionDAO(
+                session, objectMapper, modelSerializer, properties, statements);
     }
 
     @Bean
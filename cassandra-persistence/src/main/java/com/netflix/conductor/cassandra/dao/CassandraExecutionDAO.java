@@ -26,6 +26,7 @@ import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.core.exception.NonTransientException;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.utils.ModelSerializer;
 import com.netflix.conductor.dao.ConcurrentExecutionLimitDAO;
 import com.netflix.conductor.dao.ExecutionDAO;
 import com.netflix.conductor.metrics.Monitors;
@@ -73,13 +74,16 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
     protected final PreparedStatement deleteEventExecutionStatement;
 
     protected final int eventExecutionsTTL;
+    protected final ModelSerializer modelSerializer;
 
     public CassandraExecutionDAO(
             Session session,
             ObjectMapper objectMapper,
+            ModelSerializer modelSerializer,
             CassandraProperties properties,
             Statements statements) {
         super(session, objectMapper, properties);
+        this.modelSerializer = modelSerializer;
 
         eventExecutionsTTL = (int) properties.getEventExecutionPersistenceTtl().getSeconds();
 
@@ -204,7 +208,7 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
             BatchStatement batchStatement = new BatchStatement();
             tasks.forEach(
                     task -> {
-                        String taskPayload = toJson(task);
+                        String taskPayload = modelSerializer.serialize(task);
                         batchStatement.add(
                                 insertTaskStatement.bind(
                                         workflowUUID,
@@ -243,7 +247,7 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
     public void updateTask(TaskModel task) {
         try {
             // TODO: calculate the shard number the task belongs to
-            String taskPayload = toJson(task);
+            String taskPayload = modelSerializer.serialize(task);
             recordCassandraDaoRequests("updateTask", task.getTaskType(), task.getWorkflowType());
             recordCassandraDaoPayloadSize(
                     "updateTask", taskPayload.length(), task.getTaskType(), task.getWorkflowType());
@@ -348,7 +352,8 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
                     .map(
                             row -> {
                                 String taskRow = row.getString(PAYLOAD_KEY);
-                                TaskModel task = readValue(taskRow, TaskModel.class);
+                                TaskModel task =
+                                        modelSerializer.deserialize(taskRow, TaskModel.class);
                                 recordCassandraDaoRequests(
                                         "getTask", task.getTaskType(), task.getWorkflowType());
                                 recordCassandraDaoPayloadSize(
@@ -400,7 +405,7 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
         try {
             List<TaskModel> tasks = workflow.getTasks();
             workflow.setTasks(new LinkedList<>());
-            String payload = toJson(workflow);
+            String payload = modelSerializer.serialize(workflow);
 
             recordCassandraDaoRequests("createWorkflow", "n/a", workflow.getWorkflowName());
             recordCassandraDaoPayloadSize(
@@ -425,7 +430,7 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
         try {
             List<TaskModel> tasks = workflow.getTasks();
             workflow.setTasks(new LinkedList<>());
-            String payload = toJson(workflow);
+            String payload = modelSerializer.serialize(workflow);
             recordCassandraDaoRequests("updateWorkflow", "n/a", workflow.getWorkflowName());
             recordCassandraDaoPayloadSize(
                     "updateWorkflow", payload.length(), "n/a", workflow.getWorkflowName());
@@ -513,9 +518,13 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
                 for (Row row : rows) {
                     String entityKey = row.getString(ENTITY_KEY);
                     if (ENTITY_TYPE_WORKFLOW.equals(entityKey)) {
-                        workflow = readValue(row.getString(PAYLOAD_KEY), WorkflowModel.class);
+                        workflow =
+                                modelSerializer.deserialize(
+                                        row.getString(PAYLOAD_KEY), WorkflowModel.class);
                     } else if (ENTITY_TYPE_TASK.equals(entityKey)) {
-                        TaskModel task = readValue(row.getString(PAYLOAD_KEY), TaskModel.class);
+                        TaskModel task =
+                                modelSerializer.deserialize(
+                                        row.getString(PAYLOAD_KEY), TaskModel.class);
                         tasks.add(task);
                     } else {
                         throw new NonTransientException(
@@ -537,7 +546,7 @@ public class CassandraExecutionDAO extends CassandraBaseDAO
                                 .map(
                                         row -> {
                                             WorkflowModel wf =
-                                                    readValue(
+                                                    modelSerializer.deserialize(
                                                             row.getString(PAYLOAD_KEY),
                                                             WorkflowModel.class);
                                             recordCassandraDaoRequests(
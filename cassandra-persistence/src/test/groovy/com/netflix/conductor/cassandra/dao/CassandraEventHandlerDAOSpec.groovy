@@ -26,7 +26,7 @@ class CassandraEventHandlerDAOSpec extends CassandraSpec {
 
     def setup() {
         eventHandlerDAO = new CassandraEventHandlerDAO(session, objectMapper, cassandraProperties, statements)
-        executionDAO = new CassandraExecutionDAO(session, objectMapper, cassandraProperties, statements)
+        executionDAO = new CassandraExecutionDAO(session, objectMapper, modelSerializer, cassandraProperties, statements)
     }
 
     def testEventHandlerCRUD() {
@@ -32,7 +32,7 @@ class CassandraExecutionDAOSpec extends CassandraSpec {
     CassandraExecutionDAO executionDAO
 
     def setup() {
-        executionDAO = new CassandraExecutionDAO(session, objectMapper, cassandraProperties, statements)
+        executionDAO = new CassandraExecutionDAO(session, objectMapper, modelSerializer, cassandraProperties, statements)
     }
 
     def "verify if tasks are validated"() {
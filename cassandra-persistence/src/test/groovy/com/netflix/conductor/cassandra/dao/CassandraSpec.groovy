@@ -22,6 +22,8 @@ import org.testcontainers.spock.Testcontainers
 import com.netflix.conductor.cassandra.config.CassandraProperties
 import com.netflix.conductor.cassandra.util.Statements
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration
+import com.netflix.conductor.core.utils.JacksonModelSerializer
+import com.netflix.conductor.core.utils.ModelSerializer
 
 import com.datastax.driver.core.ConsistencyLevel
 import com.datastax.driver.core.Session
@@ -46,6 +48,7 @@ abstract class CassandraSpec extends Specification {
 
     CassandraProperties cassandraProperties
     Statements statements
+    ModelSerializer modelSerializer
 
     def setupSpec() {
         session = cassandra.cluster.newSession()
@@ -66,5 +69,6 @@ abstract class CassandraSpec extends Specification {
         }
 
         statements = new Statements(keyspaceName)
+        modelSerializer = new JacksonModelSerializer(objectMapper, JacksonModelSerializer.Format.SMILE)
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.client.automator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adapts the polling of a task type to its queue. Each empty poll doubles the wait before the next
+ * one, up to a max, with a jitter so that the workers started together do not poll in lockstep. A
+ * poll that returns tasks snaps back to the polling interval of the worker.
+ *
+ * <p>The wait is spent in the server long poll as much as possible rather than in a client sleep:
+ * the long poll returns as soon as a task is scheduled, so an idle task type costs few polls and
+ * still gets its tasks without delay. The server only returns early once it has all the tasks
+ * asked for though, so a poll with a long poll longer than the one of the worker asks for a single
+ * task: the first task after an idle period is returned as soon as it is scheduled, and the poll
+ * that follows it asks for all the free slots again.
+ */
+class PollBackoff {
+
+    /** The longest long poll accepted by the server. */
+    static final int MAX_LONG_POLL_TIMEOUT_MS = 5000;
+
+    private static final int MAX_EMPTY_POLLS = 30;
+
+    private final int pollingInterval;
+    private final int batchPollTimeout;
+    private final long maxBackoff;
+
+    private int emptyPolls;
+    private int pollTimeout;
+    private long delay;
+    private boolean missedLongPoll;
+
+    /**
+     * @param pollingInterval the interval between polls while tasks are returned
+     * @param batchPollTimeout the long poll timeout while tasks are returned
+     * @param maxBackoff the longest wait between two polls of an empty queue, long poll included
+     */
+    PollBackoff(int pollingInterval, int batchPollTimeout, long maxBackoff) {
+        this.pollingInterval = Math.max(1, pollingInterval);
+        this.batchPollTimeout = Math.min(batchPollTimeout, MAX_LONG_POLL_TIMEOUT_MS);
+        this.maxBackoff = maxBackoff;
+        this.pollTimeout = this.batchPollTimeout;
+        this.delay = this.pollingInterval;
+    }
+
+    /**
+     * @return the long poll timeout to use for the next poll
+     */
+    synchronized int getPollTimeout() {
+        return pollTimeout;
+    }
+
+    /**
+     * @param freeSlots the number of tasks the worker can take
+     * @return the number of tasks to ask for in the next poll
+     */
+    synchronized int getPollCount(int freeSlots) {
+        return pollTimeout > batchPollTimeout ? Math.min(1, freeSlots) : freeSlots;
+    }
+
+    /**
+     * @return the client side wait before the next poll, the whole backoff if the last poll did not
+     *     wait in the server long poll
+     */
+    synchronized long getDelay() {
+        return missedLongPoll ? Math.max(pollingInterval, getBackoff()) : delay;
+    }
+
+    /**
+     * @return the current wait between two polls, long poll included
+     */
+    synchronized long getBackoff() {
+        return delay + (emptyPolls > 0 ? pollTimeout : 0);
+    }
+
+    /**
+     * Adapts the next poll to the outcome of the last one.
+     *
+     * @param taskCount the number of tasks returned by the last poll, 0 when it failed
+     */
+    synchronized void recordPoll(int taskCount) {
+        missedLongPoll = false;
+        if (taskCount > 0) {
+            emptyPolls = 0;
+            pollTimeout = batchPollTimeout;
+            delay = pollingInterval;
+            return;
+        }
+        emptyPolls = Math.min(emptyPolls + 1, MAX_EMPTY_POLLS);
+        long backoff = Math.min(maxBackoff, (long) pollingInterval << emptyPolls);
+        backoff = Math.max(backoff, pollingInterval);
+        // "equal jitter": half of the backoff is kept, the other half is random
+        long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        pollTimeout =
+                (int) Math.max(batchPollTimeout, Math.min(jittered, MAX_LONG_POLL_TIMEOUT_MS));
+        delay = Math.max(0, jittered - pollTimeout);
+    }
+
+    /**
+     * Records that the last poll did not wait in the server long poll, because it was not made
+     * (e.g. the worker is paused or has no free slot) or it failed, so that the next one does not
+     * follow immediately.
+     */
+    synchronized void recordMissedLongPoll() {
+        missedLongPoll = true;
+    }
+}
@@ -66,6 +66,11 @@ class TaskPollExecutor {
     private ScheduledExecutorService leaseExtendExecutorService;
     Map<String /* ID of the task*/, ScheduledFuture<?>> leaseExtendMap = new HashMap<>();
 
+    private final TaskUpdateBatcher taskUpdateBatcher;
+
+    private final int maxPollBackoffInMS;
+    private final Map<String /*taskType*/, PollBackoff> pollBackoffMap = new ConcurrentHashMap<>();
+
     TaskPollExecutor(
             EurekaClient eurekaClient,
             TaskClient taskClient,
@@ -73,10 +78,40 @@ class TaskPollExecutor {
             Map<String, String> taskToDomain,
             String workerNamePrefix,
             Map<String, Integer> taskThreadCount) {
+        this(
+                eurekaClient,
+                taskClient,
+                updateRetryCount,
+                taskToDomain,
+                workerNamePrefix,
+                taskThreadCount,
+                1,
+                0,
+                0);
+    }
+
+    /**
+     * @param updateBatchSize the max number of task results sent in a single update, 1 to update
+     *     the tasks one by one
+     * @param updateBatchMaxLatencyInMS how long a task result can wait for a batch to fill up
+     * @param maxPollBackoffInMS the longest wait between two polls of an empty queue, 0 to poll at
+     *     the fixed interval of the worker
+     */
+    TaskPollExecutor(
+            EurekaClient eurekaClient,
+            TaskClient taskClient,
+            int updateRetryCount,
+            Map<String, String> taskToDomain,
+            String workerNamePrefix,
+            Map<String, Integer> taskThreadCount,
+            int updateBatchSize,
+            int updateBatchMaxLatencyInMS,
+            int maxPollBackoffInMS) {
         this.eurekaClient = eurekaClient;
         this.taskClient = taskClient;
         this.updateRetryCount = updateRetryCount;
         this.taskToDomain = taskToDomain;
+        this.maxPollBackoffInMS = maxPollBackoffInMS;
 
         this.pollingSemaphoreMap = new HashMap<>();
         int totalThreadCount = 0;
@@ -105,6 +140,21 @@ class TaskPollExecutor {
                                 .daemon(true)
                                 .uncaughtExceptionHandler(uncaughtExceptionHandler)
                                 .build());
+
+        if (updateBatchSize > 1) {
+            LOGGER.info(
+                    "Updating the tasks in batches of up to {} results, within {} ms",
+                    updateBatchSize,
+                    updateBatchMaxLatencyInMS);
+            this.taskUpdateBatcher =
+                    new TaskUpdateBatcher(
+                            taskClient,
+                            updateBatchSize,
+                            updateBatchMaxLatencyInMS,
+                            updateRetryCount);
+        } else {
+            this.taskUpdateBatcher = null;
+        }
     }
 
     void pollAndExecute(Worker worker) {
@@ -121,23 +171,30 @@ class TaskPollExecutor {
                 && !eurekaClient.getInstanceRemoteStatus().equals(InstanceStatus.UP)
                 && !discoveryOverride) {
             LOGGER.debug("Instance is NOT UP in discovery - will not poll");
+            recordMissedLongPoll(worker);
             return;
         }
 
         if (worker.paused()) {
             MetricsContainer.incrementTaskPausedCount(worker.getTaskDefName());
             LOGGER.debug("Worker {} has been paused. Not polling anymore!", worker.getClass());
+            recordMissedLongPoll(worker);
             return;
         }
 
         String taskType = worker.getTaskDefName();
         PollingSemaphore pollingSemaphore = getPollingSemaphore(taskType);
 
-        int slotsToAcquire = pollingSemaphore.availableSlots();
+        PollBackoff pollBackoff = getPollBackoff(worker);
+        int availableSlots = pollingSemaphore.availableSlots();
+        int slotsToAcquire =
+                pollBackoff != null ? pollBackoff.getPollCount(availableSlots) : availableSlots;
         if (slotsToAcquire <= 0 || !pollingSemaphore.acquireSlots(slotsToAcquire)) {
+            recordMissedLongPoll(worker);
             return;
         }
         int acquiredTasks = 0;
+        boolean pollFailed = false;
         try {
             String domain =
                     Optional.ofNullable(PropertyFactory.getString(taskType, DOMAIN, null))
@@ -150,6 +207,10 @@ class TaskPollExecutor {
 
             LOGGER.debug("Polling task of type: {} in domain: '{}'", taskType, domain);
 
+            int pollTimeout =
+                    pollBackoff != null
+                            ? pollBackoff.getPollTimeout()
+                            : worker.getBatchPollTimeoutInMS();
             List<Task> tasks =
                     MetricsContainer.getPollTimer(taskType)
                             .record(
@@ -159,8 +220,9 @@ class TaskPollExecutor {
                                                     domain,
                                                     worker.getIdentity(),
                                                     slotsToAcquire,
-                                                    worker.getBatchPollTimeoutInMS()));
+                                                    pollTimeout));
             acquiredTasks = tasks.size();
+            MetricsContainer.recordTaskPollSize(taskType, acquiredTasks);
             for (Task task : tasks) {
                 if (Objects.nonNull(task) && StringUtils.isNotBlank(task.getTaskId())) {
                     MetricsContainer.incrementTaskPollCount(taskType, 1);
@@ -199,16 +261,46 @@ class TaskPollExecutor {
         } catch (Exception e) {
             MetricsContainer.incrementTaskPollErrorCount(worker.getTaskDefName(), e);
             LOGGER.error("Error when polling for tasks", e);
+            pollFailed = true;
+        }
+
+        if (pollBackoff != null) {
+            // a failed poll backs off too, so that a struggling server is not polled harder
+            pollBackoff.recordPoll(acquiredTasks);
+            if (pollFailed) {
+                pollBackoff.recordMissedLongPoll();
+            }
+            MetricsContainer.recordTaskPollBackoff(taskType, pollBackoff.getBackoff());
         }
 
         // immediately release unused permits
         pollingSemaphore.complete(slotsToAcquire - acquiredTasks);
     }
 
+    private void recordMissedLongPoll(Worker worker) {
+        PollBackoff pollBackoff = getPollBackoff(worker);
+        if (pollBackoff != null) {
+            pollBackoff.recordMissedLongPoll();
+        }
+    }
+
+    /**
+     * @return the time to wait before the next poll of the worker, adapted to its last polls when
+     *     the poll backoff is enabled
+     */
+    long getNextPollDelay(Worker worker) {
+        PollBackoff pollBackoff = getPollBackoff(worker);
+        return pollBackoff != null ? pollBackoff.getDelay() : worker.getPollingInterval();
+    }
+
     void shutdown(int timeout) {
         shutdownAndAwaitTermination(executorService, timeout);
         shutdownAndAwaitTermination(leaseExtendExecutorService, timeout);
         leaseExtendMap.clear();
+        if (taskUpdateBatcher != null) {
+            // the workers are stopped, send the results they left in the batcher
+            taskUpdateBatcher.shutdown(timeout);
+        }
     }
 
     void shutdownAndAwaitTermination(ExecutorService executorService, int timeout) {
@@ -332,6 +424,11 @@ class TaskPollExecutor {
                 result.setOutputData(null);
             }
 
+            if (taskUpdateBatcher != null) {
+                taskUpdateBatcher.submit(result, e -> onUpdateError(task, result, worker, e));
+                return;
+            }
+
             retryOperation(
                     (TaskResult taskResult) -> {
                         taskClient.updateTask(taskResult);
@@ -341,16 +438,20 @@ class TaskPollExecutor {
                     result,
                     "updateTask");
         } catch (Exception e) {
-            worker.onErrorUpdate(task);
-            MetricsContainer.incrementTaskUpdateErrorCount(worker.getTaskDefName(), e);
-            LOGGER.error(
-                    String.format(
-                            "Failed to update result: %s for task: %s in worker: %s",
-                            result.toString(), task.getTaskDefName(), worker.getIdentity()),
-                    e);
+            onUpdateError(task, result, worker, e);
         }
     }
 
+    private void onUpdateError(Task task, TaskResult result, Worker worker, Exception e) {
+        worker.onErrorUpdate(task);
+        MetricsContainer.incrementTaskUpdateErrorCount(worker.getTaskDefName(), e);
+        LOGGER.error(
+                String.format(
+                        "Failed to update result: %s for task: %s in worker: %s",
+                        result.toString(), task.getTaskDefName(), worker.getIdentity()),
+                e);
+    }
+
     private Optional<String> upload(TaskResult result, String taskType) {
         try {
             return taskClient.evaluateAndUploadLargePayload(result.getOutputData(), taskType);
@@ -396,6 +497,19 @@ class TaskPollExecutor {
         return pollingSemaphoreMap.get(taskType);
     }
 
+    private PollBackoff getPollBackoff(Worker worker) {
+        if (maxPollBackoffInMS <= 0) {
+            return null;
+        }
+        return pollBackoffMap.computeIfAbsent(
+                worker.getTaskDefName(),
+                taskType ->
+                        new PollBackoff(
+                                worker.getPollingInterval(),
+                                worker.getBatchPollTimeoutInMS(),
+                                maxPollBackoffInMS));
+    }
+
     private Runnable extendLease(Task task, CompletableFuture<Task> taskCompletableFuture) {
         return () -> {
             if (taskCompletableFuture.isDone()) {
@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -35,6 +36,10 @@ import com.netflix.discovery.EurekaClient;
 /** Configures automated polling of tasks and execution via the registered {@link Worker}s. */
 public class TaskRunnerConfigurer {
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskRunnerConfigurer.class);
+
+    /** The max number of task results accepted by the server in a single update. */
+    public static final int MAX_UPDATE_BATCH_SIZE = 1000;
+
     private static final String INVALID_THREAD_COUNT =
             "Invalid worker thread count specified, use either shared thread pool or config thread count per task";
     private static final String MISSING_TASK_THREAD_COUNT =
@@ -52,6 +57,9 @@ public class TaskRunnerConfigurer {
     private final String workerNamePrefix;
     private final Map<String /*taskType*/, String /*domain*/> taskToDomain;
     private final Map<String /*taskType*/, Integer /*threadCount*/> taskThreadCount;
+    private final int updateBatchSize;
+    private final int updateBatchMaxLatencyInMS;
+    private final int maxPollBackoffInMS;
 
     private TaskPollExecutor taskPollExecutor;
 
@@ -96,6 +104,9 @@ public class TaskRunnerConfigurer {
         this.workerNamePrefix = builder.workerNamePrefix;
         this.taskToDomain = builder.taskToDomain;
         this.shutdownGracePeriodSeconds = builder.shutdownGracePeriodSeconds;
+        this.updateBatchSize = builder.updateBatchSize;
+        this.updateBatchMaxLatencyInMS = builder.updateBatchMaxLatencyInMS;
+        this.maxPollBackoffInMS = builder.maxPollBackoffInMS;
     }
 
     /** Builder used to create the instances of TaskRunnerConfigurer */
@@ -106,6 +117,9 @@ public class TaskRunnerConfigurer {
         private int updateRetryCount = 3;
         @Deprecated private int threadCount = -1;
         private int shutdownGracePeriodSeconds = 10;
+        private int updateBatchSize = 1;
+        private int updateBatchMaxLatencyInMS = 100;
+        private int maxPollBackoffInMS = 0;
         private final Iterable<Worker> workers;
         private EurekaClient eurekaClient;
         private final TaskClient taskClient;
@@ -188,6 +202,58 @@ public class TaskRunnerConfigurer {
             return this;
         }
 
+        /**
+         * @param updateBatchSize the max number of task results sent to the server in a single
+         *     update. The results of the workers are coalesced into batches, and the server
+         *     evaluates each workflow once per batch. Defaults to 1, the tasks being updated one by
+         *     one, and cannot be greater than {@link #MAX_UPDATE_BATCH_SIZE}, the server rejecting
+         *     larger updates.
+         * @return Builder instance
+         */
+        public Builder withUpdateBatchSize(int updateBatchSize) {
+            if (updateBatchSize < 1) {
+                throw new IllegalArgumentException("Update batch size cannot be less than 1");
+            }
+            if (updateBatchSize > MAX_UPDATE_BATCH_SIZE) {
+                throw new IllegalArgumentException(
+                        "Update batch size cannot be greater than " + MAX_UPDATE_BATCH_SIZE);
+            }
+            this.updateBatchSize = updateBatchSize;
+            return this;
+        }
+
+        /**
+         * @param updateBatchMaxLatencyInMS the time a task result can wait for its batch to fill
+         *     up, before the batch is sent anyway. Only used with an update batch size greater
+         *     than 1. Defaults to 100 ms.
+         * @return Builder instance
+         */
+        public Builder withUpdateBatchMaxLatencyInMS(int updateBatchMaxLatencyInMS) {
+            if (updateBatchMaxLatencyInMS < 0) {
+                throw new IllegalArgumentException("Update batch max latency cannot be negative");
+            }
+            this.updateBatchMaxLatencyInMS = updateBatchMaxLatencyInMS;
+            return this;
+        }
+
+        /**
+         * @param maxPollBackoffInMS enables the adaptive polling of the workers: after an empty
+         *     poll, the next one is delayed exponentially longer, with a jitter, up to this time.
+         *     The wait is spent in the server long poll as much as possible, asking for a single
+         *     task, so that the first task after an idle period is still received as soon as it is
+         *     scheduled, and a poll that returns tasks goes back to the polling interval and the
+         *     batch size of the worker. Defaults to 0, polling at the fixed interval of the
+         *     worker.
+         * @return Builder instance
+         */
+        public Builder withMaxPollBackoffInMS(int maxPollBackoffInMS) {
+            if (maxPollBackoffInMS < 0) {
+                throw new IllegalArgumentException("Max poll backoff cannot be negative");
+            }
+            this.maxPollBackoffInMS = maxPollBackoffInMS;
+            return this;
+        }
+
         public Builder withTaskToDomain(Map<String, String> taskToDomain) {
             this.taskToDomain = taskToDomain;
             return this;
@@ -254,6 +320,28 @@ public class TaskRunnerConfigurer {
         return workerNamePrefix;
     }
 
+    /**
+     * @return max number of task results sent in a single update
+     */
+    public int getUpdateBatchSize() {
+        return updateBatchSize;
+    }
+
+    /**
+     * @return time in milliseconds a task result can wait for its batch to fill up
+     */
+    public int getUpdateBatchMaxLatencyInMS() {
+        return updateBatchMaxLatencyInMS;
+    }
+
+    /**
+     * @return longest time in milliseconds between two polls of an empty queue, 0 if the workers
+     *     poll at a fixed interval
+     */
+    public int getMaxPollBackoffInMS() {
+        return maxPollBackoffInMS;
+    }
+
     /**
      * Starts the polling. Must be called after {@link TaskRunnerConfigurer.Builder#build()} method.
      */
@@ -265,9 +353,16 @@ public class TaskRunnerConfigurer {
                         updateRetryCount,
                         taskToDomain,
                         workerNamePrefix,
-                        taskThreadCount);
+                        taskThreadCount,
+                        updateBatchSize,
+                        updateBatchMaxLatencyInMS,
+                        maxPollBackoffInMS);
 
         this.scheduledExecutorService = Executors.newScheduledThreadPool(workers.size());
+        if (maxPollBackoffInMS > 0) {
+            workers.forEach(worker -> schedulePoll(worker, worker.getPollingInterval()));
+            return;
+        }
         workers.forEach(
                 worker ->
                         scheduledExecutorService.scheduleWithFixedDelay(
@@ -277,6 +372,24 @@ public class TaskRunnerConfigurer {
                                 TimeUnit.MILLISECONDS));
     }
 
+    /** Polls for the worker after the delay, then schedules its next poll adapted to the queue. */
+    private void schedulePoll(Worker worker, long delay) {
+        try {
+            scheduledExecutorService.schedule(
+                    () -> {
+                        try {
+                            taskPollExecutor.pollAndExecute(worker);
+                        } finally {
+                            schedulePoll(worker, taskPollExecutor.getNextPollDelay(worker));
+                        }
+                    },
+                    delay,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Stopped polling for {}, shutting down", worker.getTaskDefName());
+        }
+    }
+
     /**
      * Invoke this method within a PreDestroy block within your application to facilitate a graceful
      * shutdown of your worker, during process termination.
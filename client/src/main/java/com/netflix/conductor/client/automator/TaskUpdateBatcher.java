@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.client.automator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.client.http.TaskClient;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
+
+/**
+ * Coalesces the task results of the workers into {@link TaskClient#updateTasks(List)} calls, so
+ * that the server evaluates a workflow once for all the results of a batch. A batch is sent when
+ * it is full, or when its first result has waited for the max latency.
+ */
+class TaskUpdateBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskUpdateBatcher.class);
+
+    private final TaskClient taskClient;
+    private final int maxBatchSize;
+    private final long maxLatencyMs;
+    private final int retryCount;
+    private final BlockingQueue<PendingUpdate> pendingUpdates = new LinkedBlockingQueue<>();
+    private final ExecutorService executorService;
+    private volatile boolean running = true;
+
+    TaskUpdateBatcher(TaskClient taskClient, int maxBatchSize, long maxLatencyMs, int retryCount) {
+        this.taskClient = taskClient;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyMs = maxLatencyMs;
+        this.retryCount = retryCount;
+        this.executorService =
+                Executors.newSingleThreadExecutor(
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("workflow-task-update-%d")
+                                .daemon(true)
+                                .build());
+        this.executorService.execute(this::run);
+    }
+
+    /**
+     * Queues a result for the next batch.
+     *
+     * @param onError called with the reason the update failed, once the batch has been sent
+     */
+    void submit(TaskResult result, Consumer<Exception> onError) {
+        pendingUpdates.add(new PendingUpdate(result, onError));
+    }
+
+    /** Sends the queued results, then stops. */
+    void shutdown(int timeout) {
+        running = false;
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                LOGGER.warn("Task updates still pending after waiting for {} seconds", timeout);
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException ie) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running || !pendingUpdates.isEmpty()) {
+                List<PendingUpdate> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Waits for a first result, then for the rest of the batch until the max latency. */
+    private List<PendingUpdate> nextBatch() throws InterruptedException {
+        List<PendingUpdate> batch = new ArrayList<>(maxBatchSize);
+        PendingUpdate first = pendingUpdates.poll(maxLatencyMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.currentTimeMillis() + maxLatencyMs;
+        while (batch.size() < maxBatchSize && running) {
+            long remaining = deadline - System.currentTimeMillis();
+            PendingUpdate next =
+                    remaining > 0 ? pendingUpdates.poll(remaining, TimeUnit.MILLISECONDS) : null;
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        // when shutting down, the batch takes whatever is already queued
+        pendingUpdates.drainTo(batch, maxBatchSize - batch.size());
+        return batch;
+    }
+
+    private void send(List<PendingUpdate> batch) {
+        List<TaskResult> results =
+                batch.stream().map(update -> update.result).collect(Collectors.toList());
+        BulkResponse response = null;
+        Exception error = null;
+        for (int attempt = 0; attempt < retryCount && response == null; attempt++) {
+            try {
+                response = taskClient.updateTasks(results);
+            } catch (Exception e) {
+                error = e;
+                try {
+                    Thread.sleep(500L);
+                } catch (InterruptedException ie) {
+                    LOGGER.error("Retry interrupted", ie);
+                }
+            }
+        }
+
+        if (response == null) {
+            Exception exhausted =
+                    new RuntimeException("Exhausted retries performing updateTasks", error);
+            batch.forEach(update -> update.onError.accept(exhausted));
+            return;
+        }
+        Map<String, String> errors = response.getBulkErrorResults();
+        for (PendingUpdate update : batch) {
+            String message = errors.get(update.result.getTaskId());
+            if (message != null) {
+                update.onError.accept(new RuntimeException(message));
+            }
+        }
+    }
+
+    private static class PendingUpdate {
+
+        private final TaskResult result;
+        private final Consumer<Exception> onError;
+
+        PendingUpdate(TaskResult result, Consumer<Exception> onError) {
+            this.result = result;
+            this.onError = onError;
+        }
+    }
+}
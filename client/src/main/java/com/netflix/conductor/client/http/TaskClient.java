@@ -33,6 +33,7 @@ import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage;
@@ -240,6 +241,18 @@ public class TaskClient extends ClientBase {
         postForEntityWithRequestOnly("tasks", taskResult);
     }
 
+    /**
+     * Updates the results of a batch of executed tasks. Each workflow is evaluated once for all of
+     * its tasks in the batch, instead of once per task.
+     *
+     * @param taskResults the {@link TaskResult}s of the executed tasks to be updated.
+     * @return the {@link BulkResponse} contains bulkErrorResults and bulkSuccessfulResults
+     */
+    public BulkResponse updateTasks(List<TaskResult> taskResults) {
+        Validate.notEmpty(taskResults, "Task results cannot be empty");
+        return postForEntity("tasks/batch", taskResults, null, BulkResponse.class);
+    }
+
     public Optional<String> evaluateAndUploadLargePayload(
             Map<String, Object> taskOutputData, String taskType) {
         try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
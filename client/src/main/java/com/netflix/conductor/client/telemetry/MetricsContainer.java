@@ -21,6 +21,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.DistributionSummary;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Spectator;
@@ -48,6 +49,9 @@ public class MetricsContainer {
     private static final String TASK_LEASE_EXTEND_ERROR = "task_lease_extend_error";
     private static final String TASK_LEASE_EXTEND_COUNTER = "task_lease_extend_counter";
     private static final String TASK_POLL_COUNTER = "task_poll_counter";
+    private static final String TASK_POLL_SIZE = "task_poll_size";
+    private static final String TASK_POLL_EMPTY = "task_poll_empty";
+    private static final String TASK_POLL_BACKOFF = "task_poll_backoff";
     private static final String TASK_EXECUTE_TIME = "task_execute_time";
     private static final String TASK_POLL_TIME = "task_poll_time";
     private static final String TASK_RESULT_SIZE = "task_result_size";
@@ -60,6 +64,8 @@ public class MetricsContainer {
     private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
     private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
     private static final Map<String, AtomicLong> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, DistributionSummary> DISTRIBUTION_SUMMARIES =
+            new ConcurrentHashMap<>();
     private static final String CLASS_NAME = MetricsContainer.class.getSimpleName();
 
     private MetricsContainer() {}
@@ -118,6 +124,17 @@ public class MetricsContainer {
                 });
     }
 
+    private static DistributionSummary getDistributionSummary(
+            String name, String... additionalTags) {
+        String key = CLASS_NAME + "." + name + "." + String.join(",", additionalTags);
+        return DISTRIBUTION_SUMMARIES.computeIfAbsent(
+                key,
+                k -> {
+                    List<Tag> tags = getTags(additionalTags);
+                    return REGISTRY.distributionSummary(name, tags);
+                });
+    }
+
     public static void incrementTaskExecutionQueueFullCount(String taskType) {
         incrementCount(TASK_EXECUTION_QUEUE_FULL, TASK_TYPE, taskType);
     }
@@ -175,6 +192,21 @@ public class MetricsContainer {
         getCounter(TASK_POLL_COUNTER, TASK_TYPE, taskType).increment(taskCount);
     }
 
+    /**
+     * Records the number of tasks returned by a poll. The total amount divided by the count of
+     * the summary is the poll efficiency of the task type, in tasks per poll.
+     */
+    public static void recordTaskPollSize(String taskType, int taskCount) {
+        getDistributionSummary(TASK_POLL_SIZE, TASK_TYPE, taskType).record(taskCount);
+        if (taskCount == 0) {
+            incrementCount(TASK_POLL_EMPTY, TASK_TYPE, taskType);
+        }
+    }
+
+    public static void recordTaskPollBackoff(String taskType, long backoffInMS) {
+        getGauge(TASK_POLL_BACKOFF, TASK_TYPE, taskType).getAndSet(backoffInMS);
+    }
+
     public static void recordWorkflowInputPayloadSize(
             String workflowType, String version, long payloadSize) {
         getGauge(WORKFLOW_INPUT_SIZE, WORKFLOW_TYPE, workflowType, WORKFLOW_VERSION, version)
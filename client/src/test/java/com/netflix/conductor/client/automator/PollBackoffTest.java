@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.client.automator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PollBackoffTest {
+
+    @Test
+    public void testBackoffOnEmptyPolls() {
+        PollBackoff pollBackoff = new PollBackoff(100, 100, 30000);
+        assertEquals(100, pollBackoff.getPollTimeout());
+        assertEquals(100, pollBackoff.getDelay());
+
+        // the first waits are spent in the long poll only
+        pollBackoff.recordPoll(0);
+        assertEquals(0, pollBackoff.getDelay());
+        assertTrue(pollBackoff.getPollTimeout() >= 100 && pollBackoff.getPollTimeout() <= 200);
+
+        long previousMin = 100;
+        for (int i = 2; i < 9; i++) {
+            pollBackoff.recordPoll(0);
+            long backoff = Math.min(30000, 100L << i);
+            assertTrue(pollBackoff.getBackoff() >= backoff / 2);
+            assertTrue(pollBackoff.getBackoff() <= backoff);
+            assertTrue(pollBackoff.getBackoff() >= previousMin);
+            previousMin = backoff / 2;
+        }
+
+        // capped at the max backoff, with the longest long poll accepted by the server
+        for (int i = 0; i < 50; i++) {
+            pollBackoff.recordPoll(0);
+        }
+        assertEquals(PollBackoff.MAX_LONG_POLL_TIMEOUT_MS, pollBackoff.getPollTimeout());
+        assertTrue(pollBackoff.getBackoff() >= 15000);
+        assertTrue(pollBackoff.getBackoff() <= 30000);
+    }
+
+    @Test
+    public void testSnapBackWhenTasksArrive() {
+        PollBackoff pollBackoff = new PollBackoff(100, 50, 30000);
+        for (int i = 0; i < 10; i++) {
+            pollBackoff.recordPoll(0);
+        }
+        assertTrue(pollBackoff.getBackoff() > 100);
+
+        pollBackoff.recordPoll(3);
+        assertEquals(50, pollBackoff.getPollTimeout());
+        assertEquals(100, pollBackoff.getDelay());
+        assertEquals(100, pollBackoff.getBackoff());
+    }
+
+    @Test
+    public void testFirstTaskAfterIdleIsPolledAlone() {
+        PollBackoff pollBackoff = new PollBackoff(100, 100, 30000);
+        assertEquals(10, pollBackoff.getPollCount(10));
+
+        for (int i = 0; i < 10; i++) {
+            pollBackoff.recordPoll(0);
+        }
+        // the server returns a poll early only once it has all its tasks
+        assertTrue(pollBackoff.getPollTimeout() > 100);
+        assertEquals(1, pollBackoff.getPollCount(10));
+        assertEquals(0, pollBackoff.getPollCount(0));
+
+        // the first task after the idle period asks for the free slots again
+        pollBackoff.recordPoll(1);
+        assertEquals(100, pollBackoff.getPollTimeout());
+        assertEquals(9, pollBackoff.getPollCount(9));
+    }
+
+    @Test
+    public void testMissedLongPollWaitsTheBackoff() {
+        PollBackoff pollBackoff = new PollBackoff(100, 100, 30000);
+        pollBackoff.recordMissedLongPoll();
+        assertEquals(100, pollBackoff.getDelay());
+
+        for (int i = 0; i < 5; i++) {
+            pollBackoff.recordPoll(0);
+        }
+        long backoff = pollBackoff.getBackoff();
+        pollBackoff.recordMissedLongPoll();
+        assertEquals(backoff, pollBackoff.getDelay());
+        // not waiting a poll again does not grow the backoff
+        pollBackoff.recordMissedLongPoll();
+        assertEquals(backoff, pollBackoff.getDelay());
+
+        pollBackoff.recordPoll(1);
+        assertEquals(100, pollBackoff.getDelay());
+    }
+}
@@ -34,6 +34,7 @@ import com.netflix.conductor.client.worker.Worker;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.discovery.EurekaClient;
 
 import static com.netflix.conductor.common.metadata.tasks.TaskResult.Status.COMPLETED;
@@ -666,6 +667,197 @@ public class TaskPollExecutorTest {
         verify(taskClient, times(threadCount)).updateTask(any());
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testBatchTaskUpdates() throws InterruptedException {
+        int threadCount = 10;
+        TaskClient taskClient = Mockito.mock(TaskClient.class);
+        Map<String, Integer> taskThreadCount = new HashMap<>();
+        taskThreadCount.put(TEST_TASK_DEF_NAME, threadCount);
+
+        String workerName = "test-worker";
+        Worker worker = mock(Worker.class);
+        when(worker.getBatchPollTimeoutInMS()).thenReturn(1000);
+        when(worker.getTaskDefName()).thenReturn(TEST_TASK_DEF_NAME);
+        when(worker.getIdentity()).thenReturn(workerName);
+        when(worker.execute(any()))
+                .thenAnswer(
+                        invocation -> {
+                            TaskResult taskResult = new TaskResult(invocation.getArgument(0));
+                            taskResult.setStatus(COMPLETED);
+                            return taskResult;
+                        });
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            tasks.add(testTask());
+        }
+        when(taskClient.batchPollTasksInDomain(
+                        TEST_TASK_DEF_NAME, null, workerName, threadCount, 1000))
+                .thenReturn(tasks)
+                .thenReturn(Collections.emptyList());
+
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        List<TaskResult> updatedResults = new CopyOnWriteArrayList<>();
+        Task failedTask = tasks.get(0);
+        doAnswer(
+                        invocation -> {
+                            List<TaskResult> results = invocation.getArgument(0);
+                            BulkResponse bulkResponse = new BulkResponse();
+                            for (TaskResult result : results) {
+                                if (result.getTaskId().equals(failedTask.getTaskId())) {
+                                    bulkResponse.appendFailedResponse(
+                                            result.getTaskId(), "conflict");
+                                } else {
+                                    bulkResponse.appendSuccessResponse(result.getTaskId());
+                                }
+                                updatedResults.add(result);
+                                latch.countDown();
+                            }
+                            return bulkResponse;
+                        })
+                .when(taskClient)
+                .updateTasks(anyList());
+
+        TaskPollExecutor taskPollExecutor =
+                new TaskPollExecutor(
+                        null,
+                        taskClient,
+                        1,
+                        new HashMap<>(),
+                        "test-worker-",
+                        taskThreadCount,
+                        threadCount,
+                        1000,
+                        0);
+        taskPollExecutor.pollAndExecute(worker);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(threadCount, updatedResults.size());
+        verify(taskClient, never()).updateTask(any());
+        // the results of the tasks completing together share the update calls
+        verify(taskClient, atMost(threadCount - 1)).updateTasks(anyList());
+        verify(worker, timeout(1000)).onErrorUpdate(failedTask);
+        taskPollExecutor.shutdown(1);
+    }
+
+    @Test
+    public void testPausedWorkerWaitsBetweenPollAttempts() {
+        TaskClient taskClient = Mockito.mock(TaskClient.class);
+        Map<String, Integer> taskThreadCount = new HashMap<>();
+        taskThreadCount.put(TEST_TASK_DEF_NAME, 1);
+
+        Worker worker = mock(Worker.class);
+        when(worker.getPollingInterval()).thenReturn(100);
+        when(worker.getBatchPollTimeoutInMS()).thenReturn(100);
+        when(worker.getTaskDefName()).thenReturn(TEST_TASK_DEF_NAME);
+        when(worker.getIdentity()).thenReturn("test-worker");
+        when(taskClient.batchPollTasksInDomain(TEST_TASK_DEF_NAME, null, "test-worker", 1, 100))
+                .thenReturn(Collections.emptyList());
+
+        TaskPollExecutor taskPollExecutor =
+                new TaskPollExecutor(
+                        null,
+                        taskClient,
+                        1,
+                        new HashMap<>(),
+                        "test-worker-",
+                        taskThreadCount,
+                        1,
+                        0,
+                        10000);
+        // the empty polls wait in the server long poll, with no client side delay
+        taskPollExecutor.pollAndExecute(worker);
+        taskPollExecutor.pollAndExecute(worker);
+        verify(taskClient, times(2))
+                .batchPollTasksInDomain(TEST_TASK_DEF_NAME, null, "test-worker", 1, 100);
+
+        when(worker.paused()).thenReturn(true);
+        taskPollExecutor.pollAndExecute(worker);
+        verifyNoMoreInteractions(taskClient);
+        // no long poll was waited, so the next attempt waits on the client side
+        assertTrue(taskPollExecutor.getNextPollDelay(worker) >= 100);
+
+        when(worker.paused()).thenReturn(false);
+        taskPollExecutor.pollAndExecute(worker);
+        verify(taskClient, times(3))
+                .batchPollTasksInDomain(
+                        eq(TEST_TASK_DEF_NAME), isNull(), eq("test-worker"), eq(1), anyInt());
+        taskPollExecutor.shutdown(1);
+    }
+
+    @Test
+    public void testFirstTaskAfterIdleIsPolledAlone() throws InterruptedException {
+        int threadCount = 5;
+        TaskClient taskClient = Mockito.mock(TaskClient.class);
+        Map<String, Integer> taskThreadCount = new HashMap<>();
+        taskThreadCount.put(TEST_TASK_DEF_NAME, threadCount);
+
+        Worker worker = mock(Worker.class);
+        when(worker.getPollingInterval()).thenReturn(100);
+        when(worker.getBatchPollTimeoutInMS()).thenReturn(100);
+        when(worker.getTaskDefName()).thenReturn(TEST_TASK_DEF_NAME);
+        when(worker.getIdentity()).thenReturn("test-worker");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(worker.execute(any()))
+                .thenAnswer(
+                        invocation -> {
+                            running.countDown();
+                            release.await();
+                            TaskResult taskResult = new TaskResult(invocation.getArgument(0));
+                            taskResult.setStatus(COMPLETED);
+                            return taskResult;
+                        });
+        when(taskClient.batchPollTasksInDomain(
+                        eq(TEST_TASK_DEF_NAME), isNull(), eq("test-worker"), anyInt(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        TaskPollExecutor taskPollExecutor =
+                new TaskPollExecutor(
+                        null,
+                        taskClient,
+                        1,
+                        new HashMap<>(),
+                        "test-worker-",
+                        taskThreadCount,
+                        1,
+                        0,
+                        30000);
+        taskPollExecutor.pollAndExecute(worker);
+        verify(taskClient)
+                .batchPollTasksInDomain(TEST_TASK_DEF_NAME, null, "test-worker", threadCount, 100);
+
+        // the queue stays idle, the polls move to a longer long poll for a single task
+        for (int i = 0; i < 5; i++) {
+            taskPollExecutor.pollAndExecute(worker);
+        }
+        verify(taskClient, atLeastOnce())
+                .batchPollTasksInDomain(
+                        eq(TEST_TASK_DEF_NAME),
+                        isNull(),
+                        eq("test-worker"),
+                        eq(1),
+                        intThat(pollTimeout -> pollTimeout > 100));
+
+        // the long poll returns the first task as soon as it is scheduled
+        Task task = testTask();
+        when(taskClient.batchPollTasksInDomain(
+                        eq(TEST_TASK_DEF_NAME), isNull(), eq("test-worker"), eq(1), anyInt()))
+                .thenReturn(Collections.singletonList(task));
+        when(taskClient.ack(any(), any())).thenReturn(true);
+        taskPollExecutor.pollAndExecute(worker);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // and the next poll asks for every free slot with the long poll of the worker
+        taskPollExecutor.pollAndExecute(worker);
+        verify(taskClient)
+                .batchPollTasksInDomain(
+                        TEST_TASK_DEF_NAME, null, "test-worker", threadCount - 1, 100);
+        release.countDown();
+        taskPollExecutor.shutdown(1);
+    }
+
     private Task testTask() {
         Task task = new Task();
         task.setTaskId(UUID.randomUUID().toString());
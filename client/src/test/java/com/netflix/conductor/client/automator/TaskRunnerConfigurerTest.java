@@ -114,6 +114,7 @@ public class TaskRunnerConfigurerTest {
         assertEquals(500, configurer.getSleepWhenRetry());
         assertEquals(3, configurer.getUpdateRetryCount());
         assertEquals(10, configurer.getShutdownGracePeriodSeconds());
+        assertEquals(0, configurer.getMaxPollBackoffInMS());
         assertFalse(configurer.getTaskThreadCount().isEmpty());
         assertEquals(1, configurer.getTaskThreadCount().size());
         assertEquals(3, configurer.getTaskThreadCount().get(TEST_TASK_DEF_NAME).intValue());
@@ -125,6 +126,7 @@ public class TaskRunnerConfigurerTest {
                         .withUpdateRetryCount(10)
                         .withShutdownGracePeriodSeconds(15)
                         .withWorkerNamePrefix("test-worker-")
+                        .withMaxPollBackoffInMS(10000)
                         .build();
         assertEquals(100, configurer.getThreadCount());
         configurer.init();
@@ -133,11 +135,19 @@ public class TaskRunnerConfigurerTest {
         assertEquals(10, configurer.getUpdateRetryCount());
         assertEquals(15, configurer.getShutdownGracePeriodSeconds());
         assertEquals("test-worker-", configurer.getWorkerNamePrefix());
+        assertEquals(10000, configurer.getMaxPollBackoffInMS());
         assertFalse(configurer.getTaskThreadCount().isEmpty());
         assertEquals(1, configurer.getTaskThreadCount().size());
         assertEquals(100, configurer.getTaskThreadCount().get(TEST_TASK_DEF_NAME).intValue());
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateBatchSizeAboveTheServerLimit() {
+        Worker worker = Worker.create(TEST_TASK_DEF_NAME, TaskResult::new);
+        new TaskRunnerConfigurer.Builder(client, Collections.singletonList(worker))
+                .withUpdateBatchSize(TaskRunnerConfigurer.MAX_UPDATE_BATCH_SIZE + 1);
+    }
+
     @Test
     public void testMultipleWorkersExecution() throws Exception {
         String task1Name = "task1";
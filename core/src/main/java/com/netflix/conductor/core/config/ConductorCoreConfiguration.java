@@ -40,6 +40,10 @@ import com.netflix.conductor.core.listener.WorkflowStatusListenerStub;
 import com.netflix.conductor.core.storage.DummyPayloadStorage;
 import com.netflix.conductor.core.sync.Lock;
 import com.netflix.conductor.core.sync.noop.NoopLock;
+import com.netflix.conductor.core.utils.JacksonModelSerializer;
+import com.netflix.conductor.core.utils.ModelSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static com.netflix.conductor.core.events.EventQueues.EVENT_QUEUE_PROVIDERS_QUALIFIER;
 import static com.netflix.conductor.core.execution.tasks.SystemTaskRegistry.ASYNC_SYSTEM_TASKS_QUALIFIER;
@@ -80,6 +84,13 @@ public class ConductorCoreConfiguration {
         return new WorkflowStatusListenerStub();
     }
 
+    @Bean
+    public ModelSerializer modelSerializer(
+            ObjectMapper objectMapper, ConductorProperties conductorProperties) {
+        return new JacksonModelSerializer(
+                objectMapper, conductorProperties.getModelSerializationFormat());
+    }
+
     @Bean
     public ExecutorService executorService(ConductorProperties conductorProperties) {
         ThreadFactory threadFactory =
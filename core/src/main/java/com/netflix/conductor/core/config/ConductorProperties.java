@@ -24,6 +24,8 @@ import org.springframework.boot.convert.DurationUnit;
 import org.springframework.util.unit.DataSize;
 import org.springframework.util.unit.DataUnit;
 
+import com.netflix.conductor.core.utils.JacksonModelSerializer;
+
 @ConfigurationProperties("conductor.app")
 public class ConductorProperties {
 
@@ -45,15 +47,47 @@ public class ConductorProperties {
     /** The number of threads to use to do background sweep on active workflows. */
     private int sweeperThreadCount = Runtime.getRuntime().availableProcessors() * 2;
 
+    /**
+     * The maximum number of workflows a sweeper thread takes from the decider queue at once. The
+     * workflows of a batch are loaded from the datastore together, and the decider queue is
+     * updated once per batch.
+     */
+    private int sweeperBatchSize = 10;
+
     /** The number of threads to configure the threadpool in the event processor. */
     private int eventProcessorThreadCount = 2;
 
+    /**
+     * The maximum number of messages of an event queue that the event processor handles together.
+     * The handlers of a batch are looked up once, its event executions are written and its
+     * messages acked in bulk, and the actions of all its messages run concurrently. With a batch
+     * size of 1, the messages are handled one by one.
+     */
+    private int eventProcessorBatchSize = 1;
+
     /** Used to enable/disable the indexing of messages within event payloads. */
     private boolean eventMessageIndexingEnabled = true;
 
     /** Used to enable/disable the indexing of event execution results. */
     private boolean eventExecutionIndexingEnabled = true;
 
+    /**
+     * The time interval (in milliseconds) at which the in-memory index of the active event
+     * handlers checks the datastore for the changes made by other servers. A zero interval
+     * disables the index, and the handlers of every event message are read from the datastore.
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration eventHandlerIndexRefreshInterval = Duration.ofMillis(1000);
+
+    /**
+     * The time interval (in seconds) at which the in-memory index of the active event handlers is
+     * fully reloaded from a datastore that does not version the event handlers, and thus cannot be
+     * checked for changes at every {@link #eventHandlerIndexRefreshInterval}. It defaults to the
+     * refresh interval of the event handler cache of the Cassandra persistence.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration eventHandlerIndexReloadInterval = Duration.ofSeconds(60);
+
     /** Used to enable/disable the workflow execution lock. */
     private boolean workflowExecutionLockEnabled = false;
 
@@ -109,6 +143,20 @@ public class ConductorProperties {
      */
     private int isolatedSystemTaskWorkerThreadCount = 1;
 
+    /**
+     * Used to enable/disable running the system task workers on virtual threads, when the JVM
+     * supports them (Java 21+). The poll loops and the executions of the async system tasks then
+     * run on virtual threads, and the thread counts are replaced by {@link
+     * #systemTaskWorkerMaxConcurrency}.
+     */
+    private boolean systemTaskWorkerVirtualThreadsEnabled = false;
+
+    /**
+     * The maximum number of async system tasks executed at the same time for each queue, when the
+     * system task workers run on virtual threads.
+     */
+    private int systemTaskWorkerMaxConcurrency = 1000;
+
     /**
      * The duration of workflow execution which qualifies a workflow as a short-running workflow
      * when async indexing to elasticsearch is enabled.
@@ -123,6 +171,20 @@ public class ConductorProperties {
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration asyncUpdateDelay = Duration.ofSeconds(60);
 
+    /**
+     * The maximum number of short-running workflows waiting in memory to be indexed after the
+     * {@link #asyncUpdateDelay}. Beyond it, the workflows wait in the queue of the {@link
+     * com.netflix.conductor.dao.QueueDAO} used when {@link
+     * #asyncUpdateDelayQueuePersistenceEnabled}.
+     */
+    private int asyncUpdateDelayQueueCapacity = 100000;
+
+    /**
+     * Used to keep the short-running workflows waiting to be indexed in a queue of the {@link
+     * com.netflix.conductor.dao.QueueDAO} rather than in memory, so that they survive restarts.
+     */
+    private boolean asyncUpdateDelayQueuePersistenceEnabled = false;
+
     /**
      * Used to control the validation for owner email field as mandatory within workflow and task
      * definitions.
@@ -138,6 +200,13 @@ public class ConductorProperties {
     /** The time interval (in milliseconds) at which the default event queues will be polled. */
     private Duration eventQueuePollInterval = Duration.ofMillis(100);
 
+    /**
+     * The longest time interval (in milliseconds) at which an empty default event queue is polled.
+     * The poll interval doubles after every empty poll up to this value, and is reset when messages
+     * are received. When equal to the poll interval, the queues are polled at a fixed interval.
+     */
+    private Duration eventQueueMaxPollInterval = Duration.ofMillis(100);
+
     /** The number of messages to be polled from a default event queue in a single operation. */
     private int eventQueuePollCount = 10;
 
@@ -207,9 +276,44 @@ public class ConductorProperties {
     @DataSizeUnit(DataUnit.KILOBYTES)
     private DataSize maxWorkflowVariablesPayloadSizeThreshold = DataSize.ofKilobytes(256L);
 
+    /**
+     * The maximum size in MB of the downloaded external payloads kept in memory, weighted by their
+     * JSON size. Payloads are immutable once stored, so the workflows that are decided many times
+     * do not download them again. Zero disables the cache.
+     */
+    @DataSizeUnit(DataUnit.MEGABYTES)
+    private DataSize externalPayloadCacheSize = DataSize.ofMegabytes(0L);
+
+    /**
+     * The directory in which the downloaded external payloads are also kept on disk, for the large
+     * payloads that do not stay in memory. The files of the cache are deleted on startup, the other
+     * files of the directory are left alone. If not set, payloads are only cached in memory.
+     */
+    private String externalPayloadCacheDirectory = null;
+
+    /** The maximum size in MB of the external payloads kept in the cache directory. */
+    @DataSizeUnit(DataUnit.MEGABYTES)
+    private DataSize externalPayloadCacheDirectorySize = DataSize.ofMegabytes(1024L);
+
     /** Used to limit the size of task execution logs. */
     private int taskExecLogSizeLimit = 10;
 
+    /**
+     * Used to enable/disable incremental decisions. After a task update, the decider only checks
+     * the timeouts of the scheduled and in progress tasks that did not change since the previous
+     * decision, and of the asynchronous system tasks, and does not schedule them or their
+     * successors again. It still walks all the tasks of the workflow, and decides again after
+     * every state change. The decisions of the sweeper evaluate every pending task.
+     */
+    private boolean incrementalDecideEnabled = false;
+
+    /**
+     * The format in which the execution DAOs write the workflows and tasks. Records in any format
+     * are read back, so the format can be changed on a live datastore.
+     */
+    private JacksonModelSerializer.Format modelSerializationFormat =
+            JacksonModelSerializer.Format.JSON;
+
     public String getStack() {
         return stack;
     }
@@ -250,6 +354,14 @@ public class ConductorProperties {
         this.sweeperThreadCount = sweeperThreadCount;
     }
 
+    public int getSweeperBatchSize() {
+        return sweeperBatchSize;
+    }
+
+    public void setSweeperBatchSize(int sweeperBatchSize) {
+        this.sweeperBatchSize = sweeperBatchSize;
+    }
+
     public int getEventProcessorThreadCount() {
         return eventProcessorThreadCount;
     }
@@ -258,6 +370,14 @@ public class ConductorProperties {
         this.eventProcessorThreadCount = eventProcessorThreadCount;
     }
 
+    public int getEventProcessorBatchSize() {
+        return eventProcessorBatchSize;
+    }
+
+    public void setEventProcessorBatchSize(int eventProcessorBatchSize) {
+        this.eventProcessorBatchSize = eventProcessorBatchSize;
+    }
+
     public boolean isEventMessageIndexingEnabled() {
         return eventMessageIndexingEnabled;
     }
@@ -266,6 +386,22 @@ public class ConductorProperties {
         this.eventMessageIndexingEnabled = eventMessageIndexingEnabled;
     }
 
+    public Duration getEventHandlerIndexRefreshInterval() {
+        return eventHandlerIndexRefreshInterval;
+    }
+
+    public void setEventHandlerIndexRefreshInterval(Duration eventHandlerIndexRefreshInterval) {
+        this.eventHandlerIndexRefreshInterval = eventHandlerIndexRefreshInterval;
+    }
+
+    public Duration getEventHandlerIndexReloadInterval() {
+        return eventHandlerIndexReloadInterval;
+    }
+
+    public void setEventHandlerIndexReloadInterval(Duration eventHandlerIndexReloadInterval) {
+        this.eventHandlerIndexReloadInterval = eventHandlerIndexReloadInterval;
+    }
+
     public boolean isEventExecutionIndexingEnabled() {
         return eventExecutionIndexingEnabled;
     }
@@ -370,6 +506,23 @@ public class ConductorProperties {
         this.isolatedSystemTaskWorkerThreadCount = isolatedSystemTaskWorkerThreadCount;
     }
 
+    public boolean isSystemTaskWorkerVirtualThreadsEnabled() {
+        return systemTaskWorkerVirtualThreadsEnabled;
+    }
+
+    public void setSystemTaskWorkerVirtualThreadsEnabled(
+            boolean systemTaskWorkerVirtualThreadsEnabled) {
+        this.systemTaskWorkerVirtualThreadsEnabled = systemTaskWorkerVirtualThreadsEnabled;
+    }
+
+    public int getSystemTaskWorkerMaxConcurrency() {
+        return systemTaskWorkerMaxConcurrency;
+    }
+
+    public void setSystemTaskWorkerMaxConcurrency(int systemTaskWorkerMaxConcurrency) {
+        this.systemTaskWorkerMaxConcurrency = systemTaskWorkerMaxConcurrency;
+    }
+
     public Duration getAsyncUpdateShortRunningWorkflowDuration() {
         return asyncUpdateShortRunningWorkflowDuration;
     }
@@ -387,6 +540,23 @@ public class ConductorProperties {
         this.asyncUpdateDelay = asyncUpdateDelay;
     }
 
+    public int getAsyncUpdateDelayQueueCapacity() {
+        return asyncUpdateDelayQueueCapacity;
+    }
+
+    public void setAsyncUpdateDelayQueueCapacity(int asyncUpdateDelayQueueCapacity) {
+        this.asyncUpdateDelayQueueCapacity = asyncUpdateDelayQueueCapacity;
+    }
+
+    public boolean isAsyncUpdateDelayQueuePersistenceEnabled() {
+        return asyncUpdateDelayQueuePersistenceEnabled;
+    }
+
+    public void setAsyncUpdateDelayQueuePersistenceEnabled(
+            boolean asyncUpdateDelayQueuePersistenceEnabled) {
+        this.asyncUpdateDelayQueuePersistenceEnabled = asyncUpdateDelayQueuePersistenceEnabled;
+    }
+
     public boolean isOwnerEmailMandatory() {
         return ownerEmailMandatory;
     }
@@ -411,6 +581,14 @@ public class ConductorProperties {
         this.eventQueuePollInterval = eventQueuePollInterval;
     }
 
+    public Duration getEventQueueMaxPollInterval() {
+        return eventQueueMaxPollInterval;
+    }
+
+    public void setEventQueueMaxPollInterval(Duration eventQueueMaxPollInterval) {
+        this.eventQueueMaxPollInterval = eventQueueMaxPollInterval;
+    }
+
     public int getEventQueuePollCount() {
         return eventQueuePollCount;
     }
@@ -502,6 +680,30 @@ public class ConductorProperties {
         this.maxWorkflowVariablesPayloadSizeThreshold = maxWorkflowVariablesPayloadSizeThreshold;
     }
 
+    public DataSize getExternalPayloadCacheSize() {
+        return externalPayloadCacheSize;
+    }
+
+    public void setExternalPayloadCacheSize(DataSize externalPayloadCacheSize) {
+        this.externalPayloadCacheSize = externalPayloadCacheSize;
+    }
+
+    public String getExternalPayloadCacheDirectory() {
+        return externalPayloadCacheDirectory;
+    }
+
+    public void setExternalPayloadCacheDirectory(String externalPayloadCacheDirectory) {
+        this.externalPayloadCacheDirectory = externalPayloadCacheDirectory;
+    }
+
+    public DataSize getExternalPayloadCacheDirectorySize() {
+        return externalPayloadCacheDirectorySize;
+    }
+
+    public void setExternalPayloadCacheDirectorySize(DataSize externalPayloadCacheDirectorySize) {
+        this.externalPayloadCacheDirectorySize = externalPayloadCacheDirectorySize;
+    }
+
     public int getTaskExecLogSizeLimit() {
         return taskExecLogSizeLimit;
     }
@@ -510,6 +712,23 @@ public class ConductorProperties {
         this.taskExecLogSizeLimit = taskExecLogSizeLimit;
     }
 
+    public boolean isIncrementalDecideEnabled() {
+        return incrementalDecideEnabled;
+    }
+
+    public void setIncrementalDecideEnabled(boolean incrementalDecideEnabled) {
+        this.incrementalDecideEnabled = incrementalDecideEnabled;
+    }
+
+    public JacksonModelSerializer.Format getModelSerializationFormat() {
+        return modelSerializationFormat;
+    }
+
+    public void setModelSerializationFormat(
+            JacksonModelSerializer.Format modelSerializationFormat) {
+        this.modelSerializationFormat = modelSerializationFormat;
+    }
+
     /**
      * @return Returns all the configurations in a map.
      */
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.QueueDAO;
+import com.netflix.conductor.metrics.Monitors;
+
+/**
+ * Indexes short-running workflows once {@link ConductorProperties#getAsyncUpdateDelay()} has
+ * passed, so that their final state is not overwritten in the index by the asynchronous writes of
+ * their earlier states. The updates of a workflow that is already waiting are coalesced into a
+ * single write, which indexes the latest state of the workflow.
+ *
+ * <p>The workflow ids wait either in a bounded in-memory queue, or in a {@link QueueDAO} queue that
+ * survives restarts when {@link ConductorProperties#isAsyncUpdateDelayQueuePersistenceEnabled()}.
+ * When the in-memory queue is full, the workflows overflow to the {@link QueueDAO} queue, and they
+ * are only dropped, with a metric, if it cannot be written either.
+ */
+class DelayedWorkflowIndexer {
+
+    static final String QUEUE_NAME = "_delayedWorkflowIndexQueue";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DelayedWorkflowIndexer.class);
+
+    private static final String METRIC_QUEUE_TYPE = "delayQueue";
+    private static final int INDEXING_THREAD_COUNT = 4;
+    private static final int BATCH_SIZE = 100;
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+
+    private final QueueDAO queueDAO;
+    private final ConductorProperties properties;
+    /** Indexes the latest state of the workflow, and returns whether it succeeded. */
+    private final Predicate<String> indexer;
+
+    /** The workflows waiting in memory, in the order they are due as they have the same delay. */
+    private final Queue<PendingWorkflow> pendingWorkflows = new ConcurrentLinkedQueue<>();
+
+    private final Set<String> pendingWorkflowIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the {@link QueueDAO} queue may hold workflows without the persistence being enabled,
+     * from an overflow of the in-memory queue. Initially set so that the leftovers of a previous
+     * run are indexed too.
+     */
+    private final AtomicBoolean overflowQueued = new AtomicBoolean(true);
+
+    private final ScheduledExecutorService pollExecutor;
+    private final ExecutorService indexingExecutor;
+
+    DelayedWorkflowIndexer(
+            QueueDAO queueDAO, ConductorProperties properties, Predicate<String> indexer) {
+        this.queueDAO = queueDAO;
+        this.properties = properties;
+        this.indexer = indexer;
+        this.pollExecutor =
+                Executors.newSingleThreadScheduledExecutor(
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("delayed-workflow-index-poller-%d")
+                                .daemon(true)
+                                .build());
+        this.indexingExecutor =
+                Executors.newFixedThreadPool(
+                        INDEXING_THREAD_COUNT,
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("delayed-workflow-indexer-%d")
+                                .daemon(true)
+                                .build());
+        if (properties.isAsyncIndexingEnabled()) {
+            pollExecutor.scheduleWithFixedDelay(
+                    this::indexDueWorkflows,
+                    POLL_INTERVAL_MILLIS,
+                    POLL_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Schedules the indexing of the workflow after the delay, unless it is already scheduled. */
+    void schedule(String workflowId) {
+        if (properties.isAsyncUpdateDelayQueuePersistenceEnabled()) {
+            pushToQueue(workflowId);
+            return;
+        }
+        // an update of a workflow that is already waiting is coalesced, even when the queue is full
+        if (!pendingWorkflowIds.contains(workflowId)
+                && pendingWorkflowIds.size() >= properties.getAsyncUpdateDelayQueueCapacity()) {
+            overflowToQueue(workflowId);
+            return;
+        }
+        boolean added = pendingWorkflowIds.add(workflowId);
+        Monitors.recordDelayedIndexRequest(!added);
+        if (added) {
+            long dueTime = System.currentTimeMillis() + properties.getAsyncUpdateDelay().toMillis();
+            pendingWorkflows.add(new PendingWorkflow(workflowId, dueTime));
+            Monitors.recordWorkerQueueSize(METRIC_QUEUE_TYPE, pendingWorkflowIds.size());
+        }
+    }
+
+    private void pushToQueue(String workflowId) {
+        boolean added =
+                queueDAO.pushIfNotExists(
+                        QUEUE_NAME, workflowId, properties.getAsyncUpdateDelay().getSeconds());
+        Monitors.recordDelayedIndexRequest(!added);
+    }
+
+    private void overflowToQueue(String workflowId) {
+        try {
+            pushToQueue(workflowId);
+            // set once pushed, so that the next poll of the queue finds the workflow
+            overflowQueued.set(true);
+            Monitors.recordDelayedIndexOverflow(false);
+        } catch (Exception e) {
+            LOGGER.warn(
+                    "Too many workflows waiting to be indexed, workflow: {} will not be indexed"
+                            + " after the delay",
+                    workflowId,
+                    e);
+            Monitors.recordDelayedIndexOverflow(true);
+        }
+    }
+
+    void indexDueWorkflows() {
+        try {
+            if (properties.isAsyncUpdateDelayQueuePersistenceEnabled()
+                    || overflowQueued.getAndSet(false)) {
+                long queueSize = indexDueQueuedWorkflows();
+                if (queueSize > 0) {
+                    // the workflows that are not due yet are polled again
+                    overflowQueued.set(true);
+                }
+            }
+            // the workflows left in memory when the persistence was enabled are still indexed
+            indexDueWorkflowsInMemory(System.currentTimeMillis());
+        } catch (Exception e) {
+            LOGGER.error("Unable to index the delayed workflows", e);
+        }
+    }
+
+    /**
+     * @return the number of workflows left in the queue
+     */
+    private long indexDueQueuedWorkflows() throws InterruptedException {
+        List<String> workflowIds;
+        do {
+            workflowIds = queueDAO.pop(QUEUE_NAME, BATCH_SIZE, 100);
+            List<String> indexed = index(workflowIds);
+            if (!indexed.isEmpty()) {
+                queueDAO.ackMessages(QUEUE_NAME, indexed);
+            }
+            // the workflows that failed are indexed again once their message is unacked
+        } while (workflowIds.size() == BATCH_SIZE);
+        long queueSize = queueDAO.getSize(QUEUE_NAME);
+        Monitors.recordWorkerQueueSize(METRIC_QUEUE_TYPE, queueSize);
+        return queueSize;
+    }
+
+    private void indexDueWorkflowsInMemory(long now) throws InterruptedException {
+        while (isDue(pendingWorkflows.peek(), now)) {
+            List<String> workflowIds = new ArrayList<>(BATCH_SIZE);
+            PendingWorkflow pendingWorkflow;
+            while (workflowIds.size() < BATCH_SIZE
+                    && isDue(pendingWorkflow = pendingWorkflows.peek(), now)) {
+                pendingWorkflows.poll();
+                // removed before indexing, so that a later update is scheduled again
+                pendingWorkflowIds.remove(pendingWorkflow.workflowId);
+                Monitors.recordDelayedIndexLag(now - pendingWorkflow.dueTime);
+                workflowIds.add(pendingWorkflow.workflowId);
+            }
+            index(workflowIds);
+        }
+        Monitors.recordWorkerQueueSize(METRIC_QUEUE_TYPE, pendingWorkflowIds.size());
+    }
+
+    private boolean isDue(PendingWorkflow pendingWorkflow, long now) {
+        return pendingWorkflow != null && pendingWorkflow.dueTime <= now;
+    }
+
+    /**
+     * Indexes the batch with a fixed number of threads, and only returns once it is done, so that
+     * the workflows waiting to be indexed never pile up in the queue of an executor.
+     *
+     * @return the ids of the workflows that were indexed
+     */
+    private List<String> index(List<String> workflowIds) throws InterruptedException {
+        List<Callable<Boolean>> tasks =
+                workflowIds.stream()
+                        .map(id -> (Callable<Boolean>) () -> indexer.test(id))
+                        .collect(Collectors.toList());
+        List<String> indexed = new ArrayList<>(workflowIds.size());
+        List<Future<Boolean>> results = indexingExecutor.invokeAll(tasks);
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (results.get(i).get()) {
+                    indexed.add(workflowIds.get(i));
+                }
+            } catch (ExecutionException e) {
+                LOGGER.error("Unable to index workflow: {}", workflowIds.get(i), e.getCause());
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Stops polling, and indexes the workflows waiting in memory as they become due, which takes at
+     * most one delay. The workflows waiting in the {@link QueueDAO} are left there.
+     */
+    void shutdown() {
+        pollExecutor.shutdown();
+        try {
+            pollExecutor.awaitTermination(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            PendingWorkflow pendingWorkflow;
+            while ((pendingWorkflow = pendingWorkflows.peek()) != null) {
+                long wait = pendingWorkflow.dueTime - System.currentTimeMillis();
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+                indexDueWorkflowsInMemory(System.currentTimeMillis());
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn(
+                    "Shutdown interrupted, {} workflows were not indexed",
+                    pendingWorkflowIds.size());
+            Thread.currentThread().interrupt();
+        } finally {
+            indexingExecutor.shutdownNow();
+        }
+    }
+
+    private static class PendingWorkflow {
+
+        private final String workflowId;
+        private final long dueTime;
+
+        PendingWorkflow(String workflowId, long dueTime) {
+            this.workflowId = workflowId;
+            this.dueTime = dueTime;
+        }
+    }
+}
@@ -13,12 +13,13 @@
 package com.netflix.conductor.core.dal;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
@@ -77,7 +78,9 @@ public class ExecutionDAOFacade {
     private final ConductorProperties properties;
     private final ExternalPayloadStorageUtils externalPayloadStorageUtils;
 
-    private final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor;
+    private final DelayedWorkflowIndexer delayedWorkflowIndexer;
+
+    private volatile boolean concurrencyLimitReleaseSupported = true;
 
     public ExecutionDAOFacade(
             ExecutionDAO executionDAO,
@@ -98,39 +101,14 @@ public class ExecutionDAOFacade {
         this.objectMapper = objectMapper;
         this.properties = properties;
         this.externalPayloadStorageUtils = externalPayloadStorageUtils;
-        this.scheduledThreadPoolExecutor =
-                new ScheduledThreadPoolExecutor(
-                        4,
-                        (runnable, executor) -> {
-                            LOGGER.warn(
-                                    "Request {} to delay updating index dropped in executor {}",
-                                    runnable,
-                                    executor);
-                            Monitors.recordDiscardedIndexingCount("delayQueue");
-                        });
-        this.scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+        this.delayedWorkflowIndexer =
+                new DelayedWorkflowIndexer(queueDAO, properties, this::indexWorkflow);
     }
 
     @PreDestroy
     public void shutdownExecutorService() {
-        try {
-            LOGGER.info("Gracefully shutdown executor service");
-            scheduledThreadPoolExecutor.shutdown();
-            if (scheduledThreadPoolExecutor.awaitTermination(
-                    properties.getAsyncUpdateDelay().getSeconds(), TimeUnit.SECONDS)) {
-                LOGGER.debug("tasks completed, shutting down");
-            } else {
-                LOGGER.warn(
-                        "Forcing shutdown after waiting for {} seconds",
-                        properties.getAsyncUpdateDelay());
-                scheduledThreadPoolExecutor.shutdownNow();
-            }
-        } catch (InterruptedException ie) {
-            LOGGER.warn(
-                    "Shutdown interrupted, invoking shutdownNow on scheduledThreadPoolExecutor for delay queue");
-            scheduledThreadPoolExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        LOGGER.info("Gracefully shutdown the delayed workflow indexer");
+        delayedWorkflowIndexer.shutdown();
     }
 
     public WorkflowModel getWorkflowModel(String workflowId, boolean includeTasks) {
@@ -139,6 +117,21 @@ public class ExecutionDAOFacade {
         return workflowModel;
     }
 
+    /**
+     * Fetches several workflows from the {@link ExecutionDAO} at once, with their payloads. Unlike
+     * {@link #getWorkflowModel(String, boolean)}, this does not fall back to the {@link IndexDAO}.
+     *
+     * @param workflowIds the ids of the workflows to be fetched
+     * @param includeTasks if true, fetches the {@link Task} data in the workflows.
+     * @return the workflows found in the {@link ExecutionDAO}, in the order of the given ids
+     */
+    public List<WorkflowModel> getWorkflowModels(
+            Collection<String> workflowIds, boolean includeTasks) {
+        List<WorkflowModel> workflowModels = executionDAO.getWorkflows(workflowIds, includeTasks);
+        workflowModels.forEach(this::populateWorkflowAndTaskPayloadData);
+        return workflowModels;
+    }
+
     /**
      * Fetches the {@link Workflow} object from the data store given the id. Attempts to fetch from
      * {@link ExecutionDAO} first, if not found, attempts to fetch from {@link IndexDAO}.
@@ -194,10 +187,23 @@ public class ExecutionDAOFacade {
             String query =
                     "correlationId='" + correlationId + "' AND workflowType='" + workflowName + "'";
             SearchResult<String> result = indexDAO.searchWorkflows(query, "*", 0, 1000, null);
+            // load the workflows still in the primary datastore at once, the rest is looked up
+            // one by one in the index
+            Map<String, WorkflowModel> workflows =
+                    executionDAO.getWorkflows(result.getResults(), includeTasks).stream()
+                            .collect(
+                                    Collectors.toMap(
+                                            WorkflowModel::getWorkflowId,
+                                            Function.identity(),
+                                            (a, b) -> a));
             return result.getResults().stream()
                     .parallel()
                     .map(
                             workflowId -> {
+                                WorkflowModel workflow = workflows.get(workflowId);
+                                if (workflow != null) {
+                                    return workflow.toWorkflow();
+                                }
                                 try {
                                     return getWorkflow(workflowId, includeTasks);
                                 } catch (NotFoundException e) {
@@ -296,17 +302,11 @@ public class ExecutionDAOFacade {
                     && workflowModel.getEndTime() - workflowModel.getCreateTime()
                             < properties.getAsyncUpdateShortRunningWorkflowDuration().toMillis()) {
                 final String workflowId = workflowModel.getWorkflowId();
-                DelayWorkflowUpdate delayWorkflowUpdate = new DelayWorkflowUpdate(workflowId);
                 LOGGER.debug(
                         "Delayed updating workflow: {} in the index by {} seconds",
                         workflowId,
                         properties.getAsyncUpdateDelay());
-                scheduledThreadPoolExecutor.schedule(
-                        delayWorkflowUpdate,
-                        properties.getAsyncUpdateDelay().getSeconds(),
-                        TimeUnit.SECONDS);
-                Monitors.recordWorkerQueueSize(
-                        "delayQueue", scheduledThreadPoolExecutor.getQueue().size());
+                delayedWorkflowIndexer.schedule(workflowId);
             } else {
                 indexDAO.asyncIndexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
             }
@@ -428,6 +428,19 @@ public class ExecutionDAOFacade {
         return taskModel;
     }
 
+    /**
+     * @return the tasks with the given ids that exist, read at once where the datastore supports
+     *     it
+     */
+    public List<TaskModel> getTaskModels(List<String> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<TaskModel> taskModels = executionDAO.getTasks(taskIds);
+        taskModels.forEach(this::populateTaskData);
+        return taskModels;
+    }
+
     public Task getTask(String taskId) {
         TaskModel taskModel = getTaskFromDatastore(taskId);
         if (taskModel != null) {
@@ -467,6 +480,28 @@ public class ExecutionDAOFacade {
      *     payload fails.
      */
     public void updateTask(TaskModel taskModel) {
+        prepareTaskUpdate(taskModel);
+        executionDAO.updateTask(taskModel);
+        releaseConcurrencyLimitIfTerminal(taskModel);
+        indexTaskUpdate(taskModel);
+    }
+
+    /**
+     * Updates the tasks with a single write to the datastore where it supports it.
+     *
+     * @see #updateTask(TaskModel)
+     */
+    public void updateTasks(List<TaskModel> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        tasks.forEach(this::prepareTaskUpdate);
+        executionDAO.updateTasks(tasks);
+        tasks.forEach(this::releaseConcurrencyLimitIfTerminal);
+        tasks.forEach(this::indexTaskUpdate);
+    }
+
+    private void prepareTaskUpdate(TaskModel taskModel) {
         if (taskModel.getStatus() != null) {
             if (!taskModel.getStatus().isTerminal()
                     || (taskModel.getStatus().isTerminal() && taskModel.getUpdateTime() == 0)) {
@@ -477,7 +512,9 @@ public class ExecutionDAOFacade {
             }
         }
         externalizeTaskData(taskModel);
-        executionDAO.updateTask(taskModel);
+    }
+
+    private void indexTaskUpdate(TaskModel taskModel) {
         try {
             /*
              * Indexing a task for every update adds a lot of volume. That is ok but if async indexing
@@ -501,12 +538,60 @@ public class ExecutionDAOFacade {
         }
     }
 
-    public void updateTasks(List<TaskModel> tasks) {
-        tasks.forEach(this::updateTask);
-    }
-
     public void removeTask(String taskId) {
+        TaskModel taskModel = hasSeparateConcurrencyLimits() ? executionDAO.getTask(taskId) : null;
         executionDAO.removeTask(taskId);
+        if (taskModel != null) {
+            releaseConcurrencyLimit(taskModel);
+        }
+    }
+
+    /**
+     * Removes a task already loaded by the caller, which saves reading it again to free its slot
+     * against the concurrency limit of its definition.
+     *
+     * @see #removeTask(String)
+     */
+    public void removeTask(TaskModel taskModel) {
+        executionDAO.removeTask(taskModel.getTaskId());
+        if (hasSeparateConcurrencyLimits()) {
+            releaseConcurrencyLimit(taskModel);
+        }
+    }
+
+    private void releaseConcurrencyLimitIfTerminal(TaskModel taskModel) {
+        if (hasSeparateConcurrencyLimits()
+                && taskModel.getStatus() != null
+                && taskModel.getStatus().isTerminal()) {
+            releaseConcurrencyLimit(taskModel);
+        }
+    }
+
+    /**
+     * Frees the slot taken by the task against the concurrency limit of its definition, which
+     * {@link ConcurrentExecutionLimitDAO#exceedsLimit(TaskModel)} took when it admitted the task.
+     */
+    private void releaseConcurrencyLimit(TaskModel taskModel) {
+        if (concurrencyLimitReleaseSupported
+                && taskModel.getTaskDefinition().map(TaskDef::concurrencyLimit).orElse(0) > 0) {
+            try {
+                concurrentExecutionLimitDAO.removeTaskFromLimit(taskModel);
+            } catch (UnsupportedOperationException e) {
+                // the DAO only counts the tasks in progress, there is no slot to free
+                concurrencyLimitReleaseSupported = false;
+                LOGGER.info(
+                        "{} does not track the concurrency limit slots, they are not released",
+                        concurrentExecutionLimitDAO.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * @return true if the concurrency limits are not counted by the {@link ExecutionDAO} itself,
+     *     which releases the slots of the tasks as part of its own updates
+     */
+    private boolean hasSeparateConcurrencyLimits() {
+        return concurrentExecutionLimitDAO != executionDAO;
     }
 
     public void extendLease(TaskModel taskModel) {
@@ -563,11 +648,35 @@ public class ExecutionDAOFacade {
         return added;
     }
 
+    /**
+     * Saves several {@link EventExecution}s at once.
+     *
+     * @see #addEventExecution(EventExecution)
+     *
+     * @return the event executions that were saved, the others being already stored
+     */
+    public List<EventExecution> addEventExecutions(List<EventExecution> eventExecutions) {
+        if (eventExecutions.isEmpty()) {
+            return eventExecutions;
+        }
+        List<EventExecution> added = executionDAO.addEventExecutions(eventExecutions);
+        added.forEach(this::indexEventExecution);
+        return added;
+    }
+
     public void updateEventExecution(EventExecution eventExecution) {
         executionDAO.updateEventExecution(eventExecution);
         indexEventExecution(eventExecution);
     }
 
+    public void updateEventExecutions(List<EventExecution> eventExecutions) {
+        if (eventExecutions.isEmpty()) {
+            return;
+        }
+        executionDAO.updateEventExecutions(eventExecutions);
+        eventExecutions.forEach(this::indexEventExecution);
+    }
+
     private void indexEventExecution(EventExecution eventExecution) {
         if (properties.isEventExecutionIndexingEnabled()) {
             if (properties.isAsyncIndexingEnabled()) {
@@ -582,10 +691,24 @@ public class ExecutionDAOFacade {
         executionDAO.removeEventExecution(eventExecution);
     }
 
+    public void removeEventExecutions(List<EventExecution> eventExecutions) {
+        if (!eventExecutions.isEmpty()) {
+            executionDAO.removeEventExecutions(eventExecutions);
+        }
+    }
+
     public boolean exceedsInProgressLimit(TaskModel task) {
         return concurrentExecutionLimitDAO.exceedsLimit(task);
     }
 
+    /**
+     * @return the ids of the tasks that would exceed the concurrency limit of their definition
+     * @see #exceedsInProgressLimit(TaskModel)
+     */
+    public Set<String> getTasksExceedingInProgressLimit(List<TaskModel> tasks) {
+        return concurrentExecutionLimitDAO.getTasksExceedingLimit(tasks);
+    }
+
     public boolean exceedsRateLimitPerFrequency(TaskModel task, TaskDef taskDef) {
         return rateLimitingDao.exceedsRateLimitPerFrequency(task, taskDef);
     }
@@ -701,22 +824,22 @@ public class ExecutionDAOFacade {
         }
     }
 
-    class DelayWorkflowUpdate implements Runnable {
-
-        private final String workflowId;
-
-        DelayWorkflowUpdate(String workflowId) {
-            this.workflowId = workflowId;
-        }
-
-        @Override
-        public void run() {
-            try {
-                WorkflowModel workflowModel = executionDAO.getWorkflow(workflowId, false);
-                indexDAO.asyncIndexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
-            } catch (Exception e) {
-                LOGGER.error("Unable to update workflow: {}", workflowId, e);
+    /**
+     * Indexes the latest state of the workflow, used to index it after a delay. The write is
+     * synchronous, so that the workflow is only reported as indexed once it is.
+     */
+    private boolean indexWorkflow(String workflowId) {
+        try {
+            WorkflowModel workflowModel = executionDAO.getWorkflow(workflowId, false);
+            if (workflowModel == null) {
+                LOGGER.debug("Workflow: {} was removed before being indexed", workflowId);
+                return true;
             }
+            indexDAO.indexWorkflow(new WorkflowSummary(workflowModel.toWorkflow()));
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Unable to update workflow: {}", workflowId, e);
+            return false;
         }
     }
 }
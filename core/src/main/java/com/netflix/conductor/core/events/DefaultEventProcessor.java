@@ -14,8 +14,11 @@ package com.netflix.conductor.core.events;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -138,6 +141,74 @@ public class DefaultEventProcessor {
         }
     }
 
+    /**
+     * Handles a batch of messages received on the queue. The event handlers are looked up once for
+     * the batch, the event executions of all its messages are written in bulk, the actions of all
+     * its messages run concurrently, and the messages are acked (or re-published) together.
+     *
+     * <p>A message is retried, like with {@link #handle(ObservableQueue, Message)}, when one of its
+     * actions failed with a transient error. The whole batch is retried when the batch itself
+     * failed with a transient error, e.g. while looking up the event handlers or storing the event
+     * executions.
+     */
+    public void handle(ObservableQueue queue, List<Message> messages) {
+        Set<String> transientFailures = Collections.emptySet();
+        boolean executionFailed = false;
+        boolean batchFailed = false;
+        try {
+            if (isEventMessageIndexingEnabled) {
+                // no bulk variant is needed, the index DAOs already buffer the messages in bulk
+                // requests
+                messages.forEach(msg -> executionService.addMessage(queue.getName(), msg));
+            }
+            String event = queue.getType() + ":" + queue.getName();
+            LOGGER.debug("Evaluating {} messages for event: {}", messages.size(), event);
+            transientFailures = executeEvent(event, messages);
+        } catch (Exception e) {
+            if (isTransientException(e)) {
+                batchFailed = true;
+                LOGGER.warn(
+                        "Transient error handling {} messages on queue:{}, they will be retried",
+                        messages.size(),
+                        queue.getName(),
+                        e);
+            } else {
+                executionFailed = true;
+                LOGGER.error(
+                        "Error handling {} messages on queue:{}",
+                        messages.size(),
+                        queue.getName(),
+                        e);
+            }
+            for (int i = 0; i < messages.size(); i++) {
+                Monitors.recordEventQueueMessagesError(queue.getType(), queue.getName());
+            }
+        } finally {
+            List<Message> toAck = new ArrayList<>(messages.size());
+            List<Message> toRetry = new ArrayList<>();
+            for (Message msg : messages) {
+                if (batchFailed) {
+                    toRetry.add(msg);
+                } else if (executionFailed || !transientFailures.contains(msg.getId())) {
+                    toAck.add(msg);
+                } else {
+                    toRetry.add(msg);
+                }
+            }
+            if (!toAck.isEmpty()) {
+                queue.ack(toAck);
+                LOGGER.debug("{} messages acked on queue: {}", toAck.size(), queue.getName());
+            }
+            if (!toRetry.isEmpty() && queue.rePublishIfNoAck()) {
+                queue.publish(toRetry);
+                LOGGER.debug(
+                        "{} messages published to queue: {}", toRetry.size(), queue.getName());
+            }
+            Monitors.recordEventQueueMessagesHandled(
+                    queue.getType(), queue.getName(), messages.size());
+        }
+    }
+
     /**
      * Executes all the actions configured on all the event handlers triggered by the {@link
      * Message} on the queue If any of the actions on an event handler fails due to a transient
@@ -151,35 +222,11 @@ public class DefaultEventProcessor {
 
         List<EventExecution> transientFailures = new ArrayList<>();
         for (EventHandler eventHandler : eventHandlerList) {
-            String condition = eventHandler.getCondition();
-            String evaluatorType = eventHandler.getEvaluatorType();
-            // Set default to true so that if condition is not specified, it falls through
-            // to process the event.
-            boolean success = true;
-            if (StringUtils.isNotEmpty(condition) && evaluators.get(evaluatorType) != null) {
-                Object result =
-                        evaluators
-                                .get(evaluatorType)
-                                .evaluate(condition, jsonUtils.expand(payloadObject));
-                success = ScriptEvaluator.toBoolean(result);
-            } else if (StringUtils.isNotEmpty(condition)) {
-                LOGGER.debug("Checking condition: {} for event: {}", condition, event);
-                success = ScriptEvaluator.evalBool(condition, jsonUtils.expand(payloadObject));
-            }
-
-            if (!success) {
-                String id = msg.getId() + "_" + 0;
-                EventExecution eventExecution = new EventExecution(id, msg.getId());
-                eventExecution.setCreated(System.currentTimeMillis());
-                eventExecution.setEvent(eventHandler.getEvent());
-                eventExecution.setName(eventHandler.getName());
-                eventExecution.setStatus(Status.SKIPPED);
-                eventExecution.getOutput().put("msg", msg.getPayload());
-                eventExecution.getOutput().put("condition", condition);
-                executionService.addEventExecution(eventExecution);
+            if (!evaluateCondition(event, eventHandler, payloadObject)) {
+                executionService.addEventExecution(skippedEventExecution(eventHandler, msg));
                 LOGGER.debug(
                         "Condition: {} not successful for event: {} with payload: {}",
-                        condition,
+                        eventHandler.getCondition(),
                         eventHandler.getEvent(),
                         msg.getPayload());
                 continue;
@@ -205,6 +252,91 @@ public class DefaultEventProcessor {
         return processTransientFailures(transientFailures);
     }
 
+    /**
+     * Executes the actions of the event handlers triggered by each of the messages, see {@link
+     * #executeEvent(String, Message)}.
+     *
+     * @return the ids of the messages of which an action failed due to a transient failure
+     */
+    protected Set<String> executeEvent(String event, List<Message> messages) throws Exception {
+        List<EventHandler> eventHandlerList = metadataService.getEventHandlersForEvent(event, true);
+        if (eventHandlerList.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        List<EventExecution> eventExecutions = new ArrayList<>();
+        List<ActionExecution> actionExecutions = new ArrayList<>();
+        for (Message msg : messages) {
+            List<EventExecution> msgEventExecutions = new ArrayList<>();
+            List<ActionExecution> msgActionExecutions = new ArrayList<>();
+            try {
+                Object payloadObject = getPayloadObject(msg.getPayload());
+                for (EventHandler eventHandler : eventHandlerList) {
+                    if (!evaluateCondition(event, eventHandler, payloadObject)) {
+                        msgEventExecutions.add(skippedEventExecution(eventHandler, msg));
+                        continue;
+                    }
+                    int i = 0;
+                    for (Action action : eventHandler.getActions()) {
+                        EventExecution eventExecution =
+                                newEventExecution(msg.getId() + "_" + i++, eventHandler, msg);
+                        eventExecution.setAction(action.getAction());
+                        eventExecution.setStatus(Status.IN_PROGRESS);
+                        msgEventExecutions.add(eventExecution);
+                        msgActionExecutions.add(new ActionExecution(eventExecution, action, msg));
+                    }
+                }
+            } catch (Exception e) {
+                // like a message handled on its own, the message is acked without any action
+                LOGGER.error("Error evaluating message: {} for event: {}", msg, event, e);
+                Monitors.recordEventQueueMessagesError(
+                        StringUtils.substringBefore(event, ":"),
+                        StringUtils.substringAfter(event, ":"));
+                continue;
+            }
+            eventExecutions.addAll(msgEventExecutions);
+            actionExecutions.addAll(msgActionExecutions);
+        }
+
+        // the executions already stored were delivered before, their actions are not executed
+        Set<EventExecution> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        added.addAll(executionService.addEventExecutions(eventExecutions));
+        List<CompletableFuture<EventExecution>> futuresList = new ArrayList<>();
+        for (ActionExecution actionExecution : actionExecutions) {
+            if (!added.contains(actionExecution.eventExecution)) {
+                LOGGER.warn(
+                        "Duplicate delivery/execution of message: {}",
+                        actionExecution.message.getId());
+                continue;
+            }
+            futuresList.add(
+                    CompletableFuture.supplyAsync(
+                            () ->
+                                    execute(
+                                            actionExecution.eventExecution,
+                                            actionExecution.action,
+                                            getPayloadObject(
+                                                    actionExecution.message.getPayload())),
+                            eventActionExecutorService));
+        }
+
+        List<EventExecution> completed = new ArrayList<>();
+        List<EventExecution> transientFailures = new ArrayList<>();
+        for (EventExecution eventExecution : CompletableFutures.allAsList(futuresList).get()) {
+            if (eventExecution.getStatus() == Status.IN_PROGRESS) {
+                transientFailures.add(eventExecution);
+            } else {
+                completed.add(eventExecution);
+            }
+        }
+        executionService.updateEventExecutions(completed);
+        executionService.removeEventExecutions(transientFailures);
+
+        Set<String> failedMessageIds = new HashSet<>();
+        transientFailures.forEach(e -> failedMessageIds.add(e.getMessageId()));
+        return failedMessageIds;
+    }
+
     /**
      * Remove the event executions which failed temporarily.
      *
@@ -227,11 +359,8 @@ public class DefaultEventProcessor {
         List<CompletableFuture<EventExecution>> futuresList = new ArrayList<>();
         int i = 0;
         for (Action action : eventHandler.getActions()) {
-            String id = msg.getId() + "_" + i++;
-            EventExecution eventExecution = new EventExecution(id, msg.getId());
-            eventExecution.setCreated(System.currentTimeMillis());
-            eventExecution.setEvent(eventHandler.getEvent());
-            eventExecution.setName(eventHandler.getName());
+            EventExecution eventExecution =
+                    newEventExecution(msg.getId() + "_" + i++, eventHandler, msg);
             eventExecution.setAction(action.getAction());
             eventExecution.setStatus(Status.IN_PROGRESS);
             if (executionService.addEventExecution(eventExecution)) {
@@ -305,6 +434,37 @@ public class DefaultEventProcessor {
         return eventExecution;
     }
 
+    private boolean evaluateCondition(String event, EventHandler eventHandler, Object payload) {
+        String condition = eventHandler.getCondition();
+        String evaluatorType = eventHandler.getEvaluatorType();
+        if (StringUtils.isNotEmpty(condition) && evaluators.get(evaluatorType) != null) {
+            Object result =
+                    evaluators.get(evaluatorType).evaluate(condition, jsonUtils.expand(payload));
+            return ScriptEvaluator.toBoolean(result);
+        } else if (StringUtils.isNotEmpty(condition)) {
+            LOGGER.debug("Checking condition: {} for event: {}", condition, event);
+            return ScriptEvaluator.evalBool(condition, jsonUtils.expand(payload));
+        }
+        // if condition is not specified, it falls through to process the event
+        return true;
+    }
+
+    private EventExecution newEventExecution(String id, EventHandler eventHandler, Message msg) {
+        EventExecution eventExecution = new EventExecution(id, msg.getId());
+        eventExecution.setCreated(System.currentTimeMillis());
+        eventExecution.setEvent(eventHandler.getEvent());
+        eventExecution.setName(eventHandler.getName());
+        return eventExecution;
+    }
+
+    private EventExecution skippedEventExecution(EventHandler eventHandler, Message msg) {
+        EventExecution eventExecution = newEventExecution(msg.getId() + "_" + 0, eventHandler, msg);
+        eventExecution.setStatus(Status.SKIPPED);
+        eventExecution.getOutput().put("msg", msg.getPayload());
+        eventExecution.getOutput().put("condition", eventHandler.getCondition());
+        return eventExecution;
+    }
+
     private Object getPayloadObject(String payload) {
         Object payloadObject = null;
         if (payload != null) {
@@ -316,4 +476,17 @@ public class DefaultEventProcessor {
         }
         return payloadObject;
     }
+
+    private static class ActionExecution {
+
+        private final EventExecution eventExecution;
+        private final Action action;
+        private final Message message;
+
+        ActionExecution(EventExecution eventExecution, Action action, Message message) {
+            this.eventExecution = eventExecution;
+            this.action = action;
+            this.message = message;
+        }
+    }
 }
@@ -25,6 +25,7 @@ import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.common.metadata.events.EventHandler;
 import com.netflix.conductor.core.LifecycleAwareComponent;
+import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.events.queue.DefaultEventQueueProcessor;
 import com.netflix.conductor.core.events.queue.Message;
 import com.netflix.conductor.core.events.queue.ObservableQueue;
@@ -58,16 +59,19 @@ public class DefaultEventQueueManager extends LifecycleAwareComponent implements
     private final DefaultEventProcessor defaultEventProcessor;
     private final Map<String, ObservableQueue> eventToQueueMap = new ConcurrentHashMap<>();
     private final Map<Status, ObservableQueue> defaultQueues;
+    private final int batchSize;
 
     public DefaultEventQueueManager(
             Map<Status, ObservableQueue> defaultQueues,
             EventHandlerDAO eventHandlerDAO,
             EventQueues eventQueues,
-            DefaultEventProcessor defaultEventProcessor) {
+            DefaultEventProcessor defaultEventProcessor,
+            ConductorProperties properties) {
         this.defaultQueues = defaultQueues;
         this.eventHandlerDAO = eventHandlerDAO;
         this.eventQueues = eventQueues;
         this.defaultEventProcessor = defaultEventProcessor;
+        this.batchSize = properties.getEventProcessorBatchSize();
     }
 
     /**
@@ -175,6 +179,13 @@ public class DefaultEventQueueManager extends LifecycleAwareComponent implements
     }
 
     private void listen(ObservableQueue queue) {
-        queue.observe().subscribe((Message msg) -> defaultEventProcessor.handle(queue, msg));
+        if (batchSize > 1) {
+            queue.observeBatches(batchSize)
+                    .subscribe(
+                            (List<Message> messages) ->
+                                    defaultEventProcessor.handle(queue, messages));
+        } else {
+            queue.observe().subscribe((Message msg) -> defaultEventProcessor.handle(queue, msg));
+        }
     }
 }
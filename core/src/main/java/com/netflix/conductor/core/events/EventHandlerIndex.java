@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.events;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.netflix.conductor.common.metadata.events.EventHandler;
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.EventHandlerDAO;
+import com.netflix.conductor.metrics.Monitors;
+
+/**
+ * A node-local index of the active event handlers by event, so that routing an event message does
+ * not read the {@link EventHandlerDAO}. It sits in front of every {@link EventHandlerDAO}
+ * implementation.
+ *
+ * <p>The index is reloaded at once when the event handlers are changed through this server, and
+ * checked every <code>conductor.app.event-handler-index-refresh-interval</code> for the changes
+ * made through other servers. Stores that version the event handlers (see {@link
+ * EventHandlerDAO#getEventHandlersVersion()}) are only reloaded when the version changed. The
+ * others cannot be checked cheaply, so they are reloaded every <code>
+ * conductor.app.event-handler-index-reload-interval</code> (60 seconds by default) instead.
+ */
+@Component
+public class EventHandlerIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventHandlerIndex.class);
+
+    private final EventHandlerDAO eventHandlerDAO;
+    private final ScheduledExecutorService refreshExecutor;
+    private final long reloadIntervalMillis;
+    private volatile Snapshot snapshot;
+
+    public EventHandlerIndex(EventHandlerDAO eventHandlerDAO, ConductorProperties properties) {
+        this.eventHandlerDAO = eventHandlerDAO;
+        Duration reloadInterval = properties.getEventHandlerIndexReloadInterval();
+        this.reloadIntervalMillis = reloadInterval == null ? 0 : reloadInterval.toMillis();
+        Duration refreshInterval = properties.getEventHandlerIndexRefreshInterval();
+        if (refreshInterval != null && refreshInterval.toMillis() > 0) {
+            this.refreshExecutor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            new BasicThreadFactory.Builder()
+                                    .namingPattern("event-handler-index-refresh")
+                                    .daemon(true)
+                                    .build());
+            this.refreshExecutor.scheduleWithFixedDelay(
+                    this::refresh,
+                    refreshInterval.toMillis(),
+                    refreshInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            LOGGER.info("Event handler index refreshed every {} ms", refreshInterval.toMillis());
+        } else {
+            this.refreshExecutor = null;
+        }
+    }
+
+    /**
+     * @param event name of the event
+     * @return the active event handlers for the event, read from the store if the index is
+     *     disabled
+     */
+    public List<EventHandler> getActiveEventHandlers(String event) {
+        if (refreshExecutor == null) {
+            return eventHandlerDAO.getEventHandlersForEvent(event, true);
+        }
+        Snapshot current = snapshot;
+        Monitors.recordEventHandlerIndexRequest(current != null);
+        if (current == null) {
+            current = load();
+        }
+        return current.handlersByEvent.getOrDefault(event, Collections.emptyList());
+    }
+
+    /** Reloads the index, after the event handlers were changed through this server. */
+    public void invalidate() {
+        if (refreshExecutor != null) {
+            load();
+        }
+    }
+
+    synchronized void refresh() {
+        try {
+            Snapshot current = snapshot;
+            if (current != null
+                    && current.version == null
+                    && System.currentTimeMillis() - current.loadedTime < reloadIntervalMillis) {
+                // an unversioned store is only reloaded at the reload interval
+                return;
+            }
+            Long version = eventHandlerDAO.getEventHandlersVersion();
+            if (current == null || version == null || !version.equals(current.version)) {
+                load();
+            } else {
+                snapshot =
+                        new Snapshot(
+                                current.version, current.handlersByEvent, current.loadedTime);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to refresh the event handler index", e);
+        } finally {
+            Snapshot current = snapshot;
+            if (current != null) {
+                Monitors.recordEventHandlerIndexStaleness(
+                        System.currentTimeMillis() - current.checkedTime);
+            }
+        }
+    }
+
+    private synchronized Snapshot load() {
+        // the version is read first, a change made while loading is picked by the next check
+        Long version = eventHandlerDAO.getEventHandlersVersion();
+        Map<String, List<EventHandler>> handlersByEvent = new HashMap<>();
+        for (EventHandler eventHandler : eventHandlerDAO.getAllEventHandlers()) {
+            if (eventHandler.isActive() && eventHandler.getEvent() != null) {
+                handlersByEvent
+                        .computeIfAbsent(eventHandler.getEvent(), e -> new ArrayList<>())
+                        .add(eventHandler);
+            }
+        }
+        handlersByEvent.replaceAll((event, handlers) -> Collections.unmodifiableList(handlers));
+        Snapshot loaded = new Snapshot(version, handlersByEvent, System.currentTimeMillis());
+        snapshot = loaded;
+        LOGGER.debug(
+                "Loaded the event handlers of {} events, version {}",
+                handlersByEvent.size(),
+                Objects.toString(version, "n/a"));
+        return loaded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private static class Snapshot {
+
+        private final Long version;
+        private final Map<String, List<EventHandler>> handlersByEvent;
+        private final long loadedTime;
+        private final long checkedTime = System.currentTimeMillis();
+
+        Snapshot(Long version, Map<String, List<EventHandler>> handlersByEvent, long loadedTime) {
+            this.version = version;
+            this.handlersByEvent = handlersByEvent;
+            this.loadedTime = loadedTime;
+        }
+    }
+}
@@ -12,14 +12,33 @@
  */
 package com.netflix.conductor.core.events;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Evaluates javascript with a pool of script engines, one per core at most, as the engines are not
+ * thread safe. Each engine keeps the scripts it compiled, so that the conditions and scripts that
+ * are evaluated over and over are only parsed and compiled once per engine.
+ */
 public class ScriptEvaluator {
 
-    private static final ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+    private static final int MAX_ENGINES = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_COMPILED_SCRIPTS_PER_ENGINE = 1000;
+
+    private static final ScriptEngineManager engineManager = new ScriptEngineManager();
+    private static final BlockingQueue<PooledEngine> engines = new LinkedBlockingQueue<>();
+    private static final AtomicInteger engineCount = new AtomicInteger();
 
     private ScriptEvaluator() {}
 
@@ -45,9 +64,30 @@ public class ScriptEvaluator {
      * @return Generic object, the result of the evaluated expression.
      */
     public static Object eval(String script, Object input) throws ScriptException {
-        Bindings bindings = engine.createBindings();
-        bindings.put("$", input);
-        return engine.eval(script, bindings);
+        PooledEngine engine = borrowEngine();
+        try {
+            return engine.eval(script, input);
+        } finally {
+            engines.add(engine);
+        }
+    }
+
+    /** Creates the engines lazily, up to the maximum, and waits for a free one after that. */
+    private static PooledEngine borrowEngine() throws ScriptException {
+        PooledEngine engine = engines.poll();
+        if (engine != null) {
+            return engine;
+        }
+        if (engineCount.getAndIncrement() < MAX_ENGINES) {
+            return new PooledEngine(engineManager.getEngineByName("nashorn"));
+        }
+        engineCount.decrementAndGet();
+        try {
+            return engines.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while waiting for a script engine");
+        }
     }
 
     /**
@@ -66,4 +106,30 @@ public class ScriptEvaluator {
         }
         return false;
     }
+
+    private static class PooledEngine {
+
+        private final ScriptEngine engine;
+        private final Cache<String, CompiledScript> compiledScripts =
+                Caffeine.newBuilder().maximumSize(MAX_COMPILED_SCRIPTS_PER_ENGINE).build();
+
+        PooledEngine(ScriptEngine engine) {
+            this.engine = engine;
+        }
+
+        Object eval(String script, Object input) throws ScriptException {
+            // new bindings for every evaluation, so that the scripts cannot share any state
+            Bindings bindings = engine.createBindings();
+            bindings.put("$", input);
+            if (!(engine instanceof Compilable)) {
+                return engine.eval(script, bindings);
+            }
+            CompiledScript compiledScript = compiledScripts.getIfPresent(script);
+            if (compiledScript == null) {
+                compiledScript = ((Compilable) engine).compile(script);
+                compiledScripts.put(script, compiledScript);
+            }
+            return compiledScript.eval(bindings);
+        }
+    }
 }
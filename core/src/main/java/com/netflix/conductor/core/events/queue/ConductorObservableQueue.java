@@ -12,6 +12,7 @@
  */
 package com.netflix.conductor.core.events.queue;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +32,11 @@ import rx.Scheduler;
 
 /**
  * An {@link ObservableQueue} implementation using the underlying {@link QueueDAO} implementation.
+ *
+ * <p>The queue is polled every <code>conductor.app.event-queue-poll-interval</code> while it
+ * returns messages. After an empty poll the interval doubles, up to <code>
+ * conductor.app.event-queue-max-poll-interval</code>, and it is reset by the next poll that returns
+ * messages.
  */
 public class ConductorObservableQueue implements ObservableQueue {
 
@@ -41,10 +47,13 @@ public class ConductorObservableQueue implements ObservableQueue {
     private final String queueName;
     private final QueueDAO queueDAO;
     private final long pollTimeMS;
+    private final long maxPollTimeMS;
     private final int longPollTimeout;
     private final int pollCount;
     private final Scheduler scheduler;
     private volatile boolean running;
+    private long idlePollTimeMS;
+    private long nextPollTime;
 
     ConductorObservableQueue(
             String queueName,
@@ -54,6 +63,12 @@ public class ConductorObservableQueue implements ObservableQueue {
         this.queueName = queueName;
         this.queueDAO = queueDAO;
         this.pollTimeMS = properties.getEventQueuePollInterval().toMillis();
+        Duration maxPollInterval = properties.getEventQueueMaxPollInterval();
+        this.maxPollTimeMS =
+                maxPollInterval == null
+                        ? pollTimeMS
+                        : Math.max(pollTimeMS, maxPollInterval.toMillis());
+        this.idlePollTimeMS = pollTimeMS;
         this.pollCount = properties.getEventQueuePollCount();
         this.longPollTimeout = (int) properties.getEventQueueLongPollTimeout().toMillis();
         this.scheduler = scheduler;
@@ -65,12 +80,25 @@ public class ConductorObservableQueue implements ObservableQueue {
         return Observable.create(subscriber);
     }
 
+    /** Emits the messages of every poll together, split in batches of at most batchSize. */
+    @Override
+    public Observable<List<Message>> observeBatches(int batchSize) {
+        OnSubscribe<List<Message>> subscriber =
+                s -> {
+                    Observable<Long> interval =
+                            Observable.interval(pollTimeMS, TimeUnit.MILLISECONDS, scheduler);
+                    interval.flatMap((Long x) -> Observable.from(partition(poll(), batchSize)))
+                            .subscribe(s::onNext, s::onError);
+                };
+        return Observable.create(subscriber);
+    }
+
     @Override
     public List<String> ack(List<Message> messages) {
-        for (Message msg : messages) {
-            queueDAO.ack(queueName, msg.getId());
-        }
-        return messages.stream().map(Message::getId).collect(Collectors.toList());
+        List<String> messageIds =
+                messages.stream().map(Message::getId).collect(Collectors.toList());
+        queueDAO.ackMessages(queueName, messageIds);
+        return messageIds;
     }
 
     public void setUnackTimeout(Message message, long unackTimeout) {
@@ -115,20 +143,44 @@ public class ConductorObservableQueue implements ObservableQueue {
         return new ArrayList<>();
     }
 
+    /**
+     * Polls the queue if it is running and its current poll interval has elapsed since the last
+     * poll, doubling the interval when the queue is empty.
+     */
+    private synchronized List<Message> poll() {
+        if (!isRunning()) {
+            LOGGER.debug("Component stopped, skip listening for messages from Conductor Queue");
+            return Collections.emptyList();
+        }
+        long now = scheduler.now();
+        if (now < nextPollTime) {
+            return Collections.emptyList();
+        }
+        List<Message> messages = receiveMessages();
+        if (messages.isEmpty()) {
+            idlePollTimeMS = Math.min(idlePollTimeMS * 2, maxPollTimeMS);
+            // the ticks of the interval timer drift, half a tick keeps them from missing this time
+            nextPollTime = now + idlePollTimeMS - pollTimeMS / 2;
+        } else {
+            idlePollTimeMS = pollTimeMS;
+            nextPollTime = 0;
+        }
+        return messages;
+    }
+
+    private static List<List<Message>> partition(List<Message> messages, int batchSize) {
+        List<List<Message>> batches = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i += batchSize) {
+            batches.add(messages.subList(i, Math.min(i + batchSize, messages.size())));
+        }
+        return batches;
+    }
+
     private OnSubscribe<Message> getOnSubscribe() {
         return subscriber -> {
             Observable<Long> interval =
                     Observable.interval(pollTimeMS, TimeUnit.MILLISECONDS, scheduler);
-            interval.flatMap(
-                            (Long x) -> {
-                                if (!isRunning()) {
-                                    LOGGER.debug(
-                                            "Component stopped, skip listening for messages from Conductor Queue");
-                                    return Observable.from(Collections.emptyList());
-                                }
-                                List<Message> messages = receiveMessages();
-                                return Observable.from(messages);
-                            })
+            interval.flatMap((Long x) -> Observable.from(poll()))
                     .subscribe(subscriber::onNext, subscriber::onError);
         };
     }
@@ -13,10 +13,12 @@
 package com.netflix.conductor.core.events.queue;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.Lifecycle;
 
 import rx.Observable;
+import rx.schedulers.Schedulers;
 
 public interface ObservableQueue extends Lifecycle {
 
@@ -25,6 +27,20 @@ public interface ObservableQueue extends Lifecycle {
      */
     Observable<Message> observe();
 
+    /**
+     * By default, the messages of {@link #observe()} are grouped as they arrive, a batch being
+     * emitted when it is full or 100 ms after it was started. Queues that receive their messages in
+     * batches should override this to emit them as received.
+     *
+     * @param batchSize the maximum number of messages of a batch
+     * @return An observable of the non-empty batches of messages for the given queue
+     */
+    default Observable<List<Message>> observeBatches(int batchSize) {
+        return observe()
+                .buffer(100, TimeUnit.MILLISECONDS, batchSize, Schedulers.io())
+                .filter(batch -> !batch.isEmpty());
+    }
+
     /**
      * @return Type of the queue
      */
@@ -98,11 +98,13 @@ public class AsyncSystemTaskExecutor {
         }
 
         boolean hasTaskExecutionCompleted = false;
+        boolean hasTaskStarted = false;
+        WorkflowModel workflow = null;
         String workflowId = task.getWorkflowInstanceId();
         // if we are here the Task object is updated and needs to be persisted regardless of an
         // exception
         try {
-            WorkflowModel workflow =
+            workflow =
                     executionDAOFacade.getWorkflowModel(
                             workflowId, systemTask.isTaskRetrievalRequired());
 
@@ -137,6 +139,7 @@ public class AsyncSystemTaskExecutor {
                 task.setStartTime(System.currentTimeMillis());
                 Monitors.recordQueueWaitTime(task.getTaskType(), task.getQueueWaitTime());
                 systemTask.start(workflow, task, workflowExecutor);
+                hasTaskStarted = true;
             } else if (task.getStatus() == TaskModel.Status.IN_PROGRESS) {
                 systemTask.execute(workflow, task, workflowExecutor);
             }
@@ -171,6 +174,9 @@ public class AsyncSystemTaskExecutor {
             LOGGER.error("Error executing system task - {}, with id: {}", systemTask, taskId, e);
         } finally {
             executionDAOFacade.updateTask(task);
+            if (hasTaskStarted && !task.getStatus().isTerminal()) {
+                systemTask.afterStart(workflow, task, workflowExecutor);
+            }
             // if the current task execution has completed, then the workflow needs to be evaluated
             if (hasTaskExecutionCompleted) {
                 workflowExecutor.decide(workflowId);
@@ -164,10 +164,20 @@ public class DeciderService {
                             preScheduledTask.getReferenceTaskName(), preScheduledTask);
                 });
 
+        // In case of an incremental decision, the pending tasks that did not change since the
+        // previous decision only have their timeouts checked, unless they still need to be
+        // processed
+        Set<String> dirtyTaskIds = workflow.getDirtyTaskIds();
+        int evaluatedTasks = 0;
+
         // A new workflow does not enter this code branch
         for (TaskModel pendingTask : pendingTasks) {
 
-            if (systemTaskRegistry.isSystemTask(pendingTask.getTaskType())
+            boolean evaluationRequired =
+                    dirtyTaskIds == null || isEvaluationRequired(pendingTask, dirtyTaskIds);
+
+            if (evaluationRequired
+                    && systemTaskRegistry.isSystemTask(pendingTask.getTaskType())
                     && !pendingTask.getStatus().isTerminal()) {
                 tasksToBeScheduled.putIfAbsent(pendingTask.getReferenceTaskName(), pendingTask);
                 executedTaskRefNames.remove(pendingTask.getReferenceTaskName());
@@ -193,6 +203,12 @@ public class DeciderService {
                 }
             }
 
+            // a task that timed out above is processed like any other terminal task
+            if (!evaluationRequired && !pendingTask.getStatus().isTerminal()) {
+                continue;
+            }
+            evaluatedTasks++;
+
             if (!pendingTask.getStatus().isSuccessful()) {
                 WorkflowTask workflowTask = pendingTask.getWorkflowTask();
                 if (workflowTask == null) {
@@ -237,6 +253,9 @@ public class DeciderService {
             }
         }
 
+        Monitors.recordDecideEvaluatedTasks(
+                workflow.getWorkflowName(), dirtyTaskIds != null, evaluatedTasks);
+
         // All the tasks that need to scheduled are added to the outcome, in case of
         List<TaskModel> unScheduledTasks =
                 tasksToBeScheduled.values().stream()
@@ -260,6 +279,23 @@ public class DeciderService {
         return outcome;
     }
 
+    /**
+     * A pending task that did not change since the previous decision only needs to be evaluated if
+     * it is terminal and has not been processed yet, or if it is a synchronous system task, that is
+     * executed by the decision and whose outcome depends on other tasks or on time (e.g. DO_WHILE,
+     * WAIT). The remaining tasks are scheduled or in progress: only their timeouts are checked,
+     * and the asynchronous system tasks are executed by the system task workers.
+     */
+    private boolean isEvaluationRequired(TaskModel pendingTask, Set<String> dirtyTaskIds) {
+        if (dirtyTaskIds.contains(pendingTask.getTaskId())
+                || pendingTask.getStatus().isTerminal()) {
+            return true;
+        }
+        String taskType = pendingTask.getTaskType();
+        return systemTaskRegistry.isSystemTask(taskType)
+                && !systemTaskRegistry.get(taskType).isAsync();
+    }
+
     @VisibleForTesting
     List<TaskModel> filterNextLoopOverTasks(
             List<TaskModel> tasks, TaskModel pendingTask, WorkflowModel workflow) {
@@ -273,14 +309,14 @@ public class DeciderService {
                     nextTask.setIteration(pendingTask.getIteration());
                 });
 
-        List<String> tasksInWorkflow =
+        Set<String> tasksInWorkflow =
                 workflow.getTasks().stream()
                         .filter(
                                 runningTask ->
                                         runningTask.getStatus().equals(TaskModel.Status.IN_PROGRESS)
                                                 || runningTask.getStatus().isTerminal())
                         .map(TaskModel::getReferenceTaskName)
-                        .collect(Collectors.toList());
+                        .collect(Collectors.toSet());
 
         return tasks.stream()
                 .filter(
@@ -835,14 +871,14 @@ public class DeciderService {
         String type = taskToSchedule.getType();
 
         // get tasks already scheduled (in progress/terminal) for  this workflow instance
-        List<String> tasksInWorkflow =
+        Set<String> tasksInWorkflow =
                 workflow.getTasks().stream()
                         .filter(
                                 runningTask ->
                                         runningTask.getStatus().equals(TaskModel.Status.IN_PROGRESS)
                                                 || runningTask.getStatus().isTerminal())
                         .map(TaskModel::getReferenceTaskName)
-                        .collect(Collectors.toList());
+                        .collect(Collectors.toSet());
 
         String taskId = idGenerator.generate();
         TaskMapperContext taskMapperContext =
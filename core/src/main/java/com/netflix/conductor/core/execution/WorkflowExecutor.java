@@ -31,6 +31,7 @@ import com.netflix.conductor.common.metadata.workflow.RerunWorkflowRequest;
 import com.netflix.conductor.common.metadata.workflow.SkipTaskRequest;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.Workflow;
 import com.netflix.conductor.common.utils.TaskUtils;
 import com.netflix.conductor.core.WorkflowContext;
@@ -711,7 +712,118 @@ public class WorkflowExecutor {
 
         String workflowId = taskResult.getWorkflowInstanceId();
         WorkflowModel workflowInstance = executionDAOFacade.getWorkflowModel(workflowId, false);
+        TaskModel task = applyTaskResult(taskResult, workflowInstance);
 
+        if (task != null
+                && !isLazyEvaluateWorkflow(workflowInstance.getWorkflowDefinition(), task)) {
+            decide(workflowId, Collections.singleton(task.getTaskId()));
+        }
+    }
+
+    /**
+     * Updates a batch of task results. The results are grouped by workflow: the results of a
+     * workflow are applied under a single lock on the workflow, which is then evaluated once for
+     * all of them, instead of once per result.
+     *
+     * @param taskResults the task results to be updated
+     * @return the ids of the updated tasks, and the error of each result that could not be applied
+     */
+    public BulkResponse updateTasks(List<TaskResult> taskResults) {
+        BulkResponse bulkResponse = new BulkResponse();
+        Map<String, List<TaskResult>> resultsByWorkflow = new LinkedHashMap<>();
+        for (TaskResult taskResult : taskResults) {
+            if (taskResult.isExtendLease()) {
+                try {
+                    extendLease(taskResult);
+                    bulkResponse.appendSuccessResponse(taskResult.getTaskId());
+                } catch (Exception e) {
+                    LOGGER.error(
+                            "Error extending the lease of task: {}", taskResult.getTaskId(), e);
+                    bulkResponse.appendFailedResponse(taskResult.getTaskId(), e.getMessage());
+                }
+            } else {
+                resultsByWorkflow
+                        .computeIfAbsent(taskResult.getWorkflowInstanceId(), w -> new ArrayList<>())
+                        .add(taskResult);
+            }
+        }
+        resultsByWorkflow.forEach(
+                (workflowId, results) -> updateTasks(workflowId, results, bulkResponse));
+        return bulkResponse;
+    }
+
+    private void updateTasks(
+            String workflowId, List<TaskResult> taskResults, BulkResponse bulkResponse) {
+        Set<String> changedTaskIds = new LinkedHashSet<>();
+        // the lock keeps the workflow from being evaluated halfway through the batch, if it is
+        // held elsewhere the results are still applied, as single updates are
+        boolean locked = executionLockService.acquireLock(workflowId);
+        try {
+            WorkflowModel workflowInstance;
+            try {
+                workflowInstance = executionDAOFacade.getWorkflowModel(workflowId, false);
+            } catch (Exception e) {
+                LOGGER.error("Error updating the tasks of workflow: {}", workflowId, e);
+                taskResults.forEach(
+                        taskResult ->
+                                bulkResponse.appendFailedResponse(
+                                        taskResult.getTaskId(), e.getMessage()));
+                return;
+            }
+
+            for (TaskResult taskResult : taskResults) {
+                try {
+                    TaskModel task = applyTaskResult(taskResult, workflowInstance);
+                    bulkResponse.appendSuccessResponse(taskResult.getTaskId());
+                    if (task != null
+                            && !isLazyEvaluateWorkflow(
+                                    workflowInstance.getWorkflowDefinition(), task)) {
+                        changedTaskIds.add(task.getTaskId());
+                    }
+                } catch (Exception e) {
+                    LOGGER.error(
+                            "Error updating task: {} of workflow: {}",
+                            taskResult.getTaskId(),
+                            workflowId,
+                            e);
+                    bulkResponse.appendFailedResponse(taskResult.getTaskId(), e.getMessage());
+                }
+            }
+
+            if (changedTaskIds.isEmpty()) {
+                return;
+            }
+            // the tasks are updated, a failed evaluation is retried by the decider queue sweep
+            try {
+                if (locked) {
+                    StopWatch watch = new StopWatch();
+                    watch.start();
+                    decideLocked(workflowId, changedTaskIds);
+                    watch.stop();
+                    Monitors.recordWorkflowDecisionTime(watch.getTime());
+                } else {
+                    decide(workflowId, changedTaskIds);
+                }
+            } catch (Exception e) {
+                LOGGER.error(
+                        "Error evaluating workflow: {} after updating its tasks", workflowId, e);
+            }
+        } finally {
+            if (locked) {
+                executionLockService.releaseLock(workflowId);
+            }
+        }
+    }
+
+    /**
+     * Applies a task result to its task, without evaluating the workflow.
+     *
+     * @return the updated task, or null if the result was ignored because the task or the
+     *     workflow had already finished
+     * @throws NotFoundException if the Task is not found.
+     */
+    private TaskModel applyTaskResult(TaskResult taskResult, WorkflowModel workflowInstance) {
+        String workflowId = taskResult.getWorkflowInstanceId();
         TaskModel task =
                 Optional.ofNullable(executionDAOFacade.getTaskModel(taskResult.getTaskId()))
                         .orElseThrow(
@@ -735,7 +847,7 @@ public class WorkflowExecutor {
                     taskQueueName);
             Monitors.recordUpdateConflict(
                     task.getTaskType(), workflowInstance.getWorkflowName(), task.getStatus());
-            return;
+            return null;
         }
 
         if (workflowInstance.getStatus().isTerminal()) {
@@ -750,7 +862,7 @@ public class WorkflowExecutor {
                     task.getTaskType(),
                     workflowInstance.getWorkflowName(),
                     workflowInstance.getStatus());
-            return;
+            return null;
         }
 
         // for system tasks, setting to SCHEDULED would mean restarting the task which is
@@ -856,10 +968,7 @@ public class WorkflowExecutor {
             Monitors.recordTaskExecutionTime(
                     task.getTaskDefName(), lastDuration, false, task.getStatus());
         }
-
-        if (!isLazyEvaluateWorkflow(workflowInstance.getWorkflowDefinition(), task)) {
-            decide(workflowId);
-        }
+        return task;
     }
 
     private void extendLease(TaskResult taskResult) {
@@ -964,20 +1073,22 @@ public class WorkflowExecutor {
 
     /** Records a metric for the "decide" process. */
     public WorkflowModel decide(String workflowId) {
+        return decide(workflowId, null);
+    }
+
+    /**
+     * @param workflowId the id of the workflow to evaluate
+     * @param changedTaskIds the ids of the tasks that triggered this decision, if known. With
+     *     incremental decisions enabled, only these tasks (and the ones they lead to) are evaluated
+     */
+    private WorkflowModel decide(String workflowId, Collection<String> changedTaskIds) {
         StopWatch watch = new StopWatch();
         watch.start();
         if (!executionLockService.acquireLock(workflowId)) {
             return null;
         }
         try {
-
-            WorkflowModel workflow = executionDAOFacade.getWorkflowModel(workflowId, true);
-            if (workflow == null) {
-                // This can happen if the workflowId is incorrect
-                return null;
-            }
-            return decide(workflow);
-
+            return decideLocked(workflowId, changedTaskIds);
         } finally {
             executionLockService.releaseLock(workflowId);
             watch.stop();
@@ -985,6 +1096,20 @@ public class WorkflowExecutor {
         }
     }
 
+    /** Evaluates the workflow, the caller must hold the lock on the workflow. */
+    private WorkflowModel decideLocked(String workflowId, Collection<String> changedTaskIds) {
+        WorkflowModel workflow = executionDAOFacade.getWorkflowModel(workflowId, true);
+        if (workflow == null) {
+            // This can happen if the workflowId is incorrect
+            return null;
+        }
+        Set<String> dirtyTaskIds = null;
+        if (changedTaskIds != null && properties.isIncrementalDecideEnabled()) {
+            dirtyTaskIds = new HashSet<>(changedTaskIds);
+        }
+        return decide(workflow, dirtyTaskIds);
+    }
+
     /**
      * @param workflow the workflow to evaluate the state for
      * @return true if the workflow has completed (success or failed), false otherwise. Note: This
@@ -992,6 +1117,15 @@ public class WorkflowExecutor {
      *     No locking is required or lock is acquired externally
      */
     public WorkflowModel decide(WorkflowModel workflow) {
+        return decide(workflow, null);
+    }
+
+    /**
+     * @param workflow the workflow to evaluate the state for
+     * @param dirtyTaskIds the ids of the tasks that changed since the previous decision, null to
+     *     evaluate all the pending tasks of the workflow
+     */
+    private WorkflowModel decide(WorkflowModel workflow, Set<String> dirtyTaskIds) {
         if (workflow.getStatus().isTerminal()) {
             if (!workflow.getStatus().isSuccessful()) {
                 cancelNonTerminalTasks(workflow);
@@ -1001,10 +1135,16 @@ public class WorkflowExecutor {
 
         // we find any sub workflow tasks that have changed
         // and change the workflow/task state accordingly
-        adjustStateIfSubWorkflowChanged(workflow);
+        adjustStateIfSubWorkflowChanged(workflow, dirtyTaskIds);
 
         try {
-            DeciderService.DeciderOutcome outcome = deciderService.decide(workflow);
+            DeciderService.DeciderOutcome outcome;
+            workflow.setDirtyTaskIds(dirtyTaskIds);
+            try {
+                outcome = deciderService.decide(workflow);
+            } finally {
+                workflow.setDirtyTaskIds(null);
+            }
             if (outcome.isComplete) {
                 endExecution(workflow, outcome.terminateTask);
                 return workflow;
@@ -1037,7 +1177,19 @@ public class WorkflowExecutor {
             }
 
             if (stateChanged) {
-                return decide(workflow);
+                Set<String> changedTaskIds = null;
+                if (properties.isIncrementalDecideEnabled()) {
+                    // the next pass only needs to evaluate the tasks that were updated or
+                    // scheduled by this one, along with their successors
+                    changedTaskIds = new HashSet<>();
+                    for (TaskModel task : tasksToBeUpdated) {
+                        changedTaskIds.add(task.getTaskId());
+                    }
+                    for (TaskModel task : tasksToBeScheduled) {
+                        changedTaskIds.add(task.getTaskId());
+                    }
+                }
+                return decide(workflow, changedTaskIds);
             }
 
             if (!outcome.tasksToBeUpdated.isEmpty() || !tasksToBeScheduled.isEmpty()) {
@@ -1056,13 +1208,17 @@ public class WorkflowExecutor {
         }
     }
 
-    private void adjustStateIfSubWorkflowChanged(WorkflowModel workflow) {
+    private void adjustStateIfSubWorkflowChanged(
+            WorkflowModel workflow, Set<String> dirtyTaskIds) {
         Optional<TaskModel> changedSubWorkflowTask = findChangedSubWorkflowTask(workflow);
         if (changedSubWorkflowTask.isPresent()) {
             // reset the flag
             TaskModel subWorkflowTask = changedSubWorkflowTask.get();
             subWorkflowTask.setSubworkflowChanged(false);
             executionDAOFacade.updateTask(subWorkflowTask);
+            if (dirtyTaskIds != null) {
+                dirtyTaskIds.add(subWorkflowTask.getTaskId());
+            }
 
             LOGGER.info(
                     "{} reset subworkflowChanged flag for {}",
@@ -1082,6 +1238,9 @@ public class WorkflowExecutor {
                                 task -> {
                                     task.setStatus(TaskModel.Status.IN_PROGRESS);
                                     addTaskToQueue(task);
+                                    if (dirtyTaskIds != null) {
+                                        dirtyTaskIds.add(task.getTaskId());
+                                    }
                                 })
                         .forEach(executionDAOFacade::updateTask);
             }
@@ -1548,7 +1707,7 @@ public class WorkflowExecutor {
         // If the task Id is null it implies that the entire workflow has to be rerun
         if (taskId == null) {
             // remove all tasks
-            workflow.getTasks().forEach(task -> executionDAOFacade.removeTask(task.getTaskId()));
+            workflow.getTasks().forEach(executionDAOFacade::removeTask);
             workflow.setTasks(new ArrayList<>());
             // Set workflow as RUNNING
             workflow.setStatus(WorkflowModel.Status.RUNNING);
@@ -1577,13 +1736,7 @@ public class WorkflowExecutor {
         }
 
         // Now iterate through the tasks and find the "specific" task
-        TaskModel rerunFromTask = null;
-        for (TaskModel task : workflow.getTasks()) {
-            if (task.getTaskId().equals(taskId)) {
-                rerunFromTask = task;
-                break;
-            }
-        }
+        TaskModel rerunFromTask = workflow.getTaskById(taskId);
 
         // If not found look into sub workflows
         if (rerunFromTask == null) {
@@ -1627,7 +1780,7 @@ public class WorkflowExecutor {
             List<TaskModel> filteredTasks = new ArrayList<>();
             for (TaskModel task : workflow.getTasks()) {
                 if (task.getSeq() > rerunFromTask.getSeq()) {
-                    executionDAOFacade.removeTask(task.getTaskId());
+                    executionDAOFacade.removeTask(task);
                 } else {
                     filteredTasks.add(task);
                 }
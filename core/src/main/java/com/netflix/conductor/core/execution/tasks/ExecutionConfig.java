@@ -34,6 +34,15 @@ class ExecutionConfig {
         this.semaphoreUtil = new SemaphoreUtil(threadCount);
     }
 
+    /**
+     * @param executorService an executor that is not bounded, e.g. of virtual threads
+     * @param concurrency the maximum number of tasks executed at the same time
+     */
+    ExecutionConfig(ExecutorService executorService, int concurrency) {
+        this.executorService = executorService;
+        this.semaphoreUtil = new SemaphoreUtil(concurrency);
+    }
+
     public ExecutorService getExecutorService() {
         return executorService;
     }
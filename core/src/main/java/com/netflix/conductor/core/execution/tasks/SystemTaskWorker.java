@@ -53,6 +53,9 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
     private final ConductorProperties properties;
     private final ExecutionService executionService;
 
+    /** The executor of the virtual threads, or null when running on platform thread pools. */
+    private final ExecutorService virtualThreadExecutor;
+
     ConcurrentHashMap<String, ExecutionConfig> queueExecutionConfigMap = new ConcurrentHashMap<>();
 
     public SystemTaskWorker(
@@ -61,14 +64,29 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
             ConductorProperties properties,
             ExecutionService executionService) {
         this.properties = properties;
-        int threadCount = properties.getSystemTaskWorkerThreadCount();
-        this.defaultExecutionConfig = new ExecutionConfig(threadCount, "system-task-worker-%d");
         this.asyncSystemTaskExecutor = asyncSystemTaskExecutor;
         this.queueDAO = queueDAO;
         this.pollInterval = properties.getSystemTaskWorkerPollInterval().toMillis();
         this.executionService = executionService;
-
-        LOGGER.info("SystemTaskWorker initialized with {} threads", threadCount);
+        this.virtualThreadExecutor =
+                properties.isSystemTaskWorkerVirtualThreadsEnabled()
+                        ? VirtualThreads.newVirtualThreadPerTaskExecutor().orElse(null)
+                        : null;
+
+        if (virtualThreadExecutor != null) {
+            // every queue gets its own execution config, see getExecutionConfig
+            int concurrency = properties.getSystemTaskWorkerMaxConcurrency();
+            LOGGER.info(
+                    "SystemTaskWorker initialized with virtual threads, {} tasks per queue",
+                    concurrency);
+        } else {
+            if (properties.isSystemTaskWorkerVirtualThreadsEnabled()) {
+                LOGGER.warn("Virtual threads are not supported by this JVM, using thread pools");
+            }
+            int threadCount = properties.getSystemTaskWorkerThreadCount();
+            this.defaultExecutionConfig = new ExecutionConfig(threadCount, "system-task-worker-%d");
+            LOGGER.info("SystemTaskWorker initialized with {} threads", threadCount);
+        }
     }
 
     public void startPolling(WorkflowSystemTask systemTask) {
@@ -76,15 +94,37 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
     }
 
     public void startPolling(WorkflowSystemTask systemTask, String queueName) {
-        Executors.newSingleThreadScheduledExecutor()
-                .scheduleWithFixedDelay(
-                        () -> this.pollAndExecute(systemTask, queueName),
-                        1000,
-                        pollInterval,
-                        TimeUnit.MILLISECONDS);
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.execute(() -> pollLoop(systemTask, queueName));
+        } else {
+            Executors.newSingleThreadScheduledExecutor()
+                    .scheduleWithFixedDelay(
+                            () -> this.pollAndExecute(systemTask, queueName),
+                            1000,
+                            pollInterval,
+                            TimeUnit.MILLISECONDS);
+        }
         LOGGER.info("Started listening for task: {} in queue: {}", systemTask, queueName);
     }
 
+    /** The equivalent of the scheduled polling, on a virtual thread that sleeps between polls. */
+    private void pollLoop(WorkflowSystemTask systemTask, String queueName) {
+        try {
+            Thread.sleep(1000);
+            while (true) {
+                try {
+                    pollAndExecute(systemTask, queueName);
+                } catch (Exception e) {
+                    LOGGER.error("Error polling system task in queue:{}", queueName, e);
+                }
+                Thread.sleep(pollInterval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("Stopped listening for task: {} in queue: {}", systemTask, queueName);
+        }
+    }
+
     void pollAndExecute(WorkflowSystemTask systemTask, String queueName) {
         if (!isRunning()) {
             LOGGER.debug(
@@ -155,9 +195,13 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
         }
     }
 
+    /**
+     * @return the execution config of the queue: on virtual threads every queue has its own, on
+     *     thread pools only the isolated queues have their own and the others share the default one
+     */
     @VisibleForTesting
     ExecutionConfig getExecutionConfig(String taskQueue) {
-        if (!QueueUtils.isIsolatedQueue(taskQueue)) {
+        if (virtualThreadExecutor == null && !QueueUtils.isIsolatedQueue(taskQueue)) {
             return this.defaultExecutionConfig;
         }
         return queueExecutionConfigMap.computeIfAbsent(
@@ -165,6 +209,10 @@ public class SystemTaskWorker extends LifecycleAwareComponent {
     }
 
     private ExecutionConfig createExecutionConfig() {
+        if (virtualThreadExecutor != null) {
+            return new ExecutionConfig(
+                    virtualThreadExecutor, properties.getSystemTaskWorkerMaxConcurrency());
+        }
         int threadCount = properties.getIsolatedSystemTaskWorkerThreadCount();
         String threadNameFormat = "isolated-system-task-worker-%d";
         return new ExecutionConfig(threadCount, threadNameFormat);
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.execution.tasks;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to the virtual threads of the JVM (Java 21+). The methods are looked up reflectively
+ * since the code is compiled for older JVMs.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * @return an executor that runs each task on a new virtual thread, or empty if the JVM does
+     *     not support virtual threads
+     */
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of(
+                    (ExecutorService)
+                            Executors.class
+                                    .getMethod("newVirtualThreadPerTaskExecutor")
+                                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            // before Java 21, or a preview feature that is not enabled
+            return Optional.empty();
+        }
+    }
+}
@@ -40,6 +40,24 @@ public abstract class WorkflowSystemTask {
         // Do nothing unless overridden by the task implementation
     }
 
+    /**
+     * Called once the task started by {@link #start(WorkflowModel, TaskModel, WorkflowExecutor)}
+     * has been persisted, if it is not terminal.
+     *
+     * <p>Tasks that complete from a callback through {@link WorkflowExecutor#updateTask} (e.g. on
+     * the response of a non-blocking request) must initiate their work here rather than in {@link
+     * #start(WorkflowModel, TaskModel, WorkflowExecutor)}, otherwise the persistence of the
+     * started task could overwrite the update of the callback.
+     *
+     * @param workflow Workflow for which the task is being started
+     * @param task Instance of the Task
+     * @param workflowExecutor Workflow Executor
+     */
+    public void afterStart(
+            WorkflowModel workflow, TaskModel task, WorkflowExecutor workflowExecutor) {
+        // Do nothing unless overridden by the task implementation
+    }
+
     /**
      * "Execute" the task.
      *
@@ -13,7 +13,7 @@
 package com.netflix.conductor.core.reconciliation;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +31,11 @@ import static com.netflix.conductor.core.utils.Utils.DECIDER_QUEUE;
 /**
  * Periodically polls all running workflows in the system and evaluates them for timeouts and/or
  * maintain consistency.
+ *
+ * <p>Workflows are taken from the decider queue in batches of {@link
+ * ConductorProperties#getSweeperBatchSize()}. Every batch is swept on its own sweeper thread, and
+ * a new batch is polled as soon as a thread is free, so a slow workflow only holds back its own
+ * batch.
  */
 @Component
 @ConditionalOnProperty(
@@ -41,7 +46,8 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
 
     private final WorkflowSweeper workflowSweeper;
     private final QueueDAO queueDAO;
-    private final int sweeperThreadCount;
+    private final int sweeperBatchSize;
+    private final Semaphore sweeperPermits;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WorkflowReconciler.class);
 
@@ -49,7 +55,8 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
             WorkflowSweeper workflowSweeper, QueueDAO queueDAO, ConductorProperties properties) {
         this.workflowSweeper = workflowSweeper;
         this.queueDAO = queueDAO;
-        this.sweeperThreadCount = properties.getSweeperThreadCount();
+        this.sweeperBatchSize = properties.getSweeperBatchSize();
+        this.sweeperPermits = new Semaphore(properties.getSweeperThreadCount());
         LOGGER.info(
                 "WorkflowReconciler initialized with {} sweeper threads",
                 properties.getSweeperThreadCount());
@@ -63,17 +70,11 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
             if (!isRunning()) {
                 LOGGER.debug("Component stopped, skip workflow sweep");
             } else {
-                List<String> workflowIds = queueDAO.pop(DECIDER_QUEUE, sweeperThreadCount, 2000);
-                if (workflowIds != null) {
-                    // wait for all workflow ids to be "swept"
-                    CompletableFuture.allOf(
-                                    workflowIds.stream()
-                                            .map(workflowSweeper::sweepAsync)
-                                            .toArray(CompletableFuture[]::new))
-                            .get();
-                    LOGGER.debug(
-                            "Sweeper processed {} from the decider queue",
-                            String.join(",", workflowIds));
+                // keep at most one batch in flight per sweeper thread
+                while (isRunning() && sweeperPermits.tryAcquire()) {
+                    if (!pollBatch()) {
+                        break;
+                    }
                 }
                 // NOTE: Disabling the sweeper implicitly disables this metric.
                 recordQueueDepth();
@@ -81,13 +82,44 @@ public class WorkflowReconciler extends LifecycleAwareComponent {
         } catch (Exception e) {
             Monitors.error(WorkflowReconciler.class.getSimpleName(), "poll");
             LOGGER.error("Error when polling for workflows", e);
-            if (e instanceof InterruptedException) {
-                // Restore interrupted state...
-                Thread.currentThread().interrupt();
-            }
         }
     }
 
+    /**
+     * Polls a batch from the decider queue and hands it to the sweeper, releasing the permit once
+     * the batch is swept. The permit is released immediately if there is nothing to sweep.
+     *
+     * @return true if a full batch was polled, meaning that the queue may have more workflows
+     */
+    private boolean pollBatch() {
+        List<String> workflowIds;
+        try {
+            workflowIds = queueDAO.pop(DECIDER_QUEUE, sweeperBatchSize, 2000);
+        } catch (RuntimeException e) {
+            sweeperPermits.release();
+            throw e;
+        }
+        if (workflowIds == null || workflowIds.isEmpty()) {
+            sweeperPermits.release();
+            return false;
+        }
+        try {
+            workflowSweeper
+                    .sweepAsync(workflowIds)
+                    .whenComplete(
+                            (result, e) -> {
+                                sweeperPermits.release();
+                                LOGGER.debug(
+                                        "Sweeper processed {} from the decider queue",
+                                        String.join(",", workflowIds));
+                            });
+        } catch (RuntimeException e) {
+            sweeperPermits.release();
+            throw e;
+        }
+        return workflowIds.size() == sweeperBatchSize;
+    }
+
     private void recordQueueDepth() {
         int currentQueueSize = queueDAO.getSize(DECIDER_QUEUE);
         Monitors.recordGauge(DECIDER_QUEUE, currentQueueSize);
@@ -13,9 +13,16 @@
 package com.netflix.conductor.core.reconciliation;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +35,7 @@ import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.tasks.TaskType;
 import com.netflix.conductor.core.WorkflowContext;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.dal.ExecutionDAOFacade;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.dao.QueueDAO;
@@ -35,6 +43,7 @@ import com.netflix.conductor.metrics.Monitors;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.TaskModel.Status;
 import com.netflix.conductor.model.WorkflowModel;
+import com.netflix.conductor.service.ExecutionLockService;
 
 import static com.netflix.conductor.core.config.SchedulerConfiguration.SWEEPER_EXECUTOR_NAME;
 import static com.netflix.conductor.core.utils.Utils.DECIDER_QUEUE;
@@ -48,6 +57,8 @@ public class WorkflowSweeper {
     private final WorkflowExecutor workflowExecutor;
     private final WorkflowRepairService workflowRepairService;
     private final QueueDAO queueDAO;
+    private final ExecutionDAOFacade executionDAOFacade;
+    private final ExecutionLockService executionLockService;
 
     private static final String CLASS_NAME = WorkflowSweeper.class.getSimpleName();
 
@@ -56,64 +67,151 @@ public class WorkflowSweeper {
             WorkflowExecutor workflowExecutor,
             Optional<WorkflowRepairService> workflowRepairService,
             ConductorProperties properties,
-            QueueDAO queueDAO) {
+            QueueDAO queueDAO,
+            ExecutionDAOFacade executionDAOFacade,
+            ExecutionLockService executionLockService) {
         this.properties = properties;
         this.queueDAO = queueDAO;
         this.workflowExecutor = workflowExecutor;
         this.workflowRepairService = workflowRepairService.orElse(null);
+        this.executionDAOFacade = executionDAOFacade;
+        this.executionLockService = executionLockService;
         LOGGER.info("WorkflowSweeper initialized.");
     }
 
     @Async(SWEEPER_EXECUTOR_NAME)
-    public CompletableFuture<Void> sweepAsync(String workflowId) {
-        sweep(workflowId);
+    public CompletableFuture<Void> sweepAsync(List<String> workflowIds) {
+        sweep(workflowIds);
         return CompletableFuture.completedFuture(null);
     }
 
-    public void sweep(String workflowId) {
-        WorkflowModel workflow = null;
-        try {
-            WorkflowContext workflowContext = new WorkflowContext(properties.getAppId());
-            WorkflowContext.set(workflowContext);
-            LOGGER.debug("Running sweeper for workflow {}", workflowId);
+    /**
+     * Sweeps a batch of workflows: each workflow is repaired, decided and then removed from the
+     * decider queue or postponed. The workflows that could be locked are loaded from the datastore
+     * in one call, and the decider queue is updated once for the whole batch. A workflow stays
+     * locked from the batch read until its own decision, so the batch size bounds how long the
+     * other deciders can wait on it.
+     */
+    public void sweep(List<String> workflowIds) {
+        WorkflowContext workflowContext = new WorkflowContext(properties.getAppId());
+        WorkflowContext.set(workflowContext);
+        LOGGER.debug("Running sweeper for workflows {}", workflowIds);
 
-            if (workflowRepairService != null) {
-                // Verify and repair tasks in the workflow.
-                workflowRepairService.verifyAndRepairWorkflowTasks(workflowId);
+        List<String> toRemove = new ArrayList<>();
+        // unack timeout in milliseconds by workflow id
+        Map<String, Long> unackTimeouts = new LinkedHashMap<>();
+
+        List<String> repaired = repair(workflowIds, unackTimeouts);
+
+        long startTime = Instant.now().toEpochMilli();
+        List<String> locked = new ArrayList<>(repaired.size());
+        for (String workflowId : repaired) {
+            if (executionLockService.acquireLock(workflowId)) {
+                locked.add(workflowId);
+            } else {
+                // locked by another decider
+                unackTimeouts.put(workflowId, defaultUnackTimeout());
             }
+        }
+        Monitors.recordSweepStageTime("lock", Instant.now().toEpochMilli() - startTime);
 
-            workflow = workflowExecutor.decide(workflowId);
-            if (workflow != null && workflow.getStatus().isTerminal()) {
-                queueDAO.remove(DECIDER_QUEUE, workflowId);
-                return;
+        startTime = Instant.now().toEpochMilli();
+        Map<String, WorkflowModel> workflows = load(locked);
+        Monitors.recordSweepStageTime("load", Instant.now().toEpochMilli() - startTime);
+
+        startTime = Instant.now().toEpochMilli();
+        for (String workflowId : locked) {
+            try {
+                WorkflowModel workflow = workflows.get(workflowId);
+                if (workflow == null) {
+                    // not in the datastore anymore, look it up like a single decision would
+                    workflow = executionDAOFacade.getWorkflowModel(workflowId, true);
+                }
+                workflow = workflowExecutor.decide(workflow);
+                if (workflow.getStatus().isTerminal()) {
+                    toRemove.add(workflowId);
+                } else {
+                    long workflowOffsetTimeout =
+                            workflowOffsetWithJitter(
+                                    properties.getWorkflowOffsetTimeout().getSeconds());
+                    unackTimeouts.put(
+                            workflowId,
+                            postponeDurationSeconds(workflow, workflowOffsetTimeout) * 1000);
+                }
+            } catch (NotFoundException nfe) {
+                toRemove.add(workflowId);
+                LOGGER.info(
+                        "Workflow NOT found for id:{}. Removed it from decider queue",
+                        workflowId,
+                        nfe);
+            } catch (Exception e) {
+                Monitors.error(CLASS_NAME, "sweep");
+                LOGGER.error("Error running sweep for " + workflowId, e);
+                unackTimeouts.put(workflowId, defaultUnackTimeout());
+            } finally {
+                executionLockService.releaseLock(workflowId);
             }
+        }
+        Monitors.recordSweepStageTime("decide", Instant.now().toEpochMilli() - startTime);
 
-        } catch (NotFoundException nfe) {
-            queueDAO.remove(DECIDER_QUEUE, workflowId);
-            LOGGER.info(
-                    "Workflow NOT found for id:{}. Removed it from decider queue", workflowId, nfe);
-            return;
-        } catch (Exception e) {
-            Monitors.error(CLASS_NAME, "sweep");
-            LOGGER.error("Error running sweep for " + workflowId, e);
+        startTime = Instant.now().toEpochMilli();
+        if (!toRemove.isEmpty()) {
+            queueDAO.removeMessages(DECIDER_QUEUE, toRemove);
         }
-        long workflowOffsetTimeout =
-                workflowOffsetWithJitter(properties.getWorkflowOffsetTimeout().getSeconds());
-        if (workflow != null) {
-            long startTime = Instant.now().toEpochMilli();
-            unack(workflow, workflowOffsetTimeout);
-            long endTime = Instant.now().toEpochMilli();
-            Monitors.recordUnackTime(workflow.getWorkflowName(), endTime - startTime);
-        } else {
-            LOGGER.warn(
-                    "Workflow with {} id can not be found. Attempting to unack using the id",
-                    workflowId);
-            queueDAO.setUnackTimeout(DECIDER_QUEUE, workflowId, workflowOffsetTimeout * 1000);
+        if (!unackTimeouts.isEmpty()) {
+            queueDAO.setUnackTimeouts(DECIDER_QUEUE, unackTimeouts);
         }
+        Monitors.recordSweepStageTime("queue", Instant.now().toEpochMilli() - startTime);
     }
 
-    @VisibleForTesting
-    void unack(WorkflowModel workflowModel, long workflowOffsetTimeout) {
+    /**
+     * @return the ids of the workflows that can be decided, the others are postponed
+     */
+    private List<String> repair(List<String> workflowIds, Map<String, Long> unackTimeouts) {
+        if (workflowRepairService == null) {
+            return workflowIds;
+        }
+        long startTime = Instant.now().toEpochMilli();
+        List<String> repaired = new ArrayList<>(workflowIds.size());
+        for (String workflowId : workflowIds) {
+            try {
+                // Verify and repair tasks in the workflow.
+                workflowRepairService.verifyAndRepairWorkflowTasks(workflowId);
+                repaired.add(workflowId);
+            } catch (Exception e) {
+                Monitors.error(CLASS_NAME, "sweep");
+                LOGGER.error("Error running sweep for " + workflowId, e);
+                unackTimeouts.put(workflowId, defaultUnackTimeout());
+            }
+        }
+        Monitors.recordSweepStageTime("repair", Instant.now().toEpochMilli() - startTime);
+        return repaired;
+    }
+
+    private Map<String, WorkflowModel> load(List<String> workflowIds) {
+        if (workflowIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return executionDAOFacade.getWorkflowModels(workflowIds, true).stream()
+                    .collect(
+                            Collectors.toMap(
+                                    WorkflowModel::getWorkflowId,
+                                    Function.identity(),
+                                    (a, b) -> a));
+        } catch (Exception e) {
+            // the workflows are then loaded one by one
+            Monitors.error(CLASS_NAME, "sweepLoad");
+            LOGGER.error("Error loading workflows {} for sweep", workflowIds, e);
+            return new HashMap<>();
+        }
+    }
+
+    private long defaultUnackTimeout() {
+        return workflowOffsetWithJitter(properties.getWorkflowOffsetTimeout().getSeconds()) * 1000;
+    }
+
+    private long postponeDurationSeconds(WorkflowModel workflowModel, long workflowOffsetTimeout) {
         long postponeDurationSeconds = 0;
         for (TaskModel taskModel : workflowModel.getTasks()) {
             if (taskModel.getStatus() == Status.IN_PROGRESS) {
@@ -153,8 +251,7 @@ public class WorkflowSweeper {
                 break;
             }
         }
-        queueDAO.setUnackTimeout(
-                DECIDER_QUEUE, workflowModel.getWorkflowId(), postponeDurationSeconds * 1000);
+        return postponeDurationSeconds;
     }
 
     /**
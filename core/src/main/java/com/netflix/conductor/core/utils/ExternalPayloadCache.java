@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.utils.ExternalPayloadStorage;
+import com.netflix.conductor.metrics.Monitors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * A cache of the payloads downloaded from the {@link ExternalPayloadStorage}, keyed by their path.
+ * A stored payload is never modified, so a cached payload never needs to be refreshed.
+ *
+ * <p>The parsed payloads are kept in memory up to a total JSON size. Optionally, the downloaded
+ * JSON is also kept in the files of a directory up to another total size, so that the large
+ * payloads that do not stay in memory are read from disk instead of being downloaded again.
+ *
+ * <p>The callers may modify the payloads they get, so they always get a copy of a cached payload.
+ */
+final class ExternalPayloadCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalPayloadCache.class);
+
+    private static final String MEMORY_TIER = "memory";
+    private static final String DISK_TIER = "disk";
+    /** The prefix of the files written by the cache, the only files of the directory it deletes. */
+    private static final String FILE_PREFIX = "conductor-payload-";
+
+    private static final String FILE_SUFFIX = ".json";
+
+    private final ObjectMapper objectMapper;
+    /** The parsed payloads by path, <code>null</code> if not kept in memory. */
+    private final Cache<String, CachedPayload> memoryCache;
+    /** The size of the payload files by path, <code>null</code> if not kept on disk. */
+    private final Cache<String, Integer> diskCache;
+
+    private final Path directory;
+
+    /**
+     * @param memorySize the maximum size in bytes of the payloads kept in memory, zero for none
+     * @param directory the directory in which payloads are kept, <code>null</code> for none
+     * @param directorySize the maximum size in bytes of the payloads kept in the directory
+     * @throws UncheckedIOException if the directory cannot be created or cleared
+     */
+    ExternalPayloadCache(
+            ObjectMapper objectMapper, long memorySize, String directory, long directorySize) {
+        this.objectMapper = objectMapper;
+        if (memorySize > 0) {
+            this.memoryCache =
+                    Caffeine.newBuilder()
+                            .maximumWeight(memorySize)
+                            .<String, CachedPayload>weigher((path, payload) -> payload.size)
+                            .removalListener(
+                                    (String path, CachedPayload payload, RemovalCause cause) -> {
+                                        if (cause.wasEvicted()) {
+                                            Monitors.recordExternalPayloadCacheEviction(
+                                                    MEMORY_TIER);
+                                        }
+                                    })
+                            .build();
+        } else {
+            this.memoryCache = null;
+        }
+        if (directory != null) {
+            this.directory = Paths.get(directory);
+            clearDirectory();
+            this.diskCache =
+                    Caffeine.newBuilder()
+                            .maximumWeight(directorySize)
+                            .<String, Integer>weigher((path, size) -> size)
+                            // synchronous, so that the file is deleted before the eviction returns
+                            .executor(Runnable::run)
+                            .removalListener(this::onFileRemoval)
+                            .build();
+        } else {
+            this.directory = null;
+            this.diskCache = null;
+        }
+    }
+
+    /**
+     * @param downloader downloads the JSON payload at the given path
+     * @return a copy of the cached payload at the given path, downloaded if not cached yet
+     * @throws UncheckedIOException in case of JSON parsing errors
+     */
+    Map<String, Object> get(String path, Function<String, byte[]> downloader) {
+        if (memoryCache == null) {
+            return parse(load(path, downloader));
+        }
+        // not loaded through the cache, which would block other paths during a slow download
+        CachedPayload cached = memoryCache.getIfPresent(path);
+        Monitors.recordExternalPayloadCacheRequest(MEMORY_TIER, cached != null);
+        if (cached == null) {
+            byte[] json = load(path, downloader);
+            cached = new CachedPayload(parse(json), json.length);
+            memoryCache.put(path, cached);
+        }
+        return copy(cached.payload);
+    }
+
+    private byte[] load(String path, Function<String, byte[]> downloader) {
+        if (diskCache == null) {
+            return downloader.apply(path);
+        }
+        Path file = file(path);
+        if (diskCache.getIfPresent(path) != null) {
+            try {
+                byte[] json = Files.readAllBytes(file);
+                Monitors.recordExternalPayloadCacheRequest(DISK_TIER, true);
+                return json;
+            } catch (IOException e) {
+                LOGGER.warn("Unable to read the cached payload of {} from {}", path, file, e);
+                diskCache.invalidate(path);
+            }
+        }
+        Monitors.recordExternalPayloadCacheRequest(DISK_TIER, false);
+        byte[] json = downloader.apply(path);
+        try {
+            Path tempFile = Files.createTempFile(directory, FILE_PREFIX, null);
+            Files.write(tempFile, json);
+            Files.move(
+                    tempFile,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            diskCache.put(path, json.length);
+        } catch (IOException e) {
+            // the payload is still returned, it is just not cached on disk
+            LOGGER.warn("Unable to cache the payload of {} in {}", path, file, e);
+        }
+        return json;
+    }
+
+    private void onFileRemoval(String path, Integer size, RemovalCause cause) {
+        // a replaced or re-added file is still in use
+        if (cause == RemovalCause.REPLACED || diskCache.asMap().containsKey(path)) {
+            return;
+        }
+        if (cause.wasEvicted()) {
+            Monitors.recordExternalPayloadCacheEviction(DISK_TIER);
+        }
+        try {
+            Files.deleteIfExists(file(path));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete the cached payload of {}", path, e);
+        }
+    }
+
+    /**
+     * The files of a previous run are not tracked by the cache, and would never be deleted. The
+     * other files of the directory are left alone.
+     */
+    private void clearDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files =
+                    Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Unable to prepare the external payload cache directory " + directory, e);
+        }
+    }
+
+    private Path file(String path) {
+        String name = UUID.nameUUIDFromBytes(path.getBytes(StandardCharsets.UTF_8)).toString();
+        return directory.resolve(FILE_PREFIX + name + FILE_SUFFIX);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parse(byte[] json) {
+        try {
+            return objectMapper.readValue(json, Map.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) value;
+            Map<String, Object> copy = new LinkedHashMap<>(map.size());
+            map.forEach((key, item) -> copy.put(key, copy(item)));
+            return (T) copy;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(copy(item)));
+            return (T) copy;
+        }
+        // the other JSON values are immutable
+        return value;
+    }
+
+    private static class CachedPayload {
+
+        private final Map<String, Object> payload;
+        private final int size;
+
+        CachedPayload(Map<String, Object> payload, int size) {
+            this.payload = payload;
+            this.size = size;
+        }
+    }
+}
@@ -13,16 +13,28 @@
 package com.netflix.conductor.core.utils;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import com.netflix.conductor.annotations.VisibleForTesting;
 import com.netflix.conductor.common.run.ExternalStorageLocation;
@@ -44,9 +56,32 @@ public class ExternalPayloadStorageUtils {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExternalPayloadStorageUtils.class);
 
+    private static final int UPLOAD_BUFFER_SIZE = 64 * 1024;
+
+    /** The maximum number of payloads serialized into an upload pipe at the same time. */
+    private static final int UPLOAD_SERIALIZER_THREADS = 16;
+
     private final ExternalPayloadStorage externalPayloadStorage;
     private final ConductorProperties properties;
     private final ObjectMapper objectMapper;
+    /** The cache of the downloaded payloads, <code>null</code> if disabled. */
+    private final ExternalPayloadCache payloadCache;
+
+    /**
+     * Serializes the payloads that are being uploaded into the pipe read by the upload. It does not
+     * queue: when all its threads are busy, the payload is serialized in memory by the caller.
+     */
+    private final ExecutorService uploadSerializerExecutor =
+            new ThreadPoolExecutor(
+                    0,
+                    UPLOAD_SERIALIZER_THREADS,
+                    60,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    new BasicThreadFactory.Builder()
+                            .namingPattern("payload-upload-serializer-%d")
+                            .daemon(true)
+                            .build());
 
     public ExternalPayloadStorageUtils(
             ExternalPayloadStorage externalPayloadStorage,
@@ -55,6 +90,24 @@ public class ExternalPayloadStorageUtils {
         this.externalPayloadStorage = externalPayloadStorage;
         this.properties = properties;
         this.objectMapper = objectMapper;
+        long cacheSize = toBytes(properties.getExternalPayloadCacheSize());
+        String cacheDirectory = properties.getExternalPayloadCacheDirectory();
+        if (cacheSize > 0 || cacheDirectory != null) {
+            this.payloadCache =
+                    new ExternalPayloadCache(
+                            objectMapper,
+                            cacheSize,
+                            cacheDirectory,
+                            toBytes(properties.getExternalPayloadCacheDirectorySize()));
+        } else {
+            this.payloadCache = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // the uploads in progress are left to finish
+        uploadSerializerExecutor.shutdown();
     }
 
     /**
@@ -66,9 +119,11 @@ public class ExternalPayloadStorageUtils {
      */
     @SuppressWarnings("unchecked")
     public Map<String, Object> downloadPayload(String path) {
-        try (InputStream inputStream = externalPayloadStorage.download(path)) {
-            return objectMapper.readValue(
-                    IOUtils.toString(inputStream, StandardCharsets.UTF_8), Map.class);
+        try {
+            if (payloadCache != null) {
+                return payloadCache.get(path, this::download);
+            }
+            return objectMapper.readValue(download(path), Map.class);
         } catch (TransientException te) {
             throw te;
         } catch (Exception e) {
@@ -78,6 +133,18 @@ public class ExternalPayloadStorageUtils {
         }
     }
 
+    private byte[] download(String path) {
+        try (InputStream inputStream = externalPayloadStorage.download(path)) {
+            return IOUtils.toByteArray(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long toBytes(DataSize dataSize) {
+        return dataSize == null ? 0L : dataSize.toBytes();
+    }
+
     /**
      * Verify the payload size and upload to external storage if necessary.
      *
@@ -122,18 +189,16 @@ public class ExternalPayloadStorageUtils {
                 break;
         }
 
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-            objectMapper.writeValue(byteArrayOutputStream, payload);
-            byte[] payloadBytes = byteArrayOutputStream.toByteArray();
-            long payloadSize = payloadBytes.length;
-
+        try {
             final long maxThresholdInBytes = maxThreshold * 1024;
+            // the size is only counted, and the counting stops once the payload is too big
+            long payloadSize = getPayloadSize(payload, maxThresholdInBytes);
+
             if (payloadSize > maxThresholdInBytes) {
                 if (entity instanceof TaskModel) {
                     String errorMsg =
                             String.format(
-                                    "The payload size: %d of task: %s in workflow: %s  is greater than the permissible limit: %d bytes",
-                                    payloadSize,
+                                    "The payload size of task: %s in workflow: %s  is greater than the permissible limit: %d bytes",
                                     ((TaskModel) entity).getTaskId(),
                                     ((TaskModel) entity).getWorkflowInstanceId(),
                                     maxThresholdInBytes);
@@ -141,8 +206,7 @@ public class ExternalPayloadStorageUtils {
                 } else {
                     String errorMsg =
                             String.format(
-                                    "The payload size: %d of workflow: %s is greater than the permissible limit: %d bytes",
-                                    payloadSize,
+                                    "The payload size of workflow: %s is greater than the permissible limit: %d bytes",
                                     ((WorkflowModel) entity).getWorkflowId(),
                                     maxThresholdInBytes);
                     failWorkflow(((WorkflowModel) entity), payloadType, errorMsg);
@@ -152,7 +216,7 @@ public class ExternalPayloadStorageUtils {
                 switch (payloadType) {
                     case TASK_INPUT:
                         externalInputPayloadStoragePath =
-                                uploadHelper(payloadBytes, payloadSize, PayloadType.TASK_INPUT);
+                                uploadHelper(payload, payloadSize, PayloadType.TASK_INPUT);
                         ((TaskModel) entity).externalizeInput(externalInputPayloadStoragePath);
                         Monitors.recordExternalPayloadStorageUsage(
                                 ((TaskModel) entity).getTaskDefName(),
@@ -161,7 +225,7 @@ public class ExternalPayloadStorageUtils {
                         break;
                     case TASK_OUTPUT:
                         externalOutputPayloadStoragePath =
-                                uploadHelper(payloadBytes, payloadSize, PayloadType.TASK_OUTPUT);
+                                uploadHelper(payload, payloadSize, PayloadType.TASK_OUTPUT);
                         ((TaskModel) entity).externalizeOutput(externalOutputPayloadStoragePath);
                         Monitors.recordExternalPayloadStorageUsage(
                                 ((TaskModel) entity).getTaskDefName(),
@@ -170,7 +234,7 @@ public class ExternalPayloadStorageUtils {
                         break;
                     case WORKFLOW_INPUT:
                         externalInputPayloadStoragePath =
-                                uploadHelper(payloadBytes, payloadSize, PayloadType.WORKFLOW_INPUT);
+                                uploadHelper(payload, payloadSize, PayloadType.WORKFLOW_INPUT);
                         ((WorkflowModel) entity).externalizeInput(externalInputPayloadStoragePath);
                         Monitors.recordExternalPayloadStorageUsage(
                                 ((WorkflowModel) entity).getWorkflowName(),
@@ -179,8 +243,7 @@ public class ExternalPayloadStorageUtils {
                         break;
                     case WORKFLOW_OUTPUT:
                         externalOutputPayloadStoragePath =
-                                uploadHelper(
-                                        payloadBytes, payloadSize, PayloadType.WORKFLOW_OUTPUT);
+                                uploadHelper(payload, payloadSize, PayloadType.WORKFLOW_OUTPUT);
                         ((WorkflowModel) entity)
                                 .externalizeOutput(externalOutputPayloadStoragePath);
                         Monitors.recordExternalPayloadStorageUsage(
@@ -200,14 +263,66 @@ public class ExternalPayloadStorageUtils {
         }
     }
 
+    /**
+     * Counts the size of the JSON representation of the payload without buffering it.
+     *
+     * @return the size of the payload in bytes if it is at most the given limit, any size bigger
+     *     than the limit otherwise
+     */
+    @VisibleForTesting
+    long getPayloadSize(Map<String, Object> payload, long limit) throws IOException {
+        SizeCountingOutputStream outputStream = new SizeCountingOutputStream(limit);
+        try {
+            objectMapper.writeValue(outputStream, payload);
+        } catch (IOException e) {
+            if (!outputStream.isLimitExceeded()) {
+                throw e;
+            }
+        }
+        return outputStream.getSize();
+    }
+
+    /**
+     * Uploads the payload while it is being serialized, so that it is never fully held in memory.
+     * The serialization writes into a pipe from another thread, which the upload reads from. When
+     * no serialization thread is available, the payload is serialized in memory before the upload.
+     *
+     * @param payloadSize the size of the payload in bytes, see {@link #getPayloadSize(Map, long)}
+     */
     @VisibleForTesting
     String uploadHelper(
-            byte[] payloadBytes, long payloadSize, ExternalPayloadStorage.PayloadType payloadType) {
+            Map<String, Object> payload,
+            long payloadSize,
+            ExternalPayloadStorage.PayloadType payloadType)
+            throws IOException {
         ExternalStorageLocation location =
                 externalPayloadStorage.getLocation(
                         ExternalPayloadStorage.Operation.WRITE, payloadType, "");
-        externalPayloadStorage.upload(
-                location.getPath(), new ByteArrayInputStream(payloadBytes), payloadSize);
+        PipedInputStream inputStream = new PipedInputStream(UPLOAD_BUFFER_SIZE);
+        PipedOutputStream outputStream = new PipedOutputStream(inputStream);
+        try {
+            uploadSerializerExecutor.execute(
+                    () -> {
+                        try (outputStream) {
+                            objectMapper.writeValue(outputStream, payload);
+                        } catch (IOException e) {
+                            // the upload stopped reading, it either failed or got all it needed
+                            LOGGER.debug("Stopped serializing the payload being uploaded", e);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            inputStream.close();
+            byte[] bytes = objectMapper.writeValueAsBytes(payload);
+            externalPayloadStorage.upload(
+                    location.getPath(), new ByteArrayInputStream(bytes), payloadSize);
+            return location.getPath();
+        }
+        try {
+            externalPayloadStorage.upload(location.getPath(), inputStream, payloadSize);
+        } finally {
+            // unblocks the serialization if the upload did not read the whole payload
+            inputStream.close();
+        }
         return location.getPath();
     }
 
@@ -252,4 +367,43 @@ public class ExternalPayloadStorageUtils {
             }
         }
     }
+
+    /**
+     * Counts the bytes written to it without keeping them, and fails the write that crosses the
+     * limit so that the serialization of a payload that is too big stops early.
+     */
+    private static class SizeCountingOutputStream extends OutputStream {
+
+        private final long limit;
+        private long size;
+
+        SizeCountingOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            add(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            add(len);
+        }
+
+        private void add(int len) throws IOException {
+            size += len;
+            if (isLimitExceeded()) {
+                throw new IOException("The payload is bigger than " + limit + " bytes");
+            }
+        }
+
+        boolean isLimitExceeded() {
+            return size > limit;
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
 }
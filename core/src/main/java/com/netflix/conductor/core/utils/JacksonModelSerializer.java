@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import com.netflix.conductor.core.exception.NonTransientException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * A {@link ModelSerializer} that encodes the models with the application {@link ObjectMapper},
+ * either as plain JSON or as <a href="https://github.com/FasterXML/smile-format-specification">
+ * Smile</a>, the binary equivalent of JSON. Smile records are stored as Base64 text prefixed by a
+ * format-version header (e.g. <code>smile:1:</code>), which can never start a JSON document, so
+ * records written in either format are read back regardless of the configured format.
+ *
+ * <p>Both formats go through the same serializers, so the decoded models are identical.
+ */
+public class JacksonModelSerializer implements ModelSerializer {
+
+    public enum Format {
+        /** Plain JSON, the format of the records written before the serializer existed. */
+        JSON,
+        /** Base64 encoded Smile, with a format-version header. */
+        SMILE
+    }
+
+    static final String SMILE_HEADER = "smile:1:";
+
+    private final ObjectMapper objectMapper;
+    private final Format format;
+    private final SmileFactory smileFactory = new SmileFactory();
+
+    public JacksonModelSerializer(ObjectMapper objectMapper, Format format) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    @Override
+    public String serialize(Object value) {
+        try {
+            if (format == Format.SMILE) {
+                return SMILE_HEADER + Base64.getEncoder().encodeToString(toSmile(value));
+            }
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new NonTransientException("Error serializing " + format + " payload", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(String payload, Class<T> type) {
+        try {
+            if (payload.startsWith(SMILE_HEADER)) {
+                return fromSmile(
+                        Base64.getDecoder().decode(payload.substring(SMILE_HEADER.length())),
+                        type);
+            }
+            return objectMapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new NonTransientException("Error de-serializing payload", e);
+        }
+    }
+
+    private byte[] toSmile(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = smileFactory.createGenerator(out)) {
+            objectMapper.writeValue(generator, value);
+        }
+        return out.toByteArray();
+    }
+
+    private <T> T fromSmile(byte[] data, Class<T> type) throws IOException {
+        try (JsonParser parser = smileFactory.createParser(data)) {
+            return objectMapper.readValue(parser, type);
+        }
+    }
+}
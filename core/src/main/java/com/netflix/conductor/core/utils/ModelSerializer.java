@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+/**
+ * Encodes the models (e.g. {@link com.netflix.conductor.model.WorkflowModel}, {@link
+ * com.netflix.conductor.model.TaskModel}) that the DAOs store as text. Implementations must be
+ * able to read back the records written in every format they supported before, so that the format
+ * can be changed on a live datastore.
+ */
+public interface ModelSerializer {
+
+    /**
+     * @param value the model to encode
+     * @return the text stored by the DAO
+     */
+    String serialize(Object value);
+
+    /**
+     * @param payload the text stored by the DAO, in any of the supported formats
+     * @param type the type of the model
+     * @return the decoded model
+     */
+    <T> T deserialize(String payload, Class<T> type);
+}
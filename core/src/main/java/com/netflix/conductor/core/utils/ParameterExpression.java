@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.utils.EnvUtils;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * An input parameter string (e.g. <code>"id: ${workflow.input.id}"</code>) split once into its
+ * literal and <code>${...}</code> segments, with the JSONPath of every segment pre-compiled.
+ * Instances are immutable and are shared through the cache in {@link ParametersUtils}.
+ */
+final class ParameterExpression {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParameterExpression.class);
+
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("(?=(?<!\\$)\\$\\{)|(?<=})");
+
+    /** Each element is either a literal {@link String} or a {@link Reference}. */
+    private final Object[] segments;
+
+    private ParameterExpression(Object[] segments) {
+        this.segments = segments;
+    }
+
+    static ParameterExpression compile(String paramString) {
+        String[] values = SEGMENT_PATTERN.split(paramString);
+        Object[] segments = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            segments[i] = values[i];
+            if (values[i].startsWith("${") && values[i].endsWith("}")) {
+                String paramPath = values[i].substring(2, values[i].length() - 1);
+                // if the paramPath is blank, meaning no value in between ${ and }
+                // like ${}, ${  } etc, set the value to empty string
+                if (StringUtils.isBlank(paramPath)) {
+                    segments[i] = "";
+                } else {
+                    segments[i] = new Reference(values[i], paramPath);
+                }
+            } else if (values[i].contains("$${")) {
+                segments[i] = values[i].replaceAll("\\$\\$\\{", "\\${");
+            }
+        }
+        return new ParameterExpression(segments);
+    }
+
+    Object evaluate(DocumentContext documentContext, String taskId) {
+        if (segments.length == 1) {
+            return resolve(segments[0], documentContext, taskId);
+        }
+        // If the parameter String was "v1 v2 v3" then make sure to stitch it back
+        StringBuilder builder = new StringBuilder();
+        for (Object segment : segments) {
+            Object val = resolve(segment, documentContext, taskId);
+            builder.append(val == null ? "" : val.toString());
+        }
+        return builder.toString();
+    }
+
+    private static Object resolve(Object segment, DocumentContext documentContext, String taskId) {
+        if (segment instanceof Reference) {
+            return ((Reference) segment).read(documentContext, taskId);
+        }
+        return segment;
+    }
+
+    private static class Reference {
+
+        private final String text;
+        private final String paramPath;
+        private final JsonPath jsonPath;
+        private final Exception compileException;
+
+        Reference(String text, String paramPath) {
+            this.text = text;
+            this.paramPath = paramPath;
+            JsonPath compiled = null;
+            Exception exception = null;
+            try {
+                compiled = JsonPath.compile(paramPath);
+            } catch (Exception e) {
+                exception = e;
+            }
+            this.jsonPath = compiled;
+            this.compileException = exception;
+        }
+
+        Object read(DocumentContext documentContext, String taskId) {
+            // environment variables can change at runtime, so they are not resolved at compile time
+            if (EnvUtils.isEnvironmentVariable(paramPath)) {
+                String sysValue = EnvUtils.getSystemParametersValue(paramPath, taskId);
+                return sysValue != null ? sysValue : text;
+            }
+            try {
+                if (jsonPath == null) {
+                    throw compileException;
+                }
+                return documentContext.read(jsonPath);
+            } catch (Exception e) {
+                LOGGER.warn(
+                        "Error reading documentContext for paramPath: {}. Exception: {}",
+                        paramPath,
+                        e);
+                return null;
+            }
+        }
+    }
+}
@@ -20,20 +20,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
-import com.netflix.conductor.common.utils.EnvUtils;
-import com.netflix.conductor.common.utils.TaskUtils;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
@@ -43,10 +40,17 @@ import com.jayway.jsonpath.Option;
 @Component
 public class ParametersUtils {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(ParametersUtils.class);
+    private static final Configuration JSON_PATH_CONFIGURATION =
+            Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
+
+    private static final int EXPRESSION_CACHE_SIZE = 10_000;
 
     private final ObjectMapper objectMapper;
     private final TypeReference<Map<String, Object>> map = new TypeReference<>() {};
+    private final LoadingCache<String, ParameterExpression> expressionCache =
+            Caffeine.newBuilder()
+                    .maximumSize(EXPRESSION_CACHE_SIZE)
+                    .build(ParameterExpression::compile);
 
     public ParametersUtils(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -68,76 +72,33 @@ public class ParametersUtils {
             WorkflowModel workflow,
             String taskId,
             TaskDef taskDefinition) {
-        Map<String, Object> inputParams;
-
-        if (input != null) {
-            inputParams = clone(input);
-        } else {
-            inputParams = new HashMap<>();
+        Map<String, Object> inputParams = input;
+        if (inputParams == null) {
+            inputParams = Collections.emptyMap();
+        } else if (!isJsonNative(inputParams)) {
+            inputParams = clone(inputParams);
         }
+        Map<String, Object> inputTemplate = null;
         if (taskDefinition != null && taskDefinition.getInputTemplate() != null) {
-            clone(taskDefinition.getInputTemplate()).forEach(inputParams::putIfAbsent);
+            inputTemplate = taskDefinition.getInputTemplate();
+            if (!isJsonNative(inputTemplate)) {
+                inputTemplate = clone(inputTemplate);
+            }
         }
 
-        Map<String, Map<String, Object>> inputMap = new HashMap<>();
-
-        Map<String, Object> workflowParams = new HashMap<>();
-        workflowParams.put("input", workflow.getInput());
-        workflowParams.put("output", workflow.getOutput());
-        workflowParams.put("status", workflow.getStatus());
-        workflowParams.put("workflowId", workflow.getWorkflowId());
-        workflowParams.put("parentWorkflowId", workflow.getParentWorkflowId());
-        workflowParams.put("parentWorkflowTaskId", workflow.getParentWorkflowTaskId());
-        workflowParams.put("workflowType", workflow.getWorkflowName());
-        workflowParams.put("version", workflow.getWorkflowVersion());
-        workflowParams.put("correlationId", workflow.getCorrelationId());
-        workflowParams.put("reasonForIncompletion", workflow.getReasonForIncompletion());
-        workflowParams.put("schemaVersion", workflow.getWorkflowDefinition().getSchemaVersion());
-        workflowParams.put("variables", workflow.getVariables());
-
-        inputMap.put("workflow", workflowParams);
-
-        // For new workflow being started the list of tasks will be empty
-        workflow.getTasks().stream()
-                .map(TaskModel::getReferenceTaskName)
-                .map(workflow::getTaskByRefName)
-                .forEach(
-                        task -> {
-                            Map<String, Object> taskParams = new HashMap<>();
-                            taskParams.put("input", task.getInputData());
-                            taskParams.put("output", task.getOutputData());
-                            taskParams.put("taskType", task.getTaskType());
-                            if (task.getStatus() != null) {
-                                taskParams.put("status", task.getStatus().toString());
-                            }
-                            taskParams.put("referenceTaskName", task.getReferenceTaskName());
-                            taskParams.put("retryCount", task.getRetryCount());
-                            taskParams.put("correlationId", task.getCorrelationId());
-                            taskParams.put("pollCount", task.getPollCount());
-                            taskParams.put("taskDefName", task.getTaskDefName());
-                            taskParams.put("scheduledTime", task.getScheduledTime());
-                            taskParams.put("startTime", task.getStartTime());
-                            taskParams.put("endTime", task.getEndTime());
-                            taskParams.put("workflowInstanceId", task.getWorkflowInstanceId());
-                            taskParams.put("taskId", task.getTaskId());
-                            taskParams.put(
-                                    "reasonForIncompletion", task.getReasonForIncompletion());
-                            taskParams.put("callbackAfterSeconds", task.getCallbackAfterSeconds());
-                            taskParams.put("workerId", task.getWorkerId());
-                            taskParams.put("iteration", task.getIteration());
-                            inputMap.put(
-                                    task.isLoopOverTask()
-                                            ? TaskUtils.removeIterationFromTaskRefName(
-                                                    task.getReferenceTaskName())
-                                            : task.getReferenceTaskName(),
-                                    taskParams);
-                        });
-
-        Configuration option =
-                Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
-        DocumentContext documentContext = JsonPath.parse(inputMap, option);
+        // Tasks are only looked up when an expression references them
+        DocumentContext documentContext =
+                JsonPath.parse(new WorkflowParameterContext(workflow), JSON_PATH_CONFIGURATION);
         Map<String, Object> replacedTaskInput = replace(inputParams, documentContext, taskId);
-        if (taskDefinition != null && taskDefinition.getInputTemplate() != null) {
+        if (inputTemplate != null) {
+            // Keys of the inputTemplate that are absent (or null) in the input are resolved from
+            // the inputTemplate.
+            for (Entry<String, Object> e : inputTemplate.entrySet()) {
+                if (inputParams.get(e.getKey()) == null) {
+                    replacedTaskInput.put(
+                            e.getKey(), replaceValue(e.getValue(), documentContext, taskId));
+                }
+            }
             // If input for a given key resolves to null, try replacing it with one from
             // inputTemplate, if it exists.
             replacedTaskInput.replaceAll(
@@ -147,6 +108,41 @@ public class ParametersUtils {
         return replacedTaskInput;
     }
 
+    /**
+     * The input maps are never mutated while being resolved, so they only need to be deep cloned
+     * if they contain values that would not survive a JSON round trip unchanged (e.g. POJOs,
+     * Longs or Sets). This keeps the resolved values identical to those of a cloned input.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isJsonNative(Object value) {
+        if (value == null
+                || value instanceof String
+                || value instanceof Boolean
+                || value instanceof Integer) {
+            return true;
+        }
+        if (value instanceof Double) {
+            return Double.isFinite((Double) value);
+        }
+        if (value instanceof Map) {
+            for (Entry<Object, Object> e : ((Map<Object, Object>) value).entrySet()) {
+                if (!(e.getKey() instanceof String) || !isJsonNative(e.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof List) {
+            for (Object listVal : (List<?>) value) {
+                if (!isJsonNative(listVal)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     // deep clone using json - POJO
     private Map<String, Object> clone(Map<String, Object> inputTemplate) {
         try {
@@ -164,113 +160,53 @@ public class ParametersUtils {
         } else {
             doc = json;
         }
-        Configuration option =
-                Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
-        DocumentContext documentContext = JsonPath.parse(doc, option);
+        DocumentContext documentContext = JsonPath.parse(doc, JSON_PATH_CONFIGURATION);
         return replace(input, documentContext, null);
     }
 
     public Object replace(String paramString) {
-        Configuration option =
-                Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
-        DocumentContext documentContext = JsonPath.parse(Collections.emptyMap(), option);
+        DocumentContext documentContext =
+                JsonPath.parse(Collections.emptyMap(), JSON_PATH_CONFIGURATION);
         return replaceVariables(paramString, documentContext, null);
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Object> replace(
             Map<String, Object> input, DocumentContext documentContext, String taskId) {
         Map<String, Object> result = new HashMap<>();
         for (Entry<String, Object> e : input.entrySet()) {
-            Object newValue;
-            Object value = e.getValue();
-            if (value instanceof String) {
-                newValue = replaceVariables(value.toString(), documentContext, taskId);
-            } else if (value instanceof Map) {
-                // recursive call
-                newValue = replace((Map<String, Object>) value, documentContext, taskId);
-            } else if (value instanceof List) {
-                newValue = replaceList((List<?>) value, taskId, documentContext);
-            } else {
-                newValue = value;
-            }
-            result.put(e.getKey(), newValue);
+            result.put(e.getKey(), replaceValue(e.getValue(), documentContext, taskId));
         }
         return result;
     }
 
     @SuppressWarnings("unchecked")
+    private Object replaceValue(Object value, DocumentContext documentContext, String taskId) {
+        if (value instanceof String) {
+            return replaceVariables(value.toString(), documentContext, taskId);
+        } else if (value instanceof Map) {
+            // recursive call
+            return replace((Map<String, Object>) value, documentContext, taskId);
+        } else if (value instanceof List) {
+            return replaceList((List<?>) value, taskId, documentContext);
+        }
+        return value;
+    }
+
     private Object replaceList(List<?> values, String taskId, DocumentContext io) {
         List<Object> replacedList = new LinkedList<>();
         for (Object listVal : values) {
-            if (listVal instanceof String) {
-                Object replaced = replaceVariables(listVal.toString(), io, taskId);
-                replacedList.add(replaced);
-            } else if (listVal instanceof Map) {
-                Object replaced = replace((Map<String, Object>) listVal, io, taskId);
-                replacedList.add(replaced);
-            } else if (listVal instanceof List) {
-                Object replaced = replaceList((List<?>) listVal, taskId, io);
-                replacedList.add(replaced);
-            } else {
-                replacedList.add(listVal);
-            }
+            replacedList.add(replaceValue(listVal, io, taskId));
         }
         return replacedList;
     }
 
     private Object replaceVariables(
             String paramString, DocumentContext documentContext, String taskId) {
-        String[] values = paramString.split("(?=(?<!\\$)\\$\\{)|(?<=})");
-        Object[] convertedValues = new Object[values.length];
-        for (int i = 0; i < values.length; i++) {
-            convertedValues[i] = values[i];
-            if (values[i].startsWith("${") && values[i].endsWith("}")) {
-                String paramPath = values[i].substring(2, values[i].length() - 1);
-                // if the paramPath is blank, meaning no value in between ${ and }
-                // like ${}, ${  } etc, set the value to empty string
-                if (StringUtils.isBlank(paramPath)) {
-                    convertedValues[i] = "";
-                    continue;
-                }
-                if (EnvUtils.isEnvironmentVariable(paramPath)) {
-                    String sysValue = EnvUtils.getSystemParametersValue(paramPath, taskId);
-                    if (sysValue != null) {
-                        convertedValues[i] = sysValue;
-                    }
-
-                } else {
-                    try {
-                        convertedValues[i] = documentContext.read(paramPath);
-                    } catch (Exception e) {
-                        LOGGER.warn(
-                                "Error reading documentContext for paramPath: {}. Exception: {}",
-                                paramPath,
-                                e);
-                        convertedValues[i] = null;
-                    }
-                }
-            } else if (values[i].contains("$${")) {
-                convertedValues[i] = values[i].replaceAll("\\$\\$\\{", "\\${");
-            }
-        }
-
-        Object retObj = convertedValues[0];
-        // If the parameter String was "v1 v2 v3" then make sure to stitch it back
-        if (convertedValues.length > 1) {
-            for (int i = 0; i < convertedValues.length; i++) {
-                Object val = convertedValues[i];
-                if (val == null) {
-                    val = "";
-                }
-                if (i == 0) {
-                    retObj = val;
-                } else {
-                    retObj = retObj + "" + val.toString();
-                }
-            }
+        // strings without any ${...} (or escaped $${...}) expression resolve to themselves
+        if (!paramString.contains("${")) {
+            return paramString;
         }
-        return retObj;
+        return expressionCache.get(paramString).evaluate(documentContext, taskId);
     }
 
     @Deprecated
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.netflix.conductor.common.utils.TaskUtils;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+/**
+ * A read-only view of a {@link WorkflowModel} used as the JSONPath document when resolving task
+ * inputs. The document is keyed by <code>workflow</code> and by the task reference names (without
+ * the iteration suffix for DO_WHILE tasks). Unlike a materialized map, the parameters of a task
+ * are only looked up and built when a JSONPath expression touches its reference name, so resolving
+ * <code>${workflow.input.x}</code> does not depend on the number of tasks in the workflow.
+ *
+ * <p>The full document is only materialized for expressions that iterate over the root (e.g.
+ * <code>${$..output}</code>), in which case it is identical to the eagerly built one.
+ */
+final class WorkflowParameterContext extends AbstractMap<String, Object> {
+
+    private static final String WORKFLOW = "workflow";
+
+    private final WorkflowModel workflow;
+    private final Map<String, Object> resolved = new HashMap<>();
+    private Map<String, Object> materialized;
+
+    WorkflowParameterContext(WorkflowModel workflow) {
+        this.workflow = workflow;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        if (materialized != null) {
+            return materialized.get(key);
+        }
+        return resolved.computeIfAbsent((String) key, this::resolve);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        // tasks and the workflow always resolve to a non-null map of parameters
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (materialized == null) {
+            Map<String, Object> document = new HashMap<>();
+            document.put(WORKFLOW, get(WORKFLOW));
+            for (TaskModel task : workflow.getTasks()) {
+                String key = contextKey(task);
+                document.put(key, get(key));
+            }
+            materialized = Collections.unmodifiableMap(document);
+        }
+        return materialized.entrySet();
+    }
+
+    private Object resolve(String key) {
+        // tasks take precedence over the workflow, in case a task is named "workflow"
+        TaskModel task = findTask(key);
+        if (task != null) {
+            return getTaskParams(task);
+        }
+        if (WORKFLOW.equals(key)) {
+            return getWorkflowParams();
+        }
+        return null;
+    }
+
+    /**
+     * @return the latest task with the given reference name as the last one in the workflow that
+     *     maps to the key
+     */
+    private TaskModel findTask(String key) {
+        List<TaskModel> tasks = workflow.getTasks();
+        ListIterator<TaskModel> iterator = tasks.listIterator(tasks.size());
+        while (iterator.hasPrevious()) {
+            TaskModel task = iterator.previous();
+            String referenceTaskName = task.getReferenceTaskName();
+            // the key of a loop over task is always a prefix of its reference name
+            if (referenceTaskName != null
+                    && referenceTaskName.startsWith(key)
+                    && key.equals(contextKey(task))) {
+                return workflow.getTaskByRefName(referenceTaskName);
+            }
+        }
+        return null;
+    }
+
+    private String contextKey(TaskModel task) {
+        return task.isLoopOverTask()
+                ? TaskUtils.removeIterationFromTaskRefName(task.getReferenceTaskName())
+                : task.getReferenceTaskName();
+    }
+
+    private Map<String, Object> getWorkflowParams() {
+        Map<String, Object> workflowParams = new HashMap<>();
+        workflowParams.put("input", workflow.getInput());
+        workflowParams.put("output", workflow.getOutput());
+        workflowParams.put("status", workflow.getStatus());
+        workflowParams.put("workflowId", workflow.getWorkflowId());
+        workflowParams.put("parentWorkflowId", workflow.getParentWorkflowId());
+        workflowParams.put("parentWorkflowTaskId", workflow.getParentWorkflowTaskId());
+        workflowParams.put("workflowType", workflow.getWorkflowName());
+        workflowParams.put("version", workflow.getWorkflowVersion());
+        workflowParams.put("correlationId", workflow.getCorrelationId());
+        workflowParams.put("reasonForIncompletion", workflow.getReasonForIncompletion());
+        workflowParams.put("schemaVersion", workflow.getWorkflowDefinition().getSchemaVersion());
+        workflowParams.put("variables", workflow.getVariables());
+        return workflowParams;
+    }
+
+    private Map<String, Object> getTaskParams(TaskModel task) {
+        Map<String, Object> taskParams = new HashMap<>();
+        taskParams.put("input", task.getInputData());
+        taskParams.put("output", task.getOutputData());
+        taskParams.put("taskType", task.getTaskType());
+        if (task.getStatus() != null) {
+            taskParams.put("status", task.getStatus().toString());
+        }
+        taskParams.put("referenceTaskName", task.getReferenceTaskName());
+        taskParams.put("retryCount", task.getRetryCount());
+        taskParams.put("correlationId", task.getCorrelationId());
+        taskParams.put("pollCount", task.getPollCount());
+        taskParams.put("taskDefName", task.getTaskDefName());
+        taskParams.put("scheduledTime", task.getScheduledTime());
+        taskParams.put("startTime", task.getStartTime());
+        taskParams.put("endTime", task.getEndTime());
+        taskParams.put("workflowInstanceId", task.getWorkflowInstanceId());
+        taskParams.put("taskId", task.getTaskId());
+        taskParams.put("reasonForIncompletion", task.getReasonForIncompletion());
+        taskParams.put("callbackAfterSeconds", task.getCallbackAfterSeconds());
+        taskParams.put("workerId", task.getWorkerId());
+        taskParams.put("iteration", task.getIteration());
+        return taskParams;
+    }
+}
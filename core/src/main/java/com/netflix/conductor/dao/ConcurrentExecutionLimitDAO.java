@@ -12,6 +12,10 @@
  */
 package com.netflix.conductor.dao;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.model.TaskModel;
 
@@ -42,4 +46,19 @@ public interface ConcurrentExecutionLimitDAO {
      * @see TaskDef#concurrencyLimit()
      */
     boolean exceedsLimit(TaskModel task);
+
+    /**
+     * Checks the limits of several tasks, e.g. all the tasks of a batch poll, as if {@link
+     * #exceedsLimit(TaskModel)} was called for each of them in order. Implementations can override
+     * it to check the tasks of a task definition at once.
+     *
+     * @param tasks The tasks to be executed
+     * @return the ids of the tasks that would breach the limit
+     */
+    default Set<String> getTasksExceedingLimit(List<TaskModel> tasks) {
+        return tasks.stream()
+                .filter(this::exceedsLimit)
+                .map(TaskModel::getTaskId)
+                .collect(Collectors.toSet());
+    }
 }
@@ -47,4 +47,15 @@ public interface EventHandlerDAO {
      * @return Returns the list of all the event handlers for a given event
      */
     List<EventHandler> getEventHandlersForEvent(String event, boolean activeOnly);
+
+    /**
+     * Implementations should override this when they can cheaply tell whether the event handlers
+     * changed, so that the servers only reload the handlers when they did.
+     *
+     * @return a version that changes whenever an event handler is added, updated or removed, or
+     *     <code>null</code> if the store does not version the event handlers
+     */
+    default Long getEventHandlersVersion() {
+        return null;
+    }
 }
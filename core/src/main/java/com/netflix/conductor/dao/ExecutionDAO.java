@@ -12,7 +12,10 @@
  */
 package com.netflix.conductor.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import com.netflix.conductor.common.metadata.events.EventExecution;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
@@ -52,6 +55,16 @@ public interface ExecutionDAO {
      */
     void updateTask(TaskModel task);
 
+    /**
+     * Update several tasks at once. Implementations should override this when the underlying
+     * datastore can write all the tasks in one round trip.
+     *
+     * @param tasks Tasks to be updated
+     */
+    default void updateTasks(List<TaskModel> tasks) {
+        tasks.forEach(this::updateTask);
+    }
+
     /**
      * Checks if the number of tasks in progress for the given taskDef will exceed the limit if the
      * task is scheduled to be in progress (given to the worker or for system tasks start() method
@@ -145,6 +158,22 @@ public interface ExecutionDAO {
      */
     WorkflowModel getWorkflow(String workflowId, boolean includeTasks);
 
+    /**
+     * Loads several workflows at once. Implementations backed by a remote store should override
+     * this to fetch all the workflows in as few round trips as possible.
+     *
+     * @param workflowIds workflow instance ids
+     * @param includeTasks if set, includes the tasks (pending and completed) sorted by Task
+     *     Sequence number in each Workflow.
+     * @return the workflows that were found, in the order of the given ids
+     */
+    default List<WorkflowModel> getWorkflows(Collection<String> workflowIds, boolean includeTasks) {
+        return workflowIds.stream()
+                .map(workflowId -> getWorkflow(workflowId, includeTasks))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     /**
      * @param workflowName name of the workflow
      * @param version the workflow version
@@ -204,13 +233,46 @@ public interface ExecutionDAO {
      */
     boolean addEventExecution(EventExecution eventExecution);
 
+    /**
+     * Stores several event executions at once. Implementations should override this when the
+     * underlying datastore can write all the executions in one round trip.
+     *
+     * @param eventExecutions Event Executions to be stored
+     * @return the event executions that were added, the others being already stored
+     */
+    default List<EventExecution> addEventExecutions(List<EventExecution> eventExecutions) {
+        return eventExecutions.stream()
+                .filter(this::addEventExecution)
+                .collect(Collectors.toList());
+    }
+
     /**
      * @param eventExecution Event execution to be updated
      */
     void updateEventExecution(EventExecution eventExecution);
 
+    /**
+     * Update several event executions at once. Implementations should override this when the
+     * underlying datastore can write all the executions in one round trip.
+     *
+     * @param eventExecutions Event executions to be updated
+     */
+    default void updateEventExecutions(List<EventExecution> eventExecutions) {
+        eventExecutions.forEach(this::updateEventExecution);
+    }
+
     /**
      * @param eventExecution Event execution to be removed
      */
     void removeEventExecution(EventExecution eventExecution);
+
+    /**
+     * Removes several event executions at once. Implementations should override this when the
+     * underlying datastore can remove all the executions in one round trip.
+     *
+     * @param eventExecutions Event executions to be removed
+     */
+    default void removeEventExecutions(List<EventExecution> eventExecutions) {
+        eventExecutions.forEach(this::removeEventExecution);
+    }
 }
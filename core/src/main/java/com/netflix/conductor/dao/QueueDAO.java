@@ -86,6 +86,17 @@ public interface QueueDAO {
      */
     void remove(String queueName, String messageId);
 
+    /**
+     * Remove several messages at once. Implementations should override this when the underlying
+     * queue can remove all the messages in one call.
+     *
+     * @param queueName Name of the queue
+     * @param messageIds Message ids
+     */
+    default void removeMessages(String queueName, List<String> messageIds) {
+        messageIds.forEach(messageId -> remove(queueName, messageId));
+    }
+
     /**
      * @param queueName Name of the queue
      * @return size of the queue
@@ -99,6 +110,17 @@ public interface QueueDAO {
      */
     boolean ack(String queueName, String messageId);
 
+    /**
+     * Ack several messages at once. Implementations should override this when the underlying
+     * queue can ack all the messages in one call.
+     *
+     * @param queueName Name of the queue
+     * @param messageIds Message ids
+     */
+    default void ackMessages(String queueName, List<String> messageIds) {
+        messageIds.forEach(messageId -> ack(queueName, messageId));
+    }
+
     /**
      * Extend the lease of the unacknowledged message for longer period.
      *
@@ -110,6 +132,19 @@ public interface QueueDAO {
      */
     boolean setUnackTimeout(String queueName, String messageId, long unackTimeout);
 
+    /**
+     * Extend the lease of several unacknowledged messages at once. Implementations should
+     * override this when the underlying queue can update all the messages in one call.
+     *
+     * @param queueName Name of the queue
+     * @param unackTimeouts timeout in milliseconds for which the unack lease should be extended,
+     *     by message id
+     */
+    default void setUnackTimeouts(String queueName, Map<String, Long> unackTimeouts) {
+        unackTimeouts.forEach(
+                (messageId, timeout) -> setUnackTimeout(queueName, messageId, timeout));
+    }
+
     /**
      * @param queueName Name of the queue
      */
@@ -16,6 +16,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -48,6 +50,23 @@ public class Monitors {
     private static final Map<String, Map<Map<String, String>, DistributionSummary>>
             distributionSummaries = new ConcurrentHashMap<>();
 
+    /*
+     * Handles of the meters recorded on every poll and task update, keyed by their tag values so
+     * that recording does not build and hash a map of tags.
+     */
+    private static final Map<String, Counter> taskPollCounters = new ConcurrentHashMap<>();
+
+    private static final Map<String, Map<String, Counter>> taskPollCountCounters =
+            new ConcurrentHashMap<>();
+
+    private static final Map<String, Timer> queueWaitTimers = new ConcurrentHashMap<>();
+
+    /** Indexed by {@link #taskExecutionTimerIndex(boolean, TaskModel.Status)}. */
+    private static final Map<String, AtomicReferenceArray<Timer>> taskExecutionTimers =
+            new ConcurrentHashMap<>();
+
+    private static final int TASK_STATUS_COUNT = TaskModel.Status.values().length;
+
     public static final String classQualifier = "WorkflowMonitor";
 
     private Monitors() {}
@@ -95,51 +114,63 @@ public class Monitors {
 
     private static Timer getTimer(String className, String name, String... additionalTags) {
         Map<String, String> tags = toMap(className, additionalTags);
-        return timers.computeIfAbsent(name, s -> new ConcurrentHashMap<>())
-                .computeIfAbsent(
-                        tags,
-                        t -> {
-                            Id id = registry.createId(name, tags);
-                            return PercentileTimer.get(registry, id);
-                        });
+        return handle(
+                handle(timers, name, s -> new ConcurrentHashMap<>()),
+                tags,
+                t -> {
+                    Id id = registry.createId(name, tags);
+                    return PercentileTimer.get(registry, id);
+                });
     }
 
     private static Counter getCounter(String className, String name, String... additionalTags) {
         Map<String, String> tags = toMap(className, additionalTags);
 
-        return counters.computeIfAbsent(name, s -> new ConcurrentHashMap<>())
-                .computeIfAbsent(
-                        tags,
-                        t -> {
-                            Id id = registry.createId(name, tags);
-                            return registry.counter(id);
-                        });
+        return handle(
+                handle(counters, name, s -> new ConcurrentHashMap<>()),
+                tags,
+                t -> {
+                    Id id = registry.createId(name, tags);
+                    return registry.counter(id);
+                });
     }
 
     private static Gauge getGauge(String className, String name, String... additionalTags) {
         Map<String, String> tags = toMap(className, additionalTags);
 
-        return gauges.computeIfAbsent(name, s -> new ConcurrentHashMap<>())
-                .computeIfAbsent(
-                        tags,
-                        t -> {
-                            Id id = registry.createId(name, tags);
-                            return registry.gauge(id);
-                        });
+        return handle(
+                handle(gauges, name, s -> new ConcurrentHashMap<>()),
+                tags,
+                t -> {
+                    Id id = registry.createId(name, tags);
+                    return registry.gauge(id);
+                });
     }
 
     private static DistributionSummary getDistributionSummary(
             String className, String name, String... additionalTags) {
         Map<String, String> tags = toMap(className, additionalTags);
 
-        return distributionSummaries
-                .computeIfAbsent(name, s -> new ConcurrentHashMap<>())
-                .computeIfAbsent(
-                        tags,
-                        t -> {
-                            Id id = registry.createId(name, tags);
-                            return registry.distributionSummary(id);
-                        });
+        return handle(
+                handle(distributionSummaries, name, s -> new ConcurrentHashMap<>()),
+                tags,
+                t -> {
+                    Id id = registry.createId(name, tags);
+                    return registry.distributionSummary(id);
+                });
+    }
+
+    /**
+     * @return the handle of the key, only creating it on the first call for the key
+     */
+    private static <K, V> V handle(Map<K, V> handles, K key, Function<K, V> factory) {
+        // unlike computeIfAbsent, get never locks
+        V handle = handles.get(key);
+        return handle != null ? handle : handles.computeIfAbsent(key, factory);
+    }
+
+    private static int taskExecutionTimerIndex(boolean includesRetries, TaskModel.Status status) {
+        return (includesRetries ? TASK_STATUS_COUNT : 0) + status.ordinal();
     }
 
     private static Map<String, String> toMap(String className, String... additionalTags) {
@@ -173,28 +204,55 @@ public class Monitors {
     }
 
     public static void recordQueueWaitTime(String taskType, long queueWaitTime) {
-        getTimer(classQualifier, "task_queue_wait", "taskType", taskType)
+        handle(
+                        queueWaitTimers,
+                        String.valueOf(taskType),
+                        t -> getTimer(classQualifier, "task_queue_wait", "taskType", t))
                 .record(queueWaitTime, TimeUnit.MILLISECONDS);
     }
 
     public static void recordTaskExecutionTime(
             String taskType, long duration, boolean includesRetries, TaskModel.Status status) {
-        getTimer(
-                        classQualifier,
-                        "task_execution",
-                        "taskType",
-                        taskType,
-                        "includeRetries",
-                        "" + includesRetries,
-                        "status",
-                        status.name())
-                .record(duration, TimeUnit.MILLISECONDS);
+        AtomicReferenceArray<Timer> timers =
+                handle(
+                        taskExecutionTimers,
+                        String.valueOf(taskType),
+                        t -> new AtomicReferenceArray<>(2 * TASK_STATUS_COUNT));
+        int index = taskExecutionTimerIndex(includesRetries, status);
+        Timer timer = timers.get(index);
+        if (timer == null) {
+            // a concurrent creation returns the same timer from the registry
+            timer =
+                    getTimer(
+                            classQualifier,
+                            "task_execution",
+                            "taskType",
+                            String.valueOf(taskType),
+                            "includeRetries",
+                            "" + includesRetries,
+                            "status",
+                            status.name());
+            timers.set(index, timer);
+        }
+        timer.record(duration, TimeUnit.MILLISECONDS);
     }
 
     public static void recordWorkflowDecisionTime(long duration) {
         getTimer(classQualifier, "workflow_decision").record(duration, TimeUnit.MILLISECONDS);
     }
 
+    public static void recordDecideEvaluatedTasks(
+            String workflowType, boolean incremental, int count) {
+        distributionSummary(
+                classQualifier,
+                "workflow_decide_evaluated_tasks",
+                count,
+                "workflowName",
+                workflowType,
+                "incremental",
+                "" + incremental);
+    }
+
     public static void recordTaskPollError(String taskType, String exception) {
         recordTaskPollError(taskType, NO_DOMAIN, exception);
     }
@@ -212,7 +270,11 @@ public class Monitors {
     }
 
     public static void recordTaskPoll(String taskType) {
-        counter(classQualifier, "task_poll", "taskType", taskType);
+        handle(
+                        taskPollCounters,
+                        String.valueOf(taskType),
+                        t -> getCounter(classQualifier, "task_poll", "taskType", t))
+                .increment();
     }
 
     public static void recordTaskPollCount(String taskType, int count) {
@@ -220,7 +282,18 @@ public class Monitors {
     }
 
     public static void recordTaskPollCount(String taskType, String domain, int count) {
-        getCounter(classQualifier, "task_poll_count", "taskType", taskType, "domain", domain)
+        String type = String.valueOf(taskType);
+        handle(
+                        handle(taskPollCountCounters, type, t -> new ConcurrentHashMap<>()),
+                        String.valueOf(domain),
+                        d ->
+                                getCounter(
+                                        classQualifier,
+                                        "task_poll_count",
+                                        "taskType",
+                                        type,
+                                        "domain",
+                                        d))
                 .increment(count);
     }
 
@@ -394,8 +467,12 @@ public class Monitors {
                 .record(duration, TimeUnit.MILLISECONDS);
     }
 
-    public static void recordUnackTime(String workflowType, long duration) {
-        getTimer(classQualifier, "workflow_unack", "workflowName", workflowType)
+    /**
+     * @param stage the stage of a sweep (repair, lock, load, decide or queue)
+     * @param duration time spent in the stage for a whole batch of workflows, in milliseconds
+     */
+    public static void recordSweepStageTime(String stage, long duration) {
+        getTimer(classQualifier, "workflow_sweep_stage", "stage", stage)
                 .record(duration, TimeUnit.MILLISECONDS);
     }
 
@@ -433,6 +510,18 @@ public class Monitors {
                 queueName);
     }
 
+    public static void recordEventQueueMessagesHandled(
+            String queueType, String queueName, int count) {
+        getCounter(
+                        classQualifier,
+                        "event_queue_messages_handled",
+                        "queueType",
+                        queueType,
+                        "queueName",
+                        queueName)
+                .increment(count);
+    }
+
     public static void recordEventQueueMessagesError(String queueType, String queueName) {
         counter(
                 classQualifier,
@@ -530,6 +619,28 @@ public class Monitors {
                 payloadType);
     }
 
+    public static void recordExternalPayloadCacheRequest(String tier, boolean hit) {
+        counter(
+                classQualifier,
+                "external_payload_cache_request",
+                "tier",
+                tier,
+                "result",
+                hit ? "hit" : "miss");
+    }
+
+    public static void recordExternalPayloadCacheEviction(String tier) {
+        counter(classQualifier, "external_payload_cache_eviction", "tier", tier);
+    }
+
+    public static void recordEventHandlerIndexRequest(boolean hit) {
+        counter(classQualifier, "event_handler_index_request", "result", hit ? "hit" : "miss");
+    }
+
+    public static void recordEventHandlerIndexStaleness(long staleness) {
+        gauge(classQualifier, "event_handler_index_staleness", staleness);
+    }
+
     public static void recordDaoError(String dao, String action) {
         counter(classQualifier, "dao_errors", "dao", dao, "action", action);
     }
@@ -551,6 +662,19 @@ public class Monitors {
         counter(Monitors.classQualifier, "discarded_index_count", "queueType", queueType);
     }
 
+    public static void recordDelayedIndexRequest(boolean coalesced) {
+        counter(
+                classQualifier, "delayed_index_requests", "coalesced", String.valueOf(coalesced));
+    }
+
+    public static void recordDelayedIndexOverflow(boolean dropped) {
+        counter(classQualifier, "delayed_index_overflow", "dropped", String.valueOf(dropped));
+    }
+
+    public static void recordDelayedIndexLag(long lag) {
+        getTimer(classQualifier, "delayed_index_lag").record(lag, TimeUnit.MILLISECONDS);
+    }
+
     public static void recordAcquireLockUnsuccessful() {
         counter(classQualifier, "acquire_lock_unsuccessful");
     }
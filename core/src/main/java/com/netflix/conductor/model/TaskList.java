@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The tasks of a {@link WorkflowModel}, indexed by reference name and by id so that looking up a
+ * task does not scan the whole workflow.
+ *
+ * <p>The indexes are rebuilt on the first lookup after any modification of the list, so they stay
+ * consistent with tasks added, removed or replaced through the list or its iterators. A task
+ * renamed after it was added (DO_WHILE iterations are renamed before) triggers a rebuild as well:
+ * when it is found under its former name, or when a lookup finds nothing after a task was renamed
+ * anywhere since the last rebuild, see {@link TaskModel#RENAME_COUNT}.
+ */
+final class TaskList extends ArrayList<TaskModel> {
+
+    private transient int indexedModCount = -1;
+    private transient long indexedRenameCount;
+    private transient Map<String, TaskModel> tasksByRefName;
+    private transient Map<String, TaskModel> tasksById;
+
+    TaskList() {}
+
+    TaskList(Collection<TaskModel> tasks) {
+        super(tasks);
+    }
+
+    @Override
+    public TaskModel set(int index, TaskModel task) {
+        // ArrayList does not count the replacement of an element as a modification
+        modCount++;
+        return super.set(index, task);
+    }
+
+    /**
+     * @return the last task of the list with the given reference name, or null
+     */
+    TaskModel getByRefName(String refName) {
+        TaskModel task = indexed().tasksByRefName.get(refName);
+        if (task == null ? mayMissRenamedTasks() : !refName.equals(task.getReferenceTaskName())) {
+            task = rebuild().tasksByRefName.get(refName);
+        }
+        return task;
+    }
+
+    /**
+     * @return the last task of the list with the given id, or null
+     */
+    TaskModel getById(String taskId) {
+        TaskModel task = indexed().tasksById.get(taskId);
+        if (task == null ? mayMissRenamedTasks() : !taskId.equals(task.getTaskId())) {
+            task = rebuild().tasksById.get(taskId);
+        }
+        return task;
+    }
+
+    private boolean mayMissRenamedTasks() {
+        return indexedRenameCount != TaskModel.RENAME_COUNT.get();
+    }
+
+    private TaskList indexed() {
+        return indexedModCount == modCount ? this : rebuild();
+    }
+
+    private TaskList rebuild() {
+        // read first, so that a task renamed during the rebuild is not missed by the next lookup
+        long renameCount = TaskModel.RENAME_COUNT.get();
+        Map<String, TaskModel> byRefName = new HashMap<>();
+        Map<String, TaskModel> byId = new HashMap<>();
+        for (TaskModel task : this) {
+            if (task.getReferenceTaskName() == null) {
+                throw new RuntimeException(
+                        "Task "
+                                + task.getTaskDefName()
+                                + ", seq="
+                                + task.getSeq()
+                                + " does not have reference name specified.");
+            }
+            byRefName.put(task.getReferenceTaskName(), task);
+            if (task.getTaskId() != null) {
+                byId.put(task.getTaskId(), task);
+            }
+        }
+        tasksByRefName = byRefName;
+        tasksById = byId;
+        indexedModCount = modCount;
+        indexedRenameCount = renameCount;
+        return this;
+    }
+}
@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
@@ -66,6 +67,13 @@ public class TaskModel {
         }
     }
 
+    /**
+     * Counts the tasks of all the workflows whose reference name or id changed after it was set,
+     * so that a {@link TaskList} knows when a lookup that found nothing may have missed a renamed
+     * task.
+     */
+    static final AtomicLong RENAME_COUNT = new AtomicLong();
+
     private String taskType;
 
     private Status status;
@@ -221,6 +229,9 @@ public class TaskModel {
     }
 
     public void setReferenceTaskName(String referenceTaskName) {
+        if (this.referenceTaskName != null && !this.referenceTaskName.equals(referenceTaskName)) {
+            RENAME_COUNT.incrementAndGet();
+        }
         this.referenceTaskName = referenceTaskName;
     }
 
@@ -368,6 +379,9 @@ public class TaskModel {
     }
 
     public void setTaskId(String taskId) {
+        if (this.taskId != null && !this.taskId.equals(taskId)) {
+            RENAME_COUNT.incrementAndGet();
+        }
         this.taskId = taskId;
     }
 
@@ -63,7 +63,7 @@ public class WorkflowModel {
 
     private String parentWorkflowTaskId;
 
-    private List<TaskModel> tasks = new LinkedList<>();
+    private TaskList tasks = new TaskList();
 
     private String correlationId;
 
@@ -116,6 +116,8 @@ public class WorkflowModel {
 
     @JsonIgnore private Map<String, Object> outputPayload = new HashMap<>();
 
+    @JsonIgnore private Set<String> dirtyTaskIds;
+
     public Status getPreviousStatus() {
         return previousStatus;
     }
@@ -172,8 +174,16 @@ public class WorkflowModel {
         return tasks;
     }
 
+    /**
+     * @param tasks the tasks of the workflow, copied into the indexed list returned by {@link
+     *     #getTasks()} through which they must be modified
+     */
     public void setTasks(List<TaskModel> tasks) {
-        this.tasks = tasks;
+        if (tasks instanceof TaskList) {
+            this.tasks = (TaskList) tasks;
+        } else {
+            this.tasks = tasks == null ? new TaskList() : new TaskList(tasks);
+        }
     }
 
     @JsonIgnore
@@ -443,29 +453,33 @@ public class WorkflowModel {
         return String.format("%s.%s/%s", name, version, workflowId);
     }
 
+    /**
+     * @return the ids of the tasks that changed since the previous decision, or null if they are
+     *     unknown and every task of the workflow has to be evaluated
+     */
+    @JsonIgnore
+    public Set<String> getDirtyTaskIds() {
+        return dirtyTaskIds;
+    }
+
+    @JsonIgnore
+    public void setDirtyTaskIds(Set<String> dirtyTaskIds) {
+        this.dirtyTaskIds = dirtyTaskIds;
+    }
+
     public TaskModel getTaskByRefName(String refName) {
         if (refName == null) {
             throw new RuntimeException(
                     "refName passed is null.  Check the workflow execution.  For dynamic tasks, make sure referenceTaskName is set to a not null value");
         }
-        LinkedList<TaskModel> found = new LinkedList<>();
-        for (TaskModel task : tasks) {
-            if (task.getReferenceTaskName() == null) {
-                throw new RuntimeException(
-                        "Task "
-                                + task.getTaskDefName()
-                                + ", seq="
-                                + task.getSeq()
-                                + " does not have reference name specified.");
-            }
-            if (task.getReferenceTaskName().equals(refName)) {
-                found.add(task);
-            }
-        }
-        if (found.isEmpty()) {
-            return null;
-        }
-        return found.getLast();
+        return tasks.getByRefName(refName);
+    }
+
+    /**
+     * @return the task of this workflow with the given id, or null
+     */
+    public TaskModel getTaskById(String taskId) {
+        return taskId == null ? null : tasks.getById(taskId);
     }
 
     public void externalizeInput(String path) {
@@ -23,6 +23,7 @@ import org.springframework.stereotype.Service;
 import com.netflix.conductor.annotations.Trace;
 import com.netflix.conductor.common.metadata.events.EventExecution;
 import com.netflix.conductor.common.metadata.tasks.*;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.*;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage.Operation;
@@ -115,17 +116,45 @@ public class ExecutionService {
             Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
         }
 
-        for (String taskId : taskIds) {
-            try {
-                TaskModel taskModel = executionDAOFacade.getTaskModel(taskId);
-                if (taskModel == null || taskModel.getStatus().isTerminal()) {
-                    // Remove taskId(s) without a valid Task/terminal state task from the queue
-                    queueDAO.remove(queueName, taskId);
-                    LOGGER.debug("Removed task: {} from the queue: {}", taskId, queueName);
-                    continue;
-                }
+        if (taskIds.isEmpty()) {
+            executionDAOFacade.updateTaskLastPoll(taskType, domain, workerId);
+            Monitors.recordTaskPoll(queueName);
+            return tasks;
+        }
+
+        // the tasks are read, checked, written and acked in bulk, so that a batch poll costs about
+        // as many round trips to the datastore as a single poll
+        List<TaskModel> taskModels;
+        try {
+            taskModels = loadPolledTasks(queueName, taskIds);
+        } catch (Exception e) {
+            // db operation failed for dequeued messages, re-enqueue with a delay
+            LOGGER.warn("DB operation failed for tasks: {}, postponing tasks in queue", taskIds, e);
+            Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
+            taskIds.forEach(taskId -> postponeQuietly(queueName, taskId, 0));
+            taskModels = Collections.emptyList();
+        }
 
-                if (executionDAOFacade.exceedsInProgressLimit(taskModel)) {
+        Set<String> limitedTaskIds;
+        try {
+            limitedTaskIds = executionDAOFacade.getTasksExceedingInProgressLimit(taskModels);
+        } catch (Exception e) {
+            LOGGER.warn(
+                    "Concurrency limit check failed for tasks: {}, postponing tasks in queue",
+                    taskIds,
+                    e);
+            Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
+            taskModels.forEach(
+                    taskModel -> postponeQuietly(queueName, taskModel.getTaskId(), 0));
+            taskModels = Collections.emptyList();
+            limitedTaskIds = Collections.emptySet();
+        }
+
+        List<TaskModel> polledTasks = new ArrayList<>(taskModels.size());
+        for (TaskModel taskModel : taskModels) {
+            String taskId = taskModel.getTaskId();
+            try {
+                if (limitedTaskIds.contains(taskId)) {
                     // Postpone this message, so that it would be available for poll again.
                     queueDAO.postpone(
                             queueName,
@@ -169,22 +198,77 @@ public class ExecutionService {
                         0); // reset callbackAfterSeconds when giving the task to the worker
                 taskModel.setWorkerId(workerId);
                 taskModel.incrementPollCount();
-                executionDAOFacade.updateTask(taskModel);
-                tasks.add(taskModel.toTask());
+                polledTasks.add(taskModel);
             } catch (Exception e) {
                 // db operation failed for dequeued message, re-enqueue with a delay
                 LOGGER.warn(
                         "DB operation failed for task: {}, postponing task in queue", taskId, e);
                 Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
-                queueDAO.postpone(queueName, taskId, 0, queueTaskMessagePostponeSecs);
+                postponeQuietly(queueName, taskId, 0);
             }
         }
+
+        try {
+            executionDAOFacade.updateTasks(polledTasks);
+            polledTasks.forEach(taskModel -> tasks.add(taskModel.toTask()));
+        } catch (Exception e) {
+            // db operation failed for dequeued messages, re-enqueue with a delay
+            LOGGER.warn("DB operation failed for polled tasks, postponing tasks in queue", e);
+            Monitors.recordTaskPollError(taskType, domain, e.getClass().getSimpleName());
+            polledTasks.forEach(
+                    taskModel -> postponeQuietly(queueName, taskModel.getTaskId(), 0));
+        }
         executionDAOFacade.updateTaskLastPoll(taskType, domain, workerId);
         Monitors.recordTaskPoll(queueName);
-        tasks.forEach(this::ackTaskReceived);
+        ackTasksReceived(tasks);
         return tasks;
     }
 
+    /**
+     * @return the polled tasks that can be given to a worker, in the order of the ids. The ids
+     *     without a task or with a terminal task are removed from the queue.
+     */
+    private List<TaskModel> loadPolledTasks(String queueName, List<String> taskIds) {
+        Map<String, TaskModel> taskModelsById = new HashMap<>();
+        executionDAOFacade
+                .getTaskModels(taskIds)
+                .forEach(taskModel -> taskModelsById.put(taskModel.getTaskId(), taskModel));
+        List<TaskModel> taskModels = new ArrayList<>(taskIds.size());
+        List<String> invalidTaskIds = new ArrayList<>();
+        for (String taskId : taskIds) {
+            TaskModel taskModel = taskModelsById.get(taskId);
+            if (taskModel == null || taskModel.getStatus().isTerminal()) {
+                invalidTaskIds.add(taskId);
+            } else {
+                taskModels.add(taskModel);
+            }
+        }
+        if (!invalidTaskIds.isEmpty()) {
+            // Remove taskId(s) without a valid Task/terminal state task from the queue
+            queueDAO.removeMessages(queueName, invalidTaskIds);
+            LOGGER.debug("Removed tasks: {} from the queue: {}", invalidTaskIds, queueName);
+        }
+        return taskModels;
+    }
+
+    private void postponeQuietly(String queueName, String taskId, int priority) {
+        try {
+            queueDAO.postpone(queueName, taskId, priority, queueTaskMessagePostponeSecs);
+        } catch (Exception e) {
+            LOGGER.error("Error postponing task: {} in queue: {}", taskId, queueName, e);
+        }
+    }
+
+    private void ackTasksReceived(List<Task> tasks) {
+        Map<String, List<String>> taskIdsByQueueName = new HashMap<>();
+        for (Task task : tasks) {
+            taskIdsByQueueName
+                    .computeIfAbsent(QueueUtils.getQueueName(task), name -> new ArrayList<>())
+                    .add(task.getTaskId());
+        }
+        taskIdsByQueueName.forEach(queueDAO::ackMessages);
+    }
+
     public Task getLastPollTask(String taskType, String workerId, String domain) {
         List<Task> tasks = poll(taskType, workerId, domain, POLL_COUNT_ONE, POLLING_TIMEOUT_IN_MS);
         if (tasks.isEmpty()) {
@@ -243,6 +327,10 @@ public class ExecutionService {
         workflowExecutor.updateTask(taskResult);
     }
 
+    public BulkResponse updateTasks(List<TaskResult> taskResults) {
+        return workflowExecutor.updateTasks(taskResults);
+    }
+
     public List<Task> getTasks(String taskType, String startKey, int count) {
         return executionDAOFacade.getTasksByName(taskType, startKey, count);
     }
@@ -321,6 +409,15 @@ public class ExecutionService {
         return count;
     }
 
+    /**
+     * Puts a polled task that could not be handed to its worker back in its queue.
+     *
+     * @return true if the task was pushed to the queue
+     */
+    public boolean requeueTask(Task task) {
+        return requeue(task);
+    }
+
     private boolean requeue(Task pending) {
         long callback = pending.getCallbackAfterSeconds();
         if (callback < 0) {
@@ -541,14 +638,29 @@ public class ExecutionService {
         return executionDAOFacade.addEventExecution(eventExecution);
     }
 
+    /**
+     * @return the event executions that were added, the others being already stored
+     */
+    public List<EventExecution> addEventExecutions(List<EventExecution> eventExecutions) {
+        return executionDAOFacade.addEventExecutions(eventExecutions);
+    }
+
     public void removeEventExecution(EventExecution eventExecution) {
         executionDAOFacade.removeEventExecution(eventExecution);
     }
 
+    public void removeEventExecutions(List<EventExecution> eventExecutions) {
+        executionDAOFacade.removeEventExecutions(eventExecutions);
+    }
+
     public void updateEventExecution(EventExecution eventExecution) {
         executionDAOFacade.updateEventExecution(eventExecution);
     }
 
+    public void updateEventExecutions(List<EventExecution> eventExecutions) {
+        executionDAOFacade.updateEventExecutions(eventExecutions);
+    }
+
     /**
      * @param queue Name of the registered queueDAO
      * @param msg Message
@@ -30,6 +30,7 @@ import com.netflix.conductor.common.metadata.workflow.WorkflowDefSummary;
 import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.core.WorkflowContext;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.events.EventHandlerIndex;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.dao.EventHandlerDAO;
 import com.netflix.conductor.dao.MetadataDAO;
@@ -40,13 +41,16 @@ public class MetadataServiceImpl implements MetadataService {
     private static final Logger LOGGER = LoggerFactory.getLogger(MetadataServiceImpl.class);
     private final MetadataDAO metadataDAO;
     private final EventHandlerDAO eventHandlerDAO;
+    private final EventHandlerIndex eventHandlerIndex;
 
     public MetadataServiceImpl(
             MetadataDAO metadataDAO,
             EventHandlerDAO eventHandlerDAO,
+            EventHandlerIndex eventHandlerIndex,
             ConductorProperties properties) {
         this.metadataDAO = metadataDAO;
         this.eventHandlerDAO = eventHandlerDAO;
+        this.eventHandlerIndex = eventHandlerIndex;
 
         ValidationContext.initialize(metadataDAO);
         OwnerEmailMandatoryConstraint.WorkflowTaskValidValidator.setOwnerEmailMandatory(
@@ -186,6 +190,7 @@ public class MetadataServiceImpl implements MetadataService {
      */
     public void addEventHandler(EventHandler eventHandler) {
         eventHandlerDAO.addEventHandler(eventHandler);
+        eventHandlerIndex.invalidate();
     }
 
     /**
@@ -193,6 +198,7 @@ public class MetadataServiceImpl implements MetadataService {
      */
     public void updateEventHandler(EventHandler eventHandler) {
         eventHandlerDAO.updateEventHandler(eventHandler);
+        eventHandlerIndex.invalidate();
     }
 
     /**
@@ -200,6 +206,7 @@ public class MetadataServiceImpl implements MetadataService {
      */
     public void removeEventHandlerStatus(String name) {
         eventHandlerDAO.removeEventHandler(name);
+        eventHandlerIndex.invalidate();
     }
 
     /**
@@ -215,6 +222,9 @@ public class MetadataServiceImpl implements MetadataService {
      * @return Returns the list of all the event handlers for a given event
      */
     public List<EventHandler> getEventHandlersForEvent(String event, boolean activeOnly) {
+        if (activeOnly) {
+            return eventHandlerIndex.getActiveEventHandlers(event);
+        }
         return eventHandlerDAO.getEventHandlersForEvent(event, activeOnly);
     }
 
@@ -18,6 +18,7 @@ import java.util.Map;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 import org.springframework.validation.annotation.Validated;
 
@@ -25,6 +26,7 @@ import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.ExternalStorageLocation;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
@@ -32,6 +34,8 @@ import com.netflix.conductor.common.run.TaskSummary;
 @Validated
 public interface TaskService {
 
+    int MAX_UPDATE_BATCH_SIZE = 1000;
+
     /**
      * Poll for a task of a certain type.
      *
@@ -96,6 +100,20 @@ public interface TaskService {
     String updateTask(
             @NotNull(message = "TaskResult cannot be null or empty.") @Valid TaskResult taskResult);
 
+    /**
+     * Updates a batch of tasks, evaluating each workflow once for all of its tasks in the batch.
+     *
+     * @param taskResults Instances of {@link TaskResult}
+     * @return the ids of the updated tasks, and the error of each result that could not be applied
+     */
+    BulkResponse updateTasks(
+            @NotEmpty(message = "TaskResults cannot be null or empty.")
+                    @Size(
+                            max = MAX_UPDATE_BATCH_SIZE,
+                            message =
+                                    "Cannot update more than {max} tasks. Please use multiple requests.")
+                    List<@Valid TaskResult> taskResults);
+
     /**
      * Ack Task is received.
      *
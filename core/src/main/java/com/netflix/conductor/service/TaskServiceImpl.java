@@ -30,6 +30,7 @@ import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.ExternalStorageLocation;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
@@ -139,6 +140,17 @@ public class TaskServiceImpl implements TaskService {
         return taskResult.getTaskId();
     }
 
+    /**
+     * Updates a batch of tasks.
+     *
+     * @param taskResults Instances of {@link TaskResult}
+     * @return the ids of the updated tasks, and the error of each result that could not be applied
+     */
+    public BulkResponse updateTasks(List<TaskResult> taskResults) {
+        LOGGER.debug("Update {} tasks", taskResults.size());
+        return executionService.updateTasks(taskResults);
+    }
+
     /**
      * Ack Task is received.
      *
@@ -278,6 +278,7 @@ class AsyncSystemTaskExecutorTest extends Specification {
         1 * workflowSystemTask.start(workflow, task, workflowExecutor) >> { task.status = TaskModel.Status.COMPLETED }
         1 * queueDAO.remove(queueName, taskId)
         1 * workflowExecutor.decide(workflowId) // verify that workflow is decided
+        0 * workflowSystemTask.afterStart(*_)
 
         task.status == TaskModel.Status.COMPLETED
         task.startTime != 0 // verify that startTime is set
@@ -345,6 +346,35 @@ class AsyncSystemTaskExecutorTest extends Specification {
         task.pollCount == 1 // verify that poll count is incremented
     }
 
+    def "Execute with a task id that is in SCHEDULED state calls afterStart once the task is persisted"() {
+        given:
+        String workflowId = "workflowId"
+        String taskId = "taskId"
+        TaskModel task = new TaskModel(taskType: "type1", status: TaskModel.Status.SCHEDULED, taskId: taskId, workflowInstanceId: workflowId,
+                taskDefName: "taskDefName", workflowPriority: 10)
+        WorkflowModel workflow = new WorkflowModel(workflowId: workflowId, status: WorkflowModel.Status.RUNNING)
+        String queueName = QueueUtils.getQueueName(task)
+
+        when:
+        executor.execute(workflowSystemTask, taskId)
+
+        then:
+        1 * executionDAOFacade.getTaskModel(taskId) >> task
+        1 * executionDAOFacade.getWorkflowModel(workflowId, true) >> workflow
+        1 * workflowSystemTask.isAsyncComplete(task) >> false
+        1 * workflowSystemTask.start(workflow, task, workflowExecutor) >> { task.status = TaskModel.Status.IN_PROGRESS }
+        // the task is polled again until the work initiated by afterStart completes it
+        1 * queueDAO.postpone(queueName, taskId, task.workflowPriority, properties.systemTaskWorkerCallbackDuration.seconds)
+        0 * queueDAO.remove(queueName, taskId)
+
+        then:
+        1 * executionDAOFacade.updateTask(task)
+
+        then:
+        1 * workflowSystemTask.afterStart(workflow, task, workflowExecutor)
+        0 * workflowExecutor.decide(workflowId)
+    }
+
     def "Execute with a task id that is in IN_PROGRESS state"() {
         given:
         String workflowId = "workflowId"
@@ -363,6 +393,7 @@ class AsyncSystemTaskExecutorTest extends Specification {
 
         0 * workflowSystemTask.start(workflow, task, workflowExecutor)
         1 * workflowSystemTask.execute(workflow, task, workflowExecutor)
+        0 * workflowSystemTask.afterStart(*_)
 
         task.status == TaskModel.Status.IN_PROGRESS
         task.endTime == 0 // verify that endTime is not set
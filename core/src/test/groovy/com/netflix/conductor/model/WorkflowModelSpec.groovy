@@ -65,4 +65,129 @@ class WorkflowModelSpec extends Specification {
         node.path("output").isEmpty()
         node.path("externalOutputPayloadStoragePath").isTextual()
     }
+
+    def "getTaskByRefName returns the latest task with the reference name"() {
+        given:
+        workflowModel.tasks = [
+                new TaskModel(taskId: "t1", referenceTaskName: "a", seq: 1),
+                new TaskModel(taskId: "t2", referenceTaskName: "b", seq: 2)
+        ]
+
+        expect:
+        workflowModel.getTaskByRefName("a").taskId == "t1"
+        workflowModel.getTaskByRefName("b").taskId == "t2"
+        workflowModel.getTaskByRefName("c") == null
+        workflowModel.getTaskById("t2").referenceTaskName == "b"
+        workflowModel.getTaskById("t3") == null
+
+        when: "a retry of the task is added"
+        workflowModel.tasks.add(new TaskModel(taskId: "t3", referenceTaskName: "a", seq: 3))
+
+        then:
+        workflowModel.getTaskByRefName("a").taskId == "t3"
+        workflowModel.getTaskById("t1").seq == 1
+        workflowModel.getTaskById("t3").seq == 3
+
+        when: "tasks are removed"
+        workflowModel.tasks.removeIf { it.taskId == "t3" || it.taskId == "t2" }
+
+        then:
+        workflowModel.getTaskByRefName("a").taskId == "t1"
+        workflowModel.getTaskByRefName("b") == null
+        workflowModel.getTaskById("t2") == null
+
+        when: "a task is replaced"
+        workflowModel.tasks.set(0, new TaskModel(taskId: "t4", referenceTaskName: "b", seq: 4))
+
+        then:
+        workflowModel.getTaskByRefName("a") == null
+        workflowModel.getTaskByRefName("b").taskId == "t4"
+    }
+
+    def "getTaskByRefName sees a task renamed after it was indexed"() {
+        given:
+        TaskModel task = new TaskModel(taskId: "t1", referenceTaskName: "loop", seq: 1)
+        workflowModel.tasks = [task]
+
+        expect:
+        workflowModel.getTaskByRefName("loop") == task
+
+        when: "the task is renamed for its DO_WHILE iteration"
+        task.referenceTaskName = "loop__1"
+
+        then:
+        workflowModel.getTaskByRefName("loop") == null
+        workflowModel.getTaskByRefName("loop__1") == task
+    }
+
+    def "getTaskByRefName finds a renamed task by its new name"() {
+        given:
+        TaskModel task = new TaskModel(taskId: "t1", referenceTaskName: "loop", seq: 1)
+        workflowModel.tasks = [task]
+
+        expect:
+        workflowModel.getTaskByRefName("loop") == task
+
+        when: "the task is renamed for its DO_WHILE iteration, and looked up by its new name first"
+        task.referenceTaskName = "loop__1"
+
+        then:
+        workflowModel.getTaskByRefName("loop__1") == task
+        workflowModel.getTaskByRefName("loop") == null
+    }
+
+    def "getTaskById finds a task by its new id"() {
+        given:
+        TaskModel task = new TaskModel(taskId: "t1", referenceTaskName: "a", seq: 1)
+        workflowModel.tasks = [task]
+
+        expect:
+        workflowModel.getTaskById("t1") == task
+
+        when:
+        task.taskId = "t2"
+
+        then:
+        workflowModel.getTaskById("t2") == task
+        workflowModel.getTaskById("t1") == null
+    }
+
+    def "getTaskByRefName fails on a task without a reference name"() {
+        given:
+        workflowModel.tasks = [new TaskModel(taskId: "t1", taskDefName: "def", seq: 1)]
+
+        when:
+        workflowModel.getTaskByRefName("a")
+
+        then:
+        def e = thrown(RuntimeException)
+        e.message.contains("does not have reference name specified")
+    }
+
+    def "the tasks are indexed after deserialization"() {
+        given:
+        workflowModel.tasks = [new TaskModel(taskId: "t1", referenceTaskName: "a", seq: 1)]
+
+        when:
+        def json = objectMapper.writeValueAsString(workflowModel)
+        WorkflowModel deserialized = objectMapper.readValue(json, WorkflowModel.class)
+
+        then:
+        deserialized.tasks.size() == 1
+        deserialized.getTaskByRefName("a").taskId == "t1"
+        deserialized.getTaskById("t1").referenceTaskName == "a"
+    }
+
+    def "looking up every task of a large workflow"() {
+        given:
+        int count = 10_000
+        List<TaskModel> tasks = (1..count).collect {
+            new TaskModel(taskId: "id$it", referenceTaskName: "ref$it", seq: it)
+        }
+        workflowModel.tasks = tasks
+
+        expect:
+        (1..count).every { workflowModel.getTaskByRefName("ref$it").taskId == "id$it" }
+        (1..count).every { workflowModel.getTaskById("id$it").seq == it }
+    }
 }
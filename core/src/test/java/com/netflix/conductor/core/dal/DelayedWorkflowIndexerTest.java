@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.dal;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.QueueDAO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DelayedWorkflowIndexerTest {
+
+    private QueueDAO queueDAO;
+    private ConductorProperties properties;
+    private List<String> indexedWorkflowIds;
+    private DelayedWorkflowIndexer delayedWorkflowIndexer;
+
+    @Before
+    public void setUp() {
+        queueDAO = mock(QueueDAO.class);
+        properties = new ConductorProperties();
+        // the due workflows are indexed explicitly by the tests
+        properties.setAsyncIndexingEnabled(false);
+        properties.setAsyncUpdateDelay(Duration.ZERO);
+        indexedWorkflowIds = new CopyOnWriteArrayList<>();
+        delayedWorkflowIndexer =
+                new DelayedWorkflowIndexer(
+                        queueDAO,
+                        properties,
+                        workflowId ->
+                                !workflowId.startsWith("failing")
+                                        && indexedWorkflowIds.add(workflowId));
+    }
+
+    @Test
+    public void testUpdatesOfTheSameWorkflowAreCoalesced() {
+        delayedWorkflowIndexer.schedule("workflow1");
+        delayedWorkflowIndexer.schedule("workflow1");
+        delayedWorkflowIndexer.schedule("workflow2");
+
+        delayedWorkflowIndexer.indexDueWorkflows();
+        assertEquals(List.of("workflow1", "workflow2"), sorted(indexedWorkflowIds));
+
+        // a later update is indexed again
+        delayedWorkflowIndexer.schedule("workflow1");
+        delayedWorkflowIndexer.indexDueWorkflows();
+        assertEquals(3, indexedWorkflowIds.size());
+    }
+
+    @Test
+    public void testWorkflowsAreIndexedAfterTheDelay() {
+        properties.setAsyncUpdateDelay(Duration.ofSeconds(60));
+        delayedWorkflowIndexer.schedule("workflow1");
+
+        delayedWorkflowIndexer.indexDueWorkflows();
+        assertTrue(indexedWorkflowIds.isEmpty());
+    }
+
+    @Test
+    public void testFullQueueOverflowsToTheQueueDAO() {
+        properties.setAsyncUpdateDelayQueueCapacity(1);
+        // the leftovers of a previous run are polled once
+        delayedWorkflowIndexer.indexDueWorkflows();
+        verify(queueDAO).pop(eq(DelayedWorkflowIndexer.QUEUE_NAME), anyInt(), anyInt());
+
+        delayedWorkflowIndexer.schedule("workflow1");
+        delayedWorkflowIndexer.schedule("workflow2");
+        verify(queueDAO, never())
+                .pushIfNotExists(DelayedWorkflowIndexer.QUEUE_NAME, "workflow1", 0);
+        verify(queueDAO).pushIfNotExists(DelayedWorkflowIndexer.QUEUE_NAME, "workflow2", 0);
+
+        // the queue is polled until the overflow is drained
+        when(queueDAO.pop(eq(DelayedWorkflowIndexer.QUEUE_NAME), anyInt(), anyInt()))
+                .thenReturn(List.of("workflow2"))
+                .thenReturn(List.of());
+        delayedWorkflowIndexer.indexDueWorkflows();
+        assertEquals(List.of("workflow1", "workflow2"), sorted(indexedWorkflowIds));
+        verify(queueDAO).ackMessages(DelayedWorkflowIndexer.QUEUE_NAME, List.of("workflow2"));
+
+        delayedWorkflowIndexer.indexDueWorkflows();
+        verify(queueDAO, times(2)).pop(eq(DelayedWorkflowIndexer.QUEUE_NAME), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testOverflowIsDroppedWhenTheQueueDAOFails() {
+        properties.setAsyncUpdateDelayQueueCapacity(1);
+        when(queueDAO.pushIfNotExists(DelayedWorkflowIndexer.QUEUE_NAME, "workflow2", 0))
+                .thenThrow(new IllegalStateException("unavailable"));
+        delayedWorkflowIndexer.schedule("workflow1");
+        delayedWorkflowIndexer.schedule("workflow2");
+
+        delayedWorkflowIndexer.indexDueWorkflows();
+        assertEquals(List.of("workflow1"), indexedWorkflowIds);
+    }
+
+    @Test
+    public void testUpdatesOfAWaitingWorkflowAreCoalescedWhenTheQueueIsFull() {
+        properties.setAsyncUpdateDelayQueueCapacity(1);
+        delayedWorkflowIndexer.schedule("workflow1");
+        delayedWorkflowIndexer.schedule("workflow1");
+
+        delayedWorkflowIndexer.indexDueWorkflows();
+        assertEquals(List.of("workflow1"), indexedWorkflowIds);
+    }
+
+    @Test
+    public void testPersistedWorkflowsAreAckedOnceIndexed() {
+        properties.setAsyncUpdateDelayQueuePersistenceEnabled(true);
+        properties.setAsyncUpdateDelay(Duration.ofSeconds(60));
+        when(queueDAO.pushIfNotExists(DelayedWorkflowIndexer.QUEUE_NAME, "workflow1", 60))
+                .thenReturn(true);
+        delayedWorkflowIndexer.schedule("workflow1");
+        verify(queueDAO).pushIfNotExists(DelayedWorkflowIndexer.QUEUE_NAME, "workflow1", 60);
+
+        when(queueDAO.pop(eq(DelayedWorkflowIndexer.QUEUE_NAME), anyInt(), anyInt()))
+                .thenReturn(List.of("workflow1", "failingWorkflow"));
+        delayedWorkflowIndexer.indexDueWorkflows();
+
+        assertEquals(List.of("workflow1"), indexedWorkflowIds);
+        verify(queueDAO).ackMessages(DelayedWorkflowIndexer.QUEUE_NAME, List.of("workflow1"));
+    }
+
+    @Test
+    public void testPendingWorkflowsAreIndexedOnShutdown() {
+        properties.setAsyncUpdateDelay(Duration.ofSeconds(1));
+        delayedWorkflowIndexer.schedule("workflow1");
+
+        delayedWorkflowIndexer.shutdown();
+        assertEquals(List.of("workflow1"), indexedWorkflowIds);
+    }
+
+    private List<String> sorted(List<String> workflowIds) {
+        return workflowIds.stream().sorted().collect(Collectors.toList());
+    }
+}
@@ -28,6 +28,8 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
 import com.netflix.conductor.common.metadata.events.EventExecution;
+import com.netflix.conductor.common.metadata.tasks.TaskDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.Workflow;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage;
@@ -53,6 +55,7 @@ public class ExecutionDAOFacadeTest {
     private IndexDAO indexDAO;
     private ExecutionDAOFacade executionDAOFacade;
     private ExternalPayloadStorageUtils externalPayloadStorageUtils;
+    private ConcurrentExecutionLimitDAO concurrentExecutionLimitDAO;
 
     @Autowired private ObjectMapper objectMapper;
 
@@ -63,8 +66,7 @@ public class ExecutionDAOFacadeTest {
         indexDAO = mock(IndexDAO.class);
         externalPayloadStorageUtils = mock(ExternalPayloadStorageUtils.class);
         RateLimitingDAO rateLimitingDao = mock(RateLimitingDAO.class);
-        ConcurrentExecutionLimitDAO concurrentExecutionLimitDAO =
-                mock(ConcurrentExecutionLimitDAO.class);
+        concurrentExecutionLimitDAO = mock(ConcurrentExecutionLimitDAO.class);
         PollDataDAO pollDataDAO = mock(PollDataDAO.class);
         ConductorProperties properties = mock(ConductorProperties.class);
         when(properties.isEventExecutionIndexingEnabled()).thenReturn(true);
@@ -184,4 +186,80 @@ public class ExecutionDAOFacadeTest {
 
         executionDAOFacade.updateTask(task);
     }
+
+    @Test
+    public void testCompletedTaskFreesItsConcurrencyLimitSlot() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setConcurrentExecLimit(1);
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setTaskDefinition(taskDef);
+        TaskModel task = new TaskModel();
+        task.setTaskId(UUID.randomUUID().toString());
+        task.setTaskDefName("task1");
+        task.setWorkflowTask(workflowTask);
+
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        executionDAOFacade.updateTask(task);
+        verify(concurrentExecutionLimitDAO, never()).removeTaskFromLimit(any());
+
+        task.setStatus(TaskModel.Status.COMPLETED);
+        executionDAOFacade.updateTask(task);
+        verify(concurrentExecutionLimitDAO).removeTaskFromLimit(task);
+    }
+
+    @Test
+    public void testRemovedTaskFreesItsConcurrencyLimitSlot() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setConcurrentExecLimit(1);
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setTaskDefinition(taskDef);
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setTaskDefName("task1");
+        task.setWorkflowTask(workflowTask);
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        when(executionDAO.getTask("taskId")).thenReturn(task);
+
+        executionDAOFacade.removeTask("taskId");
+        verify(executionDAO).removeTask("taskId");
+        verify(concurrentExecutionLimitDAO).removeTaskFromLimit(task);
+    }
+
+    @Test
+    public void testRemovedLoadedTaskIsNotReadAgain() {
+        TaskModel task = concurrencyLimitedTask();
+
+        executionDAOFacade.removeTask(task);
+        verify(executionDAO, never()).getTask(any());
+        verify(executionDAO).removeTask("taskId");
+        verify(concurrentExecutionLimitDAO).removeTaskFromLimit(task);
+    }
+
+    @Test
+    public void testConcurrencyLimitDAOWithoutReleaseSupport() {
+        TaskModel task = concurrencyLimitedTask();
+        task.setStatus(TaskModel.Status.COMPLETED);
+        doThrow(new UnsupportedOperationException())
+                .when(concurrentExecutionLimitDAO)
+                .removeTaskFromLimit(any());
+
+        executionDAOFacade.updateTask(task);
+        executionDAOFacade.updateTask(task);
+        verify(executionDAO, times(2)).updateTask(task);
+        // the release is not attempted again
+        verify(concurrentExecutionLimitDAO).removeTaskFromLimit(task);
+    }
+
+    private TaskModel concurrencyLimitedTask() {
+        TaskDef taskDef = new TaskDef("task1");
+        taskDef.setConcurrentExecLimit(1);
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setTaskDefinition(taskDef);
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setTaskDefName("task1");
+        task.setWorkflowTask(workflowTask);
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        return task;
+    }
 }
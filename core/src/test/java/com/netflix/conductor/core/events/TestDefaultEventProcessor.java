@@ -540,4 +540,140 @@ public class TestDefaultEventProcessor {
         assertEquals(3, executeInvoked.get());
         assertNull(eventExecution.getOutput().get("exception"));
     }
+
+    @Test
+    public void testBatchEventProcessor() {
+        EventHandler eventHandler = batchEventHandler();
+        when(metadataService.getEventHandlersForEvent(event, true))
+                .thenReturn(Collections.singletonList(eventHandler));
+        when(executionService.addEventExecutions(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(actionProcessor.execute(any(), any(), any(), any())).thenReturn(new HashMap<>());
+
+        List<Message> messages =
+                Arrays.asList(
+                        new Message("m0", "{\"kind\": \"run\"}", "m0"),
+                        new Message("m1", "{\"kind\": \"skip\"}", "m1"),
+                        new Message("m2", "{\"kind\": \"run\"}", "m2"));
+        newEventProcessor().handle(queue, messages);
+
+        verify(executionService).addEventExecutions(argThat(executions -> executions.size() == 3));
+        verify(executionService, never()).addEventExecution(any());
+        verify(actionProcessor, times(2)).execute(any(), any(), any(), any());
+        verify(executionService)
+                .updateEventExecutions(
+                        argThat(executions -> executions.size() == 2 && allCompleted(executions)));
+        verify(queue).ack(messages);
+        verify(queue, never()).publish(any());
+    }
+
+    @Test
+    public void testBatchEventProcessorWithRetriableError() {
+        EventHandler eventHandler = batchEventHandler();
+        when(metadataService.getEventHandlersForEvent(event, true))
+                .thenReturn(Collections.singletonList(eventHandler));
+        when(executionService.addEventExecutions(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(actionProcessor.execute(any(), any(), any(), eq("m0"))).thenReturn(new HashMap<>());
+        when(actionProcessor.execute(any(), any(), any(), eq("m1")))
+                .thenThrow(new TransientException("some retriable error"));
+        when(queue.rePublishIfNoAck()).thenReturn(true);
+
+        Message first = new Message("m0", "{\"kind\": \"run\"}", "m0");
+        Message second = new Message("m1", "{\"kind\": \"run\"}", "m1");
+        newEventProcessor().handle(queue, Arrays.asList(first, second));
+
+        verify(executionService)
+                .updateEventExecutions(
+                        argThat(executions -> executions.size() == 1 && allCompleted(executions)));
+        verify(executionService)
+                .removeEventExecutions(
+                        argThat(
+                                executions ->
+                                        executions.size() == 1
+                                                && "m1".equals(executions.get(0).getMessageId())));
+        verify(queue).ack(Collections.singletonList(first));
+        verify(queue).publish(Collections.singletonList(second));
+    }
+
+    @Test
+    public void testBatchEventProcessorWithRetriableBatchError() {
+        EventHandler eventHandler = batchEventHandler();
+        when(metadataService.getEventHandlersForEvent(event, true))
+                .thenReturn(Collections.singletonList(eventHandler));
+        when(executionService.addEventExecutions(any()))
+                .thenThrow(new TransientException("datastore unavailable"));
+        when(queue.rePublishIfNoAck()).thenReturn(true);
+
+        List<Message> messages =
+                Arrays.asList(
+                        new Message("m0", "{\"kind\": \"run\"}", "m0"),
+                        new Message("m1", "{\"kind\": \"run\"}", "m1"));
+        newEventProcessor().handle(queue, messages);
+
+        verify(actionProcessor, never()).execute(any(), any(), any(), any());
+        verify(queue, never()).ack(any());
+        verify(queue).publish(messages);
+    }
+
+    @Test
+    public void testBatchEventProcessorWithNonRetriableBatchError() {
+        when(metadataService.getEventHandlersForEvent(event, true))
+                .thenThrow(new IllegalStateException("some non-retriable error"));
+
+        List<Message> messages =
+                Arrays.asList(
+                        new Message("m0", "{\"kind\": \"run\"}", "m0"),
+                        new Message("m1", "{\"kind\": \"run\"}", "m1"));
+        newEventProcessor().handle(queue, messages);
+
+        verify(queue).ack(messages);
+        verify(queue, never()).publish(any());
+    }
+
+    @Test
+    public void testBatchEventProcessorDuplicateDelivery() {
+        EventHandler eventHandler = batchEventHandler();
+        when(metadataService.getEventHandlersForEvent(event, true))
+                .thenReturn(Collections.singletonList(eventHandler));
+        when(executionService.addEventExecutions(any())).thenReturn(Collections.emptyList());
+
+        List<Message> messages =
+                Collections.singletonList(new Message("m0", "{\"kind\": \"run\"}", "m0"));
+        newEventProcessor().handle(queue, messages);
+
+        verify(actionProcessor, never()).execute(any(), any(), any(), any());
+        verify(queue).ack(messages);
+    }
+
+    private EventHandler batchEventHandler() {
+        EventHandler eventHandler = new EventHandler();
+        eventHandler.setName(UUID.randomUUID().toString());
+        eventHandler.setActive(true);
+        eventHandler.setEvent(event);
+        eventHandler.setCondition("$.kind == 'run'");
+
+        Action completeTaskAction = new Action();
+        completeTaskAction.setAction(Type.complete_task);
+        completeTaskAction.setComplete_task(new TaskDetails());
+        completeTaskAction.getComplete_task().setTaskId("${taskId}");
+        eventHandler.getActions().add(completeTaskAction);
+        return eventHandler;
+    }
+
+    private static boolean allCompleted(List<EventExecution> executions) {
+        return executions.stream().allMatch(e -> e.getStatus() == EventExecution.Status.COMPLETED);
+    }
+
+    private DefaultEventProcessor newEventProcessor() {
+        return new DefaultEventProcessor(
+                executionService,
+                metadataService,
+                actionProcessor,
+                jsonUtils,
+                properties,
+                objectMapper,
+                evaluators,
+                retryTemplate);
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.events;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netflix.conductor.common.metadata.events.EventHandler;
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.EventHandlerDAO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestEventHandlerIndex {
+
+    private EventHandlerDAO eventHandlerDAO;
+    private ConductorProperties properties;
+    private EventHandlerIndex eventHandlerIndex;
+
+    @Before
+    public void setUp() {
+        eventHandlerDAO = mock(EventHandlerDAO.class);
+        properties = new ConductorProperties();
+        // long enough for the refresh to only run when the tests call it
+        properties.setEventHandlerIndexRefreshInterval(Duration.ofHours(1));
+    }
+
+    @After
+    public void tearDown() {
+        if (eventHandlerIndex != null) {
+            eventHandlerIndex.shutdown();
+        }
+    }
+
+    @Test
+    public void testActiveHandlersByEvent() {
+        EventHandler first = eventHandler("first", "sqs:queue1", true);
+        EventHandler second = eventHandler("second", "sqs:queue1", true);
+        EventHandler inactive = eventHandler("inactive", "sqs:queue1", false);
+        EventHandler other = eventHandler("other", "sqs:queue2", true);
+        when(eventHandlerDAO.getAllEventHandlers())
+                .thenReturn(Arrays.asList(first, second, inactive, other));
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+
+        assertEquals(
+                Arrays.asList(first, second),
+                eventHandlerIndex.getActiveEventHandlers("sqs:queue1"));
+        assertEquals(
+                Collections.singletonList(other),
+                eventHandlerIndex.getActiveEventHandlers("sqs:queue2"));
+        assertTrue(eventHandlerIndex.getActiveEventHandlers("sqs:queue3").isEmpty());
+
+        verify(eventHandlerDAO, times(1)).getAllEventHandlers();
+        verify(eventHandlerDAO, never()).getEventHandlersForEvent(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testRefreshOnlyReloadsChangedVersion() {
+        EventHandler first = eventHandler("first", "sqs:queue1", true);
+        EventHandler second = eventHandler("second", "sqs:queue1", true);
+        when(eventHandlerDAO.getEventHandlersVersion()).thenReturn(1L);
+        when(eventHandlerDAO.getAllEventHandlers())
+                .thenReturn(Collections.singletonList(first))
+                .thenReturn(Arrays.asList(first, second));
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+        eventHandlerIndex.getActiveEventHandlers("sqs:queue1");
+
+        eventHandlerIndex.refresh();
+        assertEquals(1, eventHandlerIndex.getActiveEventHandlers("sqs:queue1").size());
+        verify(eventHandlerDAO, times(1)).getAllEventHandlers();
+
+        when(eventHandlerDAO.getEventHandlersVersion()).thenReturn(2L);
+        eventHandlerIndex.refresh();
+        assertEquals(2, eventHandlerIndex.getActiveEventHandlers("sqs:queue1").size());
+        verify(eventHandlerDAO, times(2)).getAllEventHandlers();
+    }
+
+    @Test
+    public void testRefreshWithoutVersionReloadsAtTheReloadInterval() {
+        when(eventHandlerDAO.getAllEventHandlers()).thenReturn(Collections.emptyList());
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+        eventHandlerIndex.getActiveEventHandlers("sqs:queue1");
+
+        eventHandlerIndex.refresh();
+        eventHandlerIndex.refresh();
+        verify(eventHandlerDAO, times(1)).getAllEventHandlers();
+    }
+
+    @Test
+    public void testRefreshWithoutVersionReloadsOnEveryCheckWithoutReloadInterval() {
+        properties.setEventHandlerIndexReloadInterval(Duration.ZERO);
+        when(eventHandlerDAO.getAllEventHandlers()).thenReturn(Collections.emptyList());
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+        eventHandlerIndex.getActiveEventHandlers("sqs:queue1");
+
+        eventHandlerIndex.refresh();
+        eventHandlerIndex.refresh();
+        verify(eventHandlerDAO, times(3)).getAllEventHandlers();
+    }
+
+    @Test
+    public void testRefreshFailureKeepsHandlers() {
+        properties.setEventHandlerIndexReloadInterval(Duration.ZERO);
+        EventHandler first = eventHandler("first", "sqs:queue1", true);
+        when(eventHandlerDAO.getAllEventHandlers())
+                .thenReturn(Collections.singletonList(first))
+                .thenThrow(new IllegalStateException("unavailable"));
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+        eventHandlerIndex.getActiveEventHandlers("sqs:queue1");
+
+        eventHandlerIndex.refresh();
+        assertEquals(
+                Collections.singletonList(first),
+                eventHandlerIndex.getActiveEventHandlers("sqs:queue1"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        EventHandler first = eventHandler("first", "sqs:queue1", true);
+        when(eventHandlerDAO.getEventHandlersVersion()).thenReturn(1L);
+        when(eventHandlerDAO.getAllEventHandlers())
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(first));
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+        assertTrue(eventHandlerIndex.getActiveEventHandlers("sqs:queue1").isEmpty());
+
+        eventHandlerIndex.invalidate();
+        assertEquals(
+                Collections.singletonList(first),
+                eventHandlerIndex.getActiveEventHandlers("sqs:queue1"));
+    }
+
+    @Test
+    public void testDisabled() {
+        EventHandler first = eventHandler("first", "sqs:queue1", true);
+        List<EventHandler> handlers = Collections.singletonList(first);
+        when(eventHandlerDAO.getEventHandlersForEvent("sqs:queue1", true)).thenReturn(handlers);
+        properties.setEventHandlerIndexRefreshInterval(Duration.ZERO);
+        eventHandlerIndex = new EventHandlerIndex(eventHandlerDAO, properties);
+
+        assertEquals(handlers, eventHandlerIndex.getActiveEventHandlers("sqs:queue1"));
+        eventHandlerIndex.invalidate();
+        verify(eventHandlerDAO, never()).getAllEventHandlers();
+    }
+
+    private EventHandler eventHandler(String name, String event, boolean active) {
+        EventHandler eventHandler = new EventHandler();
+        eventHandler.setName(name);
+        eventHandler.setEvent(event);
+        eventHandler.setActive(active);
+        return eventHandler;
+    }
+}
@@ -12,11 +12,17 @@
  */
 package com.netflix.conductor.core.events;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -44,4 +50,45 @@ public class TestScriptEval {
         assertTrue(ScriptEvaluator.evalBool(script3, payload));
         assertFalse(ScriptEvaluator.evalBool(script4, payload));
     }
+
+    @Test
+    public void testCompiledScriptWithDifferentInputs() throws Exception {
+        String script = "$.input.x > 5";
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> payload = Map.of("input", Map.of("x", i));
+            assertEquals(i > 5, ScriptEvaluator.evalBool(script, payload));
+        }
+    }
+
+    @Test
+    public void testScriptsDoNotShareState() throws Exception {
+        String script = "var counter = (typeof counter === 'undefined') ? 1 : counter + 1; counter";
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, ((Number) ScriptEvaluator.eval(script, Map.of())).intValue());
+        }
+    }
+
+    @Test
+    public void testConcurrentEvaluation() throws Exception {
+        String script =
+                "function sum(values) {"
+                        + "  var total = 0;"
+                        + "  for (var i = 0; i < values.size(); i++) { total += values.get(i); }"
+                        + "  return total;"
+                        + "}"
+                        + "sum($.values) + $.offset";
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Map<String, Object> payload = Map.of("values", List.of(1, 2, 3), "offset", i);
+                results.add(executorService.submit(() -> ScriptEvaluator.eval(script, payload)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(6 + i, ((Number) results.get(i).get()).intValue());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.events.queue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.QueueDAO;
+
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConductorObservableQueueTest {
+
+    private static final String QUEUE_NAME = "test_queue";
+
+    private QueueDAO queueDAO;
+    private TestScheduler scheduler;
+    private ConductorObservableQueue queue;
+
+    @Before
+    public void setUp() {
+        queueDAO = mock(QueueDAO.class);
+        scheduler = new TestScheduler();
+        ConductorProperties properties = new ConductorProperties();
+        properties.setEventQueuePollInterval(Duration.ofMillis(100));
+        properties.setEventQueueMaxPollInterval(Duration.ofMillis(400));
+        properties.setEventQueuePollCount(10);
+        queue = new ConductorObservableQueue(QUEUE_NAME, queueDAO, properties, scheduler);
+    }
+
+    @Test
+    public void testPollIntervalBacksOffWhileEmpty() {
+        List<Message> messages =
+                Arrays.asList(
+                        new Message("m0", "payload", "r0"),
+                        new Message("m1", "payload", "r1"),
+                        new Message("m2", "payload", "r2"));
+        when(queueDAO.pollMessages(eq(QUEUE_NAME), eq(10), anyInt()))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.emptyList())
+                .thenReturn(messages)
+                .thenReturn(Collections.emptyList());
+        queue.start();
+        TestSubscriber<List<Message>> subscriber = new TestSubscriber<>();
+        queue.observeBatches(10).subscribe(subscriber);
+
+        // the interval doubles after each empty poll: 100ms, 200ms, then 400ms at most
+        advanceTo(100);
+        verifyPolls(1);
+        advanceTo(200);
+        verifyPolls(1);
+        advanceTo(300);
+        verifyPolls(2);
+        advanceTo(600);
+        verifyPolls(2);
+        advanceTo(700);
+        verifyPolls(3);
+        advanceTo(1000);
+        verifyPolls(3);
+        advanceTo(1100);
+        verifyPolls(4);
+        subscriber.assertValue(messages);
+
+        // a poll that returns messages resets the interval
+        advanceTo(1200);
+        verifyPolls(5);
+    }
+
+    @Test
+    public void testObserveBatchesSplitsThePolledMessages() {
+        Message m0 = new Message("m0", "payload", "r0");
+        Message m1 = new Message("m1", "payload", "r1");
+        Message m2 = new Message("m2", "payload", "r2");
+        when(queueDAO.pollMessages(eq(QUEUE_NAME), eq(10), anyInt()))
+                .thenReturn(Arrays.asList(m0, m1, m2))
+                .thenReturn(Collections.emptyList());
+        queue.start();
+        TestSubscriber<List<Message>> subscriber = new TestSubscriber<>();
+        queue.observeBatches(2).subscribe(subscriber);
+
+        advanceTo(100);
+        subscriber.assertValues(Arrays.asList(m0, m1), Collections.singletonList(m2));
+        assertEquals(2, subscriber.getOnNextEvents().size());
+    }
+
+    @Test
+    public void testStoppedQueueIsNotPolled() {
+        TestSubscriber<List<Message>> subscriber = new TestSubscriber<>();
+        queue.observeBatches(2).subscribe(subscriber);
+
+        advanceTo(1000);
+        verify(queueDAO, never()).pollMessages(eq(QUEUE_NAME), anyInt(), anyInt());
+        subscriber.assertNoValues();
+    }
+
+    private void advanceTo(long timeMs) {
+        scheduler.advanceTimeTo(timeMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void verifyPolls(int count) {
+        verify(queueDAO, times(count)).pollMessages(eq(QUEUE_NAME), eq(10), anyInt());
+    }
+}
@@ -953,6 +953,106 @@ public class TestDeciderService {
         assertFalse(deciderOutcome.isComplete);
     }
 
+    @Test
+    public void testDecideWithDirtyTasks() {
+        WorkflowDef workflowDef = createLinearWorkflow();
+
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+
+        TaskDef taskDef = new TaskDef("junit_task_l1");
+        taskDef.setTimeoutPolicy(TimeoutPolicy.RETRY);
+        taskDef.setTimeoutSeconds(1);
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setTaskReferenceName("s1");
+        workflowTask.setName("junit_task_l1");
+        workflowTask.setTaskDefinition(taskDef);
+
+        TaskModel task = new TaskModel();
+        task.setTaskId("s1-task-id");
+        task.setTaskType("junit_task_l1");
+        task.setReferenceTaskName("s1");
+        task.setWorkflowTask(workflowTask);
+        task.setStartTime(System.currentTimeMillis());
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        workflow.getTasks().add(task);
+
+        // the in progress task did not change, so it is not evaluated
+        workflow.setDirtyTaskIds(new HashSet<>());
+        DeciderOutcome deciderOutcome = deciderService.decide(workflow);
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        assertTrue(deciderOutcome.tasksToBeUpdated.isEmpty());
+        assertTrue(deciderOutcome.tasksToBeScheduled.isEmpty());
+
+        // its timeout is still checked, and the timed out task is retried
+        task.setStartTime(System.currentTimeMillis() - 2_000); // 2 seconds ago!
+        deciderOutcome = deciderService.decide(workflow);
+        assertEquals(TaskModel.Status.TIMED_OUT, task.getStatus());
+        assertEquals(1, deciderOutcome.tasksToBeUpdated.size());
+        assertEquals(1, deciderOutcome.tasksToBeScheduled.size());
+        assertEquals("s1", deciderOutcome.tasksToBeScheduled.get(0).getReferenceTaskName());
+    }
+
+    @Test
+    public void testDecideWithDirtyTasksTimesOutCleanTasksWithoutResponse() {
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowDefinition(createLinearWorkflow());
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+
+        TaskDef taskDef = new TaskDef("junit_task_l1");
+        taskDef.setResponseTimeoutSeconds(1);
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setTaskReferenceName("s1");
+        workflowTask.setName("junit_task_l1");
+        workflowTask.setTaskDefinition(taskDef);
+
+        TaskModel task = new TaskModel();
+        task.setTaskId("s1-task-id");
+        task.setTaskType("junit_task_l1");
+        task.setReferenceTaskName("s1");
+        task.setWorkflowTask(workflowTask);
+        task.setStartTime(System.currentTimeMillis() - 2_000);
+        task.setUpdateTime(System.currentTimeMillis() - 2_000); // no response for 2 seconds
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        workflow.getTasks().add(task);
+
+        // only another task changed since the previous decision
+        workflow.setDirtyTaskIds(Set.of("other-task-id"));
+        DeciderOutcome deciderOutcome = deciderService.decide(workflow);
+        assertEquals(TaskModel.Status.TIMED_OUT, task.getStatus());
+        assertEquals(1, deciderOutcome.tasksToBeUpdated.size());
+        assertEquals("s1-task-id", deciderOutcome.tasksToBeUpdated.get(0).getTaskId());
+        assertEquals(1, deciderOutcome.tasksToBeScheduled.size());
+        assertEquals("s1", deciderOutcome.tasksToBeScheduled.get(0).getReferenceTaskName());
+        assertEquals(1, deciderOutcome.tasksToBeScheduled.get(0).getRetryCount());
+    }
+
+    @Test
+    public void testDecideWithDirtyTasksSkipsCleanAsyncSystemTasks() {
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowDefinition(createLinearWorkflow());
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+
+        TaskModel task = new TaskModel();
+        task.setTaskId("s1-task-id");
+        task.setTaskType(TASK_TYPE_SUB_WORKFLOW);
+        task.setReferenceTaskName("s1");
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+        workflow.getTasks().add(task);
+
+        // the sub workflow task is executed by a system task worker, not by the decision
+        workflow.setDirtyTaskIds(new HashSet<>());
+        DeciderOutcome deciderOutcome = deciderService.decide(workflow);
+        assertTrue(deciderOutcome.tasksToBeScheduled.isEmpty());
+        assertFalse(deciderOutcome.isComplete);
+
+        workflow.setDirtyTaskIds(null);
+        deciderOutcome = deciderService.decide(workflow);
+        assertEquals(1, deciderOutcome.tasksToBeScheduled.size());
+        assertEquals("s1-task-id", deciderOutcome.tasksToBeScheduled.get(0).getTaskId());
+    }
+
     @Test
     public void testGetTasksToBeScheduled() {
         WorkflowDef workflowDef = createLinearWorkflow();
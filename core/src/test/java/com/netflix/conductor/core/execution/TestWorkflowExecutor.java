@@ -39,6 +39,7 @@ import com.netflix.conductor.common.metadata.tasks.TaskType;
 import com.netflix.conductor.common.metadata.workflow.RerunWorkflowRequest;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.utils.ExternalPayloadStorage;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.dal.ExecutionDAOFacade;
@@ -627,7 +628,7 @@ public class TestWorkflowExecutor {
         workflow.setLastRetriedTime(100);
 
         when(executionDAOFacade.getWorkflowModel(anyString(), anyBoolean())).thenReturn(workflow);
-        doNothing().when(executionDAOFacade).removeTask(any());
+        doNothing().when(executionDAOFacade).removeTask(any(TaskModel.class));
         when(metadataDAO.getWorkflowDef(workflow.getWorkflowName(), workflow.getWorkflowVersion()))
                 .thenReturn(Optional.of(workflowDef));
         when(metadataDAO.getTaskDef(workflowTask.getName())).thenReturn(new TaskDef());
@@ -2434,6 +2435,58 @@ public class TestWorkflowExecutor {
         assertEquals(taskResult.getWorkerId(), argumentCaptor.getAllValues().get(0).getWorkerId());
     }
 
+    @Test
+    public void testUpdateTasksDecidesOncePerWorkflow() {
+        String workflowId = "test-workflow-id";
+        WorkflowDef workflowDef = new WorkflowDef();
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowId(workflowId);
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        workflow.setWorkflowDefinition(workflowDef);
+        when(executionDAOFacade.getWorkflowModel(workflowId, false)).thenReturn(workflow);
+        when(executionLockService.acquireLock(workflowId)).thenReturn(true);
+
+        List<TaskResult> taskResults = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            WorkflowTask workflowTask = new WorkflowTask();
+            workflowTask.setType(SIMPLE.name());
+            workflowTask.setTaskReferenceName("simpleTask" + i);
+            workflowDef.getTasks().add(workflowTask);
+
+            TaskModel simpleTask = new TaskModel();
+            simpleTask.setTaskType(TaskType.SIMPLE.name());
+            simpleTask.setReferenceTaskName("simpleTask" + i);
+            simpleTask.setWorkflowInstanceId(workflowId);
+            simpleTask.setTaskId("simple-task-id-" + i);
+            simpleTask.setStatus(TaskModel.Status.IN_PROGRESS);
+            workflow.getTasks().add(simpleTask);
+            when(executionDAOFacade.getTaskModel(simpleTask.getTaskId())).thenReturn(simpleTask);
+
+            TaskResult taskResult = new TaskResult();
+            taskResult.setWorkflowInstanceId(workflowId);
+            taskResult.setTaskId(simpleTask.getTaskId());
+            taskResult.setStatus(TaskResult.Status.COMPLETED);
+            taskResults.add(taskResult);
+        }
+        TaskResult unknownTaskResult = new TaskResult();
+        unknownTaskResult.setWorkflowInstanceId(workflowId);
+        unknownTaskResult.setTaskId("unknown-task-id");
+        unknownTaskResult.setStatus(TaskResult.Status.COMPLETED);
+        taskResults.add(unknownTaskResult);
+
+        BulkResponse bulkResponse = workflowExecutor.updateTasks(taskResults);
+
+        assertEquals(
+                Arrays.asList("simple-task-id-0", "simple-task-id-1"),
+                bulkResponse.getBulkSuccessfulResults());
+        assertTrue(bulkResponse.getBulkErrorResults().containsKey("unknown-task-id"));
+        verify(executionDAOFacade, times(2)).updateTask(any());
+        // a single lock and a single evaluation of the workflow for the whole batch
+        verify(executionLockService, times(1)).acquireLock(workflowId);
+        verify(executionLockService, times(1)).releaseLock(workflowId);
+        verify(executionDAOFacade, times(1)).getWorkflowModel(workflowId, true);
+    }
+
     @Test
     public void testIsLazyEvaluateWorkflow() {
         // setup
@@ -28,6 +28,10 @@ import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.service.ExecutionService;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -94,6 +98,82 @@ public class TestSystemTaskWorker {
                 7);
     }
 
+    @Test
+    public void testGetExecutionConfigWithVirtualThreads() {
+        when(properties.isSystemTaskWorkerVirtualThreadsEnabled()).thenReturn(true);
+        when(properties.getSystemTaskWorkerMaxConcurrency()).thenReturn(500);
+        systemTaskWorker =
+                new SystemTaskWorker(
+                        queueDAO, asyncSystemTaskExecutor, properties, executionService);
+
+        // the thread pools are used on JVMs without virtual threads
+        int expectedSlots =
+                VirtualThreads.newVirtualThreadPerTaskExecutor().isPresent() ? 500 : 10;
+        assertEquals(
+                expectedSlots,
+                systemTaskWorker.getExecutionConfig("").getSemaphoreUtil().availableSlots());
+        assertEquals(
+                expectedSlots,
+                systemTaskWorker
+                        .getExecutionConfig("test-iso")
+                        .getSemaphoreUtil()
+                        .availableSlots());
+    }
+
+    @Test
+    public void testEveryQueueHasItsOwnConcurrencyWithVirtualThreads() {
+        assumeTrue(VirtualThreads.newVirtualThreadPerTaskExecutor().isPresent());
+        when(properties.isSystemTaskWorkerVirtualThreadsEnabled()).thenReturn(true);
+        when(properties.getSystemTaskWorkerMaxConcurrency()).thenReturn(500);
+        systemTaskWorker =
+                new SystemTaskWorker(
+                        queueDAO, asyncSystemTaskExecutor, properties, executionService);
+
+        ExecutionConfig first = systemTaskWorker.getExecutionConfig(TEST_TASK);
+        ExecutionConfig second = systemTaskWorker.getExecutionConfig("other_system_task");
+        assertNotSame(first, second);
+        assertSame(first, systemTaskWorker.getExecutionConfig(TEST_TASK));
+
+        // a busy queue does not take the slots of the others
+        assertTrue(first.getSemaphoreUtil().acquireSlots(500));
+        assertEquals(0, first.getSemaphoreUtil().availableSlots());
+        assertEquals(500, second.getSemaphoreUtil().availableSlots());
+    }
+
+    @Test
+    public void testNonIsolatedQueuesShareTheThreadPool() {
+        ExecutionConfig first = systemTaskWorker.getExecutionConfig(TEST_TASK);
+        assertSame(first, systemTaskWorker.getExecutionConfig("other_system_task"));
+        assertNotSame(first, systemTaskWorker.getExecutionConfig(ISOLATED_TASK));
+    }
+
+    @Test
+    public void testPollAndExecuteWithVirtualThreads() throws Exception {
+        when(properties.isSystemTaskWorkerVirtualThreadsEnabled()).thenReturn(true);
+        when(properties.getSystemTaskWorkerMaxConcurrency()).thenReturn(500);
+        systemTaskWorker =
+                new SystemTaskWorker(
+                        queueDAO, asyncSystemTaskExecutor, properties, executionService);
+        systemTaskWorker.start();
+        when(queueDAO.pop(anyString(), anyInt(), anyInt())).thenReturn(List.of("t1", "t2"));
+
+        CountDownLatch latch = new CountDownLatch(2);
+        doAnswer(
+                        invocation -> {
+                            latch.countDown();
+                            return null;
+                        })
+                .when(asyncSystemTaskExecutor)
+                .execute(any(), anyString());
+
+        systemTaskWorker.pollAndExecute(new TestTask(), TEST_TASK);
+
+        latch.await();
+
+        verify(asyncSystemTaskExecutor).execute(any(), eq("t1"));
+        verify(asyncSystemTaskExecutor).execute(any(), eq("t2"));
+    }
+
     @Test
     public void testPollAndExecuteSystemTask() throws Exception {
         when(queueDAO.pop(anyString(), anyInt(), anyInt()))
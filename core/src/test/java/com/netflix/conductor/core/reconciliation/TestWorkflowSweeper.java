@@ -14,25 +14,37 @@ package com.netflix.conductor.core.reconciliation;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.tasks.TaskType;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.dal.ExecutionDAOFacade;
+import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.TaskModel.Status;
 import com.netflix.conductor.model.WorkflowModel;
+import com.netflix.conductor.service.ExecutionLockService;
 
 import static com.netflix.conductor.core.utils.Utils.DECIDER_QUEUE;
 
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +54,8 @@ public class TestWorkflowSweeper {
     private WorkflowExecutor workflowExecutor;
     private WorkflowRepairService workflowRepairService;
     private QueueDAO queueDAO;
+    private ExecutionDAOFacade executionDAOFacade;
+    private ExecutionLockService executionLockService;
     private WorkflowSweeper workflowSweeper;
 
     private int defaultPostPoneOffSetSeconds = 1800;
@@ -52,9 +66,37 @@ public class TestWorkflowSweeper {
         workflowExecutor = mock(WorkflowExecutor.class);
         queueDAO = mock(QueueDAO.class);
         workflowRepairService = mock(WorkflowRepairService.class);
+        executionDAOFacade = mock(ExecutionDAOFacade.class);
+        executionLockService = mock(ExecutionLockService.class);
+        when(executionLockService.acquireLock(anyString())).thenReturn(true);
         workflowSweeper =
-                new WorkflowSweeper(
-                        workflowExecutor, Optional.of(workflowRepairService), properties, queueDAO);
+                spy(
+                        new WorkflowSweeper(
+                                workflowExecutor,
+                                Optional.of(workflowRepairService),
+                                properties,
+                                queueDAO,
+                                executionDAOFacade,
+                                executionLockService));
+        // no jitter, so that the postpone durations can be verified
+        doAnswer(invocation -> invocation.getArgument(0))
+                .when(workflowSweeper)
+                .workflowOffsetWithJitter(anyLong());
+    }
+
+    private void sweep(WorkflowModel workflowModel) {
+        List<String> workflowIds = List.of(workflowModel.getWorkflowId());
+        when(executionDAOFacade.getWorkflowModels(workflowIds, true))
+                .thenReturn(List.of(workflowModel));
+        when(workflowExecutor.decide(workflowModel)).thenReturn(workflowModel);
+        workflowSweeper.sweep(workflowIds);
+    }
+
+    private void verifyPostponedBy(WorkflowModel workflowModel, long postponeDurationSeconds) {
+        verify(queueDAO)
+                .setUnackTimeouts(
+                        DECIDER_QUEUE,
+                        Map.of(workflowModel.getWorkflowId(), postponeDurationSeconds * 1000));
     }
 
     @Test
@@ -68,12 +110,8 @@ public class TestWorkflowSweeper {
         workflowModel.setTasks(List.of(taskModel));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, defaultPostPoneOffSetSeconds);
     }
 
     @Test
@@ -89,10 +127,8 @@ public class TestWorkflowSweeper {
         workflowModel.setTasks(List.of(taskModel));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (waitTimeout + 1) * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, waitTimeout + 1);
     }
 
     @Test
@@ -106,12 +142,8 @@ public class TestWorkflowSweeper {
         workflowModel.setTasks(List.of(taskModel));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, defaultPostPoneOffSetSeconds);
     }
 
     @Test
@@ -127,10 +159,8 @@ public class TestWorkflowSweeper {
         workflowModel.setTasks(List.of(taskModel));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (responseTimeout + 1) * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, responseTimeout + 1);
     }
 
     @Test
@@ -147,12 +177,8 @@ public class TestWorkflowSweeper {
         workflowModel.setTasks(List.of(taskModel));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, defaultPostPoneOffSetSeconds);
     }
 
     @Test
@@ -170,10 +196,8 @@ public class TestWorkflowSweeper {
         workflowModel.setTasks(List.of(taskModel));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (workflowTimeout + 1) * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, workflowTimeout + 1);
     }
 
     @Test
@@ -191,10 +215,8 @@ public class TestWorkflowSweeper {
         when(taskModel.getStatus()).thenReturn(Status.SCHEDULED);
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (workflowTimeout + 1) * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, workflowTimeout + 1);
     }
 
     @Test
@@ -210,12 +232,8 @@ public class TestWorkflowSweeper {
         when(taskModel.getStatus()).thenReturn(Status.SCHEDULED);
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, defaultPostPoneOffSetSeconds);
     }
 
     @Test
@@ -231,12 +249,8 @@ public class TestWorkflowSweeper {
         when(taskModel.getTaskDefinition()).thenReturn(Optional.of(taskDef));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE,
-                        workflowModel.getWorkflowId(),
-                        defaultPostPoneOffSetSeconds * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, defaultPostPoneOffSetSeconds);
     }
 
     @Test
@@ -253,14 +267,13 @@ public class TestWorkflowSweeper {
         when(taskModel.getTaskDefinition()).thenReturn(Optional.of(taskDef));
         when(properties.getWorkflowOffsetTimeout())
                 .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
-        workflowSweeper.unack(workflowModel, defaultPostPoneOffSetSeconds);
-        verify(queueDAO)
-                .setUnackTimeout(
-                        DECIDER_QUEUE, workflowModel.getWorkflowId(), (pollTimeout + 1) * 1000);
+        sweep(workflowModel);
+        verifyPostponedBy(workflowModel, pollTimeout + 1);
     }
 
     @Test
     public void testWorkflowOffsetJitter() {
+        doCallRealMethod().when(workflowSweeper).workflowOffsetWithJitter(anyLong());
         long offset = 45;
         for (int i = 0; i < 10; i++) {
             long offsetWithJitter = workflowSweeper.workflowOffsetWithJitter(offset);
@@ -268,4 +281,56 @@ public class TestWorkflowSweeper {
             assertTrue(offsetWithJitter <= 60);
         }
     }
+
+    @Test
+    public void testSweepBatch() {
+        WorkflowModel running = new WorkflowModel();
+        running.setWorkflowId("running");
+        TaskModel taskModel = new TaskModel();
+        taskModel.setTaskId("task1");
+        taskModel.setTaskType(TaskType.TASK_TYPE_SIMPLE);
+        taskModel.setStatus(Status.IN_PROGRESS);
+        taskModel.setResponseTimeoutSeconds(10);
+        running.setTasks(List.of(taskModel));
+
+        WorkflowModel completed = new WorkflowModel();
+        completed.setWorkflowId("completed");
+        completed.setStatus(WorkflowModel.Status.COMPLETED);
+
+        when(properties.getWorkflowOffsetTimeout())
+                .thenReturn(Duration.ofSeconds(defaultPostPoneOffSetSeconds));
+        // the lock of the workflow is held by another decider
+        when(executionLockService.acquireLock("locked")).thenReturn(false);
+        when(executionDAOFacade.getWorkflowModels(List.of("running", "completed", "missing"), true))
+                .thenReturn(List.of(running, completed));
+        when(executionDAOFacade.getWorkflowModel("missing", true))
+                .thenThrow(new NotFoundException("missing"));
+        when(workflowExecutor.decide(running)).thenReturn(running);
+        when(workflowExecutor.decide(completed)).thenReturn(completed);
+
+        workflowSweeper.sweep(List.of("running", "locked", "completed", "missing"));
+
+        // the locked workflows are loaded at once, and each lock is released after its decision
+        InOrder inOrder = inOrder(executionLockService, executionDAOFacade, workflowExecutor);
+        inOrder.verify(executionLockService).acquireLock("missing");
+        inOrder.verify(executionDAOFacade)
+                .getWorkflowModels(List.of("running", "completed", "missing"), true);
+        inOrder.verify(workflowExecutor).decide(running);
+        inOrder.verify(executionLockService).releaseLock("running");
+        inOrder.verify(workflowExecutor).decide(completed);
+        inOrder.verify(executionLockService).releaseLock("completed");
+        inOrder.verify(executionLockService).releaseLock("missing");
+        verify(executionLockService, never()).releaseLock("locked");
+        verify(workflowExecutor, never()).decide(anyString());
+
+        verify(queueDAO).removeMessages(DECIDER_QUEUE, List.of("completed", "missing"));
+        verify(queueDAO)
+                .setUnackTimeouts(
+                        DECIDER_QUEUE,
+                        Map.of(
+                                "running",
+                                11_000L,
+                                "locked",
+                                defaultPostPoneOffSetSeconds * 1000L));
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.unit.DataSize;
+
+import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.common.run.ExternalStorageLocation;
+import com.netflix.conductor.common.utils.ExternalPayloadStorage;
+import com.netflix.conductor.core.config.ConductorProperties;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
+@RunWith(SpringRunner.class)
+public class ExternalPayloadCacheTest {
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Autowired private ObjectMapper objectMapper;
+
+    private FileSystemPayloadStorage payloadStorage;
+    private ConductorProperties properties;
+
+    @Before
+    public void setup() throws IOException {
+        payloadStorage = new FileSystemPayloadStorage(temporaryFolder.newFolder("storage"));
+        properties = new ConductorProperties();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMemoryCache() throws IOException {
+        properties.setExternalPayloadCacheSize(DataSize.ofMegabytes(1));
+        ExternalPayloadStorageUtils utils = newExternalPayloadStorageUtils();
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", "value");
+        payload.put("list", List.of("a", Map.of("b", "c")));
+        String path = payloadStorage.store(payload);
+
+        Map<String, Object> downloaded = utils.downloadPayload(path);
+        assertEquals(payload, downloaded);
+        // callers may modify their payload without changing the cached one
+        downloaded.put("key", "changed");
+        ((List<Object>) downloaded.get("list")).clear();
+
+        assertEquals(payload, utils.downloadPayload(path));
+        assertEquals(1, payloadStorage.downloads.get());
+    }
+
+    @Test
+    public void testDiskCache() throws IOException {
+        File directory = temporaryFolder.newFolder("cache");
+        properties.setExternalPayloadCacheDirectory(directory.getAbsolutePath());
+        ExternalPayloadStorageUtils utils = newExternalPayloadStorageUtils();
+
+        Map<String, Object> payload = Map.of("key", "value");
+        String path = payloadStorage.store(payload);
+
+        assertEquals(payload, utils.downloadPayload(path));
+        assertEquals(payload, utils.downloadPayload(path));
+        assertEquals(1, payloadStorage.downloads.get());
+        assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    public void testPayloadsTooLargeForMemoryAreCachedOnDisk() throws IOException {
+        File directory = temporaryFolder.newFolder("cache");
+        properties.setExternalPayloadCacheSize(DataSize.ofMegabytes(1));
+        properties.setExternalPayloadCacheDirectory(directory.getAbsolutePath());
+        ExternalPayloadStorageUtils utils = newExternalPayloadStorageUtils();
+
+        Map<String, Object> payload = Map.of("key", StringUtils.repeat("value", 300_000));
+        String path = payloadStorage.store(payload);
+
+        assertEquals(payload, utils.downloadPayload(path));
+        assertEquals(payload, utils.downloadPayload(path));
+        assertEquals(1, payloadStorage.downloads.get());
+        assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    public void testDiskCacheFilesAreDeletedOnStartup() throws IOException {
+        File directory = temporaryFolder.newFolder("cache");
+        properties.setExternalPayloadCacheDirectory(directory.getAbsolutePath());
+        newExternalPayloadStorageUtils().downloadPayload(payloadStorage.store(Map.of("k", "v")));
+        Files.writeString(directory.toPath().resolve("other.json"), "{}");
+
+        newExternalPayloadStorageUtils();
+        assertArrayEquals(new String[] {"other.json"}, directory.list());
+    }
+
+    @Test
+    public void testCacheDisabled() throws IOException {
+        ExternalPayloadStorageUtils utils = newExternalPayloadStorageUtils();
+
+        String path = payloadStorage.store(Map.of("key", "value"));
+        assertFalse(utils.downloadPayload(path).isEmpty());
+        assertFalse(utils.downloadPayload(path).isEmpty());
+        assertEquals(2, payloadStorage.downloads.get());
+    }
+
+    private ExternalPayloadStorageUtils newExternalPayloadStorageUtils() {
+        return new ExternalPayloadStorageUtils(payloadStorage, properties, objectMapper);
+    }
+
+    /** Stores the payloads in the files of a local directory. */
+    private class FileSystemPayloadStorage implements ExternalPayloadStorage {
+
+        private final Path root;
+        private final AtomicInteger downloads = new AtomicInteger();
+        private final AtomicInteger paths = new AtomicInteger();
+
+        FileSystemPayloadStorage(File root) {
+            this.root = root.toPath();
+        }
+
+        String store(Map<String, Object> payload) throws IOException {
+            String path = "payload-" + paths.incrementAndGet() + ".json";
+            Files.write(root.resolve(path), objectMapper.writeValueAsBytes(payload));
+            return path;
+        }
+
+        @Override
+        public ExternalStorageLocation getLocation(
+                Operation operation, PayloadType payloadType, String path) {
+            ExternalStorageLocation location = new ExternalStorageLocation();
+            location.setPath(path);
+            location.setUri(root.resolve(path).toUri().toString());
+            return location;
+        }
+
+        @Override
+        public void upload(String path, InputStream payload, long payloadSize) {
+            try {
+                Files.copy(payload, root.resolve(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public InputStream download(String path) {
+            downloads.incrementAndGet();
+            try {
+                return Files.newInputStream(root.resolve(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
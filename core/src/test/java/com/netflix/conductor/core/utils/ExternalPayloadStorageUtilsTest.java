@@ -15,10 +15,13 @@ package com.netflix.conductor.core.utils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -174,26 +177,88 @@ public class ExternalPayloadStorageUtilsTest {
     }
 
     @Test
-    public void testUploadHelper() {
-        AtomicInteger uploadCount = new AtomicInteger(0);
+    public void testUploadHelper() throws IOException {
+        AtomicReference<String> uploaded = new AtomicReference<>();
         String path = "some/test/path.json";
         ExternalStorageLocation location = new ExternalStorageLocation();
         location.setPath(path);
 
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", StringUtils.repeat("value", 100_000));
+        String json = objectMapper.writeValueAsString(payload);
+
         when(externalPayloadStorage.getLocation(any(), any(), any())).thenReturn(location);
         doAnswer(
                         invocation -> {
-                            uploadCount.incrementAndGet();
+                            InputStream inputStream = invocation.getArgument(1);
+                            uploaded.set(IOUtils.toString(inputStream, StandardCharsets.UTF_8));
                             return null;
                         })
                 .when(externalPayloadStorage)
-                .upload(anyString(), any(), anyLong());
+                .upload(anyString(), any(), eq((long) json.length()));
 
         assertEquals(
                 path,
                 externalPayloadStorageUtils.uploadHelper(
-                        new byte[] {}, 10L, ExternalPayloadStorage.PayloadType.TASK_OUTPUT));
-        assertEquals(1, uploadCount.get());
+                        payload, json.length(), ExternalPayloadStorage.PayloadType.TASK_OUTPUT));
+        assertEquals(json, uploaded.get());
+    }
+
+    @Test
+    public void testUploadHelperSerializesInMemoryWithoutSerializerThread() throws IOException {
+        AtomicReference<String> uploaded = new AtomicReference<>();
+        String path = "some/test/path.json";
+        ExternalStorageLocation location = new ExternalStorageLocation();
+        location.setPath(path);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", "value");
+        String json = objectMapper.writeValueAsString(payload);
+
+        when(externalPayloadStorage.getLocation(any(), any(), any())).thenReturn(location);
+        doAnswer(
+                        invocation -> {
+                            InputStream inputStream = invocation.getArgument(1);
+                            uploaded.set(IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+                            return null;
+                        })
+                .when(externalPayloadStorage)
+                .upload(anyString(), any(), eq((long) json.length()));
+
+        // a shut down executor rejects the serialization like a busy one
+        externalPayloadStorageUtils.shutdown();
+        assertEquals(
+                path,
+                externalPayloadStorageUtils.uploadHelper(
+                        payload, json.length(), ExternalPayloadStorage.PayloadType.TASK_OUTPUT));
+        assertEquals(json, uploaded.get());
+    }
+
+    @Test
+    public void testGetPayloadSize() throws IOException {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", StringUtils.repeat("value", 100_000));
+        long size = objectMapper.writeValueAsBytes(payload).length;
+
+        assertEquals(size, externalPayloadStorageUtils.getPayloadSize(payload, size));
+        assertTrue(externalPayloadStorageUtils.getPayloadSize(payload, size - 1) > size - 1);
+        // the counting stops shortly after the limit is crossed
+        assertTrue(externalPayloadStorageUtils.getPayloadSize(payload, 1024) < size);
+    }
+
+    @Test
+    public void testUploadTaskPayloadExceedingMaxThreshold() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("key", StringUtils.repeat("value", 2_200_000));
+
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setOutputData(payload);
+        externalPayloadStorageUtils.verifyAndUpload(
+                task, ExternalPayloadStorage.PayloadType.TASK_OUTPUT);
+        assertEquals(FAILED_WITH_TERMINAL_ERROR, task.getStatus());
+        assertTrue(task.getOutputData().isEmpty());
+        verify(externalPayloadStorage, never()).upload(anyString(), any(), anyLong());
     }
 
     @Test
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.core.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.core.exception.NonTransientException;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
+@RunWith(SpringRunner.class)
+public class JacksonModelSerializerTest {
+
+    @Autowired private ObjectMapper objectMapper;
+
+    private JacksonModelSerializer jsonSerializer;
+    private JacksonModelSerializer smileSerializer;
+
+    @Before
+    public void setup() {
+        jsonSerializer =
+                new JacksonModelSerializer(objectMapper, JacksonModelSerializer.Format.JSON);
+        smileSerializer =
+                new JacksonModelSerializer(objectMapper, JacksonModelSerializer.Format.SMILE);
+    }
+
+    @Test
+    public void testJsonIsUnchanged() throws Exception {
+        WorkflowModel workflow = createWorkflow();
+
+        String payload = jsonSerializer.serialize(workflow);
+
+        assertEquals(objectMapper.writeValueAsString(workflow), payload);
+        assertEquals(workflow, jsonSerializer.deserialize(payload, WorkflowModel.class));
+    }
+
+    @Test
+    public void testSmileRoundTrip() {
+        WorkflowModel workflow = createWorkflow();
+        TaskModel task = workflow.getTasks().get(0);
+
+        String workflowPayload = smileSerializer.serialize(workflow);
+        String taskPayload = smileSerializer.serialize(task);
+
+        assertTrue(workflowPayload.startsWith(JacksonModelSerializer.SMILE_HEADER));
+        assertEquals(workflow, smileSerializer.deserialize(workflowPayload, WorkflowModel.class));
+        assertEquals(task, smileSerializer.deserialize(taskPayload, TaskModel.class));
+    }
+
+    @Test
+    public void testFormatsCoexist() {
+        WorkflowModel workflow = createWorkflow();
+
+        String jsonPayload = jsonSerializer.serialize(workflow);
+        String smilePayload = smileSerializer.serialize(workflow);
+
+        assertFalse(jsonPayload.startsWith(JacksonModelSerializer.SMILE_HEADER));
+        // records written before and after a format change are both readable
+        assertEquals(workflow, smileSerializer.deserialize(jsonPayload, WorkflowModel.class));
+        assertEquals(workflow, jsonSerializer.deserialize(smilePayload, WorkflowModel.class));
+    }
+
+    @Test
+    public void testSmileIsSmallerForRepetitiveData() {
+        WorkflowModel workflow = createWorkflow();
+        for (int i = 0; i < 50; i++) {
+            workflow.getTasks().add(createTask("task_" + i));
+        }
+
+        String jsonPayload = jsonSerializer.serialize(workflow);
+        String smilePayload = smileSerializer.serialize(workflow);
+
+        // property names repeated in every task are written once by smile
+        assertTrue(smilePayload.length() < jsonPayload.length());
+    }
+
+    @Test(expected = NonTransientException.class)
+    public void testCorruptedSmilePayload() {
+        smileSerializer.deserialize(JacksonModelSerializer.SMILE_HEADER + "AAAA", TaskModel.class);
+    }
+
+    private WorkflowModel createWorkflow() {
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("workflow");
+        workflowDef.setVersion(1);
+
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowId("workflowId");
+        workflow.setWorkflowDefinition(workflowDef);
+        workflow.setStatus(WorkflowModel.Status.RUNNING);
+        workflow.setCreateTime(1L);
+        workflow.getInput().put("requestId", "request");
+        workflow.getInput().put("items", List.of(1, 2, 3));
+        workflow.getTasks().add(createTask("task"));
+        return workflow;
+    }
+
+    private TaskModel createTask(String referenceTaskName) {
+        Map<String, Object> output = new HashMap<>();
+        output.put("statusCode", 200);
+        output.put("body", Map.of("id", referenceTaskName, "score", 0.5, "valid", true));
+
+        TaskModel task = new TaskModel();
+        task.setTaskId(referenceTaskName + "Id");
+        task.setTaskType("SIMPLE");
+        task.setReferenceTaskName(referenceTaskName);
+        task.setWorkflowInstanceId("workflowId");
+        task.setStatus(TaskModel.Status.COMPLETED);
+        task.getInputData().put("uri", "http://localhost/" + referenceTaskName);
+        task.setOutputData(output);
+        return task;
+    }
+}
@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -31,7 +32,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.conductor.model.WorkflowModel;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -39,6 +43,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
 @RunWith(SpringRunner.class)
@@ -297,6 +302,118 @@ public class ParametersUtilsTest {
         assertEquals("${someString} $${someNumber}", inputList.get(2));
     }
 
+    @Test
+    public void testGetTaskInputV2WithInputTemplate() {
+        WorkflowModel workflow = createWorkflow();
+        workflow.getInput().put("requestId", "request-1");
+
+        TaskDef taskDef = new TaskDef();
+        Map<String, Object> inputTemplate = new HashMap<>();
+        inputTemplate.put("requestId", "${workflow.input.requestId}");
+        inputTemplate.put("region", "us-east-1");
+        inputTemplate.put("missing", "default");
+        taskDef.setInputTemplate(inputTemplate);
+
+        Map<String, Object> input = new HashMap<>();
+        input.put("region", null);
+        input.put("missing", "${workflow.input.unknown}");
+        input.put("id", "id: ${workflow.workflowId}");
+
+        Map<String, Object> taskInput =
+                parametersUtils.getTaskInputV2(input, workflow, "task-1", taskDef);
+
+        assertEquals("request-1", taskInput.get("requestId"));
+        assertEquals("us-east-1", taskInput.get("region"));
+        assertEquals("default", taskInput.get("missing"));
+        assertEquals("id: workflow-1", taskInput.get("id"));
+        assertEquals(4, taskInput.size());
+
+        // Verify that neither the input nor the inputTemplate is mutated
+        assertNull(input.get("region"));
+        assertEquals("${workflow.input.requestId}", inputTemplate.get("requestId"));
+    }
+
+    @Test
+    public void testGetTaskInputV2NormalizesNonJsonValues() {
+        WorkflowModel workflow = createWorkflow();
+
+        Map<String, Object> input = new HashMap<>();
+        input.put("long", 5L);
+        input.put("set", new TreeSet<>(List.of("${workflow.workflowId}", "b")));
+        input.put("int", 7);
+
+        Map<String, Object> taskInput =
+                parametersUtils.getTaskInputV2(input, workflow, "task-1", null);
+
+        assertEquals(5, taskInput.get("long"));
+        assertEquals(7, taskInput.get("int"));
+        assertEquals(List.of("workflow-1", "b"), taskInput.get("set"));
+    }
+
+    @Test
+    public void testReplaceReusesExpressionsAcrossDocuments() {
+        Map<String, Object> input = new HashMap<>();
+        input.put("k1", "${name}-${version}");
+        input.put("k2", "${}");
+        input.put("k3", "no expression}");
+
+        Map<String, Object> replaced = parametersUtils.replace(input, Map.of("name", "first"));
+        assertEquals("first-", replaced.get("k1"));
+        assertEquals("", replaced.get("k2"));
+        assertEquals("no expression}", replaced.get("k3"));
+
+        replaced = parametersUtils.replace(input, Map.of("name", "second", "version", 2));
+        assertEquals("second-2", replaced.get("k1"));
+    }
+
+    @Test
+    public void testGetTaskInputV2ResolvesTasksByReferenceName() {
+        WorkflowModel workflow = createWorkflow();
+        workflow.getTasks().add(createTask("task_1", 0, "first"));
+        workflow.getTasks().add(createTask("loop_task__1", 1, "iteration-1"));
+        workflow.getTasks().add(createTask("loop_task__2", 2, "iteration-2"));
+        workflow.getTasks().add(createTask("task_1", 0, "retried"));
+
+        Map<String, Object> input = new HashMap<>();
+        input.put("task", "${task_1.output.value}");
+        input.put("loop", "${loop_task.output.value}");
+        input.put("iteration", "${loop_task.iteration}");
+        input.put("unknown", "${unknown_task.output.value}");
+        input.put("all", "${$..value}");
+
+        Map<String, Object> taskInput =
+                parametersUtils.getTaskInputV2(input, workflow, "task-1", null);
+
+        assertEquals("retried", taskInput.get("task"));
+        assertEquals("iteration-2", taskInput.get("loop"));
+        assertEquals(2, taskInput.get("iteration"));
+        assertNull(taskInput.get("unknown"));
+        List all = (List) taskInput.get("all");
+        assertEquals(2, all.size());
+        assertTrue(all.contains("retried"));
+        assertTrue(all.contains("iteration-2"));
+    }
+
+    private TaskModel createTask(String referenceTaskName, int iteration, String value) {
+        TaskModel task = new TaskModel();
+        task.setReferenceTaskName(referenceTaskName);
+        task.setIteration(iteration);
+        task.setStatus(TaskModel.Status.COMPLETED);
+        task.addOutput("value", value);
+        return task;
+    }
+
+    private WorkflowModel createWorkflow() {
+        WorkflowDef workflowDef = new WorkflowDef();
+        workflowDef.setName("test_workflow");
+        workflowDef.setVersion(1);
+        workflowDef.setSchemaVersion(2);
+        WorkflowModel workflow = new WorkflowModel();
+        workflow.setWorkflowId("workflow-1");
+        workflow.setWorkflowDefinition(workflowDef);
+        return workflow;
+    }
+
     @Test
     public void getWorkflowInputHandlesNullInputTemplate() {
         WorkflowDef workflowDef = new WorkflowDef();
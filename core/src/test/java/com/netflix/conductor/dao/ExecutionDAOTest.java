@@ -80,6 +80,44 @@ public abstract class ExecutionDAOTest {
         }
     }
 
+    @Test
+    public void testTasksExceedLimit() {
+        TaskDef taskDefinition = new TaskDef();
+        taskDefinition.setName("task2");
+        taskDefinition.setConcurrentExecLimit(2);
+
+        WorkflowTask workflowTask = new WorkflowTask();
+        workflowTask.setName("task2");
+        workflowTask.setTaskDefinition(taskDefinition);
+
+        List<TaskModel> tasks = new LinkedList<>();
+        for (int i = 0; i < 5; i++) {
+            TaskModel task = new TaskModel();
+            task.setScheduledTime(1L);
+            task.setSeq(i + 1);
+            task.setTaskId("t2_" + i);
+            task.setWorkflowInstanceId("workflow2_" + i);
+            task.setReferenceTaskName("task2");
+            task.setTaskDefName("task2");
+            task.setStatus(TaskModel.Status.SCHEDULED);
+            task.setWorkflowTask(workflowTask);
+            tasks.add(task);
+        }
+        getExecutionDAO().createTasks(tasks);
+
+        Set<String> exceeding = getConcurrentExecutionLimitDAO().getTasksExceedingLimit(tasks);
+        assertEquals(3, exceeding.size());
+        assertFalse(exceeding.contains("t2_0"));
+        assertFalse(exceeding.contains("t2_1"));
+
+        tasks.get(0).setStatus(TaskModel.Status.IN_PROGRESS);
+        tasks.get(1).setStatus(TaskModel.Status.IN_PROGRESS);
+        getExecutionDAO().updateTasks(tasks.subList(0, 2));
+        assertEquals(
+                TaskModel.Status.IN_PROGRESS, getExecutionDAO().getTask("t2_1").getStatus());
+        assertEquals(5, getConcurrentExecutionLimitDAO().getTasksExceedingLimit(tasks).size());
+    }
+
     @Test
     public void testCreateTaskException() {
         TaskModel task = new TaskModel();
@@ -355,6 +393,44 @@ public abstract class ExecutionDAOTest {
         assertEquals(1, bytime.size());
     }
 
+    @Test
+    public void testGetWorkflows() {
+        WorkflowModel workflow1 = createTestWorkflow();
+        getExecutionDAO().createWorkflow(workflow1);
+        getExecutionDAO().createTasks(workflow1.getTasks());
+
+        WorkflowModel workflow2 = createTestWorkflow();
+        workflow2.getTasks().remove(0);
+        getExecutionDAO().createWorkflow(workflow2);
+        getExecutionDAO().createTasks(workflow2.getTasks());
+
+        List<WorkflowModel> found =
+                getExecutionDAO()
+                        .getWorkflows(
+                                List.of(
+                                        workflow2.getWorkflowId(),
+                                        "unknown",
+                                        workflow1.getWorkflowId()),
+                                true);
+        assertEquals(2, found.size());
+        assertEquals(workflow2.getWorkflowId(), found.get(0).getWorkflowId());
+        assertEquals(workflow1.getWorkflowId(), found.get(1).getWorkflowId());
+        assertEquals(
+                List.of("t2", "t3"),
+                found.get(0).getTasks().stream()
+                        .map(TaskModel::getReferenceTaskName)
+                        .collect(Collectors.toList()));
+        assertEquals(
+                List.of("t1", "t2", "t3"),
+                found.get(1).getTasks().stream()
+                        .map(TaskModel::getReferenceTaskName)
+                        .collect(Collectors.toList()));
+
+        found = getExecutionDAO().getWorkflows(List.of(workflow1.getWorkflowId()), false);
+        assertEquals(1, found.size());
+        assertTrue(found.get(0).getTasks().isEmpty());
+    }
+
     protected WorkflowModel createTestWorkflow() {
         WorkflowDef def = new WorkflowDef();
         def.setName("Junit Workflow");
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.netflix.conductor.core.events.queue.Message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/** The behavior expected from every {@link QueueDAO} implementation. */
+public abstract class QueueDAOTest {
+
+    protected abstract QueueDAO getQueueDAO();
+
+    @Test
+    public void testPushPopAck() {
+        String queueName = "TestQueue";
+        long offsetTimeInSecond = 0;
+
+        for (int i = 0; i < 10; i++) {
+            getQueueDAO().push(queueName, "msg" + i, offsetTimeInSecond);
+        }
+        assertEquals(10, getQueueDAO().getSize(queueName));
+        Map<String, Long> details = getQueueDAO().queuesDetail();
+        assertEquals(10L, details.get(queueName).longValue());
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(getQueueDAO().pushIfNotExists(queueName, "msg" + i, offsetTimeInSecond));
+        }
+
+        List<String> popped = getQueueDAO().pop(queueName, 10, 100);
+        assertNotNull(popped);
+        assertEquals(10, popped.size());
+        assertEquals(0, getQueueDAO().getSize(queueName));
+
+        popped.forEach(messageId -> assertTrue(getQueueDAO().ack(queueName, messageId)));
+        assertFalse(getQueueDAO().ack(queueName, popped.get(0)));
+
+        popped = getQueueDAO().pop(queueName, 10, 100);
+        assertNotNull(popped);
+        assertEquals(0, popped.size());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(getQueueDAO().pushIfNotExists(queueName, "msg" + i, offsetTimeInSecond));
+        }
+        assertEquals(10, getQueueDAO().getSize(queueName));
+
+        for (int i = 0; i < 10; i++) {
+            getQueueDAO().remove(queueName, "msg" + i);
+        }
+        assertEquals(0, getQueueDAO().getSize(queueName));
+
+        for (int i = 0; i < 10; i++) {
+            getQueueDAO().pushIfNotExists(queueName, "msg" + i, offsetTimeInSecond);
+        }
+        getQueueDAO().flush(queueName);
+        assertEquals(0, getQueueDAO().getSize(queueName));
+    }
+
+    @Test
+    public void testPollMessagesWithPayload() {
+        String queueName = "TestPayloadQueue";
+        getQueueDAO()
+                .push(
+                        queueName,
+                        Arrays.asList(
+                                new Message("msg1", "payload1", null),
+                                new Message("msg2", "payload2", null)));
+
+        List<Message> messages = getQueueDAO().pollMessages(queueName, 2, 100);
+        assertEquals(2, messages.size());
+        messages.sort((m1, m2) -> m1.getId().compareTo(m2.getId()));
+        assertEquals("msg1", messages.get(0).getId());
+        assertEquals("payload1", messages.get(0).getPayload());
+        assertEquals("msg2", messages.get(1).getId());
+        assertEquals("payload2", messages.get(1).getPayload());
+    }
+
+    @Test
+    public void testDelayedMessage() {
+        String queueName = "TestDelayedQueue";
+        getQueueDAO().push(queueName, "msg", 60);
+
+        assertEquals(1, getQueueDAO().getSize(queueName));
+        assertTrue(getQueueDAO().containsMessage(queueName, "msg"));
+        assertTrue(getQueueDAO().pop(queueName, 1, 100).isEmpty());
+
+        assertTrue(getQueueDAO().resetOffsetTime(queueName, "msg"));
+        assertEquals(Collections.singletonList("msg"), getQueueDAO().pop(queueName, 1, 100));
+    }
+
+    @Test
+    public void testUnackTimeout() {
+        String queueName = "TestUnackQueue";
+        getQueueDAO().push(queueName, "msg", 0);
+        assertFalse(getQueueDAO().setUnackTimeout(queueName, "msg", 0));
+
+        assertEquals(Collections.singletonList("msg"), getQueueDAO().pop(queueName, 1, 100));
+        assertTrue(getQueueDAO().pop(queueName, 1, 100).isEmpty());
+
+        assertTrue(getQueueDAO().setUnackTimeout(queueName, "msg", 0));
+        getQueueDAO().processUnacks(queueName);
+        assertEquals(Collections.singletonList("msg"), getQueueDAO().pop(queueName, 1, 100));
+        assertTrue(getQueueDAO().ack(queueName, "msg"));
+        assertFalse(getQueueDAO().containsMessage(queueName, "msg"));
+    }
+
+    @Test
+    public void testRemoveAndPostpone() {
+        String queueName = "TestRemoveQueue";
+        getQueueDAO().push(queueName, "msg1", 0);
+        getQueueDAO().push(queueName, "msg2", 0);
+
+        getQueueDAO().remove(queueName, "msg1");
+        assertFalse(getQueueDAO().containsMessage(queueName, "msg1"));
+        assertEquals(Collections.singletonList("msg2"), getQueueDAO().pop(queueName, 2, 100));
+
+        assertTrue(getQueueDAO().postpone(queueName, "msg2", 0, 60));
+        assertTrue(getQueueDAO().containsMessage(queueName, "msg2"));
+        assertEquals(1, getQueueDAO().getSize(queueName));
+        assertTrue(getQueueDAO().pop(queueName, 1, 100).isEmpty());
+    }
+
+    @Test
+    public void testBulkRemoveAndUnackTimeouts() {
+        String queueName = "TestBulkQueue";
+        getQueueDAO().push(queueName, "msg1", 0);
+        getQueueDAO().push(queueName, "msg2", 0);
+        getQueueDAO().push(queueName, "msg3", 0);
+        assertEquals(3, getQueueDAO().pop(queueName, 3, 100).size());
+
+        getQueueDAO().setUnackTimeouts(queueName, Map.of("msg1", 0L, "msg2", 0L));
+        getQueueDAO().processUnacks(queueName);
+        getQueueDAO().removeMessages(queueName, Arrays.asList("msg2", "msg3"));
+
+        assertFalse(getQueueDAO().containsMessage(queueName, "msg2"));
+        assertFalse(getQueueDAO().containsMessage(queueName, "msg3"));
+        assertEquals(Collections.singletonList("msg1"), getQueueDAO().pop(queueName, 3, 100));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.netflix.conductor.model.TaskModel;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+
+import static org.junit.Assert.assertEquals;
+
+public class MonitorsTest {
+
+    private static final Registry registry = new DefaultRegistry();
+
+    @BeforeClass
+    public static void addRegistry() {
+        Spectator.globalRegistry().add(registry);
+    }
+
+    @AfterClass
+    public static void removeRegistry() {
+        Spectator.globalRegistry().remove(registry);
+    }
+
+    @Test
+    public void testTaskPollUnderContention() throws Exception {
+        int threads = 64;
+        int polls = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                String domain = "domain" + (i % 4);
+                futures.add(
+                        executorService.submit(
+                                () -> {
+                                    start.await();
+                                    for (int j = 0; j < polls; j++) {
+                                        Monitors.recordTaskPoll("contended_task");
+                                        Monitors.recordTaskPollCount("contended_task", domain, 2);
+                                    }
+                                    return null;
+                                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(threads * polls, counterValue("task_poll", "taskType", "contended_task"));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(
+                    threads / 4 * polls * 2,
+                    counterValue(
+                            "task_poll_count",
+                            "taskType",
+                            "contended_task",
+                            "domain",
+                            "domain" + i));
+        }
+    }
+
+    @Test
+    public void testTaskExecutionTimeByStatus() {
+        Monitors.recordTaskExecutionTime("timed_task", 10, false, TaskModel.Status.COMPLETED);
+        Monitors.recordTaskExecutionTime("timed_task", 20, false, TaskModel.Status.COMPLETED);
+        Monitors.recordTaskExecutionTime("timed_task", 30, true, TaskModel.Status.COMPLETED);
+        Monitors.recordTaskExecutionTime("timed_task", 40, false, TaskModel.Status.FAILED);
+
+        assertEquals(2, executionTimerCount(false, TaskModel.Status.COMPLETED));
+        assertEquals(1, executionTimerCount(true, TaskModel.Status.COMPLETED));
+        assertEquals(1, executionTimerCount(false, TaskModel.Status.FAILED));
+        assertEquals(0, executionTimerCount(true, TaskModel.Status.FAILED));
+    }
+
+    @Test
+    public void testQueueWaitTime() {
+        Monitors.recordQueueWaitTime("waiting_task", 100);
+        Monitors.recordQueueWaitTime("waiting_task", 200);
+
+        Id id =
+                registry.createId(
+                        "task_queue_wait",
+                        Map.of("class", Monitors.classQualifier, "taskType", "waiting_task"));
+        assertEquals(2, registry.timer(id).count());
+        assertEquals(300_000_000, registry.timer(id).totalTime());
+    }
+
+    private long counterValue(String name, String... tags) {
+        Id id = registry.createId(name).withTag("class", Monitors.classQualifier).withTags(tags);
+        return registry.counter(id).count();
+    }
+
+    private long executionTimerCount(boolean includesRetries, TaskModel.Status status) {
+        Id id =
+                registry.createId("task_execution")
+                        .withTag("class", Monitors.classQualifier)
+                        .withTags(
+                                "taskType",
+                                "timed_task",
+                                "includeRetries",
+                                "" + includesRetries,
+                                "status",
+                                status.name());
+        return registry.timer(id).count();
+    }
+}
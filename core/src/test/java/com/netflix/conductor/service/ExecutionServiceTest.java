@@ -16,6 +16,7 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -35,8 +36,16 @@ import com.netflix.conductor.core.dal.ExecutionDAOFacade;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.core.execution.tasks.SystemTaskRegistry;
 import com.netflix.conductor.dao.QueueDAO;
+import com.netflix.conductor.model.TaskModel;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
@@ -265,4 +274,73 @@ public class ExecutionServiceTest {
         assertEquals(1, searchResult.getTotalHits());
         assertEquals(Collections.singletonList(taskWorkflow1), searchResult.getResults());
     }
+
+    @Test
+    public void batchPollTest() {
+        TaskModel scheduled = newTaskModel("t1", TaskModel.Status.SCHEDULED);
+        TaskModel completed = newTaskModel("t2", TaskModel.Status.COMPLETED);
+        TaskModel limited = newTaskModel("t4", TaskModel.Status.SCHEDULED);
+        List<String> taskIds = Arrays.asList("t1", "t2", "t3", "t4");
+        when(queueDAO.pop("taskType", 4, 100)).thenReturn(taskIds);
+        when(executionDAOFacade.getTaskModels(taskIds))
+                .thenReturn(Arrays.asList(limited, completed, scheduled));
+        when(executionDAOFacade.getTasksExceedingInProgressLimit(
+                        Arrays.asList(scheduled, limited)))
+                .thenReturn(Set.of("t4"));
+
+        List<Task> tasks = executionService.poll("taskType", "worker", null, 4, 100);
+
+        assertEquals(1, tasks.size());
+        assertEquals("t1", tasks.get(0).getTaskId());
+        assertEquals(Task.Status.IN_PROGRESS, tasks.get(0).getStatus());
+        assertEquals("worker", tasks.get(0).getWorkerId());
+        verify(queueDAO).removeMessages("taskType", Arrays.asList("t2", "t3"));
+        verify(queueDAO).postpone(eq("taskType"), eq("t4"), anyInt(), eq(60L));
+        verify(executionDAOFacade).updateTasks(Collections.singletonList(scheduled));
+        verify(queueDAO).ackMessages("taskType", Collections.singletonList("t1"));
+        verify(executionDAOFacade, never()).getTaskModel("t1");
+    }
+
+    @Test
+    public void batchPollPostponesTasksWhenTheUpdateFails() {
+        TaskModel task1 = newTaskModel("t1", TaskModel.Status.SCHEDULED);
+        TaskModel task2 = newTaskModel("t2", TaskModel.Status.SCHEDULED);
+        List<String> taskIds = Arrays.asList("t1", "t2");
+        when(queueDAO.pop("taskType", 2, 100)).thenReturn(taskIds);
+        when(executionDAOFacade.getTaskModels(taskIds)).thenReturn(Arrays.asList(task1, task2));
+        when(executionDAOFacade.getTasksExceedingInProgressLimit(Arrays.asList(task1, task2)))
+                .thenReturn(Collections.emptySet());
+        doThrow(new RuntimeException("datastore unavailable"))
+                .when(executionDAOFacade)
+                .updateTasks(Arrays.asList(task1, task2));
+
+        List<Task> tasks = executionService.poll("taskType", "worker", null, 2, 100);
+
+        assertEquals(0, tasks.size());
+        verify(queueDAO).postpone("taskType", "t1", 0, 60L);
+        verify(queueDAO).postpone("taskType", "t2", 0, 60L);
+        verify(queueDAO, never()).ackMessages(any(), any());
+    }
+
+    @Test
+    public void requeueTaskPushesThePolledTaskBackWithoutDelay() {
+        Task task = new Task();
+        task.setTaskId("t1");
+        task.setTaskType("taskType");
+        task.setUpdateTime(System.currentTimeMillis());
+        when(queueDAO.pushIfNotExists("taskType", "t1", 0, 0)).thenReturn(true);
+
+        assertTrue(executionService.requeueTask(task));
+        verify(queueDAO).remove("taskType", "t1");
+        verify(queueDAO).pushIfNotExists("taskType", "t1", 0, 0);
+    }
+
+    private TaskModel newTaskModel(String taskId, TaskModel.Status status) {
+        TaskModel taskModel = new TaskModel();
+        taskModel.setTaskId(taskId);
+        taskModel.setTaskType("taskType");
+        taskModel.setTaskDefName("taskType");
+        taskModel.setStatus(status);
+        return taskModel;
+    }
 }
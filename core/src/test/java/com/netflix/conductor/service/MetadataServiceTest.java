@@ -36,6 +36,7 @@ import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDefSummary;
 import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.events.EventHandlerIndex;
 import com.netflix.conductor.core.exception.NotFoundException;
 import com.netflix.conductor.dao.EventHandlerDAO;
 import com.netflix.conductor.dao.MetadataDAO;
@@ -79,7 +80,11 @@ public class MetadataServiceTest {
 
             when(metadataDAO.getAllWorkflowDefs()).thenReturn(mockWorkflowDefs());
 
-            return new MetadataServiceImpl(metadataDAO, eventHandlerDAO, properties);
+            return new MetadataServiceImpl(
+                    metadataDAO,
+                    eventHandlerDAO,
+                    new EventHandlerIndex(eventHandlerDAO, properties),
+                    properties);
         }
 
         private List<WorkflowDef> mockWorkflowDefs() {
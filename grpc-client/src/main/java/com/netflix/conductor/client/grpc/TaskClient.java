@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.grpc.SearchPb;
@@ -38,15 +39,18 @@ import io.grpc.ManagedChannelBuilder;
 public class TaskClient extends ClientBase {
 
     private final TaskServiceGrpc.TaskServiceBlockingStub stub;
+    private final TaskServiceGrpc.TaskServiceStub asyncStub;
 
     public TaskClient(String address, int port) {
         super(address, port);
         this.stub = TaskServiceGrpc.newBlockingStub(this.channel);
+        this.asyncStub = TaskServiceGrpc.newStub(this.channel);
     }
 
     public TaskClient(ManagedChannelBuilder<?> builder) {
         super(builder);
         this.stub = TaskServiceGrpc.newBlockingStub(this.channel);
+        this.asyncStub = TaskServiceGrpc.newStub(this.channel);
     }
 
     /**
@@ -117,6 +121,32 @@ public class TaskClient extends ClientBase {
         return Iterators.transform(it, protoMapper::fromProto);
     }
 
+    /**
+     * Opens a stream on which the server pushes the tasks of a task type as they are scheduled,
+     * instead of having the worker poll for them. The server only sends as many tasks as the
+     * credit granted with {@link TaskStream#addCredit(int)}, and the results of the tasks can be
+     * sent back on the same stream with {@link TaskStream#updateTask(TaskResult)}.
+     *
+     * @param taskType Type of task to stream
+     * @param workerId Name of the client worker. Used for logging.
+     * @param domain The domain of the task type, or null for the default domain
+     * @param listener Receives the tasks and the outcome of the updates, on a gRPC thread
+     * @return the open stream, to be closed when the worker stops
+     */
+    public TaskStream streamTasks(
+            String taskType,
+            String workerId,
+            @Nullable String domain,
+            TaskStream.Listener listener) {
+        Preconditions.checkArgument(StringUtils.isNotBlank(taskType), "Task type cannot be blank");
+        Preconditions.checkArgument(StringUtils.isNotBlank(workerId), "Worker id cannot be blank");
+        Preconditions.checkNotNull(listener, "Listener cannot be null");
+
+        TaskStream stream = new TaskStream(listener);
+        stream.open(asyncStub, taskType, workerId, domain);
+        return stream;
+    }
+
     /**
      * Updates the result of a task execution.
      *
@@ -130,6 +160,29 @@ public class TaskClient extends ClientBase {
                         .build());
     }
 
+    /**
+     * Updates the results of a batch of task executions. Each workflow is evaluated once for all
+     * of its tasks in the batch.
+     *
+     * @param taskResults TaskResults to be updated.
+     * @return the ids of the updated tasks, and the error of each result that could not be applied
+     */
+    public BulkResponse updateTasks(List<TaskResult> taskResults) {
+        Preconditions.checkArgument(
+                taskResults != null && !taskResults.isEmpty(), "Task results cannot be empty");
+        TaskServicePb.UpdateTasksResponse response =
+                stub.updateTasks(
+                        TaskServicePb.UpdateTasksRequest.newBuilder()
+                                .addAllResults(
+                                        taskResults.stream().map(protoMapper::toProto)
+                                                ::iterator)
+                                .build());
+        BulkResponse bulkResponse = new BulkResponse();
+        response.getUpdatedTaskIdsList().forEach(bulkResponse::appendSuccessResponse);
+        response.getErrorsMap().forEach(bulkResponse::appendFailedResponse);
+        return bulkResponse;
+    }
+
     /**
      * Log execution messages for a task.
      *
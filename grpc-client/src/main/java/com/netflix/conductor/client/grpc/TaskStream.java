@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.client.grpc;
+
+import javax.annotation.Nullable;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.grpc.ProtoMapper;
+import com.netflix.conductor.grpc.TaskServiceGrpc;
+import com.netflix.conductor.grpc.TaskServicePb;
+
+import com.google.common.base.Preconditions;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * A worker's end of a task stream opened with {@link TaskClient#streamTasks(String, String,
+ * String, Listener)}.
+ *
+ * <p>The worker grants one credit per task it is ready to run, typically once per free execution
+ * slot, and grants it again when a task completes. The methods of this class can be called from
+ * any thread.
+ */
+public class TaskStream implements AutoCloseable {
+
+    private static final ProtoMapper PROTO_MAPPER = ProtoMapper.INSTANCE;
+
+    private final Listener listener;
+    private StreamObserver<TaskServicePb.StreamTasksRequest> requests;
+    private boolean closed;
+
+    TaskStream(Listener listener) {
+        this.listener = listener;
+    }
+
+    synchronized void open(
+            TaskServiceGrpc.TaskServiceStub stub,
+            String taskType,
+            String workerId,
+            @Nullable String domain) {
+        requests = stub.streamTasks(new ResponseObserver());
+        TaskServicePb.StreamTasksRequest.Subscribe.Builder subscribe =
+                TaskServicePb.StreamTasksRequest.Subscribe.newBuilder()
+                        .setTaskType(taskType)
+                        .setWorkerId(workerId);
+        if (domain != null) {
+            subscribe.setDomain(domain);
+        }
+        requests.onNext(
+                TaskServicePb.StreamTasksRequest.newBuilder().setSubscribe(subscribe).build());
+    }
+
+    /**
+     * Lets the server push up to count more tasks on this stream.
+     *
+     * @param count the number of tasks the worker can accept, in addition to the previous credit
+     */
+    public synchronized void addCredit(int count) {
+        Preconditions.checkArgument(count > 0, "Credit must be greater than 0");
+        checkOpen();
+        requests.onNext(TaskServicePb.StreamTasksRequest.newBuilder().setCredit(count).build());
+    }
+
+    /**
+     * Sends the result of a task execution, the outcome is reported to {@link
+     * Listener#onTaskUpdated(String, String)}.
+     *
+     * @param taskResult the result of the task
+     */
+    public synchronized void updateTask(TaskResult taskResult) {
+        Preconditions.checkNotNull(taskResult, "Task result cannot be null");
+        checkOpen();
+        requests.onNext(
+                TaskServicePb.StreamTasksRequest.newBuilder()
+                        .setResult(PROTO_MAPPER.toProto(taskResult))
+                        .build());
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the stream. The tasks already pushed by the server must still be run and updated,
+     * with {@link TaskClient#updateTask(TaskResult)}.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            requests.onCompleted();
+        }
+    }
+
+    private void checkOpen() {
+        Preconditions.checkState(!closed, "The task stream is closed");
+    }
+
+    private synchronized void closedByServer() {
+        closed = true;
+    }
+
+    /** Receives the events of a task stream, on a gRPC thread. */
+    public interface Listener {
+
+        /** A task pushed by the server, using one credit. */
+        void onTask(Task task);
+
+        /**
+         * The outcome of an update sent with {@link TaskStream#updateTask(TaskResult)}.
+         *
+         * @param taskId the id of the updated task
+         * @param error the reason the update failed, null if the task was updated
+         */
+        default void onTaskUpdated(String taskId, @Nullable String error) {}
+
+        /**
+         * The stream is closed, the worker should open a new one to keep receiving tasks.
+         *
+         * @param error the reason the stream failed, null if it was closed normally
+         */
+        default void onClosed(@Nullable Throwable error) {}
+    }
+
+    private class ResponseObserver implements StreamObserver<TaskServicePb.StreamTasksResponse> {
+
+        @Override
+        public void onNext(TaskServicePb.StreamTasksResponse response) {
+            switch (response.getResponseCase()) {
+                case TASK:
+                    listener.onTask(PROTO_MAPPER.fromProto(response.getTask()));
+                    break;
+                case TASK_UPDATED:
+                    TaskServicePb.StreamTasksResponse.TaskUpdated updated =
+                            response.getTaskUpdated();
+                    listener.onTaskUpdated(
+                            updated.getTaskId(),
+                            updated.getError().isEmpty() ? null : updated.getError());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            closedByServer();
+            listener.onClosed(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            closedByServer();
+            listener.onClosed(null);
+        }
+    }
+}
@@ -14,7 +14,14 @@ package com.netflix.conductor.grpc.server.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +30,7 @@ import org.springframework.stereotype.Service;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.grpc.ProtoMapper;
@@ -49,14 +57,35 @@ public class TaskServiceImpl extends TaskServiceGrpc.TaskServiceImplBase {
     private final TaskService taskService;
     private final int maxSearchSize;
     private final ExecutionService executionService;
+    private final long taskStreamMaxPollIntervalMs;
+    private final ScheduledExecutorService taskStreamExecutor;
+    /** the pollers of the task streams, by task type and domain */
+    private final Map<String, TaskStreamPoller> taskStreamPollers = new ConcurrentHashMap<>();
 
     public TaskServiceImpl(
             ExecutionService executionService,
             TaskService taskService,
-            @Value("${workflow.max.search.size:5000}") int maxSearchSize) {
+            @Value("${workflow.max.search.size:5000}") int maxSearchSize,
+            @Value("${conductor.grpc-server.task-stream-max-poll-interval-ms:5000}")
+                    long taskStreamMaxPollIntervalMs,
+            @Value("${conductor.grpc-server.task-stream-poll-threads:4}")
+                    int taskStreamPollThreads) {
         this.executionService = executionService;
         this.taskService = taskService;
         this.maxSearchSize = maxSearchSize;
+        this.taskStreamMaxPollIntervalMs = taskStreamMaxPollIntervalMs;
+        this.taskStreamExecutor =
+                Executors.newScheduledThreadPool(
+                        taskStreamPollThreads,
+                        new BasicThreadFactory.Builder()
+                                .namingPattern("grpc-task-stream-%d")
+                                .daemon(true)
+                                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taskStreamExecutor.shutdownNow();
     }
 
     @Override
@@ -105,7 +134,11 @@ public class TaskServiceImpl extends TaskServiceGrpc.TaskServiceImplBase {
                             GRPC_HELPER.optional(req.getDomain()),
                             count,
                             timeout);
-            LOGGER.info("polled tasks: " + polledTasks);
+            LOGGER.debug(
+                    "Polled {} tasks of type {} for worker {}",
+                    polledTasks.size(),
+                    req.getTaskType(),
+                    req.getWorkerId());
             polledTasks.stream().map(PROTO_MAPPER::toProto).forEach(response::onNext);
             response.onCompleted();
         } catch (Exception e) {
@@ -131,6 +164,52 @@ public class TaskServiceImpl extends TaskServiceGrpc.TaskServiceImplBase {
         }
     }
 
+    @Override
+    public void updateTasks(
+            TaskServicePb.UpdateTasksRequest req,
+            StreamObserver<TaskServicePb.UpdateTasksResponse> response) {
+        try {
+            List<TaskResult> taskResults =
+                    req.getResultsList().stream()
+                            .map(PROTO_MAPPER::fromProto)
+                            .collect(Collectors.toList());
+            BulkResponse bulkResponse = taskService.updateTasks(taskResults);
+
+            response.onNext(
+                    TaskServicePb.UpdateTasksResponse.newBuilder()
+                            .addAllUpdatedTaskIds(bulkResponse.getBulkSuccessfulResults())
+                            .putAllErrors(bulkResponse.getBulkErrorResults())
+                            .build());
+            response.onCompleted();
+        } catch (Exception e) {
+            GRPC_HELPER.onError(response, e);
+        }
+    }
+
+    /**
+     * Opens a task stream for a worker: the worker subscribes to a task type, then grants credit
+     * for the tasks it can run, and the tasks are pushed to it as they are polled from the queue.
+     * The results of the tasks are sent back on the same stream.
+     */
+    @Override
+    public StreamObserver<TaskServicePb.StreamTasksRequest> streamTasks(
+            StreamObserver<TaskServicePb.StreamTasksResponse> response) {
+        return new TaskStreamHandler(
+                response, executionService, taskService, this::getTaskStreamPoller);
+    }
+
+    private TaskStreamPoller getTaskStreamPoller(String taskType, String domain) {
+        return taskStreamPollers.computeIfAbsent(
+                domain == null ? taskType : taskType + ":" + domain,
+                key ->
+                        new TaskStreamPoller(
+                                taskType,
+                                domain,
+                                executionService,
+                                taskStreamExecutor,
+                                taskStreamMaxPollIntervalMs));
+    }
+
     @Override
     public void addLog(
             TaskServicePb.AddLogRequest req,
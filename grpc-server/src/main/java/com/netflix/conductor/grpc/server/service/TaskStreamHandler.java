@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.grpc.server.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.grpc.ProtoMapper;
+import com.netflix.conductor.grpc.TaskServicePb;
+import com.netflix.conductor.grpc.TaskServicePb.StreamTasksResponse.TaskUpdated;
+import com.netflix.conductor.service.ExecutionService;
+import com.netflix.conductor.service.TaskService;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * The server side of a {@link TaskServiceImpl#streamTasks(StreamObserver)} stream.
+ *
+ * <p>The tasks are polled from the queue on behalf of the worker by the {@link TaskStreamPoller}
+ * of its task type and domain, which is shared by all the streams of that queue, only while the
+ * worker has credit left: a worker that has no free slot costs nothing. The tasks polled for a
+ * stream that was closed in the meantime are put back in their queue.
+ */
+class TaskStreamHandler implements StreamObserver<TaskServicePb.StreamTasksRequest> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStreamHandler.class);
+    private static final ProtoMapper PROTO_MAPPER = ProtoMapper.INSTANCE;
+
+    private final StreamObserver<TaskServicePb.StreamTasksResponse> response;
+    private final ExecutionService executionService;
+    private final TaskService taskService;
+    /** the poller of a task type and domain */
+    private final BiFunction<String, String, TaskStreamPoller> pollers;
+
+    private final AtomicInteger credit = new AtomicInteger();
+    private volatile boolean closed;
+    private volatile TaskServicePb.StreamTasksRequest.Subscribe subscription;
+    private volatile TaskStreamPoller poller;
+
+    TaskStreamHandler(
+            StreamObserver<TaskServicePb.StreamTasksResponse> response,
+            ExecutionService executionService,
+            TaskService taskService,
+            BiFunction<String, String, TaskStreamPoller> pollers) {
+        this.response = response;
+        this.executionService = executionService;
+        this.taskService = taskService;
+        this.pollers = pollers;
+    }
+
+    @Override
+    public void onNext(TaskServicePb.StreamTasksRequest request) {
+        switch (request.getRequestCase()) {
+            case SUBSCRIBE:
+                subscribe(request.getSubscribe());
+                break;
+            case CREDIT:
+                addCredit(request.getCredit());
+                break;
+            case RESULT:
+                updateTask(PROTO_MAPPER.fromProto(request.getResult()));
+                break;
+            default:
+                fail(Status.INVALID_ARGUMENT.withDescription("Empty request"));
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close();
+        LOGGER.debug("Task stream of {} closed by the worker", subscription, t);
+    }
+
+    @Override
+    public void onCompleted() {
+        close();
+        synchronized (response) {
+            response.onCompleted();
+        }
+    }
+
+    private void subscribe(TaskServicePb.StreamTasksRequest.Subscribe subscribe) {
+        if (subscription != null) {
+            fail(Status.FAILED_PRECONDITION.withDescription("The stream is already subscribed"));
+        } else if (StringUtils.isBlank(subscribe.getTaskType())) {
+            fail(Status.INVALID_ARGUMENT.withDescription("Task type cannot be blank"));
+        } else {
+            subscription = subscribe;
+            LOGGER.debug(
+                    "Worker {} streaming tasks of type {}",
+                    subscribe.getWorkerId(),
+                    subscribe.getTaskType());
+            poller =
+                    pollers.apply(
+                            subscribe.getTaskType(), StringUtils.trimToNull(subscribe.getDomain()));
+            poller.addStream(this);
+            if (closed) {
+                // closed while it was being added
+                poller.removeStream(this);
+            }
+        }
+    }
+
+    private void addCredit(int count) {
+        if (count <= 0) {
+            fail(Status.INVALID_ARGUMENT.withDescription("Credit must be greater than 0"));
+            return;
+        }
+        credit.addAndGet(count);
+        TaskStreamPoller poller = this.poller;
+        if (poller != null) {
+            poller.wakeUp();
+        }
+    }
+
+    private void updateTask(TaskResult taskResult) {
+        TaskUpdated.Builder taskUpdated = TaskUpdated.newBuilder();
+        if (taskResult.getTaskId() != null) {
+            taskUpdated.setTaskId(taskResult.getTaskId());
+        }
+        try {
+            taskService.updateTask(taskResult);
+        } catch (Exception e) {
+            LOGGER.error("Error updating task {} from a task stream", taskResult.getTaskId(), e);
+            taskUpdated.setError(String.valueOf(e.getMessage()));
+        }
+        send(TaskServicePb.StreamTasksResponse.newBuilder().setTaskUpdated(taskUpdated).build());
+    }
+
+    boolean hasCredit() {
+        return !closed && credit.get() > 0;
+    }
+
+    int getCredit() {
+        return credit.get();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    String getWorkerId() {
+        return subscription.getWorkerId();
+    }
+
+    /** Sends the tasks polled for this stream, which use up its credit. */
+    void deliver(List<Task> tasks) {
+        for (Task task : tasks) {
+            boolean sent =
+                    send(
+                            TaskServicePb.StreamTasksResponse.newBuilder()
+                                    .setTask(PROTO_MAPPER.toProto(task))
+                                    .build());
+            if (!sent) {
+                requeue(task);
+            }
+        }
+        credit.addAndGet(-tasks.size());
+    }
+
+    /**
+     * @return false if the stream is closed and the message was not sent
+     */
+    private boolean send(TaskServicePb.StreamTasksResponse message) {
+        synchronized (response) {
+            if (closed) {
+                return false;
+            }
+            try {
+                response.onNext(message);
+                return true;
+            } catch (StatusRuntimeException e) {
+                // the call was cancelled by the worker before onError reached this handler
+                close();
+                LOGGER.debug("Task stream of {} cancelled", subscription, e);
+                return false;
+            }
+        }
+    }
+
+    private void requeue(Task task) {
+        try {
+            executionService.requeueTask(task);
+            LOGGER.debug(
+                    "Requeued task {} polled for the closed stream of {}",
+                    task.getTaskId(),
+                    subscription);
+        } catch (Exception e) {
+            LOGGER.error(
+                    "Error requeuing task {} polled for a closed task stream",
+                    task.getTaskId(),
+                    e);
+        }
+    }
+
+    private void close() {
+        closed = true;
+        TaskStreamPoller poller = this.poller;
+        if (poller != null) {
+            poller.removeStream(this);
+        }
+    }
+
+    private void fail(Status status) {
+        close();
+        synchronized (response) {
+            response.onError(status.asRuntimeException());
+        }
+    }
+}
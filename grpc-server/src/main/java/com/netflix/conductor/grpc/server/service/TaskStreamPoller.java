@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.grpc.server.service;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.service.ExecutionService;
+
+/**
+ * Polls the queue of a task type in a domain on behalf of all the task streams subscribed to it.
+ *
+ * <p>The streams that have credit left are polled for in turn, each with its own worker id and up
+ * to its own credit, so that the tasks are handed to the workers by credit. The queue is polled
+ * again as soon as tasks were received. Once it is empty, it is polled at an interval that doubles
+ * from {@link #MIN_POLL_INTERVAL_MS} up to the configured maximum, whatever the number of streams:
+ * an idle queue costs a poll every few seconds, not one per stream, and nothing is polled while no
+ * stream has credit.
+ */
+class TaskStreamPoller {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStreamPoller.class);
+
+    static final long MIN_POLL_INTERVAL_MS = 100;
+
+    private final String taskType;
+    private final String domain;
+    private final ExecutionService executionService;
+    private final ScheduledExecutorService pollExecutor;
+    private final long maxPollIntervalMs;
+
+    private final Queue<TaskStreamHandler> streams = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private long pollIntervalMs = MIN_POLL_INTERVAL_MS;
+
+    TaskStreamPoller(
+            String taskType,
+            String domain,
+            ExecutionService executionService,
+            ScheduledExecutorService pollExecutor,
+            long maxPollIntervalMs) {
+        this.taskType = taskType;
+        this.domain = domain;
+        this.executionService = executionService;
+        this.pollExecutor = pollExecutor;
+        this.maxPollIntervalMs = Math.max(MIN_POLL_INTERVAL_MS, maxPollIntervalMs);
+    }
+
+    void addStream(TaskStreamHandler stream) {
+        streams.add(stream);
+        wakeUp();
+    }
+
+    void removeStream(TaskStreamHandler stream) {
+        streams.remove(stream);
+    }
+
+    /** Starts polling, unless a poll is already scheduled or no stream has credit left. */
+    void wakeUp() {
+        if (hasCredit() && polling.compareAndSet(false, true)) {
+            pollExecutor.execute(this::poll);
+        }
+    }
+
+    private boolean hasCredit() {
+        return streams.stream().anyMatch(TaskStreamHandler::hasCredit);
+    }
+
+    /**
+     * @return the next stream with credit left, which is moved to the end of the line
+     */
+    private TaskStreamHandler nextStream() {
+        for (int i = streams.size(); i > 0; i--) {
+            TaskStreamHandler stream = streams.poll();
+            if (stream == null) {
+                return null;
+            }
+            if (stream.isClosed()) {
+                continue;
+            }
+            streams.add(stream);
+            if (stream.hasCredit()) {
+                return stream;
+            }
+        }
+        return null;
+    }
+
+    private void poll() {
+        long delay = 0;
+        TaskStreamHandler stream = nextStream();
+        if (stream != null) {
+            try {
+                List<Task> tasks =
+                        executionService.poll(
+                                taskType, stream.getWorkerId(), domain, stream.getCredit(), 0);
+                stream.deliver(tasks);
+                if (tasks.isEmpty()) {
+                    delay = pollIntervalMs;
+                    pollIntervalMs = Math.min(pollIntervalMs * 2, maxPollIntervalMs);
+                } else {
+                    pollIntervalMs = MIN_POLL_INTERVAL_MS;
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error polling tasks of type {} for the task streams", taskType, e);
+                delay = maxPollIntervalMs;
+            }
+        }
+
+        if (hasCredit()) {
+            pollExecutor.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+            return;
+        }
+        polling.set(false);
+        // credit may have been added before the flag was cleared
+        wakeUp();
+    }
+}
@@ -13,20 +13,25 @@
 package com.netflix.conductor.grpc.server.service;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import com.netflix.conductor.common.metadata.tasks.Task;
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
 import com.netflix.conductor.grpc.SearchPb;
 import com.netflix.conductor.grpc.TaskServicePb;
 import com.netflix.conductor.proto.TaskPb;
+import com.netflix.conductor.proto.TaskResultPb;
 import com.netflix.conductor.proto.TaskSummaryPb;
 import com.netflix.conductor.service.ExecutionService;
 import com.netflix.conductor.service.TaskService;
@@ -34,6 +39,7 @@ import com.netflix.conductor.service.TaskService;
 import io.grpc.stub.StreamObserver;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -48,7 +54,171 @@ public class TaskServiceImplTest {
     @Before
     public void init() {
         initMocks(this);
-        taskServiceImpl = new TaskServiceImpl(executionService, taskService, 5000);
+        taskServiceImpl = new TaskServiceImpl(executionService, taskService, 5000, 20, 1);
+    }
+
+    @After
+    public void cleanup() {
+        taskServiceImpl.shutdown();
+    }
+
+    @Test
+    public void streamTasksWithinCreditTest() {
+        Task task = new Task();
+        task.setTaskId("task-1");
+        when(executionService.poll("test", "worker", null, 2, 0))
+                .thenReturn(Collections.singletonList(task));
+        when(executionService.poll("test", "worker", null, 1, 0))
+                .thenReturn(Collections.emptyList());
+
+        @SuppressWarnings("unchecked")
+        StreamObserver<TaskServicePb.StreamTasksResponse> response = mock(StreamObserver.class);
+        StreamObserver<TaskServicePb.StreamTasksRequest> request =
+                taskServiceImpl.streamTasks(response);
+        request.onNext(
+                TaskServicePb.StreamTasksRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.StreamTasksRequest.Subscribe.newBuilder()
+                                        .setTaskType("test")
+                                        .setWorkerId("worker"))
+                        .build());
+        // no task is polled until the worker grants credit
+        verify(executionService, after(50).never())
+                .poll(anyString(), anyString(), any(), anyInt(), anyInt());
+
+        request.onNext(TaskServicePb.StreamTasksRequest.newBuilder().setCredit(2).build());
+
+        ArgumentCaptor<TaskServicePb.StreamTasksResponse> captor =
+                ArgumentCaptor.forClass(TaskServicePb.StreamTasksResponse.class);
+        verify(response, timeout(1000)).onNext(captor.capture());
+        assertEquals("task-1", captor.getValue().getTask().getTaskId());
+        // the remaining credit keeps polling the empty queue
+        verify(executionService, timeout(1000).atLeast(2)).poll("test", "worker", null, 1, 0);
+
+        request.onCompleted();
+        verify(response, timeout(1000)).onCompleted();
+        verify(response, never()).onError(any());
+    }
+
+    @Test
+    public void streamTasksRequeuesTasksPolledForAClosedStreamTest() {
+        Task task = new Task();
+        task.setTaskId("task-1");
+        AtomicReference<StreamObserver<TaskServicePb.StreamTasksRequest>> request =
+                new AtomicReference<>();
+        // the worker goes away while its tasks are being polled
+        when(executionService.poll("test", "worker", null, 1, 0))
+                .thenAnswer(
+                        invocation -> {
+                            request.get().onError(new RuntimeException("worker disconnected"));
+                            return Collections.singletonList(task);
+                        });
+
+        @SuppressWarnings("unchecked")
+        StreamObserver<TaskServicePb.StreamTasksResponse> response = mock(StreamObserver.class);
+        request.set(taskServiceImpl.streamTasks(response));
+        request.get()
+                .onNext(
+                        TaskServicePb.StreamTasksRequest.newBuilder()
+                                .setSubscribe(
+                                        TaskServicePb.StreamTasksRequest.Subscribe.newBuilder()
+                                                .setTaskType("test")
+                                                .setWorkerId("worker"))
+                                .build());
+        request.get().onNext(TaskServicePb.StreamTasksRequest.newBuilder().setCredit(1).build());
+
+        verify(executionService, timeout(1000)).requeueTask(task);
+        verify(response, never()).onNext(any());
+    }
+
+    @Test
+    public void streamTasksHandsTasksOutByCreditTest() {
+        Task task1 = new Task();
+        task1.setTaskId("task-1");
+        Task task2 = new Task();
+        task2.setTaskId("task-2");
+        Task task3 = new Task();
+        task3.setTaskId("task-3");
+        when(executionService.poll("test", "worker-a", null, 1, 0))
+                .thenReturn(Collections.singletonList(task1))
+                .thenReturn(Collections.emptyList());
+        when(executionService.poll("test", "worker-b", null, 2, 0))
+                .thenReturn(List.of(task2, task3))
+                .thenReturn(Collections.emptyList());
+
+        StreamObserver<TaskServicePb.StreamTasksResponse> responseA = openStream("worker-a", 1);
+        StreamObserver<TaskServicePb.StreamTasksResponse> responseB = openStream("worker-b", 2);
+
+        ArgumentCaptor<TaskServicePb.StreamTasksResponse> captorA =
+                ArgumentCaptor.forClass(TaskServicePb.StreamTasksResponse.class);
+        verify(responseA, timeout(1000)).onNext(captorA.capture());
+        assertEquals("task-1", captorA.getValue().getTask().getTaskId());
+        ArgumentCaptor<TaskServicePb.StreamTasksResponse> captorB =
+                ArgumentCaptor.forClass(TaskServicePb.StreamTasksResponse.class);
+        verify(responseB, timeout(1000).times(2)).onNext(captorB.capture());
+        assertEquals("task-2", captorB.getAllValues().get(0).getTask().getTaskId());
+        assertEquals("task-3", captorB.getAllValues().get(1).getTask().getTaskId());
+        // each worker was polled for once, and has no credit left
+        verify(executionService, after(200).times(2))
+                .poll(eq("test"), anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void streamTasksPollsAnIdleQueueOnceForAllItsStreamsTest() {
+        when(executionService.poll(anyString(), anyString(), any(), anyInt(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        openStream("worker-a", 1);
+        openStream("worker-b", 1);
+        openStream("worker-c", 1);
+
+        // the empty queue is polled at 0, 100 and 300ms whatever the number of its streams
+        verify(executionService, after(350).atMost(4))
+                .poll(anyString(), anyString(), any(), anyInt(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private StreamObserver<TaskServicePb.StreamTasksResponse> openStream(
+            String workerId, int credit) {
+        StreamObserver<TaskServicePb.StreamTasksResponse> response = mock(StreamObserver.class);
+        StreamObserver<TaskServicePb.StreamTasksRequest> request =
+                taskServiceImpl.streamTasks(response);
+        request.onNext(
+                TaskServicePb.StreamTasksRequest.newBuilder()
+                        .setSubscribe(
+                                TaskServicePb.StreamTasksRequest.Subscribe.newBuilder()
+                                        .setTaskType("test")
+                                        .setWorkerId(workerId))
+                        .build());
+        request.onNext(TaskServicePb.StreamTasksRequest.newBuilder().setCredit(credit).build());
+        return response;
+    }
+
+    @Test
+    public void streamTasksUpdateTest() {
+        @SuppressWarnings("unchecked")
+        StreamObserver<TaskServicePb.StreamTasksResponse> response = mock(StreamObserver.class);
+        StreamObserver<TaskServicePb.StreamTasksRequest> request =
+                taskServiceImpl.streamTasks(response);
+        request.onNext(
+                TaskServicePb.StreamTasksRequest.newBuilder()
+                        .setResult(
+                                TaskResultPb.TaskResult.newBuilder()
+                                        .setTaskId("task-1")
+                                        .setWorkflowInstanceId("workflow-1")
+                                        .setStatus(TaskResultPb.TaskResult.Status.COMPLETED))
+                        .build());
+
+        ArgumentCaptor<TaskResult> result = ArgumentCaptor.forClass(TaskResult.class);
+        verify(taskService).updateTask(result.capture());
+        assertEquals("task-1", result.getValue().getTaskId());
+        ArgumentCaptor<TaskServicePb.StreamTasksResponse> captor =
+                ArgumentCaptor.forClass(TaskServicePb.StreamTasksResponse.class);
+        verify(response).onNext(captor.capture());
+        assertTrue(captor.getValue().hasTaskUpdated());
+        assertEquals("task-1", captor.getValue().getTaskUpdated().getTaskId());
+        assertEquals("", captor.getValue().getTaskUpdated().getError());
+        verify(executionService, never()).poll(anyString(), anyString(), any(), anyInt(), anyInt());
     }
 
     @Test
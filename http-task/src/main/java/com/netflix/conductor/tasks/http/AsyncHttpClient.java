@@ -0,0 +1,240 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.tasks.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Non-blocking HTTP client used by the {@link HttpTask} when <code>
+ * conductor.tasks.http.async.enabled</code> is set. A request does not hold a thread while it is in
+ * flight, so the number of concurrent HTTP tasks is not bounded by the size of the system task
+ * worker pool.
+ *
+ * <p>Each host has its own client, whose connections are kept alive and shared by all the requests
+ * to that host. The connect timeout is the one of the first request to the host, the read timeout
+ * is set on each request. At most <code>conductor.tasks.http.maxConnectionsPerRoute</code>
+ * requests are in flight to a given host, and at most <code>
+ * conductor.tasks.http.async.maxPendingRequestsPerHost</code> other ones wait in a queue for a
+ * request to that host to complete; the requests above that fail right away. The completion of
+ * the requests is handled by a pool of <code>conductor.tasks.http.async.threadCount</code>
+ * threads.
+ */
+@Component
+@ConditionalOnProperty(name = "conductor.tasks.http.async.enabled", havingValue = "true")
+public class AsyncHttpClient {
+
+    /** Headers that are set by the client itself and cannot be set on a request. */
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final Duration defaultReadTimeout;
+    private final Duration defaultConnectTimeout;
+    private final int maxRequestsPerHost;
+    private final int maxPendingRequestsPerHost;
+    private final Duration responseTimeout;
+    private final ExecutorService callbackExecutor;
+
+    private final Map<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+
+    public AsyncHttpClient(
+            @Value("${conductor.tasks.http.readTimeout:150ms}") Duration readTimeout,
+            @Value("${conductor.tasks.http.connectTimeout:100ms}") Duration connectTimeout,
+            @Value("${conductor.tasks.http.maxConnectionsPerRoute:50}") int maxRequestsPerHost,
+            @Value("${conductor.tasks.http.async.threadCount:4}") int threadCount,
+            @Value("${conductor.tasks.http.async.responseTimeout:10m}") Duration responseTimeout,
+            @Value("${conductor.tasks.http.async.maxPendingRequestsPerHost:1000}")
+                    int maxPendingRequestsPerHost) {
+        this.defaultReadTimeout = readTimeout;
+        this.defaultConnectTimeout = connectTimeout;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.maxPendingRequestsPerHost = maxPendingRequestsPerHost;
+        this.responseTimeout = responseTimeout;
+        CustomizableThreadFactory threadFactory =
+                new CustomizableThreadFactory("http-task-callback-");
+        threadFactory.setDaemon(true);
+        this.callbackExecutor = Executors.newFixedThreadPool(threadCount, threadFactory);
+    }
+
+    /**
+     * Sends the request without blocking.
+     *
+     * @param input the HTTP request
+     * @param body the serialized body of the request, or null for none
+     * @return the response, completed on one of the callback threads, or failed with a {@link
+     *     RejectedExecutionException} if too many requests are already waiting for the host
+     * @throws IllegalArgumentException if the request is not valid
+     */
+    public CompletableFuture<HttpResponse<String>> send(HttpTask.Input input, String body) {
+        HttpRequest request = buildRequest(input, body);
+        Duration connectTimeout =
+                Optional.ofNullable(input.getConnectionTimeOut())
+                        .map(Duration::ofMillis)
+                        .orElse(defaultConnectTimeout);
+        String host = String.valueOf(request.uri().getAuthority());
+        HostQueue hostQueue =
+                hostQueues.computeIfAbsent(
+                        host,
+                        key ->
+                                new HostQueue(
+                                        HttpClient.newBuilder()
+                                                .version(HttpClient.Version.HTTP_1_1)
+                                                .connectTimeout(connectTimeout)
+                                                .build(),
+                                        maxRequestsPerHost,
+                                        maxPendingRequestsPerHost));
+
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        boolean submitted = hostQueue.submit(() -> send(hostQueue, request, result));
+        if (!submitted) {
+            result.completeExceptionally(
+                    new RejectedExecutionException(
+                            "Too many requests are waiting for " + host + ", request rejected"));
+        }
+        return result;
+    }
+
+    private void send(
+            HostQueue hostQueue,
+            HttpRequest request,
+            CompletableFuture<HttpResponse<String>> result) {
+        try {
+            hostQueue
+                    .client
+                    .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenCompleteAsync(
+                            (response, error) -> {
+                                hostQueue.release();
+                                if (error != null) {
+                                    result.completeExceptionally(error);
+                                } else {
+                                    result.complete(response);
+                                }
+                            },
+                            callbackExecutor);
+        } catch (RuntimeException e) {
+            hostQueue.release();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @return how long a task started with a non-blocking request waits for its response to be
+     *     applied, before it is timed out
+     */
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    private HttpRequest buildRequest(HttpTask.Input input, String body) {
+        HttpRequest.Builder builder =
+                HttpRequest.newBuilder(URI.create(input.getUri()))
+                        .timeout(
+                                Optional.ofNullable(input.getReadTimeOut())
+                                        .map(Duration::ofMillis)
+                                        .orElse(defaultReadTimeout))
+                        .method(
+                                input.getMethod().name(),
+                                body == null
+                                        ? HttpRequest.BodyPublishers.noBody()
+                                        : HttpRequest.BodyPublishers.ofString(body));
+        builder.header(HttpHeaders.CONTENT_TYPE, input.getContentType());
+        builder.header(HttpHeaders.ACCEPT, input.getAccept());
+        input.getHeaders()
+                .forEach(
+                        (key, value) -> {
+                            if (value != null && !RESTRICTED_HEADERS.contains(key.toLowerCase())) {
+                                builder.header(key, value.toString());
+                            }
+                        });
+        return builder.build();
+    }
+
+    @PreDestroy
+    public void close() {
+        callbackExecutor.shutdown();
+    }
+
+    /**
+     * The client of a host, which limits the number of requests in flight to the host and queues
+     * the requests above the limit, up to a maximum.
+     */
+    private static class HostQueue {
+
+        private final HttpClient client;
+        private final Semaphore permits;
+        private final int maxPending;
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+        HostQueue(HttpClient client, int maxRequests, int maxPending) {
+            this.client = client;
+            this.permits = new Semaphore(maxRequests);
+            this.maxPending = maxPending;
+        }
+
+        /**
+         * @return false if the request was rejected, as too many requests are already waiting
+         */
+        boolean submit(Runnable request) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                pendingCount.decrementAndGet();
+                return false;
+            }
+            pending.add(request);
+            drain();
+            return true;
+        }
+
+        void release() {
+            permits.release();
+            drain();
+        }
+
+        private void drain() {
+            // whoever adds a request or releases a permit drains, so no request is left behind
+            while (!pending.isEmpty() && permits.tryAcquire()) {
+                Runnable request = pending.poll();
+                if (request == null) {
+                    permits.release();
+                } else {
+                    pendingCount.decrementAndGet();
+                    request.run();
+                }
+            }
+        }
+    }
+}
@@ -17,16 +17,29 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.conductor.core.execution.WorkflowExecutor;
 import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask;
 import com.netflix.conductor.core.utils.Utils;
@@ -34,6 +47,7 @@ import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 import com.netflix.conductor.tasks.http.providers.RestTemplateProvider;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -53,27 +67,72 @@ public class HttpTask extends WorkflowSystemTask {
                     + REQUEST_PARAMETER_NAME
                     + "' key with HttpTask.Input as value. See documentation for HttpTask for required input parameters";
 
+    static final long UPDATE_RETRY_INITIAL_DELAY_MS = 500;
+    static final long UPDATE_RETRY_MAX_DELAY_MS = 30_000;
+
     private final TypeReference<Map<String, Object>> mapOfObj =
             new TypeReference<Map<String, Object>>() {};
     private final TypeReference<List<Object>> listOfObj = new TypeReference<List<Object>>() {};
     protected ObjectMapper objectMapper;
     protected RestTemplateProvider restTemplateProvider;
     private final String requestParameter;
+    private final AsyncHttpClient asyncHttpClient;
+    /** Ids of the tasks whose non-blocking request is in flight from this server. */
+    private final Set<String> inFlightTaskIds = ConcurrentHashMap.newKeySet();
+    /** Responses that could not be applied through the workflow executor yet, by task id. */
+    private final Map<String, TaskModel> unappliedResults = new ConcurrentHashMap<>();
+    /** Retries the updates that failed, only with non-blocking requests. */
+    private final ScheduledExecutorService updateRetryExecutor;
 
-    @Autowired
     public HttpTask(RestTemplateProvider restTemplateProvider, ObjectMapper objectMapper) {
         this(TASK_TYPE_HTTP, restTemplateProvider, objectMapper);
     }
 
+    @Autowired
+    public HttpTask(
+            RestTemplateProvider restTemplateProvider,
+            ObjectMapper objectMapper,
+            Optional<AsyncHttpClient> asyncHttpClient) {
+        this(TASK_TYPE_HTTP, restTemplateProvider, objectMapper, asyncHttpClient.orElse(null));
+    }
+
     public HttpTask(
             String name, RestTemplateProvider restTemplateProvider, ObjectMapper objectMapper) {
+        this(name, restTemplateProvider, objectMapper, null);
+    }
+
+    /**
+     * @param asyncHttpClient the client of the non-blocking requests, or null to block the system
+     *     task worker thread during the requests
+     */
+    public HttpTask(
+            String name,
+            RestTemplateProvider restTemplateProvider,
+            ObjectMapper objectMapper,
+            AsyncHttpClient asyncHttpClient) {
         super(name);
         this.restTemplateProvider = restTemplateProvider;
         this.objectMapper = objectMapper;
         this.requestParameter = REQUEST_PARAMETER_NAME;
+        this.asyncHttpClient = asyncHttpClient;
+        if (asyncHttpClient != null) {
+            CustomizableThreadFactory threadFactory =
+                    new CustomizableThreadFactory("http-task-update-retry-");
+            threadFactory.setDaemon(true);
+            this.updateRetryExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        } else {
+            this.updateRetryExecutor = null;
+        }
         LOGGER.info("{} initialized...", getTaskType());
     }
 
+    @PreDestroy
+    public void close() {
+        if (updateRetryExecutor != null) {
+            updateRetryExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public void start(WorkflowModel workflow, TaskModel task, WorkflowExecutor executor) {
         Object request = task.getInputData().get(requestParameter);
@@ -100,46 +159,205 @@ public class HttpTask extends WorkflowSystemTask {
             return;
         }
 
+        if (isNonBlockingRequest(task)) {
+            // the request is sent once the started task is persisted, see afterStart
+            task.setStatus(TaskModel.Status.IN_PROGRESS);
+            return;
+        }
+
         try {
-            HttpResponse response = httpCall(input);
-            LOGGER.debug(
-                    "Response: {}, {}, task:{}",
-                    response.statusCode,
-                    response.body,
-                    task.getTaskId());
-            if (response.statusCode > 199 && response.statusCode < 300) {
-                if (isAsyncComplete(task)) {
-                    task.setStatus(TaskModel.Status.IN_PROGRESS);
-                } else {
-                    task.setStatus(TaskModel.Status.COMPLETED);
-                }
+            handleResponse(task, httpCall(input));
+        } catch (Exception e) {
+            handleFailure(task, input, e);
+        }
+    }
+
+    /**
+     * Sends the request of a task started in non-blocking mode, and completes the task through
+     * {@link WorkflowExecutor#updateTask(TaskResult)} when the response is received.
+     *
+     * <p>The task stays postponed in the system task queue while the request is in flight. If the
+     * update fails, it is retried with an exponential backoff, and the response is also applied by
+     * {@link #execute(WorkflowModel, TaskModel, WorkflowExecutor)} if the task is polled on this
+     * server in the meantime.
+     */
+    @Override
+    public void afterStart(WorkflowModel workflow, TaskModel task, WorkflowExecutor executor) {
+        if (!isNonBlockingRequest(task) || task.getStatus() != TaskModel.Status.IN_PROGRESS) {
+            return;
+        }
+        Input input =
+                objectMapper.convertValue(task.getInputData().get(requestParameter), Input.class);
+        String taskId = task.getTaskId();
+        inFlightTaskIds.add(taskId);
+        CompletableFuture<HttpResponse> future;
+        try {
+            future =
+                    asyncHttpClient
+                            .send(input, serializeBody(input.getBody()))
+                            .thenApply(this::toHttpResponse);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete(
+                (response, error) -> {
+                    TaskModel result = task.copy();
+                    result.setOutputData(new HashMap<>(task.getOutputData()));
+                    if (error == null) {
+                        handleResponse(result, response);
+                    } else {
+                        Throwable cause =
+                                error instanceof CompletionException ? error.getCause() : error;
+                        handleFailure(result, input, cause);
+                    }
+                    if (!updateTask(result, executor)) {
+                        unappliedResults.put(taskId, result);
+                        retryUpdate(result, executor, UPDATE_RETRY_INITIAL_DELAY_MS);
+                    }
+                    inFlightTaskIds.remove(taskId);
+                });
+    }
+
+    private void handleResponse(TaskModel task, HttpResponse response) {
+        LOGGER.debug(
+                "Response: {}, {}, task:{}", response.statusCode, response.body, task.getTaskId());
+        if (response.statusCode > 199 && response.statusCode < 300) {
+            if (super.isAsyncComplete(task)) {
+                task.setStatus(TaskModel.Status.IN_PROGRESS);
             } else {
-                if (response.body != null) {
-                    task.setReasonForIncompletion(response.body.toString());
-                } else {
-                    task.setReasonForIncompletion("No response from the remote service");
-                }
-                task.setStatus(TaskModel.Status.FAILED);
+                task.setStatus(TaskModel.Status.COMPLETED);
             }
-            //noinspection ConstantConditions
-            if (response != null) {
-                task.addOutput("response", response.asMap());
+        } else {
+            if (response.body != null) {
+                task.setReasonForIncompletion(response.body.toString());
+            } else {
+                task.setReasonForIncompletion("No response from the remote service");
             }
+            task.setStatus(TaskModel.Status.FAILED);
+        }
+        task.addOutput("response", response.asMap());
+    }
 
+    private void handleFailure(TaskModel task, Input input, Throwable e) {
+        LOGGER.error(
+                "Failed to invoke {} task: {} - uri: {}, vipAddress: {} in workflow: {}",
+                getTaskType(),
+                task.getTaskId(),
+                input.getUri(),
+                input.getVipAddress(),
+                task.getWorkflowInstanceId(),
+                e);
+        task.setStatus(TaskModel.Status.FAILED);
+        task.setReasonForIncompletion("Failed to invoke " + getTaskType() + " task due to: " + e);
+        task.addOutput("response", e.toString());
+    }
+
+    /**
+     * @return true if the task was updated
+     */
+    private boolean updateTask(TaskModel task, WorkflowExecutor executor) {
+        TaskResult taskResult = new TaskResult();
+        taskResult.setWorkflowInstanceId(task.getWorkflowInstanceId());
+        taskResult.setTaskId(task.getTaskId());
+        taskResult.setWorkerId(task.getWorkerId());
+        taskResult.setStatus(TaskResult.Status.valueOf(task.getStatus().name()));
+        taskResult.setReasonForIncompletion(task.getReasonForIncompletion());
+        taskResult.setOutputData(task.getOutputData());
+        try {
+            executor.updateTask(taskResult);
+            return true;
         } catch (Exception e) {
-            LOGGER.error(
-                    "Failed to invoke {} task: {} - uri: {}, vipAddress: {} in workflow: {}",
+            LOGGER.warn(
+                    "Failed to update {} task: {} in workflow: {}, it will be retried",
                     getTaskType(),
                     task.getTaskId(),
-                    input.getUri(),
-                    input.getVipAddress(),
                     task.getWorkflowInstanceId(),
                     e);
-            task.setStatus(TaskModel.Status.FAILED);
-            task.setReasonForIncompletion(
-                    "Failed to invoke " + getTaskType() + " task due to: " + e);
-            task.addOutput("response", e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Retries the update of a task with a response that was not applied yet, until it is applied
+     * here or by {@link #execute(WorkflowModel, TaskModel, WorkflowExecutor)}. The other servers
+     * time the task out once the response timeout has passed, so the response is dropped by then.
+     */
+    private void retryUpdate(TaskModel result, WorkflowExecutor executor, long delayMs) {
+        String taskId = result.getTaskId();
+        long deadline = result.getStartTime() + asyncHttpClient.getResponseTimeout().toMillis();
+        if (System.currentTimeMillis() + delayMs > deadline) {
+            if (unappliedResults.remove(taskId, result)) {
+                LOGGER.error(
+                        "Dropping the response of {} task: {} in workflow: {}, it could not be applied within {}",
+                        getTaskType(),
+                        taskId,
+                        result.getWorkflowInstanceId(),
+                        asyncHttpClient.getResponseTimeout());
+            }
+            return;
+        }
+        try {
+            updateRetryExecutor.schedule(
+                    () -> {
+                        if (unappliedResults.get(taskId) != result) {
+                            // applied by execute
+                            return;
+                        }
+                        if (updateTask(result, executor)) {
+                            unappliedResults.remove(taskId, result);
+                        } else {
+                            retryUpdate(
+                                    result,
+                                    executor,
+                                    Math.min(delayMs * 2, UPDATE_RETRY_MAX_DELAY_MS));
+                        }
+                    },
+                    delayMs,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Not retrying the update of task: {}, shutting down", taskId);
+        }
+    }
+
+    /** The body is sent as is when it is a string, and as JSON otherwise, like the RestTemplate. */
+    private String serializeBody(Object body) throws JsonProcessingException {
+        if (body == null || body instanceof String) {
+            return (String) body;
+        }
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private HttpResponse toHttpResponse(java.net.http.HttpResponse<String> httpResponse) {
+        HttpStatus status = HttpStatus.resolve(httpResponse.statusCode());
+        String reasonPhrase = status == null ? null : status.getReasonPhrase();
+        if (httpResponse.statusCode() >= 400) {
+            // the RestTemplate throws on client and server errors, fail the same way
+            throw new IllegalStateException(
+                    httpResponse.statusCode()
+                            + " "
+                            + reasonPhrase
+                            + ": \""
+                            + httpResponse.body()
+                            + "\"");
+        }
+        HttpResponse response = new HttpResponse();
+        if (status != null
+                && status.is2xxSuccessful()
+                && httpResponse.body() != null
+                && !httpResponse.body().isEmpty()) {
+            response.body = extractBody(httpResponse.body());
         }
+        HttpHeaders headers = new HttpHeaders();
+        httpResponse.headers().map().forEach(headers::addAll);
+        response.statusCode = httpResponse.statusCode();
+        response.reasonPhrase = reasonPhrase;
+        response.headers = headers;
+        return response;
+    }
+
+    private boolean isNonBlockingRequest(TaskModel task) {
+        // tasks completed by an external message keep blocking, to not race that message
+        return asyncHttpClient != null && !super.isAsyncComplete(task);
     }
 
     /**
@@ -206,8 +424,32 @@ public class HttpTask extends WorkflowSystemTask {
         }
     }
 
+    /**
+     * Tasks started in non-blocking mode are polled again while their request is in flight. The
+     * response is applied here if the workflow executor could not be updated with it, and the task
+     * is timed out if no response was applied within the response timeout of the async client.
+     */
     @Override
     public boolean execute(WorkflowModel workflow, TaskModel task, WorkflowExecutor executor) {
+        if (!isNonBlockingRequest(task)) {
+            return false;
+        }
+        TaskModel result = unappliedResults.remove(task.getTaskId());
+        if (result != null) {
+            task.setStatus(result.getStatus());
+            task.setReasonForIncompletion(result.getReasonForIncompletion());
+            task.setOutputData(result.getOutputData());
+            return true;
+        }
+        if (!inFlightTaskIds.contains(task.getTaskId())
+                && System.currentTimeMillis() - task.getStartTime()
+                        > asyncHttpClient.getResponseTimeout().toMillis()) {
+            // the request is lost, e.g. the server that sent it was restarted
+            task.setStatus(TaskModel.Status.TIMED_OUT);
+            task.setReasonForIncompletion(
+                    "No response was received within " + asyncHttpClient.getResponseTimeout());
+            return true;
+        }
         return false;
     }
 
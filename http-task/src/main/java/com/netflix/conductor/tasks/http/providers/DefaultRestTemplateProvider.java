@@ -12,9 +12,16 @@
  */
 package com.netflix.conductor.tasks.http.providers;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -28,34 +35,72 @@ import com.netflix.conductor.tasks.http.HttpTask;
 /**
  * Provider for a customized RestTemplateBuilder. This class provides a default {@link
  * RestTemplateBuilder} which can be configured or extended as needed.
+ *
+ * <p>All the rest templates share a single pooled HttpClient, so that connections are kept alive
+ * and reused across HTTP tasks, up to <code>conductor.tasks.http.maxConnections</code> connections
+ * in total and <code>conductor.tasks.http.maxConnectionsPerRoute</code> connections per host. The
+ * timeouts of the requests are set on a request factory of the calling thread, so that any
+ * timeouts can be used without a request factory per combination of timeouts.
  */
 @Component
 public class DefaultRestTemplateProvider implements RestTemplateProvider {
 
     private final ThreadLocal<RestTemplate> threadLocalRestTemplate;
+    private final ThreadLocal<HttpComponentsClientHttpRequestFactory> threadLocalRequestFactory;
 
     private final int defaultReadTimeout;
     private final int defaultConnectTimeout;
 
+    private final CloseableHttpClient httpClient;
+
+    public DefaultRestTemplateProvider(Duration readTimeout, Duration connectTimeout) {
+        this(readTimeout, connectTimeout, 200, 50, Duration.ofSeconds(30));
+    }
+
     @Autowired
     public DefaultRestTemplateProvider(
             @Value("${conductor.tasks.http.readTimeout:150ms}") Duration readTimeout,
-            @Value("${conductor.tasks.http.connectTimeout:100ms}") Duration connectTimeout) {
+            @Value("${conductor.tasks.http.connectTimeout:100ms}") Duration connectTimeout,
+            @Value("${conductor.tasks.http.maxConnections:200}") int maxConnections,
+            @Value("${conductor.tasks.http.maxConnectionsPerRoute:50}") int maxConnectionsPerRoute,
+            @Value("${conductor.tasks.http.connectionIdleTimeout:30s}")
+                    Duration connectionIdleTimeout) {
         this.threadLocalRestTemplate = ThreadLocal.withInitial(RestTemplate::new);
         this.defaultReadTimeout = (int) readTimeout.toMillis();
         this.defaultConnectTimeout = (int) connectTimeout.toMillis();
+
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        this.httpClient =
+                HttpClientBuilder.create()
+                        .useSystemProperties()
+                        .setConnectionManager(connectionManager)
+                        .evictExpiredConnections()
+                        .evictIdleConnections(
+                                connectionIdleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .build();
+        this.threadLocalRequestFactory =
+                ThreadLocal.withInitial(
+                        () -> new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 
     @Override
     public @NonNull RestTemplate getRestTemplate(@NonNull HttpTask.Input input) {
         RestTemplate restTemplate = threadLocalRestTemplate.get();
-        HttpComponentsClientHttpRequestFactory requestFactory =
-                new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(
-                Optional.ofNullable(input.getConnectionTimeOut()).orElse(defaultConnectTimeout));
-        requestFactory.setReadTimeout(
-                Optional.ofNullable(input.getReadTimeOut()).orElse(defaultReadTimeout));
+        int connectTimeout =
+                Optional.ofNullable(input.getConnectionTimeOut()).orElse(defaultConnectTimeout);
+        int readTimeout = Optional.ofNullable(input.getReadTimeOut()).orElse(defaultReadTimeout);
+        HttpComponentsClientHttpRequestFactory requestFactory = threadLocalRequestFactory.get();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
         restTemplate.setRequestFactory(requestFactory);
         return restTemplate;
     }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
 }
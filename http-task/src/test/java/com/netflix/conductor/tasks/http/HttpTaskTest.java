@@ -18,11 +18,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
@@ -30,6 +33,7 @@ import org.mockserver.model.MediaType;
 import org.testcontainers.containers.MockServerContainer;
 import org.testcontainers.utility.DockerImageName;
 
+import com.netflix.conductor.common.metadata.tasks.TaskResult;
 import com.netflix.conductor.common.metadata.tasks.TaskType;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
 import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
@@ -49,7 +53,13 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 @SuppressWarnings("unchecked")
 public class HttpTaskTest {
@@ -105,6 +115,11 @@ public class HttpTaskTest {
                 .respond(HttpResponse.response().withBody(TEXT_RESPONSE));
         client.when(HttpRequest.request().withPath("/numeric").withMethod("GET"))
                 .respond(HttpResponse.response().withBody(String.valueOf(NUM_RESPONSE)));
+        client.when(HttpRequest.request().withPath("/slow").withMethod("GET"))
+                .respond(
+                        HttpResponse.response()
+                                .withBody(TEXT_RESPONSE)
+                                .withDelay(TimeUnit.MILLISECONDS, 500));
         client.when(HttpRequest.request().withPath("/json").withMethod("GET"))
                 .respond(
                         HttpResponse.response()
@@ -220,6 +235,213 @@ public class HttpTaskTest {
         responseKeys.containsAll(inputKeys);
     }
 
+    @Test
+    public void testNonBlockingPost() {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask();
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setWorkflowInstanceId("workflowId");
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/post");
+        Map<String, Object> body = new HashMap<>();
+        body.put("input_key1", "value1");
+        body.put("input_key2", 45.3d);
+        input.setBody(body);
+        input.setMethod("POST");
+        input.setReadTimeOut(1000);
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+
+        nonBlockingHttpTask.start(workflow, task, workflowExecutor);
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        // the task stays in the system task queue until its response is applied
+        assertFalse(nonBlockingHttpTask.isAsyncComplete(task));
+        assertNull(task.getOutputData().get("response"));
+
+        nonBlockingHttpTask.afterStart(workflow, task, workflowExecutor);
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(5000)).updateTask(captor.capture());
+        TaskResult taskResult = captor.getValue();
+        assertEquals(
+                taskResult.getReasonForIncompletion(),
+                TaskResult.Status.COMPLETED,
+                taskResult.getStatus());
+        assertEquals("taskId", taskResult.getTaskId());
+        assertEquals("workflowId", taskResult.getWorkflowInstanceId());
+        Map<String, Object> hr = (Map<String, Object>) taskResult.getOutputData().get("response");
+        assertEquals(200, hr.get("statusCode"));
+        assertEquals(body.keySet(), ((Map<String, Object>) hr.get("body")).keySet());
+        // the task itself is only updated through the workflow executor
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+    }
+
+    @Test
+    public void testNonBlockingFailure() {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask();
+        TaskModel task = new TaskModel();
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri(
+                "http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/failure");
+        input.setMethod("GET");
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+
+        nonBlockingHttpTask.start(workflow, task, workflowExecutor);
+        nonBlockingHttpTask.afterStart(workflow, task, workflowExecutor);
+        ArgumentCaptor<TaskResult> captor = ArgumentCaptor.forClass(TaskResult.class);
+        verify(workflowExecutor, timeout(5000)).updateTask(captor.capture());
+        assertEquals(TaskResult.Status.FAILED, captor.getValue().getStatus());
+        assertTrue(captor.getValue().getReasonForIncompletion().contains(ERROR_RESPONSE));
+    }
+
+    @Test
+    public void testNonBlockingUpdateFailureIsAppliedOnNextPoll() throws Exception {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask();
+        doThrow(new RuntimeException("datastore unavailable"))
+                .when(workflowExecutor)
+                .updateTask(any());
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setStartTime(System.currentTimeMillis());
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/text");
+        input.setMethod("GET");
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+
+        nonBlockingHttpTask.start(workflow, task, workflowExecutor);
+        nonBlockingHttpTask.afterStart(workflow, task, workflowExecutor);
+        verify(workflowExecutor, timeout(5000)).updateTask(any());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        boolean applied = nonBlockingHttpTask.execute(workflow, task, workflowExecutor);
+        while (!applied && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            applied = nonBlockingHttpTask.execute(workflow, task, workflowExecutor);
+        }
+        assertTrue(applied);
+        assertEquals(TaskModel.Status.COMPLETED, task.getStatus());
+        Map<String, Object> hr = (Map<String, Object>) task.getOutputData().get("response");
+        assertEquals(TEXT_RESPONSE, hr.get("body"));
+    }
+
+    @Test
+    public void testNonBlockingUpdateFailureIsRetried() {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask();
+        doThrow(new RuntimeException("datastore unavailable"))
+                .doNothing()
+                .when(workflowExecutor)
+                .updateTask(any());
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setStartTime(System.currentTimeMillis());
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/text");
+        input.setMethod("GET");
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+
+        nonBlockingHttpTask.start(workflow, task, workflowExecutor);
+        nonBlockingHttpTask.afterStart(workflow, task, workflowExecutor);
+
+        // the task does not need to be polled again on this server
+        verify(workflowExecutor, timeout(5000).times(2)).updateTask(any());
+        assertFalse(nonBlockingHttpTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        nonBlockingHttpTask.close();
+    }
+
+    @Test
+    public void testNonBlockingUnappliedResponseIsDroppedAfterTheResponseTimeout() {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask(Duration.ofMillis(800));
+        doThrow(new RuntimeException("datastore unavailable"))
+                .when(workflowExecutor)
+                .updateTask(any());
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        task.setStartTime(System.currentTimeMillis());
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/text");
+        input.setMethod("GET");
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+
+        nonBlockingHttpTask.start(workflow, task, workflowExecutor);
+        nonBlockingHttpTask.afterStart(workflow, task, workflowExecutor);
+
+        // updated from the callback, then retried once before the next retry would be too late
+        verify(workflowExecutor, timeout(5000).times(2)).updateTask(any());
+        verify(workflowExecutor, after(1000).times(2)).updateTask(any());
+        // the response was dropped, the task times out like on any other server
+        assertTrue(nonBlockingHttpTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.TIMED_OUT, task.getStatus());
+        nonBlockingHttpTask.close();
+    }
+
+    @Test
+    public void testNonBlockingRequestsAboveThePendingLimitFailFast() {
+        AsyncHttpClient asyncHttpClient =
+                new AsyncHttpClient(
+                        Duration.ofSeconds(5),
+                        Duration.ofMillis(100),
+                        1,
+                        2,
+                        Duration.ofMinutes(10),
+                        1);
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/slow");
+        input.setMethod("GET");
+
+        // one request in flight to the host, one waiting for it
+        CompletableFuture<java.net.http.HttpResponse<String>> inFlight =
+                asyncHttpClient.send(input, null);
+        CompletableFuture<java.net.http.HttpResponse<String>> waiting =
+                asyncHttpClient.send(input, null);
+        CompletableFuture<java.net.http.HttpResponse<String>> rejected =
+                asyncHttpClient.send(input, null);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertFalse(waiting.isDone());
+        assertEquals(200, inFlight.join().statusCode());
+        assertEquals(200, waiting.join().statusCode());
+        asyncHttpClient.close();
+    }
+
+    @Test
+    public void testNonBlockingLostRequestTimesOut() {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask(Duration.ofSeconds(1));
+        TaskModel task = new TaskModel();
+        task.setTaskId("taskId");
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/text");
+        input.setMethod("GET");
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+        task.setStatus(TaskModel.Status.IN_PROGRESS);
+
+        // no request is in flight for the task, e.g. the server that sent it was restarted
+        task.setStartTime(System.currentTimeMillis());
+        assertFalse(nonBlockingHttpTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+
+        task.setStartTime(System.currentTimeMillis() - 2000);
+        assertTrue(nonBlockingHttpTask.execute(workflow, task, workflowExecutor));
+        assertEquals(TaskModel.Status.TIMED_OUT, task.getStatus());
+    }
+
+    @Test
+    public void testNonBlockingAsyncCompleteBlocks() {
+        HttpTask nonBlockingHttpTask = newNonBlockingHttpTask();
+        TaskModel task = new TaskModel();
+        HttpTask.Input input = new HttpTask.Input();
+        input.setUri("http://" + mockServer.getHost() + ":" + mockServer.getServerPort() + "/text");
+        input.setMethod("GET");
+        task.getInputData().put(HttpTask.REQUEST_PARAMETER_NAME, input);
+        task.getInputData().put("asyncComplete", true);
+
+        // tasks completed by an external message keep sending their request from start
+        nonBlockingHttpTask.start(workflow, task, workflowExecutor);
+        nonBlockingHttpTask.afterStart(workflow, task, workflowExecutor);
+        assertEquals(TaskModel.Status.IN_PROGRESS, task.getStatus());
+        Map<String, Object> hr = (Map<String, Object>) task.getOutputData().get("response");
+        assertEquals(TEXT_RESPONSE, hr.get("body"));
+        verify(workflowExecutor, never()).updateTask(any());
+    }
+
     @Test
     public void testTextGET() {
         TaskModel task = new TaskModel();
@@ -370,4 +592,24 @@ public class HttpTaskTest {
                         Duration.ofMinutes(60))
                 .decide(workflow);
     }
+
+    private HttpTask newNonBlockingHttpTask() {
+        return newNonBlockingHttpTask(Duration.ofMinutes(10));
+    }
+
+    private HttpTask newNonBlockingHttpTask(Duration responseTimeout) {
+        AsyncHttpClient asyncHttpClient =
+                new AsyncHttpClient(
+                        Duration.ofMillis(150),
+                        Duration.ofMillis(100),
+                        10,
+                        2,
+                        responseTimeout,
+                        1000);
+        return new HttpTask(
+                TaskType.TASK_TYPE_HTTP,
+                new DefaultRestTemplateProvider(Duration.ofMillis(150), Duration.ofMillis(100)),
+                objectMapper,
+                asyncHttpClient);
+    }
 }
@@ -12,14 +12,21 @@
  */
 package com.netflix.conductor.redis.limit;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
-import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.annotations.Trace;
@@ -41,6 +48,12 @@ public class RedisConcurrentExecutionLimitDAO implements ConcurrentExecutionLimi
             LoggerFactory.getLogger(RedisConcurrentExecutionLimitDAO.class);
     private static final String CLASS_NAME = RedisConcurrentExecutionLimitDAO.class.getSimpleName();
 
+    /** Checks the limit and admits the tasks under it atomically, see the script for details. */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADMIT_TASKS_SCRIPT =
+            RedisScript.of(
+                    new ClassPathResource("redis-concurrency-limit/admit_tasks.lua"), List.class);
+
     private final StringRedisTemplate stringRedisTemplate;
     private final RedisConcurrentExecutionLimitProperties properties;
 
@@ -110,7 +123,9 @@ public class RedisConcurrentExecutionLimitDAO implements ConcurrentExecutionLimi
 
     /**
      * Checks if the {@link TaskModel} identifier is in the Redis Set and size of the set is more
-     * than the {@link TaskDef#concurrencyLimit()}.
+     * than the {@link TaskDef#concurrencyLimit()}. The check is done by a script, which also adds
+     * the identifier to the set when the limit is not reached, so that concurrent checks can never
+     * admit more tasks than the limit.
      *
      * @param task The {@link TaskModel} object.
      * @return true if the task id is not in the set and size of the set is more than the {@link
@@ -130,25 +145,7 @@ public class RedisConcurrentExecutionLimitDAO implements ConcurrentExecutionLimi
         try {
             Monitors.recordDaoRequests(
                     CLASS_NAME, "exceedsLimit", task.getTaskType(), task.getWorkflowType());
-            String taskId = task.getTaskId();
-            String taskDefName = task.getTaskDefName();
-            String keyName = createKeyName(taskDefName);
-
-            boolean isMember =
-                    ObjectUtils.defaultIfNull(
-                            stringRedisTemplate.opsForSet().isMember(keyName, taskId), false);
-            long size =
-                    ObjectUtils.defaultIfNull(stringRedisTemplate.opsForSet().size(keyName), -1L);
-
-            LOGGER.debug(
-                    "Task: {} is {} of {}, size: {} and limit: {}",
-                    taskId,
-                    isMember ? "a member" : "not a member",
-                    keyName,
-                    size,
-                    limit);
-
-            return !isMember && size >= limit;
+            return !admitTasks(task.getTaskDefName(), limit, List.of(task)).isEmpty();
         } catch (Exception e) {
             Monitors.error(CLASS_NAME, "exceedsLimit");
             String errorMsg =
@@ -160,6 +157,76 @@ public class RedisConcurrentExecutionLimitDAO implements ConcurrentExecutionLimi
         }
     }
 
+    /**
+     * Checks and admits the tasks of each {@link TaskDef} with a single call of the script, in the
+     * order of the tasks.
+     *
+     * @param tasks The {@link TaskModel} objects.
+     * @return the ids of the tasks which are not in the set and would take it over the {@link
+     *     TaskDef#concurrencyLimit()}.
+     */
+    @Override
+    public Set<String> getTasksExceedingLimit(List<TaskModel> tasks) {
+        Map<String, List<TaskModel>> tasksByTaskDefName = new LinkedHashMap<>();
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        for (TaskModel task : tasks) {
+            int limit = task.getTaskDefinition().map(TaskDef::concurrencyLimit).orElse(0);
+            if (limit > 0) {
+                tasksByTaskDefName
+                        .computeIfAbsent(task.getTaskDefName(), name -> new ArrayList<>())
+                        .add(task);
+                limits.put(task.getTaskDefName(), limit);
+            }
+        }
+
+        Set<String> exceeding = new HashSet<>();
+        tasksByTaskDefName.forEach(
+                (taskDefName, taskDefTasks) -> {
+                    try {
+                        Monitors.recordDaoRequests(
+                                CLASS_NAME,
+                                "getTasksExceedingLimit",
+                                taskDefTasks.get(0).getTaskType(),
+                                taskDefTasks.get(0).getWorkflowType());
+                        exceeding.addAll(
+                                admitTasks(taskDefName, limits.get(taskDefName), taskDefTasks));
+                    } catch (Exception e) {
+                        Monitors.error(CLASS_NAME, "getTasksExceedingLimit");
+                        String errorMsg =
+                                String.format(
+                                        "Failed to get in progress limit of %d tasks - %s",
+                                        taskDefTasks.size(), taskDefName);
+                        LOGGER.error(errorMsg, e);
+                        throw new TransientException(errorMsg);
+                    }
+                });
+        return exceeding;
+    }
+
+    /** @return the ids of the tasks that were not admitted, as the limit is reached */
+    @SuppressWarnings("unchecked")
+    private List<String> admitTasks(String taskDefName, int limit, List<TaskModel> tasks) {
+        String keyName = createKeyName(taskDefName);
+        String[] args = new String[tasks.size() + 1];
+        args[0] = String.valueOf(limit);
+        for (int i = 0; i < tasks.size(); i++) {
+            args[i + 1] = tasks.get(i).getTaskId();
+        }
+
+        List<String> exceeding =
+                stringRedisTemplate.execute(ADMIT_TASKS_SCRIPT, List.of(keyName), (Object[]) args);
+        if (exceeding == null) {
+            exceeding = List.of();
+        }
+        LOGGER.debug(
+                "Admitted {} of {} tasks into {} with limit: {}",
+                tasks.size() - exceeding.size(),
+                tasks.size(),
+                keyName,
+                limit);
+        return exceeding;
+    }
+
     private String createKeyName(String taskDefName) {
         StringBuilder builder = new StringBuilder();
         String namespace = properties.getNamespace();
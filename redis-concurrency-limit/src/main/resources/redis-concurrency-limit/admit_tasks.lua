@@ -0,0 +1,24 @@
+-- Admits tasks of a task definition into the set of the tasks counted against its concurrency limit,
+-- atomically, so that concurrent pollers can never admit more tasks than the limit.
+--
+-- KEYS[1] the set of the ids of the tasks counted against the limit
+-- ARGV[1] the concurrency limit of the task definition
+-- ARGV[2..n] the ids of the tasks to admit, in order
+--
+-- Returns the ids of the tasks that were not admitted as the limit is reached. A task that is
+-- already in the set is always admitted.
+
+local limit = tonumber(ARGV[1])
+local size = redis.call('SCARD', KEYS[1])
+local exceeding = {}
+for i = 2, #ARGV do
+    if redis.call('SISMEMBER', KEYS[1], ARGV[i]) == 0 then
+        if size < limit then
+            redis.call('SADD', KEYS[1], ARGV[i])
+            size = size + 1
+        else
+            exceeding[#exceeding + 1] = ARGV[i]
+        end
+    end
+end
+return exceeding
@@ -12,6 +12,10 @@
  */
 package com.netflix.conductor.redis.limit
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory
 import org.springframework.data.redis.core.StringRedisTemplate
@@ -155,6 +159,98 @@ class RedisConcurrentExecutionLimitDAOSpec extends Specification {
         retVal
     }
 
+    def "verify exceedsLimit admits a new taskId under concurrentExecLimit"() {
+        given:
+        def taskDefName = 'task_def_name1'
+        def keyName = "${properties.namespace}:$taskDefName" as String
+
+        TaskModel task = new TaskModel(taskId: 'task1', taskDefName: taskDefName, workflowTask: new WorkflowTask(taskDefinition: new TaskDef(concurrentExecLimit: 1)))
+        TaskModel otherTask = new TaskModel(taskId: 'task2', taskDefName: taskDefName, workflowTask: new WorkflowTask(taskDefinition: new TaskDef(concurrentExecLimit: 1)))
+
+        when:
+        def retVal = dao.exceedsLimit(task)
+        def otherRetVal = dao.exceedsLimit(otherTask)
+
+        then:
+        !retVal
+        otherRetVal
+        redisTemplate.opsForSet().members(keyName) == ['task1'] as Set
+    }
+
+    def "verify a task removed from the limit frees its slot"() {
+        given:
+        def workflowTask = new WorkflowTask(taskDefinition: new TaskDef(concurrentExecLimit: 1))
+        TaskModel task = new TaskModel(taskId: 'task1', taskDefName: 'task_def_name1', workflowTask: workflowTask)
+        TaskModel otherTask = new TaskModel(taskId: 'task2', taskDefName: 'task_def_name1', workflowTask: workflowTask)
+
+        expect:
+        !dao.exceedsLimit(task)
+        dao.exceedsLimit(otherTask)
+
+        when: 'the admitted task completes'
+        dao.removeTaskFromLimit(task)
+
+        then:
+        !dao.exceedsLimit(otherTask)
+    }
+
+    def "verify getTasksExceedingLimit admits the tasks of each task definition up to concurrentExecLimit"() {
+        given:
+        def keyName1 = "${properties.namespace}:task_def_name1" as String
+        def workflowTask1 = new WorkflowTask(taskDefinition: new TaskDef(concurrentExecLimit: 2))
+        def workflowTask2 = new WorkflowTask(taskDefinition: new TaskDef(concurrentExecLimit: 1))
+        redisTemplate.opsForSet().add(keyName1, 'task1')
+
+        def tasks = [
+                new TaskModel(taskId: 'task1', taskDefName: 'task_def_name1', workflowTask: workflowTask1),
+                new TaskModel(taskId: 'task2', taskDefName: 'task_def_name1', workflowTask: workflowTask1),
+                new TaskModel(taskId: 'task3', taskDefName: 'task_def_name1', workflowTask: workflowTask1),
+                new TaskModel(taskId: 'task4', taskDefName: 'task_def_name2', workflowTask: workflowTask2),
+                new TaskModel(taskId: 'task5', taskDefName: 'task_def_name2', workflowTask: workflowTask2),
+                new TaskModel(taskId: 'task6', taskDefName: 'task_def_name3', workflowTask: new WorkflowTask(taskDefinition: null))
+        ]
+
+        when:
+        def exceeding = dao.getTasksExceedingLimit(tasks)
+
+        then:
+        exceeding == ['task3', 'task5'] as Set
+        redisTemplate.opsForSet().members(keyName1) == ['task1', 'task2'] as Set
+        redisTemplate.opsForSet().members("${properties.namespace}:task_def_name2" as String) == ['task4'] as Set
+    }
+
+    def "verify concurrentExecLimit is never exceeded by parallel pollers"() {
+        given:
+        def limit = 5
+        def pollers = 64
+        def taskDefName = 'task_def_name1'
+        def keyName = "${properties.namespace}:$taskDefName" as String
+        def workflowTask = new WorkflowTask(taskDefinition: new TaskDef(concurrentExecLimit: limit))
+        def executor = Executors.newFixedThreadPool(pollers)
+        def start = new CountDownLatch(1)
+
+        when:
+        def futures = (1..pollers).collect { poller ->
+            executor.submit({
+                start.await()
+                // each poller checks a batch and a single task, as the batch and single polls do
+                def batch = (1..3).collect {
+                    new TaskModel(taskId: "task_${poller}_$it", taskDefName: taskDefName, workflowTask: workflowTask)
+                }
+                def admitted = batch.size() - dao.getTasksExceedingLimit(batch).size()
+                def single = new TaskModel(taskId: "task_${poller}_single", taskDefName: taskDefName, workflowTask: workflowTask)
+                admitted + (dao.exceedsLimit(single) ? 0 : 1)
+            } as Callable<Integer>)
+        }
+        start.countDown()
+        def admitted = futures.sum { it.get() }
+        executor.shutdown()
+
+        then:
+        admitted == limit
+        redisTemplate.opsForSet().size(keyName) == limit
+    }
+
     def "verify createKeyName ignores namespace if its not present"() {
         given:
         def dao = new RedisConcurrentExecutionLimitDAO(null, conductorProperties)
@@ -24,6 +24,7 @@ import org.springframework.context.annotation.Configuration;
 
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.redis.jedis.JedisCluster;
+import com.netflix.conductor.redis.jedis.PipelinedJedisCluster;
 import com.netflix.dyno.connectionpool.Host;
 import com.netflix.dyno.connectionpool.HostSupplier;
 import com.netflix.dyno.connectionpool.TokenMapSupplier;
@@ -58,7 +59,7 @@ public class RedisClusterConfiguration extends JedisCommandsConfigurer {
         if (password != null) {
             log.info("Connecting to Redis Cluster with AUTH");
             return new JedisCluster(
-                    new redis.clients.jedis.JedisCluster(
+                    new PipelinedJedisCluster(
                             hosts,
                             Protocol.DEFAULT_TIMEOUT,
                             Protocol.DEFAULT_TIMEOUT,
@@ -66,8 +67,7 @@ public class RedisClusterConfiguration extends JedisCommandsConfigurer {
                             password,
                             genericObjectPoolConfig));
         } else {
-            return new JedisCluster(
-                    new redis.clients.jedis.JedisCluster(hosts, genericObjectPoolConfig));
+            return new JedisCluster(new PipelinedJedisCluster(hosts, genericObjectPoolConfig));
         }
     }
 
@@ -28,6 +28,9 @@ import com.netflix.dyno.connectionpool.impl.RunOnce;
 @ConfigurationProperties("conductor.redis")
 public class RedisProperties {
 
+    public static final String DYNO_QUEUE_TYPE = "dyno";
+    public static final String STREAMS_QUEUE_TYPE = "streams";
+
     private final ConductorProperties conductorProperties;
 
     @Autowired
@@ -86,10 +89,49 @@ public class RedisProperties {
     /** The sharding strategy to be used for the dyno queue configuration */
     private String queueShardingStrategy = RedisQueuesShardingStrategyProvider.ROUND_ROBIN_STRATEGY;
 
+    /**
+     * The implementation of the task queues: <code>dyno</code> for the dyno-queues sorted sets, or
+     * <code>streams</code> for redis streams consumer groups, which require redis 5 or later and
+     * a redis_standalone, redis_sentinel or redis_cluster db type
+     */
+    private String queueType = DYNO_QUEUE_TYPE;
+
+    /**
+     * The number of streams a streams queue spreads its messages over by priority. The streams
+     * holding the lowest priority values are read first.
+     */
+    private int queuePriorityLanes = 4;
+
+    /**
+     * The time in seconds between two sweeps of the streams queues, which queue again the messages
+     * whose unack timeout expired and recover the entries of the stopped servers. A zero interval
+     * disables the sweep.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration queueUnackSweepInterval = Duration.ofSeconds(60);
+
     /** The time in seconds after which the in-memory task definitions cache will be refreshed */
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration taskDefCacheRefreshInterval = Duration.ofSeconds(60);
 
+    /** The maximum number of workflow definitions kept in the in-memory cache */
+    private int workflowDefCacheSize = 1000;
+
+    /**
+     * The time in seconds after which the in-memory workflow definitions cache checks whether the
+     * definitions were changed by another server
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration workflowDefCacheRefreshInterval = Duration.ofSeconds(1);
+
+    /**
+     * The time in milliseconds for which the last poll of a task queue is kept in memory before it
+     * is written to redis. Polls of the same queue and domain within the interval are coalesced
+     * into a single write. A zero interval writes every poll through.
+     */
+    @DurationUnit(ChronoUnit.MILLIS)
+    private Duration pollDataFlushInterval = Duration.ofMillis(5000);
+
     /** The time to live in seconds for which the event execution will be persisted */
     @DurationUnit(ChronoUnit.SECONDS)
     private Duration eventExecutionPersistenceTTL = Duration.ofSeconds(60);
@@ -252,6 +294,30 @@ public class RedisProperties {
         this.queueShardingStrategy = queueShardingStrategy;
     }
 
+    public String getQueueType() {
+        return queueType;
+    }
+
+    public void setQueueType(String queueType) {
+        this.queueType = queueType;
+    }
+
+    public int getQueuePriorityLanes() {
+        return queuePriorityLanes;
+    }
+
+    public void setQueuePriorityLanes(int queuePriorityLanes) {
+        this.queuePriorityLanes = queuePriorityLanes;
+    }
+
+    public Duration getQueueUnackSweepInterval() {
+        return queueUnackSweepInterval;
+    }
+
+    public void setQueueUnackSweepInterval(Duration queueUnackSweepInterval) {
+        this.queueUnackSweepInterval = queueUnackSweepInterval;
+    }
+
     public Duration getTaskDefCacheRefreshInterval() {
         return taskDefCacheRefreshInterval;
     }
@@ -260,6 +326,30 @@ public class RedisProperties {
         this.taskDefCacheRefreshInterval = taskDefCacheRefreshInterval;
     }
 
+    public int getWorkflowDefCacheSize() {
+        return workflowDefCacheSize;
+    }
+
+    public void setWorkflowDefCacheSize(int workflowDefCacheSize) {
+        this.workflowDefCacheSize = workflowDefCacheSize;
+    }
+
+    public Duration getWorkflowDefCacheRefreshInterval() {
+        return workflowDefCacheRefreshInterval;
+    }
+
+    public void setWorkflowDefCacheRefreshInterval(Duration workflowDefCacheRefreshInterval) {
+        this.workflowDefCacheRefreshInterval = workflowDefCacheRefreshInterval;
+    }
+
+    public Duration getPollDataFlushInterval() {
+        return pollDataFlushInterval;
+    }
+
+    public void setPollDataFlushInterval(Duration pollDataFlushInterval) {
+        this.pollDataFlushInterval = pollDataFlushInterval;
+    }
+
     public Duration getEventExecutionPersistenceTTL() {
         return eventExecutionPersistenceTTL;
     }
@@ -19,17 +19,23 @@ import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.dao.QueueDAO;
 import com.netflix.conductor.redis.config.AnyRedisCondition;
+import com.netflix.conductor.redis.config.RedisProperties;
 import com.netflix.dyno.queues.DynoQueue;
 import com.netflix.dyno.queues.Message;
 import com.netflix.dyno.queues.redis.RedisQueues;
 
 @Component
 @Conditional(AnyRedisCondition.class)
+@ConditionalOnProperty(
+        name = "conductor.redis.queue-type",
+        havingValue = RedisProperties.DYNO_QUEUE_TYPE,
+        matchIfMissing = true)
 public class DynoQueueDAO implements QueueDAO {
 
     private final RedisQueues queues;
@@ -42,6 +42,7 @@ public class RedisEventHandlerDAO extends BaseDynoDAO implements EventHandlerDAO
 
     private static final String EVENT_HANDLERS = "EVENT_HANDLERS";
     private static final String EVENT_HANDLERS_BY_EVENT = "EVENT_HANDLERS_BY_EVENT";
+    private static final String EVENT_HANDLERS_VERSION = "EVENT_HANDLERS_VERSION";
 
     public RedisEventHandlerDAO(
             JedisProxy jedisProxy,
@@ -60,6 +61,7 @@ public class RedisEventHandlerDAO extends BaseDynoDAO implements EventHandlerDAO
         }
         index(eventHandler);
         jedisProxy.hset(nsKey(EVENT_HANDLERS), eventHandler.getName(), toJson(eventHandler));
+        jedisProxy.incr(nsKey(EVENT_HANDLERS_VERSION));
         recordRedisDaoRequests("addEventHandler");
     }
 
@@ -73,6 +75,7 @@ public class RedisEventHandlerDAO extends BaseDynoDAO implements EventHandlerDAO
         }
         index(eventHandler);
         jedisProxy.hset(nsKey(EVENT_HANDLERS), eventHandler.getName(), toJson(eventHandler));
+        jedisProxy.incr(nsKey(EVENT_HANDLERS_VERSION));
         recordRedisDaoRequests("updateEventHandler");
     }
 
@@ -85,6 +88,7 @@ public class RedisEventHandlerDAO extends BaseDynoDAO implements EventHandlerDAO
         jedisProxy.hdel(nsKey(EVENT_HANDLERS), name);
         recordRedisDaoRequests("removeEventHandler");
         removeIndex(existing);
+        jedisProxy.incr(nsKey(EVENT_HANDLERS_VERSION));
     }
 
     @Override
@@ -100,6 +104,13 @@ public class RedisEventHandlerDAO extends BaseDynoDAO implements EventHandlerDAO
         return handlers;
     }
 
+    @Override
+    public Long getEventHandlersVersion() {
+        String version = jedisProxy.get(nsKey(EVENT_HANDLERS_VERSION));
+        recordRedisDaoRequests("getEventHandlersVersion");
+        return version == null ? 0L : Long.parseLong(version);
+    }
+
     private void index(EventHandler eventHandler) {
         String event = eventHandler.getEvent();
         String key = nsKey(EVENT_HANDLERS_BY_EVENT, event);
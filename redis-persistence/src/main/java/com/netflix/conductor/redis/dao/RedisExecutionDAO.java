@@ -14,6 +14,7 @@ package com.netflix.conductor.redis.dao;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -25,6 +26,7 @@ import com.netflix.conductor.common.metadata.events.EventExecution;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.exception.TransientException;
+import com.netflix.conductor.core.utils.ModelSerializer;
 import com.netflix.conductor.dao.ConcurrentExecutionLimitDAO;
 import com.netflix.conductor.dao.ExecutionDAO;
 import com.netflix.conductor.metrics.Monitors;
@@ -32,6 +34,7 @@ import com.netflix.conductor.model.TaskModel;
 import com.netflix.conductor.model.WorkflowModel;
 import com.netflix.conductor.redis.config.AnyRedisCondition;
 import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.JedisBatch;
 import com.netflix.conductor.redis.jedis.JedisProxy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -59,13 +62,16 @@ public class RedisExecutionDAO extends BaseDynoDAO
     private static final String CORR_ID_TO_WORKFLOWS = "CORR_ID_TO_WORKFLOWS";
     private static final String EVENT_EXECUTION = "EVENT_EXECUTION";
     private final int ttlEventExecutionSeconds;
+    private final ModelSerializer modelSerializer;
 
     public RedisExecutionDAO(
             JedisProxy jedisProxy,
             ObjectMapper objectMapper,
+            ModelSerializer modelSerializer,
             ConductorProperties conductorProperties,
             RedisProperties properties) {
         super(jedisProxy, objectMapper, conductorProperties, properties);
+        this.modelSerializer = modelSerializer;
 
         ttlEventExecutionSeconds = (int) properties.getEventExecutionPersistenceTTL().getSeconds();
     }
@@ -137,6 +143,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
     public List<TaskModel> createTasks(List<TaskModel> tasks) {
 
         List<TaskModel> tasksCreated = new LinkedList<>();
+        JedisBatch batch = new JedisBatch();
 
         for (TaskModel task : tasks) {
             validate(task);
@@ -166,15 +173,8 @@ public class RedisExecutionDAO extends BaseDynoDAO
                 task.setScheduledTime(System.currentTimeMillis());
             }
 
-            correlateTaskToWorkflowInDS(task.getTaskId(), task.getWorkflowInstanceId());
-            LOGGER.debug(
-                    "Scheduled task added to WORKFLOW_TO_TASKS workflowId: {}, taskId: {}, taskType: {} during createTasks",
-                    task.getWorkflowInstanceId(),
-                    task.getTaskId(),
-                    task.getTaskType());
-
             String inProgressTaskKey = nsKey(IN_PROGRESS_TASKS, task.getTaskDefName());
-            jedisProxy.sadd(inProgressTaskKey, task.getTaskId());
+            batch.sadd(inProgressTaskKey, task.getTaskId());
             LOGGER.debug(
                     "Scheduled task added to IN_PROGRESS_TASKS with inProgressTaskKey: {}, workflowId: {}, taskId: {}, taskType: {} during createTasks",
                     inProgressTaskKey,
@@ -182,21 +182,38 @@ public class RedisExecutionDAO extends BaseDynoDAO
                     task.getTaskId(),
                     task.getTaskType());
 
-            updateTask(task);
+            // also correlates the task to the workflow
+            updateTask(task, batch);
             tasksCreated.add(task);
         }
 
+        jedisProxy.execute(batch);
         return tasksCreated;
     }
 
     @Override
     public void updateTask(TaskModel task) {
+        JedisBatch batch = new JedisBatch();
+        updateTask(task, batch);
+        jedisProxy.execute(batch);
+    }
+
+    /** Stores all the tasks in a single pipeline. */
+    @Override
+    public void updateTasks(List<TaskModel> tasks) {
+        JedisBatch batch = new JedisBatch();
+        tasks.forEach(task -> updateTask(task, batch));
+        jedisProxy.execute(batch);
+    }
+
+    /** Adds the writes needed to store the task to the batch, without executing them. */
+    private void updateTask(TaskModel task, JedisBatch batch) {
         Optional<TaskDef> taskDefinition = task.getTaskDefinition();
 
         if (taskDefinition.isPresent() && taskDefinition.get().concurrencyLimit() > 0) {
 
             if (task.getStatus() != null && task.getStatus().equals(TaskModel.Status.IN_PROGRESS)) {
-                jedisProxy.sadd(
+                batch.sadd(
                         nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
                 LOGGER.debug(
                         "Workflow Task added to TASKS_IN_PROGRESS_STATUS with tasksInProgressKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
@@ -206,7 +223,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                         task.getTaskType(),
                         task.getStatus().name());
             } else {
-                jedisProxy.srem(
+                batch.srem(
                         nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
                 LOGGER.debug(
                         "Workflow Task removed from TASKS_IN_PROGRESS_STATUS with tasksInProgressKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
@@ -216,7 +233,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                         task.getTaskType(),
                         task.getStatus().name());
                 String key = nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName());
-                jedisProxy.zrem(key, task.getTaskId());
+                batch.zrem(key, task.getTaskId());
                 LOGGER.debug(
                         "Workflow Task removed from TASK_LIMIT_BUCKET with taskLimitBucketKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
                         key,
@@ -227,7 +244,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
             }
         }
 
-        String payload = toJson(task);
+        String payload = modelSerializer.serialize(task);
         recordRedisDaoPayloadSize(
                 "updateTask",
                 payload.length(),
@@ -235,7 +252,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                 task.getWorkflowType());
 
         recordRedisDaoRequests("updateTask", task.getTaskType(), task.getWorkflowType());
-        jedisProxy.set(nsKey(TASK, task.getTaskId()), payload);
+        batch.set(nsKey(TASK, task.getTaskId()), payload);
         LOGGER.debug(
                 "Workflow task payload saved to TASK with taskKey: {}, workflowId: {}, taskId: {}, taskType: {} during updateTask",
                 nsKey(TASK, task.getTaskId()),
@@ -243,7 +260,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
                 task.getTaskId(),
                 task.getTaskType());
         if (task.getStatus() != null && task.getStatus().isTerminal()) {
-            jedisProxy.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
+            batch.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
             LOGGER.debug(
                     "Workflow Task removed from TASKS_IN_PROGRESS_STATUS with tasksInProgressKey: {}, workflowId: {}, taskId: {}, taskType: {}, taskStatus: {} during updateTask",
                     nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()),
@@ -253,11 +270,9 @@ public class RedisExecutionDAO extends BaseDynoDAO
                     task.getStatus().name());
         }
 
-        Set<String> taskIds =
-                jedisProxy.smembers(nsKey(WORKFLOW_TO_TASKS, task.getWorkflowInstanceId()));
-        if (!taskIds.contains(task.getTaskId())) {
-            correlateTaskToWorkflowInDS(task.getTaskId(), task.getWorkflowInstanceId());
-        }
+        // SADD is a no-op for a task that is already correlated, which is cheaper than reading
+        // the whole set of tasks of the workflow to check for it
+        correlateTaskToWorkflowInDS(task.getTaskId(), task.getWorkflowInstanceId(), batch);
     }
 
     @Override
@@ -271,61 +286,101 @@ public class RedisExecutionDAO extends BaseDynoDAO
             return false;
         }
 
-        long current = getInProgressTaskCount(task.getTaskDefName());
+        return !getTasksExceedingLimit(task.getTaskDefName(), limit, List.of(task)).isEmpty();
+    }
+
+    /** Checks the tasks of each task definition with a single read of its limit bucket. */
+    @Override
+    public Set<String> getTasksExceedingLimit(List<TaskModel> tasks) {
+        Map<String, List<TaskModel>> tasksByTaskDefName = new LinkedHashMap<>();
+        Map<String, Integer> limits = new HashMap<>();
+        for (TaskModel task : tasks) {
+            int limit = task.getTaskDefinition().map(TaskDef::concurrencyLimit).orElse(0);
+            if (limit > 0) {
+                tasksByTaskDefName
+                        .computeIfAbsent(task.getTaskDefName(), name -> new ArrayList<>())
+                        .add(task);
+                limits.put(task.getTaskDefName(), limit);
+            }
+        }
+        Set<String> exceeding = new HashSet<>();
+        tasksByTaskDefName.forEach(
+                (taskDefName, defTasks) ->
+                        exceeding.addAll(
+                                getTasksExceedingLimit(
+                                        taskDefName, limits.get(taskDefName), defTasks)));
+        return exceeding;
+    }
+
+    private Set<String> getTasksExceedingLimit(
+            String taskDefName, int limit, List<TaskModel> tasks) {
+        Set<String> exceeding = new HashSet<>();
+        long current = getInProgressTaskCount(taskDefName);
         if (current >= limit) {
-            LOGGER.info(
-                    "Task execution count limited. task - {}:{}, limit: {}, current: {}",
-                    task.getTaskId(),
-                    task.getTaskDefName(),
-                    limit,
-                    current);
-            Monitors.recordTaskConcurrentExecutionLimited(task.getTaskDefName(), limit);
-            return true;
+            for (TaskModel task : tasks) {
+                LOGGER.info(
+                        "Task execution count limited. task - {}:{}, limit: {}, current: {}",
+                        task.getTaskId(),
+                        taskDefName,
+                        limit,
+                        current);
+                Monitors.recordTaskConcurrentExecutionLimited(taskDefName, limit);
+                exceeding.add(task.getTaskId());
+            }
+            return exceeding;
         }
 
-        String rateLimitKey = nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName());
+        String rateLimitKey = nsKey(TASK_LIMIT_BUCKET, taskDefName);
         double score = System.currentTimeMillis();
-        String taskId = task.getTaskId();
-        jedisProxy.zaddnx(rateLimitKey, score, taskId);
-        recordRedisDaoRequests("checkTaskRateLimiting", task.getTaskType(), task.getWorkflowType());
+        JedisBatch batch = new JedisBatch();
+        for (TaskModel task : tasks) {
+            batch.zaddnx(rateLimitKey, score, task.getTaskId());
+            recordRedisDaoRequests(
+                    "checkTaskRateLimiting", task.getTaskType(), task.getWorkflowType());
+        }
+        jedisProxy.execute(batch);
 
         Set<String> ids = jedisProxy.zrangeByScore(rateLimitKey, 0, score + 1, limit);
-        boolean rateLimited = !ids.contains(taskId);
-        if (rateLimited) {
-            LOGGER.info(
-                    "Task execution count limited. task - {}:{}, limit: {}, current: {}",
-                    task.getTaskId(),
-                    task.getTaskDefName(),
-                    limit,
-                    current);
-            String inProgressKey = nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName());
+        for (TaskModel task : tasks) {
+            if (!ids.contains(task.getTaskId())) {
+                LOGGER.info(
+                        "Task execution count limited. task - {}:{}, limit: {}, current: {}",
+                        task.getTaskId(),
+                        taskDefName,
+                        limit,
+                        current);
+                Monitors.recordTaskRateLimited(taskDefName, limit);
+                exceeding.add(task.getTaskId());
+            }
+        }
+        if (!exceeding.isEmpty()) {
+            String inProgressKey = nsKey(TASKS_IN_PROGRESS_STATUS, taskDefName);
             // Cleanup any items that are still present in the rate limit bucket but not in progress
             // anymore!
             ids.stream()
                     .filter(id -> !jedisProxy.sismember(inProgressKey, id))
                     .forEach(id2 -> jedisProxy.zrem(rateLimitKey, id2));
-            Monitors.recordTaskRateLimited(task.getTaskDefName(), limit);
         }
-        return rateLimited;
+        return exceeding;
     }
 
-    private void removeTaskMappings(TaskModel task) {
+    private void removeTaskMappings(TaskModel task, JedisBatch batch) {
         String taskKey = task.getReferenceTaskName() + "" + task.getRetryCount();
 
-        jedisProxy.hdel(nsKey(SCHEDULED_TASKS, task.getWorkflowInstanceId()), taskKey);
-        jedisProxy.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
-        jedisProxy.srem(nsKey(WORKFLOW_TO_TASKS, task.getWorkflowInstanceId()), task.getTaskId());
-        jedisProxy.srem(nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
-        jedisProxy.zrem(nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName()), task.getTaskId());
+        batch.hdel(nsKey(SCHEDULED_TASKS, task.getWorkflowInstanceId()), taskKey);
+        batch.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
+        batch.srem(nsKey(WORKFLOW_TO_TASKS, task.getWorkflowInstanceId()), task.getTaskId());
+        batch.srem(nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
+        batch.zrem(nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName()), task.getTaskId());
     }
 
-    private void removeTaskMappingsWithExpiry(TaskModel task) {
+    private void removeTaskMappingsWithExpiry(TaskModel task, JedisBatch batch) {
         String taskKey = task.getReferenceTaskName() + "" + task.getRetryCount();
 
-        jedisProxy.hdel(nsKey(SCHEDULED_TASKS, task.getWorkflowInstanceId()), taskKey);
-        jedisProxy.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
-        jedisProxy.srem(nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
-        jedisProxy.zrem(nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName()), task.getTaskId());
+        batch.hdel(nsKey(SCHEDULED_TASKS, task.getWorkflowInstanceId()), taskKey);
+        batch.srem(nsKey(IN_PROGRESS_TASKS, task.getTaskDefName()), task.getTaskId());
+        batch.srem(nsKey(TASKS_IN_PROGRESS_STATUS, task.getTaskDefName()), task.getTaskId());
+        batch.zrem(nsKey(TASK_LIMIT_BUCKET, task.getTaskDefName()), task.getTaskId());
     }
 
     @Override
@@ -335,24 +390,24 @@ public class RedisExecutionDAO extends BaseDynoDAO
             LOGGER.warn("No such task found by id {}", taskId);
             return false;
         }
-        removeTaskMappings(task);
+        JedisBatch batch = new JedisBatch();
+        removeTask(task, batch);
+        jedisProxy.execute(batch);
+        return true;
+    }
+
+    private void removeTask(TaskModel task, JedisBatch batch) {
+        removeTaskMappings(task, batch);
 
-        jedisProxy.del(nsKey(TASK, task.getTaskId()));
+        batch.del(nsKey(TASK, task.getTaskId()));
         recordRedisDaoRequests("removeTask", task.getTaskType(), task.getWorkflowType());
-        return true;
     }
 
-    private boolean removeTaskWithExpiry(String taskId, int ttlSeconds) {
-        TaskModel task = getTask(taskId);
-        if (task == null) {
-            LOGGER.warn("No such task found by id {}", taskId);
-            return false;
-        }
-        removeTaskMappingsWithExpiry(task);
+    private void removeTaskWithExpiry(TaskModel task, int ttlSeconds, JedisBatch batch) {
+        removeTaskMappingsWithExpiry(task, batch);
 
-        jedisProxy.expire(nsKey(TASK, task.getTaskId()), ttlSeconds);
+        batch.expire(nsKey(TASK, task.getTaskId()), ttlSeconds);
         recordRedisDaoRequests("removeTask", task.getTaskType(), task.getWorkflowType());
-        return true;
     }
 
     @Override
@@ -361,12 +416,12 @@ public class RedisExecutionDAO extends BaseDynoDAO
         return Optional.ofNullable(jedisProxy.get(nsKey(TASK, taskId)))
                 .map(
                         json -> {
-                            TaskModel task = readValue(json, TaskModel.class);
+                            TaskModel task = modelSerializer.deserialize(json, TaskModel.class);
                             recordRedisDaoRequests(
                                     "getTask", task.getTaskType(), task.getWorkflowType());
                             recordRedisDaoPayloadSize(
                                     "getTask",
-                                    toJson(task).length(),
+                                    json.length(),
                                     task.getTaskType(),
                                     task.getWorkflowType());
                             return task;
@@ -376,13 +431,14 @@ public class RedisExecutionDAO extends BaseDynoDAO
 
     @Override
     public List<TaskModel> getTasks(List<String> taskIds) {
-        return taskIds.stream()
-                .map(taskId -> nsKey(TASK, taskId))
-                .map(jedisProxy::get)
+        List<String> taskKeys =
+                taskIds.stream().map(taskId -> nsKey(TASK, taskId)).collect(Collectors.toList());
+        return jedisProxy.mget(taskKeys).stream()
                 .filter(Objects::nonNull)
                 .map(
                         jsonString -> {
-                            TaskModel task = readValue(jsonString, TaskModel.class);
+                            TaskModel task =
+                                    modelSerializer.deserialize(jsonString, TaskModel.class);
                             recordRedisDaoRequests(
                                     "getTask", task.getTaskType(), task.getWorkflowType());
                             recordRedisDaoPayloadSize(
@@ -433,15 +489,17 @@ public class RedisExecutionDAO extends BaseDynoDAO
                             WORKFLOW_DEF_TO_WORKFLOWS,
                             workflow.getWorkflowName(),
                             dateStr(workflow.getCreateTime()));
-            jedisProxy.srem(key, workflowId);
-            jedisProxy.srem(nsKey(CORR_ID_TO_WORKFLOWS, workflow.getCorrelationId()), workflowId);
-            jedisProxy.srem(nsKey(PENDING_WORKFLOWS, workflow.getWorkflowName()), workflowId);
+            JedisBatch batch = new JedisBatch();
+            batch.srem(key, workflowId);
+            batch.srem(nsKey(CORR_ID_TO_WORKFLOWS, workflow.getCorrelationId()), workflowId);
+            batch.srem(nsKey(PENDING_WORKFLOWS, workflow.getWorkflowName()), workflowId);
 
             // Remove the object
-            jedisProxy.del(nsKey(WORKFLOW, workflowId));
+            batch.del(nsKey(WORKFLOW, workflowId));
             for (TaskModel task : workflow.getTasks()) {
-                removeTask(task.getTaskId());
+                removeTask(task, batch);
             }
+            jedisProxy.execute(batch);
             return true;
         }
         return false;
@@ -458,16 +516,18 @@ public class RedisExecutionDAO extends BaseDynoDAO
                             WORKFLOW_DEF_TO_WORKFLOWS,
                             workflow.getWorkflowName(),
                             dateStr(workflow.getCreateTime()));
-            jedisProxy.srem(key, workflowId);
-            jedisProxy.srem(nsKey(CORR_ID_TO_WORKFLOWS, workflow.getCorrelationId()), workflowId);
-            jedisProxy.srem(nsKey(PENDING_WORKFLOWS, workflow.getWorkflowName()), workflowId);
+            JedisBatch batch = new JedisBatch();
+            batch.srem(key, workflowId);
+            batch.srem(nsKey(CORR_ID_TO_WORKFLOWS, workflow.getCorrelationId()), workflowId);
+            batch.srem(nsKey(PENDING_WORKFLOWS, workflow.getWorkflowName()), workflowId);
 
             // Remove the object
-            jedisProxy.expire(nsKey(WORKFLOW, workflowId), ttlSeconds);
+            batch.expire(nsKey(WORKFLOW, workflowId), ttlSeconds);
             for (TaskModel task : workflow.getTasks()) {
-                removeTaskWithExpiry(task.getTaskId(), ttlSeconds);
+                removeTaskWithExpiry(task, ttlSeconds, batch);
             }
-            jedisProxy.expire(nsKey(WORKFLOW_TO_TASKS, workflowId), ttlSeconds);
+            batch.expire(nsKey(WORKFLOW_TO_TASKS, workflowId), ttlSeconds);
+            jedisProxy.execute(batch);
 
             return true;
         }
@@ -488,21 +548,69 @@ public class RedisExecutionDAO extends BaseDynoDAO
 
     @Override
     public WorkflowModel getWorkflow(String workflowId, boolean includeTasks) {
-        String json = jedisProxy.get(nsKey(WORKFLOW, workflowId));
-        WorkflowModel workflow = null;
+        List<WorkflowModel> workflows = getWorkflows(List.of(workflowId), includeTasks);
+        return workflows.isEmpty() ? null : workflows.get(0);
+    }
 
-        if (json != null) {
-            workflow = readValue(json, WorkflowModel.class);
+    /**
+     * Loads the workflows in two round trips regardless of their number: one pipeline reads the
+     * workflows along with the ids of their tasks, then the tasks of all the workflows are read
+     * at once.
+     */
+    @Override
+    public List<WorkflowModel> getWorkflows(Collection<String> workflowIds, boolean includeTasks) {
+        JedisBatch batch = new JedisBatch();
+        Map<String, JedisBatch.Reply<String>> workflowJsons = new LinkedHashMap<>();
+        Map<String, JedisBatch.Reply<Set<String>>> workflowTaskIds = new HashMap<>();
+        for (String workflowId : workflowIds) {
+            workflowJsons.put(workflowId, batch.get(nsKey(WORKFLOW, workflowId)));
+            if (includeTasks) {
+                workflowTaskIds.put(
+                        workflowId, batch.smembers(nsKey(WORKFLOW_TO_TASKS, workflowId)));
+            }
+        }
+        jedisProxy.execute(batch);
+
+        List<WorkflowModel> workflows = new ArrayList<>(workflowJsons.size());
+        List<Set<String>> taskIdsOfWorkflows = new ArrayList<>(workflowJsons.size());
+        List<String> taskIds = new ArrayList<>();
+        for (Map.Entry<String, JedisBatch.Reply<String>> entry : workflowJsons.entrySet()) {
+            String json = entry.getValue().get();
+            if (json == null) {
+                continue;
+            }
+            WorkflowModel workflow = modelSerializer.deserialize(json, WorkflowModel.class);
             recordRedisDaoRequests("getWorkflow", "n/a", workflow.getWorkflowName());
             recordRedisDaoPayloadSize(
                     "getWorkflow", json.length(), "n/a", workflow.getWorkflowName());
+            workflows.add(workflow);
             if (includeTasks) {
-                List<TaskModel> tasks = getTasksForWorkflow(workflowId);
-                tasks.sort(Comparator.comparingInt(TaskModel::getSeq));
-                workflow.setTasks(tasks);
+                Set<String> taskIdsOfWorkflow = workflowTaskIds.get(entry.getKey()).get();
+                taskIdsOfWorkflows.add(taskIdsOfWorkflow);
+                taskIds.addAll(taskIdsOfWorkflow);
             }
         }
-        return workflow;
+
+        if (includeTasks) {
+            recordRedisDaoRequests("getTasksForWorkflow");
+            Map<String, TaskModel> tasksById =
+                    getTasks(taskIds).stream()
+                            .collect(
+                                    Collectors.toMap(
+                                            TaskModel::getTaskId,
+                                            Function.identity(),
+                                            (a, b) -> a));
+            for (int i = 0; i < workflows.size(); i++) {
+                List<TaskModel> tasks =
+                        taskIdsOfWorkflows.get(i).stream()
+                                .map(tasksById::get)
+                                .filter(Objects::nonNull)
+                                .sorted(Comparator.comparingInt(TaskModel::getSeq))
+                                .collect(Collectors.toList());
+                workflows.get(i).setTasks(tasks);
+            }
+        }
+        return workflows;
     }
 
     /**
@@ -530,8 +638,7 @@ public class RedisExecutionDAO extends BaseDynoDAO
     public List<WorkflowModel> getPendingWorkflowsByType(String workflowName, int version) {
         Preconditions.checkNotNull(workflowName, "workflowName cannot be null");
         List<String> workflowIds = getRunningWorkflowIds(workflowName, version);
-        return workflowIds.stream()
-                .map(this::getWorkflow)
+        return getWorkflows(workflowIds, true).stream()
                 .filter(workflow -> workflow.getWorkflowVersion() == version)
                 .collect(Collectors.toList());
     }
@@ -596,9 +703,10 @@ public class RedisExecutionDAO extends BaseDynoDAO
         List<TaskModel> tasks = workflow.getTasks();
         workflow.setTasks(new LinkedList<>());
 
-        String payload = toJson(workflow);
+        String payload = modelSerializer.serialize(workflow);
+        JedisBatch batch = new JedisBatch();
         // Store the workflow object
-        jedisProxy.set(nsKey(WORKFLOW, workflow.getWorkflowId()), payload);
+        batch.set(nsKey(WORKFLOW, workflow.getWorkflowId()), payload);
         recordRedisDaoRequests("storeWorkflow", "n/a", workflow.getWorkflowName());
         recordRedisDaoPayloadSize(
                 "storeWorkflow", payload.length(), "n/a", workflow.getWorkflowName());
@@ -609,22 +717,23 @@ public class RedisExecutionDAO extends BaseDynoDAO
                             WORKFLOW_DEF_TO_WORKFLOWS,
                             workflow.getWorkflowName(),
                             dateStr(workflow.getCreateTime()));
-            jedisProxy.sadd(key, workflow.getWorkflowId());
+            batch.sadd(key, workflow.getWorkflowId());
             if (workflow.getCorrelationId() != null) {
                 // Add to list of workflows for a correlationId
-                jedisProxy.sadd(
+                batch.sadd(
                         nsKey(CORR_ID_TO_WORKFLOWS, workflow.getCorrelationId()),
                         workflow.getWorkflowId());
             }
         }
         // Add or remove from the pending workflows
         if (workflow.getStatus().isTerminal()) {
-            jedisProxy.srem(
+            batch.srem(
                     nsKey(PENDING_WORKFLOWS, workflow.getWorkflowName()), workflow.getWorkflowId());
         } else {
-            jedisProxy.sadd(
+            batch.sadd(
                     nsKey(PENDING_WORKFLOWS, workflow.getWorkflowName()), workflow.getWorkflowId());
         }
+        jedisProxy.execute(batch);
 
         workflow.setTasks(tasks);
         return workflow.getWorkflowId();
@@ -638,8 +747,15 @@ public class RedisExecutionDAO extends BaseDynoDAO
      */
     @VisibleForTesting
     void correlateTaskToWorkflowInDS(String taskId, String workflowInstanceId) {
+        JedisBatch batch = new JedisBatch();
+        correlateTaskToWorkflowInDS(taskId, workflowInstanceId, batch);
+        jedisProxy.execute(batch);
+    }
+
+    private void correlateTaskToWorkflowInDS(
+            String taskId, String workflowInstanceId, JedisBatch batch) {
         String workflowToTaskKey = nsKey(WORKFLOW_TO_TASKS, workflowInstanceId);
-        jedisProxy.sadd(workflowToTaskKey, taskId);
+        batch.sadd(workflowToTaskKey, taskId);
         LOGGER.debug(
                 "Task mapped in WORKFLOW_TO_TASKS with workflowToTaskKey: {}, workflowId: {}, taskId: {}",
                 workflowToTaskKey,
@@ -686,6 +802,37 @@ public class RedisExecutionDAO extends BaseDynoDAO
         }
     }
 
+    @Override
+    public List<EventExecution> addEventExecutions(List<EventExecution> eventExecutions) {
+        try {
+            JedisBatch batch = new JedisBatch();
+            List<JedisBatch.Reply<Long>> replies = new ArrayList<>(eventExecutions.size());
+            for (EventExecution eventExecution : eventExecutions) {
+                String key = eventExecutionKey(eventExecution);
+                String json = objectMapper.writeValueAsString(eventExecution);
+                recordRedisDaoEventRequests("addEventExecution", eventExecution.getEvent());
+                recordRedisDaoPayloadSize(
+                        "addEventExecution", json.length(), eventExecution.getEvent(), "n/a");
+                replies.add(batch.hsetnx(key, eventExecution.getId(), json));
+                if (ttlEventExecutionSeconds > 0) {
+                    batch.expire(key, ttlEventExecutionSeconds);
+                }
+            }
+            jedisProxy.execute(batch);
+
+            List<EventExecution> added = new ArrayList<>(eventExecutions.size());
+            for (int i = 0; i < eventExecutions.size(); i++) {
+                if (replies.get(i).get() == 1L) {
+                    added.add(eventExecutions.get(i));
+                }
+            }
+            return added;
+        } catch (Exception e) {
+            throw new TransientException(
+                    "Unable to add " + eventExecutions.size() + " event executions", e);
+        }
+    }
+
     @Override
     public void updateEventExecution(EventExecution eventExecution) {
         try {
@@ -708,6 +855,24 @@ public class RedisExecutionDAO extends BaseDynoDAO
         }
     }
 
+    @Override
+    public void updateEventExecutions(List<EventExecution> eventExecutions) {
+        try {
+            JedisBatch batch = new JedisBatch();
+            for (EventExecution eventExecution : eventExecutions) {
+                String json = objectMapper.writeValueAsString(eventExecution);
+                batch.hset(eventExecutionKey(eventExecution), eventExecution.getId(), json);
+                recordRedisDaoEventRequests("updateEventExecution", eventExecution.getEvent());
+                recordRedisDaoPayloadSize(
+                        "updateEventExecution", json.length(), eventExecution.getEvent(), "n/a");
+            }
+            jedisProxy.execute(batch);
+        } catch (Exception e) {
+            throw new TransientException(
+                    "Unable to update " + eventExecutions.size() + " event executions", e);
+        }
+    }
+
     @Override
     public void removeEventExecution(EventExecution eventExecution) {
         try {
@@ -726,6 +891,29 @@ public class RedisExecutionDAO extends BaseDynoDAO
         }
     }
 
+    @Override
+    public void removeEventExecutions(List<EventExecution> eventExecutions) {
+        try {
+            JedisBatch batch = new JedisBatch();
+            for (EventExecution eventExecution : eventExecutions) {
+                batch.hdel(eventExecutionKey(eventExecution), eventExecution.getId());
+                recordRedisDaoEventRequests("removeEventExecution", eventExecution.getEvent());
+            }
+            jedisProxy.execute(batch);
+        } catch (Exception e) {
+            throw new TransientException(
+                    "Unable to remove " + eventExecutions.size() + " event executions", e);
+        }
+    }
+
+    private String eventExecutionKey(EventExecution eventExecution) {
+        return nsKey(
+                EVENT_EXECUTION,
+                eventExecution.getName(),
+                eventExecution.getEvent(),
+                eventExecution.getMessageId());
+    }
+
     public List<EventExecution> getEventExecutions(
             String eventHandlerName, String eventName, String messageId, int max) {
         try {
@@ -18,10 +18,14 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -41,6 +45,9 @@ import com.netflix.conductor.redis.config.RedisProperties;
 import com.netflix.conductor.redis.jedis.JedisProxy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 
 import static com.netflix.conductor.common.metadata.tasks.TaskDef.ONE_HOUR;
@@ -55,24 +62,47 @@ public class RedisMetadataDAO extends BaseDynoDAO implements MetadataDAO {
     private static final String ALL_TASK_DEFS = "TASK_DEFS";
     private static final String WORKFLOW_DEF_NAMES = "WORKFLOW_DEF_NAMES";
     private static final String WORKFLOW_DEF = "WORKFLOW_DEF";
+    private static final String WORKFLOW_DEFS_VERSION = "WORKFLOW_DEFS_VERSION";
     private static final String LATEST = "latest";
     private static final String className = RedisMetadataDAO.class.getSimpleName();
     private Map<String, TaskDef> taskDefCache = new HashMap<>();
 
+    /*
+     * The callers populate the workflow definitions they get (task definitions, sub workflow
+     * versions), so they get a copy of the cached definition. Every change increments
+     * WORKFLOW_DEFS_VERSION, which the other servers poll to invalidate their own cache.
+     *
+     * The entries are stamped with the invalidations count when their load starts, so that a load
+     * running across an invalidation does not leave a stale entry behind.
+     */
+    private final Cache<String, CachedValue<WorkflowDef>> workflowDefCache;
+    private final Cache<String, CachedValue<Integer>> latestWorkflowDefVersions;
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile String workflowDefsVersion;
+
     public RedisMetadataDAO(
             JedisProxy jedisProxy,
             ObjectMapper objectMapper,
             ConductorProperties conductorProperties,
             RedisProperties properties) {
         super(jedisProxy, objectMapper, conductorProperties, properties);
+        workflowDefCache =
+                Caffeine.newBuilder().maximumSize(properties.getWorkflowDefCacheSize()).build();
+        latestWorkflowDefVersions =
+                Caffeine.newBuilder().maximumSize(properties.getWorkflowDefCacheSize()).build();
+        workflowDefsVersion = jedisProxy.get(nsKey(WORKFLOW_DEFS_VERSION));
         refreshTaskDefs();
+        ScheduledExecutorService scheduledExecutorService =
+                Executors.newSingleThreadScheduledExecutor();
         long cacheRefreshTime = properties.getTaskDefCacheRefreshInterval().getSeconds();
-        Executors.newSingleThreadScheduledExecutor()
-                .scheduleWithFixedDelay(
-                        this::refreshTaskDefs,
-                        cacheRefreshTime,
-                        cacheRefreshTime,
-                        TimeUnit.SECONDS);
+        scheduledExecutorService.scheduleWithFixedDelay(
+                this::refreshTaskDefs, cacheRefreshTime, cacheRefreshTime, TimeUnit.SECONDS);
+        long versionCheckTime = properties.getWorkflowDefCacheRefreshInterval().toMillis();
+        scheduledExecutorService.scheduleWithFixedDelay(
+                this::refreshWorkflowDefs,
+                versionCheckTime,
+                versionCheckTime,
+                TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -189,19 +219,16 @@ public class RedisMetadataDAO extends BaseDynoDAO implements MetadataDAO {
      */
     public Optional<WorkflowDef> getLatestWorkflowDef(String name) {
         Preconditions.checkNotNull(name, "WorkflowDef name cannot be null");
-        WorkflowDef workflowDef = null;
 
-        Optional<Integer> optionalMaxVersion = getWorkflowMaxVersion(name);
-
-        if (optionalMaxVersion.isPresent()) {
-            String latestdata =
-                    jedisProxy.hget(nsKey(WORKFLOW_DEF, name), optionalMaxVersion.get().toString());
-            if (latestdata != null) {
-                workflowDef = readValue(latestdata, WorkflowDef.class);
-            }
+        Integer maxVersion =
+                getCached(
+                        latestWorkflowDefVersions,
+                        name,
+                        n -> getWorkflowMaxVersion(n).orElse(null));
+        if (maxVersion == null) {
+            return Optional.empty();
         }
-
-        return Optional.ofNullable(workflowDef);
+        return getCachedWorkflowDef(name, maxVersion);
     }
 
     private Optional<Integer> getWorkflowMaxVersion(String workflowName) {
@@ -234,17 +261,84 @@ public class RedisMetadataDAO extends BaseDynoDAO implements MetadataDAO {
     @Override
     public Optional<WorkflowDef> getWorkflowDef(String name, int version) {
         Preconditions.checkNotNull(name, "WorkflowDef name cannot be null");
-        WorkflowDef def = null;
-
         recordRedisDaoRequests("getWorkflowDef");
+        return getCachedWorkflowDef(name, version);
+    }
+
+    /**
+     * @return a copy of the definition, only read from redis when it is not cached
+     */
+    private Optional<WorkflowDef> getCachedWorkflowDef(String name, int version) {
+        WorkflowDef workflowDef =
+                getCached(
+                        workflowDefCache,
+                        name + ":" + version,
+                        key -> readWorkflowDef(name, version));
+        return Optional.ofNullable(workflowDef).map(this::copy);
+    }
+
+    /**
+     * Copies the definition through its JSON representation, without formatting it as text, so
+     * that the copy always has every field that is stored in redis.
+     */
+    private WorkflowDef copy(WorkflowDef workflowDef) {
+        return objectMapper.convertValue(workflowDef, WorkflowDef.class);
+    }
+
+    private WorkflowDef readWorkflowDef(String name, int version) {
         String workflowDefJsonString =
                 jedisProxy.hget(nsKey(WORKFLOW_DEF, name), String.valueOf(version));
-        if (workflowDefJsonString != null) {
-            def = readValue(workflowDefJsonString, WorkflowDef.class);
-            recordRedisDaoPayloadSize(
-                    "getWorkflowDef", workflowDefJsonString.length(), "n/a", name);
+        if (workflowDefJsonString == null) {
+            return null;
+        }
+        recordRedisDaoPayloadSize("getWorkflowDef", workflowDefJsonString.length(), "n/a", name);
+        return readValue(workflowDefJsonString, WorkflowDef.class);
+    }
+
+    /**
+     * @return the cached value, loaded on a miss, or the value loaded again if the cached one was
+     *     loaded across an invalidation
+     */
+    private <T> T getCached(
+            Cache<String, CachedValue<T>> cache, String key, Function<String, T> loader) {
+        CachedValue<T> cached =
+                cache.get(key, k -> CachedValue.of(invalidations.get(), loader.apply(k)));
+        if (cached == null) {
+            return null;
+        }
+        if (cached.invalidations != invalidations.get()) {
+            cache.asMap().remove(key, cached);
+            return loader.apply(key);
+        }
+        return cached.value;
+    }
+
+    /** Invalidates the cached workflow definitions when another server changed them. */
+    @VisibleForTesting
+    void refreshWorkflowDefs() {
+        try {
+            String version = jedisProxy.get(nsKey(WORKFLOW_DEFS_VERSION));
+            if (!Objects.equals(version, workflowDefsVersion)) {
+                workflowDefsVersion = version;
+                invalidateWorkflowDefs();
+                LOGGER.debug("Invalidated workflow defs at version {}", version);
+            }
+        } catch (Exception e) {
+            Monitors.error(className, "refreshWorkflowDefs");
+            LOGGER.error("refresh WorkflowDefs failed ", e);
         }
-        return Optional.ofNullable(def);
+    }
+
+    /** Invalidates the workflow definitions cached by all the servers. */
+    private void workflowDefsChanged() {
+        workflowDefsVersion = String.valueOf(jedisProxy.incr(nsKey(WORKFLOW_DEFS_VERSION)));
+        invalidateWorkflowDefs();
+    }
+
+    private void invalidateWorkflowDefs() {
+        invalidations.incrementAndGet();
+        workflowDefCache.invalidateAll();
+        latestWorkflowDefVersions.invalidateAll();
     }
 
     @Override
@@ -267,6 +361,7 @@ public class RedisMetadataDAO extends BaseDynoDAO implements MetadataDAO {
         if (optionMaxVersion.isEmpty()) {
             jedisProxy.srem(nsKey(WORKFLOW_DEF_NAMES), name);
         }
+        workflowDefsChanged();
 
         recordRedisDaoRequests("removeWorkflowDef");
     }
@@ -307,6 +402,26 @@ public class RedisMetadataDAO extends BaseDynoDAO implements MetadataDAO {
                 toJson(workflowDef));
 
         jedisProxy.sadd(nsKey(WORKFLOW_DEF_NAMES), workflowDef.getName());
+        workflowDefsChanged();
         recordRedisDaoRequests("storeWorkflowDef", "n/a", workflowDef.getName());
     }
+
+    /** A cached value, with the count of invalidations when its load started. */
+    private static class CachedValue<T> {
+
+        private final long invalidations;
+        private final T value;
+
+        private CachedValue(long invalidations, T value) {
+            this.invalidations = invalidations;
+            this.value = value;
+        }
+
+        /**
+         * @return the cached value, or null for a missing value, which is not cached
+         */
+        static <T> CachedValue<T> of(long invalidations, T value) {
+            return value == null ? null : new CachedValue<>(invalidations, value);
+        }
+    }
 }
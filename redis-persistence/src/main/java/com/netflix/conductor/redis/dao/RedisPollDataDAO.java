@@ -12,11 +12,22 @@
  */
 package com.netflix.conductor.redis.dao;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -25,16 +36,33 @@ import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.dao.PollDataDAO;
 import com.netflix.conductor.redis.config.AnyRedisCondition;
 import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.JedisBatch;
 import com.netflix.conductor.redis.jedis.JedisProxy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 
+/**
+ * Stores the last poll of each task queue and domain in a redis hash per queue.
+ *
+ * <p>Unless the flush interval is zero, the polls are not written through: only the latest poll of
+ * each queue and domain is kept in memory, and all of them are written to redis periodically in a
+ * single pipeline. Reads merge in the polls that are not written yet, so a server always sees its
+ * own polls, while the polls of other servers become visible after at most one interval.
+ */
 @Component
 @Conditional(AnyRedisCondition.class)
 public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisPollDataDAO.class);
+
     private static final String POLL_DATA = "POLL_DATA";
+    private static final String DEFAULT_DOMAIN = "DEFAULT";
+
+    /** The polls that are not written yet, by task definition name and domain field. */
+    private final Map<String, Map<String, PollData>> pendingPollData = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flushExecutor;
 
     public RedisPollDataDAO(
             JedisProxy jedisProxy,
@@ -42,6 +70,20 @@ public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
             ConductorProperties conductorProperties,
             RedisProperties properties) {
         super(jedisProxy, objectMapper, conductorProperties, properties);
+        Duration flushInterval = properties.getPollDataFlushInterval();
+        if (flushInterval != null && !flushInterval.isNegative() && !flushInterval.isZero()) {
+            flushExecutor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            new BasicThreadFactory.Builder()
+                                    .namingPattern("poll-data-flush-%d")
+                                    .daemon(true)
+                                    .build());
+            long interval = flushInterval.toMillis();
+            flushExecutor.scheduleWithFixedDelay(
+                    this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            flushExecutor = null;
+        }
     }
 
     @Override
@@ -49,13 +91,66 @@ public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
         Preconditions.checkNotNull(taskDefName, "taskDefName name cannot be null");
         PollData pollData = new PollData(taskDefName, domain, workerId, System.currentTimeMillis());
 
-        String key = nsKey(POLL_DATA, pollData.getQueueName());
-        String field = (domain == null) ? "DEFAULT" : domain;
+        if (flushExecutor != null) {
+            pendingPollData
+                    .computeIfAbsent(taskDefName, name -> new ConcurrentHashMap<>())
+                    .put(field(domain), pollData);
+            return;
+        }
 
+        String key = nsKey(POLL_DATA, pollData.getQueueName());
         String payload = toJson(pollData);
         recordRedisDaoRequests("updatePollData");
         recordRedisDaoPayloadSize("updatePollData", payload.length(), "n/a", "n/a");
-        jedisProxy.hset(key, field, payload);
+        jedisProxy.hset(key, field(domain), payload);
+    }
+
+    /**
+     * Writes the polls that are kept in memory to redis in a single pipeline. A poll is only
+     * dropped from memory once written, and only if no newer poll replaced it in the meantime.
+     */
+    void flush() {
+        JedisBatch batch = new JedisBatch();
+        Map<String, Map<String, PollData>> flushed = new HashMap<>();
+        pendingPollData.forEach(
+                (taskDefName, pollDataByField) ->
+                        pollDataByField.forEach(
+                                (field, pollData) -> {
+                                    String payload = toJson(pollData);
+                                    recordRedisDaoRequests("updatePollData");
+                                    recordRedisDaoPayloadSize(
+                                            "updatePollData", payload.length(), "n/a", "n/a");
+                                    batch.hset(nsKey(POLL_DATA, taskDefName), field, payload);
+                                    flushed.computeIfAbsent(taskDefName, name -> new HashMap<>())
+                                            .put(field, pollData);
+                                }));
+        if (batch.isEmpty()) {
+            return;
+        }
+        jedisProxy.execute(batch);
+        flushed.forEach(
+                (taskDefName, pollDataByField) ->
+                        pollDataByField.forEach(
+                                (field, pollData) ->
+                                        pendingPollData
+                                                .get(taskDefName)
+                                                .remove(field, pollData)));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            LOGGER.warn("Error writing the poll data, it will be retried on the next flush", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushQuietly();
+        }
     }
 
     @Override
@@ -63,7 +158,7 @@ public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
         Preconditions.checkNotNull(taskDefName, "taskDefName name cannot be null");
 
         String key = nsKey(POLL_DATA, taskDefName);
-        String field = (domain == null) ? "DEFAULT" : domain;
+        String field = field(domain);
 
         String pollDataJsonString = jedisProxy.hget(key, field);
         recordRedisDaoRequests("getPollData");
@@ -74,7 +169,7 @@ public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
         if (StringUtils.isNotBlank(pollDataJsonString)) {
             pollData = readValue(pollDataJsonString, PollData.class);
         }
-        return pollData;
+        return latest(pollData, getPendingPollData(taskDefName).get(field));
     }
 
     @Override
@@ -84,17 +179,37 @@ public class RedisPollDataDAO extends BaseDynoDAO implements PollDataDAO {
         String key = nsKey(POLL_DATA, taskDefName);
 
         Map<String, String> pMapdata = jedisProxy.hgetAll(key);
-        List<PollData> pollData = new ArrayList<>();
+        Map<String, PollData> pollData = new HashMap<>();
         if (pMapdata != null) {
-            pMapdata.values()
-                    .forEach(
-                            pollDataJsonString -> {
-                                pollData.add(readValue(pollDataJsonString, PollData.class));
-                                recordRedisDaoRequests("getPollData");
-                                recordRedisDaoPayloadSize(
-                                        "getPollData", pollDataJsonString.length(), "n/a", "n/a");
-                            });
+            pMapdata.forEach(
+                    (field, pollDataJsonString) -> {
+                        pollData.put(field, readValue(pollDataJsonString, PollData.class));
+                        recordRedisDaoRequests("getPollData");
+                        recordRedisDaoPayloadSize(
+                                "getPollData", pollDataJsonString.length(), "n/a", "n/a");
+                    });
         }
-        return pollData;
+        getPendingPollData(taskDefName)
+                .forEach((field, pending) -> pollData.merge(field, pending, this::latest));
+        return new ArrayList<>(pollData.values());
+    }
+
+    private Map<String, PollData> getPendingPollData(String taskDefName) {
+        return pendingPollData.getOrDefault(taskDefName, Map.of());
+    }
+
+    /** @return the most recent of the two polls, as another server may have written a newer one */
+    private PollData latest(PollData stored, PollData pending) {
+        if (stored == null) {
+            return pending;
+        }
+        if (pending == null || stored.getLastPollTime() >= pending.getLastPollTime()) {
+            return stored;
+        }
+        return pending;
+    }
+
+    private static String field(String domain) {
+        return (domain == null) ? DEFAULT_DOMAIN : domain;
     }
 }
@@ -0,0 +1,740 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.events.queue.Message;
+import com.netflix.conductor.core.utils.Utils;
+import com.netflix.conductor.dao.QueueDAO;
+import com.netflix.conductor.redis.config.AnyRedisCondition;
+import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.jedis.JedisBatch;
+import com.netflix.conductor.redis.jedis.JedisProxy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import redis.clients.jedis.StreamConsumersInfo;
+import redis.clients.jedis.StreamEntry;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.StreamPendingEntry;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * A {@link QueueDAO} built on redis streams consumer groups, used instead of {@link DynoQueueDAO}
+ * when <code>conductor.redis.queue-type</code> is <code>streams</code>. The keys of a queue share a
+ * hash tag, so that they are in the same slot of a redis cluster:
+ *
+ * <ul>
+ *   <li>MESSAGES: a hash of the messages by id, with their priority, payload and the token of the
+ *       push that queued them
+ *   <li>STREAM.&lt;lane&gt;: the streams of the messages ready to be delivered, one per priority
+ *       lane, that all the servers read as a single consumer group
+ *   <li>DELAYED: a sorted set of the messages pushed with an offset, by the time they become
+ *       visible. Polls move the due messages to their stream.
+ *   <li>UNACKED: a sorted set of the delivered messages, by the time their unack timeout expires
+ *   <li>ENTRIES: a hash of the stream entries of the delivered messages, by message id
+ * </ul>
+ *
+ * <p>Pushing a message that is already queued gives it a new token, which makes its previous
+ * stream entry stale. Stale entries are acknowledged and deleted when they are read instead of
+ * being delivered, so a message is delivered once however many times it is pushed.
+ *
+ * <p>Every {@link RedisProperties#getQueueUnackSweepInterval()}, all the known queues are swept
+ * with {@link #processUnacks(String)}, as the dyno queues do on their own.
+ */
+@Component
+@Conditional(AnyRedisCondition.class)
+@ConditionalOnProperty(
+        name = "conductor.redis.queue-type",
+        havingValue = RedisProperties.STREAMS_QUEUE_TYPE)
+public class RedisStreamsQueueDAO extends BaseDynoDAO implements QueueDAO {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisStreamsQueueDAO.class);
+
+    private static final String GROUP = "conductor";
+    private static final String QUEUES = "STREAM_QUEUES";
+    private static final String MESSAGES = "MESSAGES";
+    private static final String DELAYED = "DELAYED";
+    private static final String UNACKED = "UNACKED";
+    private static final String ENTRIES = "ENTRIES";
+    private static final String STREAM = "STREAM.";
+    private static final String ID_FIELD = "id";
+    private static final String TOKEN_FIELD = "token";
+    private static final String SHARD = "streams";
+
+    /** The unack timeout of the messages, same as the one of the dyno queues */
+    private static final long UNACK_TIMEOUT_MILLIS = 60_000;
+
+    /** The maximum number of messages made visible or recovered at once */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * How long a consumer must have been idle, without pending entries, to be deleted from the
+     * group. Every server start adds a new consumer, and a live server reads its queues far more
+     * often than this.
+     */
+    private static final long DEAD_CONSUMER_IDLE_MILLIS = 3_600_000;
+
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final String queuePrefix;
+    private final int lanes;
+    private final String consumer;
+    private final Set<String> streamsWithGroup = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sweepExecutor;
+
+    public RedisStreamsQueueDAO(
+            JedisProxy jedisProxy,
+            ObjectMapper objectMapper,
+            ConductorProperties conductorProperties,
+            RedisProperties properties) {
+        super(jedisProxy, objectMapper, conductorProperties, properties);
+        this.queuePrefix = properties.getQueuePrefix();
+        this.lanes = Math.max(1, properties.getQueuePriorityLanes());
+        this.consumer = Utils.getServerId() + "-" + UUID.randomUUID();
+        Duration sweepInterval = properties.getQueueUnackSweepInterval();
+        if (sweepInterval != null && !sweepInterval.isNegative() && !sweepInterval.isZero()) {
+            sweepExecutor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            new BasicThreadFactory.Builder()
+                                    .namingPattern("streams-queue-unack-sweep-%d")
+                                    .daemon(true)
+                                    .build());
+            long interval = sweepInterval.toMillis();
+            sweepExecutor.scheduleWithFixedDelay(
+                    this::sweepUnacks, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            sweepExecutor = null;
+        }
+        LOGGER.info("RedisStreamsQueueDAO initialized with prefix {}", queuePrefix);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (sweepExecutor != null) {
+            sweepExecutor.shutdownNow();
+        }
+    }
+
+    private void sweepUnacks() {
+        try {
+            for (String queueName : jedisProxy.smembers(key(QUEUES))) {
+                try {
+                    processUnacks(queueName);
+                } catch (Exception e) {
+                    LOGGER.warn("Error processing the unacked messages of {}", queueName, e);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Error listing the queues to sweep, retrying on the next sweep", e);
+        }
+    }
+
+    @Override
+    public void push(String queueName, String id, long offsetTimeInSecond) {
+        push(queueName, id, 0, offsetTimeInSecond);
+    }
+
+    @Override
+    public void push(String queueName, String id, int priority, long offsetTimeInSecond) {
+        push(
+                queueName,
+                Collections.singletonList(new Message(id, null, null, priority)),
+                offsetTimeInSecond);
+    }
+
+    @Override
+    public void push(String queueName, List<Message> messages) {
+        push(queueName, messages, 0);
+    }
+
+    private void push(String queueName, List<Message> messages, long offsetTimeInSecond) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // a message pushed again while it is delivered is queued again, and its delivery dropped
+        JedisBatch reads = new JedisBatch();
+        List<JedisBatch.Reply<String>> entries =
+                messages.stream()
+                        .map(message -> reads.hget(key(queueName, ENTRIES), message.getId()))
+                        .collect(Collectors.toList());
+        jedisProxy.execute(reads);
+
+        JedisBatch batch = new JedisBatch().sadd(key(QUEUES), queueName);
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            String entry = entries.get(i).get();
+            if (entry != null) {
+                batch.zrem(key(queueName, UNACKED), message.getId());
+                release(batch, queueName, message.getId(), entry);
+            }
+            QueuedMessage queued = new QueuedMessage(message.getPriority(), message.getPayload());
+            batch.hset(key(queueName, MESSAGES), message.getId(), toJson(queued));
+            schedule(batch, queueName, message.getId(), queued, offsetTimeInSecond);
+        }
+        jedisProxy.execute(batch);
+    }
+
+    @Override
+    public boolean pushIfNotExists(String queueName, String id, long offsetTimeInSecond) {
+        return pushIfNotExists(queueName, id, 0, offsetTimeInSecond);
+    }
+
+    @Override
+    public boolean pushIfNotExists(
+            String queueName, String id, int priority, long offsetTimeInSecond) {
+        QueuedMessage queued = new QueuedMessage(priority, null);
+        if (jedisProxy.hsetnx(key(queueName, MESSAGES), id, toJson(queued)) == 0) {
+            return false;
+        }
+        JedisBatch batch = new JedisBatch().sadd(key(QUEUES), queueName);
+        schedule(batch, queueName, id, queued, offsetTimeInSecond);
+        jedisProxy.execute(batch);
+        return true;
+    }
+
+    private void schedule(
+            JedisBatch batch,
+            String queueName,
+            String id,
+            QueuedMessage queued,
+            long offsetTimeInSecond) {
+        if (offsetTimeInSecond > 0) {
+            long visibleTime = System.currentTimeMillis() + offsetTimeInSecond * 1000;
+            batch.zadd(key(queueName, DELAYED), visibleTime, id);
+        } else {
+            batch.zrem(key(queueName, DELAYED), id);
+            batch.xadd(stream(queueName, queued), fields(id, queued));
+        }
+    }
+
+    @Override
+    public List<String> pop(String queueName, int count, int timeout) {
+        return pollMessages(queueName, count, timeout).stream()
+                .map(Message::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Message> pollMessages(String queueName, int count, int timeout) {
+        List<Message> messages = new ArrayList<>();
+        if (count <= 0) {
+            return messages;
+        }
+        long deadline = System.currentTimeMillis() + timeout;
+        while (true) {
+            makeDueMessagesVisible(queueName, count);
+            messages.addAll(read(queueName, count - messages.size()));
+            long remaining = deadline - System.currentTimeMillis();
+            if (messages.size() >= count || remaining <= 0) {
+                return messages;
+            }
+            try {
+                Thread.sleep(Math.min(remaining, POLL_INTERVAL_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return messages;
+            }
+        }
+    }
+
+    /** Moves the delayed messages whose offset has elapsed to their stream. */
+    private void makeDueMessagesVisible(String queueName, int count) {
+        List<String> due =
+                new ArrayList<>(
+                        jedisProxy.zrangeByScore(
+                                key(queueName, DELAYED),
+                                System.currentTimeMillis(),
+                                Math.max(count, BATCH_SIZE)));
+        if (due.isEmpty()) {
+            return;
+        }
+        // only the server that removes a message from the delayed set moves it
+        JedisBatch claims = new JedisBatch();
+        List<JedisBatch.Reply<Long>> claimed = new ArrayList<>(due.size());
+        List<JedisBatch.Reply<String>> queued = new ArrayList<>(due.size());
+        for (String id : due) {
+            claimed.add(claims.zremMember(key(queueName, DELAYED), id));
+            queued.add(claims.hget(key(queueName, MESSAGES), id));
+        }
+        jedisProxy.execute(claims);
+
+        JedisBatch batch = new JedisBatch();
+        for (int i = 0; i < due.size(); i++) {
+            String json = queued.get(i).get();
+            if (claimed.get(i).get() > 0 && json != null) {
+                QueuedMessage message = readValue(json, QueuedMessage.class);
+                batch.xadd(stream(queueName, message), fields(due.get(i), message));
+            }
+        }
+        jedisProxy.execute(batch);
+    }
+
+    /** Reads up to count messages from the streams, in the order of their priority lanes. */
+    private List<Message> read(String queueName, int count) {
+        List<Message> messages = new ArrayList<>();
+        for (int lane = 0; lane < lanes && messages.size() < count; lane++) {
+            String stream = stream(queueName, lane);
+            int remaining = count - messages.size();
+            List<StreamEntry> entries =
+                    withGroup(
+                            stream,
+                            () -> jedisProxy.xreadGroup(stream, GROUP, consumer, remaining));
+            if (!entries.isEmpty()) {
+                messages.addAll(deliver(queueName, lane, entries));
+            }
+        }
+        return messages;
+    }
+
+    private List<Message> deliver(String queueName, int lane, List<StreamEntry> entries) {
+        JedisBatch reads = new JedisBatch();
+        List<JedisBatch.Reply<String>> queued =
+                entries.stream()
+                        .map(entry -> reads.hget(key(queueName, MESSAGES), messageId(entry)))
+                        .collect(Collectors.toList());
+        jedisProxy.execute(reads);
+
+        String stream = stream(queueName, lane);
+        long unackTime = System.currentTimeMillis() + UNACK_TIMEOUT_MILLIS;
+        List<Message> messages = new ArrayList<>(entries.size());
+        JedisBatch batch = new JedisBatch();
+        for (int i = 0; i < entries.size(); i++) {
+            StreamEntry entry = entries.get(i);
+            String id = messageId(entry);
+            QueuedMessage message = queuedMessage(queued.get(i).get(), entry);
+            if (message == null) {
+                // the message was removed, or pushed again, since the entry was added
+                batch.xack(stream, GROUP, entry.getID()).xdel(stream, entry.getID());
+                continue;
+            }
+            batch.zadd(key(queueName, UNACKED), unackTime, id)
+                    .hset(key(queueName, ENTRIES), id, lane + ":" + entry.getID());
+            messages.add(new Message(id, message.getPayload(), null, message.getPriority()));
+        }
+        jedisProxy.execute(batch);
+        return messages;
+    }
+
+    @Override
+    public void remove(String queueName, String messageId) {
+        removeMessages(queueName, Collections.singletonList(messageId));
+    }
+
+    @Override
+    public void removeMessages(String queueName, List<String> messageIds) {
+        JedisBatch reads = new JedisBatch();
+        List<JedisBatch.Reply<String>> entries = new ArrayList<>(messageIds.size());
+        for (String id : messageIds) {
+            entries.add(reads.hget(key(queueName, ENTRIES), id));
+            reads.hdel(key(queueName, MESSAGES), id)
+                    .zrem(key(queueName, DELAYED), id)
+                    .zrem(key(queueName, UNACKED), id);
+        }
+        jedisProxy.execute(reads);
+
+        // the entries of the queued messages are dropped when they are read
+        JedisBatch batch = new JedisBatch();
+        for (int i = 0; i < messageIds.size(); i++) {
+            String entry = entries.get(i).get();
+            if (entry != null) {
+                release(batch, queueName, messageIds.get(i), entry);
+            }
+        }
+        jedisProxy.execute(batch);
+    }
+
+    @Override
+    public int getSize(String queueName) {
+        long size = jedisProxy.hlen(key(queueName, MESSAGES));
+        long unacked = jedisProxy.zcard(key(queueName, UNACKED));
+        return (int) Math.max(0, size - unacked);
+    }
+
+    @Override
+    public boolean ack(String queueName, String messageId) {
+        return ack(queueName, Collections.singletonList(messageId)) > 0;
+    }
+
+    @Override
+    public void ackMessages(String queueName, List<String> messageIds) {
+        ack(queueName, messageIds);
+    }
+
+    private int ack(String queueName, List<String> messageIds) {
+        JedisBatch claims = new JedisBatch();
+        List<JedisBatch.Reply<Long>> claimed = new ArrayList<>(messageIds.size());
+        List<JedisBatch.Reply<String>> entries = new ArrayList<>(messageIds.size());
+        for (String id : messageIds) {
+            claimed.add(claims.zremMember(key(queueName, UNACKED), id));
+            entries.add(claims.hget(key(queueName, ENTRIES), id));
+        }
+        jedisProxy.execute(claims);
+
+        int acked = 0;
+        JedisBatch batch = new JedisBatch();
+        for (int i = 0; i < messageIds.size(); i++) {
+            if (claimed.get(i).get() == 0) {
+                continue;
+            }
+            acked++;
+            String id = messageIds.get(i);
+            batch.hdel(key(queueName, MESSAGES), id);
+            String entry = entries.get(i).get();
+            if (entry != null) {
+                release(batch, queueName, id, entry);
+            }
+        }
+        jedisProxy.execute(batch);
+        return acked;
+    }
+
+    @Override
+    public boolean setUnackTimeout(String queueName, String messageId, long unackTimeout) {
+        if (jedisProxy.zscore(key(queueName, UNACKED), messageId) == null) {
+            return false;
+        }
+        jedisProxy.zaddxx(
+                key(queueName, UNACKED), System.currentTimeMillis() + unackTimeout, messageId);
+        return true;
+    }
+
+    @Override
+    public void flush(String queueName) {
+        JedisBatch batch =
+                new JedisBatch()
+                        .del(key(queueName, MESSAGES))
+                        .del(key(queueName, DELAYED))
+                        .del(key(queueName, UNACKED))
+                        .del(key(queueName, ENTRIES));
+        for (int lane = 0; lane < lanes; lane++) {
+            batch.del(stream(queueName, lane));
+        }
+        jedisProxy.execute(batch);
+    }
+
+    @Override
+    public Map<String, Long> queuesDetail() {
+        return jedisProxy.smembers(key(QUEUES)).stream()
+                .collect(Collectors.toMap(Function.identity(), q -> (long) getSize(q)));
+    }
+
+    @Override
+    public Map<String, Map<String, Map<String, Long>>> queuesDetailVerbose() {
+        Map<String, Map<String, Map<String, Long>>> details = new HashMap<>();
+        for (String queueName : jedisProxy.smembers(key(QUEUES))) {
+            long unacked = jedisProxy.zcard(key(queueName, UNACKED));
+            long size = Math.max(0, jedisProxy.hlen(key(queueName, MESSAGES)) - unacked);
+            Map<String, Long> sizes = new HashMap<>();
+            sizes.put("size", size);
+            sizes.put("uacked", unacked);
+            details.put(queueName, Collections.singletonMap(SHARD, sizes));
+        }
+        return details;
+    }
+
+    /**
+     * Queues again the delivered messages whose unack timeout has expired, and the stream entries
+     * that were read by a server that stopped before delivering them. The consumers left in the
+     * groups by stopped servers are deleted once their entries have been recovered.
+     */
+    @Override
+    public void processUnacks(String queueName) {
+        requeueExpiredUnacks(queueName);
+        for (int lane = 0; lane < lanes; lane++) {
+            recoverPendingEntries(queueName, lane);
+            removeDeadConsumers(stream(queueName, lane));
+        }
+    }
+
+    private void requeueExpiredUnacks(String queueName) {
+        List<String> expired =
+                new ArrayList<>(
+                        jedisProxy.zrangeByScore(
+                                key(queueName, UNACKED), System.currentTimeMillis(), BATCH_SIZE));
+        if (expired.isEmpty()) {
+            return;
+        }
+        JedisBatch claims = new JedisBatch();
+        List<JedisBatch.Reply<Long>> claimed = new ArrayList<>(expired.size());
+        List<JedisBatch.Reply<String>> entries = new ArrayList<>(expired.size());
+        List<JedisBatch.Reply<String>> queued = new ArrayList<>(expired.size());
+        for (String id : expired) {
+            claimed.add(claims.zremMember(key(queueName, UNACKED), id));
+            entries.add(claims.hget(key(queueName, ENTRIES), id));
+            queued.add(claims.hget(key(queueName, MESSAGES), id));
+        }
+        jedisProxy.execute(claims);
+
+        int requeued = 0;
+        JedisBatch batch = new JedisBatch();
+        for (int i = 0; i < expired.size(); i++) {
+            if (claimed.get(i).get() == 0) {
+                continue;
+            }
+            requeued++;
+            String id = expired.get(i);
+            String entry = entries.get(i).get();
+            if (entry != null) {
+                release(batch, queueName, id, entry);
+            }
+            String json = queued.get(i).get();
+            if (json != null) {
+                QueuedMessage message = readValue(json, QueuedMessage.class);
+                batch.xadd(stream(queueName, message), fields(id, message));
+            }
+        }
+        jedisProxy.execute(batch);
+        LOGGER.debug("Requeued {} expired unacked messages of {}", requeued, queueName);
+    }
+
+    /**
+     * Claims the entries that have been pending for longer than the unack timeout without being
+     * tracked as delivered, and adds them to the stream again. The pending entries list is read
+     * in pages, up to the entries added an unack timeout ago: the newer ones cannot have been
+     * pending for that long.
+     */
+    private void recoverPendingEntries(String queueName, int lane) {
+        String stream = stream(queueName, lane);
+        StreamEntryID end = new StreamEntryID(System.currentTimeMillis() - UNACK_TIMEOUT_MILLIS, 0);
+        StreamEntryID start = null;
+        while (true) {
+            StreamEntryID from = start;
+            List<StreamPendingEntry> pending =
+                    withGroup(
+                            stream,
+                            () -> jedisProxy.xpending(stream, GROUP, from, end, BATCH_SIZE));
+            StreamEntryID[] idle =
+                    pending.stream()
+                            .filter(entry -> entry.getIdleTime() >= UNACK_TIMEOUT_MILLIS)
+                            .map(StreamPendingEntry::getID)
+                            .toArray(StreamEntryID[]::new);
+            if (idle.length > 0) {
+                recoverPendingEntries(queueName, lane, idle);
+            }
+            if (pending.size() < BATCH_SIZE) {
+                return;
+            }
+            StreamEntryID last = pending.get(pending.size() - 1).getID();
+            start = new StreamEntryID(last.getTime(), last.getSequence() + 1);
+        }
+    }
+
+    private void recoverPendingEntries(String queueName, int lane, StreamEntryID[] idle) {
+        String stream = stream(queueName, lane);
+        // claiming with a minimum idle time lets a single server recover an entry
+        List<StreamEntry> claimed =
+                jedisProxy.xclaim(stream, GROUP, consumer, UNACK_TIMEOUT_MILLIS, idle).stream()
+                        .filter(entry -> entry != null && entry.getFields() != null)
+                        .collect(Collectors.toList());
+        JedisBatch reads = new JedisBatch();
+        List<JedisBatch.Reply<String>> entries = new ArrayList<>(claimed.size());
+        List<JedisBatch.Reply<String>> queued = new ArrayList<>(claimed.size());
+        for (StreamEntry entry : claimed) {
+            entries.add(reads.hget(key(queueName, ENTRIES), messageId(entry)));
+            queued.add(reads.hget(key(queueName, MESSAGES), messageId(entry)));
+        }
+        jedisProxy.execute(reads);
+
+        JedisBatch batch = new JedisBatch();
+        for (int i = 0; i < claimed.size(); i++) {
+            StreamEntry entry = claimed.get(i);
+            if ((lane + ":" + entry.getID()).equals(entries.get(i).get())) {
+                // delivered, the unacked set tracks its timeout
+                continue;
+            }
+            batch.xack(stream, GROUP, entry.getID()).xdel(stream, entry.getID());
+            QueuedMessage message = queuedMessage(queued.get(i).get(), entry);
+            if (message != null) {
+                batch.xadd(stream(queueName, message), fields(messageId(entry), message));
+            }
+        }
+        jedisProxy.execute(batch);
+    }
+
+    /**
+     * Deletes the consumers of the group that have no pending entry and have not read the stream
+     * for a long time. A consumer that is deleted by mistake is created again by its next read.
+     */
+    private void removeDeadConsumers(String stream) {
+        List<StreamConsumersInfo> consumers =
+                withGroup(stream, () -> jedisProxy.xinfoConsumers(stream, GROUP));
+        for (StreamConsumersInfo info : consumers) {
+            if (info.getPending() == 0
+                    && info.getIdle() >= DEAD_CONSUMER_IDLE_MILLIS
+                    && !consumer.equals(info.getName())) {
+                jedisProxy.xgroupDelConsumer(stream, GROUP, info.getName());
+                LOGGER.debug("Removed the idle consumer {} of {}", info.getName(), stream);
+            }
+        }
+    }
+
+    @Override
+    public boolean resetOffsetTime(String queueName, String id) {
+        if (jedisProxy.zscore(key(queueName, DELAYED), id) != null) {
+            jedisProxy.zaddxx(key(queueName, DELAYED), 0, id);
+            return true;
+        }
+        // a message that is already visible has no offset left
+        return jedisProxy.hexists(key(queueName, MESSAGES), id)
+                && jedisProxy.zscore(key(queueName, UNACKED), id) == null;
+    }
+
+    @Override
+    public boolean containsMessage(String queueName, String messageId) {
+        return jedisProxy.hexists(key(queueName, MESSAGES), messageId);
+    }
+
+    /** Acknowledges and deletes the stream entry of a delivered message. */
+    private void release(JedisBatch batch, String queueName, String id, String entry) {
+        int separator = entry.indexOf(':');
+        String stream = stream(queueName, Integer.parseInt(entry.substring(0, separator)));
+        StreamEntryID entryId = new StreamEntryID(entry.substring(separator + 1));
+        batch.xack(stream, GROUP, entryId).xdel(stream, entryId).hdel(key(queueName, ENTRIES), id);
+    }
+
+    /**
+     * Runs a command that needs the consumer group of the stream, creating the group (and the
+     * stream) if it does not exist yet, or no longer exists because the queue was flushed.
+     */
+    private <T> T withGroup(String stream, Supplier<T> command) {
+        if (streamsWithGroup.add(stream)) {
+            createGroup(stream);
+        }
+        try {
+            return command.get();
+        } catch (JedisDataException e) {
+            if (e.getMessage() == null || !e.getMessage().startsWith("NOGROUP")) {
+                throw e;
+            }
+            createGroup(stream);
+            return command.get();
+        }
+    }
+
+    private void createGroup(String stream) {
+        try {
+            // from the start of the stream, to deliver the entries added before the group
+            jedisProxy.xgroupCreate(stream, GROUP, new StreamEntryID());
+        } catch (JedisDataException e) {
+            if (e.getMessage() == null || !e.getMessage().startsWith("BUSYGROUP")) {
+                streamsWithGroup.remove(stream);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the queued message of the entry, or <code>null</code> if the entry is stale
+     */
+    private QueuedMessage queuedMessage(String json, StreamEntry entry) {
+        if (json == null) {
+            return null;
+        }
+        QueuedMessage message = readValue(json, QueuedMessage.class);
+        return message.getToken().equals(entry.getFields().get(TOKEN_FIELD)) ? message : null;
+    }
+
+    private static String messageId(StreamEntry entry) {
+        return entry.getFields().get(ID_FIELD);
+    }
+
+    private static Map<String, String> fields(String id, QueuedMessage message) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(ID_FIELD, id);
+        fields.put(TOKEN_FIELD, message.getToken());
+        return fields;
+    }
+
+    private String stream(String queueName, QueuedMessage message) {
+        // as with the dyno queues, the lowest priority values are delivered first
+        int priority = Math.min(Math.max(message.getPriority(), 0), 99);
+        return stream(queueName, priority * lanes / 100);
+    }
+
+    private String stream(String queueName, int lane) {
+        return key(queueName, STREAM + lane);
+    }
+
+    private String key(String queueName, String suffix) {
+        return queuePrefix + ".{" + queueName + "}." + suffix;
+    }
+
+    private String key(String suffix) {
+        return queuePrefix + "." + suffix;
+    }
+
+    /** The state of a queued message, kept in the MESSAGES hash of its queue. */
+    static class QueuedMessage {
+
+        private int priority;
+        private String payload;
+        private String token;
+
+        QueuedMessage() {}
+
+        QueuedMessage(int priority, String payload) {
+            this.priority = priority;
+            this.payload = payload;
+            this.token = UUID.randomUUID().toString();
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public void setPayload(String payload) {
+            this.payload = payload;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public void setToken(String token) {
+            this.token = token;
+        }
+    }
+}
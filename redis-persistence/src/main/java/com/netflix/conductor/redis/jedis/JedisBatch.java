@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.commands.JedisCommands;
+import redis.clients.jedis.params.ZAddParams;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/**
+ * An ordered batch of commands that is sent to redis as a single pipeline where the client
+ * supports it, see {@link JedisProxy#execute(JedisBatch)}. Clients that cannot pipeline (dynomite,
+ * the in-memory mock) execute the commands one by one, in order.
+ *
+ * <p>The commands are only sent when the batch is executed, so a batch must not contain writes
+ * whose result is needed to decide on the next command. The results of the reads are available
+ * from their {@link Reply} once the batch has been executed.
+ */
+public class JedisBatch {
+
+    private final List<Command<?>> commands = new ArrayList<>();
+
+    public Reply<String> get(String key) {
+        return add(key, p -> p.get(key), c -> c.get(key));
+    }
+
+    public Reply<Set<String>> smembers(String key) {
+        return add(key, p -> p.smembers(key), c -> c.smembers(key));
+    }
+
+    public Reply<String> hget(String key, String field) {
+        return add(key, p -> p.hget(key, field), c -> c.hget(key, field));
+    }
+
+    public JedisBatch set(String key, String value) {
+        add(key, p -> p.set(key, value), c -> c.set(key, value));
+        return this;
+    }
+
+    public JedisBatch del(String key) {
+        add(key, p -> p.del(key), c -> c.del(key));
+        return this;
+    }
+
+    public JedisBatch expire(String key, int seconds) {
+        add(key, p -> p.expire(key, seconds), c -> c.expire(key, seconds));
+        return this;
+    }
+
+    public JedisBatch hset(String key, String field, String value) {
+        add(key, p -> p.hset(key, field, value), c -> c.hset(key, field, value));
+        return this;
+    }
+
+    public Reply<Long> hsetnx(String key, String field, String value) {
+        return add(key, p -> p.hsetnx(key, field, value), c -> c.hsetnx(key, field, value));
+    }
+
+    public JedisBatch hdel(String key, String field) {
+        add(key, p -> p.hdel(key, field), c -> c.hdel(key, field));
+        return this;
+    }
+
+    public JedisBatch sadd(String key, String member) {
+        add(key, p -> p.sadd(key, member), c -> c.sadd(key, member));
+        return this;
+    }
+
+    public JedisBatch srem(String key, String member) {
+        add(key, p -> p.srem(key, member), c -> c.srem(key, member));
+        return this;
+    }
+
+    public JedisBatch zadd(String key, double score, String member) {
+        add(key, p -> p.zadd(key, score, member), c -> c.zadd(key, score, member));
+        return this;
+    }
+
+    public JedisBatch zaddnx(String key, double score, String member) {
+        ZAddParams params = ZAddParams.zAddParams().nx();
+        add(
+                key,
+                p -> p.zadd(key, score, member, params),
+                c -> c.zadd(key, score, member, params));
+        return this;
+    }
+
+    public JedisBatch zrem(String key, String member) {
+        add(key, p -> p.zrem(key, member), c -> c.zrem(key, member));
+        return this;
+    }
+
+    /**
+     * Removes the member from the sorted set, like {@link #zrem(String, String)}, and replies the
+     * number of members removed. As redis removes the member atomically, only one of several
+     * concurrent batches removing the same member gets 1, which lets servers claim a member.
+     */
+    public Reply<Long> zremMember(String key, String member) {
+        return add(key, p -> p.zrem(key, member), c -> c.zrem(key, member));
+    }
+
+    public JedisBatch xadd(String key, Map<String, String> fields) {
+        add(
+                key,
+                p -> p.xadd(key, StreamEntryID.NEW_ENTRY, fields),
+                c -> c.xadd(key, StreamEntryID.NEW_ENTRY, fields));
+        return this;
+    }
+
+    public JedisBatch xack(String key, String group, StreamEntryID id) {
+        add(key, p -> p.xack(key, group, id), c -> c.xack(key, group, id));
+        return this;
+    }
+
+    public JedisBatch xdel(String key, StreamEntryID id) {
+        add(key, p -> p.xdel(key, id), c -> c.xdel(key, id));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    private <T> Reply<T> add(
+            String key,
+            Function<Pipeline, Response<T>> pipelined,
+            Function<JedisCommands, T> direct) {
+        Command<T> command = new Command<>(key, pipelined, direct);
+        commands.add(command);
+        return command.reply;
+    }
+
+    /** Executes the commands one round trip at a time, for clients that cannot pipeline. */
+    void executeSequentially(JedisCommands jedisCommands) {
+        for (Command<?> command : commands) {
+            command.execute(jedisCommands);
+        }
+    }
+
+    /**
+     * Sends all the commands in a single pipeline on the given connection and waits for the
+     * replies.
+     *
+     * @throws redis.clients.jedis.exceptions.JedisDataException the error of the first command
+     *     that failed
+     */
+    void executePipelined(Jedis jedis) {
+        Pipeline pipeline = jedis.pipelined();
+        for (Command<?> command : commands) {
+            command.send(pipeline);
+        }
+        pipeline.sync();
+        // a failed command only surfaces its error when its response is read
+        for (Command<?> command : commands) {
+            command.receive();
+        }
+    }
+
+    /**
+     * @return the commands of this batch split by redis cluster hash slot, each keeping the
+     *     original order of its commands
+     */
+    Map<Integer, JedisBatch> groupBySlot() {
+        Map<Integer, JedisBatch> batches = new LinkedHashMap<>();
+        for (Command<?> command : commands) {
+            batches.computeIfAbsent(JedisClusterCRC16.getSlot(command.key), s -> new JedisBatch())
+                    .commands
+                    .add(command);
+        }
+        return batches;
+    }
+
+    /** The first key of the batch, used to route a single slot batch in a redis cluster. */
+    String firstKey() {
+        return commands.get(0).key;
+    }
+
+    /**
+     * The result of a command of the batch.
+     *
+     * @param <T> the type of the result
+     */
+    public static class Reply<T> {
+
+        private T value;
+        private boolean done;
+
+        /**
+         * @return the result of the command
+         * @throws IllegalStateException if the batch has not been executed yet
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("The batch has not been executed");
+            }
+            return value;
+        }
+
+        private void set(T value) {
+            this.value = value;
+            this.done = true;
+        }
+    }
+
+    private static class Command<T> {
+
+        private final String key;
+        private final Function<Pipeline, Response<T>> pipelined;
+        private final Function<JedisCommands, T> direct;
+        private final Reply<T> reply = new Reply<>();
+        private Response<T> response;
+
+        Command(
+                String key,
+                Function<Pipeline, Response<T>> pipelined,
+                Function<JedisCommands, T> direct) {
+            this.key = key;
+            this.pipelined = pipelined;
+            this.direct = direct;
+        }
+
+        void execute(JedisCommands jedisCommands) {
+            reply.set(direct.apply(jedisCommands));
+        }
+
+        void send(Pipeline pipeline) {
+            response = pipelined.apply(pipeline);
+        }
+
+        void receive() {
+            reply.set(response.get());
+        }
+    }
+}
@@ -40,7 +40,7 @@ import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
 
-public class JedisCluster implements JedisCommands {
+public class JedisCluster implements JedisCommands, PipelinedCommands, StreamReadCommands {
 
     private final redis.clients.jedis.JedisCluster jedisCluster;
 
@@ -48,6 +48,22 @@ public class JedisCluster implements JedisCommands {
         this.jedisCluster = jedisCluster;
     }
 
+    @Override
+    public void pipelined(JedisBatch batch) {
+        if (jedisCluster instanceof PipelinedJedisCluster) {
+            ((PipelinedJedisCluster) jedisCluster).pipelined(batch);
+        } else {
+            batch.executeSequentially(this);
+        }
+    }
+
+    @Override
+    public List<StreamEntry> xreadGroup(String key, String group, String consumer, int count) {
+        return StreamReadCommands.entries(
+                jedisCluster.xreadGroup(
+                        group, consumer, count, 0, false, StreamReadCommands.undelivered(key)));
+    }
+
     @Override
     public String set(String key, String value) {
         return jedisCluster.set(key, value);
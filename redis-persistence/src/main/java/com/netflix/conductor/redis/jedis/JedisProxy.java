@@ -12,6 +12,7 @@
  */
 package com.netflix.conductor.redis.jedis;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -19,6 +20,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,8 +30,13 @@ import org.springframework.stereotype.Component;
 
 import com.netflix.conductor.redis.config.AnyRedisCondition;
 
+import com.google.common.collect.Lists;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.StreamConsumersInfo;
+import redis.clients.jedis.StreamEntry;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.StreamPendingEntry;
 import redis.clients.jedis.Tuple;
 import redis.clients.jedis.commands.JedisCommands;
 import redis.clients.jedis.params.ZAddParams;
@@ -43,6 +50,8 @@ public class JedisProxy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JedisProxy.class);
 
+    private static final int MGET_CHUNK_SIZE = 500;
+
     protected JedisCommands jedisCommands;
 
     public JedisProxy(@Qualifier(DEFAULT_CLIENT_INJECTION_NAME) JedisCommands jedisCommands) {
@@ -97,6 +106,10 @@ public class JedisProxy {
         return jedisCommands.set(key, value);
     }
 
+    public Long incr(String key) {
+        return jedisCommands.incr(key);
+    }
+
     public Long setnx(String key, String value) {
         return jedisCommands.setnx(key, value);
     }
@@ -110,6 +123,15 @@ public class JedisProxy {
         return jedisCommands.zadd(key, score, member, params);
     }
 
+    public Long zaddxx(String key, double score, String member) {
+        ZAddParams params = ZAddParams.zAddParams().xx();
+        return jedisCommands.zadd(key, score, member, params);
+    }
+
+    public Double zscore(String key, String member) {
+        return jedisCommands.zscore(key, member);
+    }
+
     public Long hset(String key, String field, String value) {
         return jedisCommands.hset(key, field, value);
     }
@@ -228,4 +250,80 @@ public class JedisProxy {
     public Long scard(String key) {
         return jedisCommands.scard(key);
     }
+
+    public String xgroupCreate(String key, String group, StreamEntryID id) {
+        return jedisCommands.xgroupCreate(key, group, id, true);
+    }
+
+    /**
+     * Reads, without blocking, up to count entries of the stream that were never delivered to the
+     * group.
+     *
+     * @throws UnsupportedOperationException if the underlying client cannot read streams as a
+     *     consumer group (dynomite, the in-memory mock)
+     */
+    public List<StreamEntry> xreadGroup(String key, String group, String consumer, int count) {
+        if (!(jedisCommands instanceof StreamReadCommands)) {
+            throw new UnsupportedOperationException(
+                    jedisCommands.getClass().getSimpleName()
+                            + " does not support reading streams in a consumer group");
+        }
+        return ((StreamReadCommands) jedisCommands).xreadGroup(key, group, consumer, count);
+    }
+
+    /**
+     * Reads up to count entries of the pending entries list of the group, from the start id
+     * (<code>null</code> for the first entry) up to the end id included.
+     */
+    public List<StreamPendingEntry> xpending(
+            String key, String group, StreamEntryID start, StreamEntryID end, int count) {
+        return jedisCommands.xpending(key, group, start, end, count, null);
+    }
+
+    public List<StreamEntry> xclaim(
+            String key, String group, String consumer, long minIdleTime, StreamEntryID... ids) {
+        return jedisCommands.xclaim(key, group, consumer, minIdleTime, 0, 0, false, ids);
+    }
+
+    public List<StreamConsumersInfo> xinfoConsumers(String key, String group) {
+        return jedisCommands.xinfoConsumers(key, group);
+    }
+
+    public Long xgroupDelConsumer(String key, String group, String consumer) {
+        return jedisCommands.xgroupDelConsumer(key, group, consumer);
+    }
+
+    /**
+     * Reads the values of many keys, sending the reads in pipelined chunks so that very large
+     * reads do not hold a connection for too long.
+     *
+     * @return the values in the order of the keys, <code>null</code> for a missing key
+     */
+    public List<String> mget(List<String> keys) {
+        List<String> values = new ArrayList<>(keys.size());
+        for (List<String> chunk : Lists.partition(keys, MGET_CHUNK_SIZE)) {
+            JedisBatch batch = new JedisBatch();
+            List<JedisBatch.Reply<String>> replies =
+                    chunk.stream().map(batch::get).collect(Collectors.toList());
+            execute(batch);
+            replies.forEach(reply -> values.add(reply.get()));
+        }
+        return values;
+    }
+
+    /**
+     * Executes the commands of the batch in a single pipeline when the underlying client supports
+     * it (standalone, sentinel and cluster), or one by one otherwise.
+     */
+    public void execute(JedisBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LOGGER.trace("execute batch of {} commands", batch.size());
+        if (jedisCommands instanceof PipelinedCommands) {
+            ((PipelinedCommands) jedisCommands).pipelined(batch);
+        } else {
+            batch.executeSequentially(jedisCommands);
+        }
+    }
 }
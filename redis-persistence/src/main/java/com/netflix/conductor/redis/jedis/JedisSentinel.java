@@ -40,7 +40,7 @@ import redis.clients.jedis.params.SetParams;
 import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
 
-public class JedisSentinel implements JedisCommands {
+public class JedisSentinel implements JedisCommands, PipelinedCommands, StreamReadCommands {
 
     private final JedisPoolAbstract jedisPool;
 
@@ -48,6 +48,22 @@ public class JedisSentinel implements JedisCommands {
         this.jedisPool = jedisPool;
     }
 
+    @Override
+    public void pipelined(JedisBatch batch) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            batch.executePipelined(jedis);
+        }
+    }
+
+    @Override
+    public List<StreamEntry> xreadGroup(String key, String group, String consumer, int count) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return StreamReadCommands.entries(
+                    jedis.xreadGroup(
+                            group, consumer, count, 0, false, StreamReadCommands.undelivered(key)));
+        }
+    }
+
     @Override
     public String set(String key, String value) {
         try (Jedis jedis = jedisPool.getResource()) {
@@ -41,7 +41,7 @@ import redis.clients.jedis.params.ZAddParams;
 import redis.clients.jedis.params.ZIncrByParams;
 
 /** A {@link JedisCommands} implementation that delegates to {@link JedisPool}. */
-public class JedisStandalone implements JedisCommands {
+public class JedisStandalone implements JedisCommands, PipelinedCommands, StreamReadCommands {
 
     private final JedisPool jedisPool;
 
@@ -55,6 +55,29 @@ public class JedisStandalone implements JedisCommands {
         }
     }
 
+    @Override
+    public void pipelined(JedisBatch batch) {
+        executeInJedis(
+                jedis -> {
+                    batch.executePipelined(jedis);
+                    return null;
+                });
+    }
+
+    @Override
+    public List<StreamEntry> xreadGroup(String key, String group, String consumer, int count) {
+        return executeInJedis(
+                jedis ->
+                        StreamReadCommands.entries(
+                                jedis.xreadGroup(
+                                        group,
+                                        consumer,
+                                        count,
+                                        0,
+                                        false,
+                                        StreamReadCommands.undelivered(key))));
+    }
+
     @Override
     public String set(String key, String value) {
         return executeInJedis(jedis -> jedis.set(key, value));
@@ -897,7 +920,7 @@ public class JedisStandalone implements JedisCommands {
 
     @Override
     public Long xgroupDelConsumer(String key, String groupname, String consumername) {
-        return executeInJedis(jedis -> jedis.hsetnx(key, groupname, consumername));
+        return executeInJedis(jedis -> jedis.xgroupDelConsumer(key, groupname, consumername));
     }
 
     @Override
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+import java.util.Set;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClusterCommand;
+
+/**
+ * A {@link redis.clients.jedis.JedisCluster} that can pipeline the commands of a {@link
+ * JedisBatch}. Redis cluster does not accept commands spanning several hash slots on one
+ * connection, so the batch is split by slot and every slot is sent as one pipeline to the node
+ * that owns it. Moved slots are handled like any other cluster command by retrying on the new
+ * owner, which is safe since the batch only contains idempotent writes.
+ */
+public class PipelinedJedisCluster extends redis.clients.jedis.JedisCluster {
+
+    public PipelinedJedisCluster(Set<HostAndPort> nodes, GenericObjectPoolConfig<?> poolConfig) {
+        super(nodes, poolConfig);
+    }
+
+    public PipelinedJedisCluster(
+            Set<HostAndPort> nodes,
+            int connectionTimeout,
+            int soTimeout,
+            int maxAttempts,
+            String password,
+            GenericObjectPoolConfig<?> poolConfig) {
+        super(nodes, connectionTimeout, soTimeout, maxAttempts, password, poolConfig);
+    }
+
+    void pipelined(JedisBatch batch) {
+        for (JedisBatch slotBatch : batch.groupBySlot().values()) {
+            new JedisClusterCommand<Void>(connectionHandler, maxAttempts) {
+                @Override
+                public Void execute(Jedis connection) {
+                    slotBatch.executePipelined(connection);
+                    return null;
+                }
+            }.run(slotBatch.firstKey());
+        }
+    }
+}
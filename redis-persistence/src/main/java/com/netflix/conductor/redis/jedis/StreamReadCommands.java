@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+
+import redis.clients.jedis.StreamEntry;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.commands.JedisCommands;
+
+/**
+ * Implemented by the {@link JedisCommands} clients that can read a stream as a member of a consumer
+ * group, which {@link JedisCommands} does not cover.
+ */
+interface StreamReadCommands {
+
+    /**
+     * Reads, without blocking, up to count entries of the stream that were never delivered to the
+     * group, and adds them to the pending entries of the consumer.
+     */
+    List<StreamEntry> xreadGroup(String key, String group, String consumer, int count);
+
+    static Entry<String, StreamEntryID> undelivered(String key) {
+        return new AbstractMap.SimpleImmutableEntry<>(key, StreamEntryID.UNRECEIVED_ENTRY);
+    }
+
+    static List<StreamEntry> entries(List<Entry<String, List<StreamEntry>>> streams) {
+        if (streams == null || streams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return streams.get(0).getValue();
+    }
+}
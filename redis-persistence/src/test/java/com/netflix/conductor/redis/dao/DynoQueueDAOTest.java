@@ -19,11 +19,10 @@ import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
-import org.junit.Rule;
 import org.junit.Test;
-import org.junit.rules.ExpectedException;
 
 import com.netflix.conductor.dao.QueueDAO;
+import com.netflix.conductor.dao.QueueDAOTest;
 import com.netflix.conductor.redis.config.RedisProperties;
 import com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider;
 import com.netflix.conductor.redis.jedis.JedisMock;
@@ -41,7 +40,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
-public class DynoQueueDAOTest {
+public class DynoQueueDAOTest extends QueueDAOTest {
 
     private QueueDAO queueDAO;
 
@@ -76,10 +75,13 @@ public class DynoQueueDAOTest {
         queueDAO = new DynoQueueDAO(redisQueues);
     }
 
-    @Rule public ExpectedException expected = ExpectedException.none();
+    @Override
+    protected QueueDAO getQueueDAO() {
+        return queueDAO;
+    }
 
     @Test
-    public void test() {
+    public void testQueuesDetailVerbose() {
         String queueName = "TestQueue";
         long offsetTimeInSecond = 0;
 
@@ -87,17 +89,10 @@ public class DynoQueueDAOTest {
             String messageId = "msg" + i;
             queueDAO.push(queueName, messageId, offsetTimeInSecond);
         }
-        int size = queueDAO.getSize(queueName);
-        assertEquals(10, size);
         Map<String, Long> details = queueDAO.queuesDetail();
         assertEquals(1, details.size());
         assertEquals(10L, details.get(queueName).longValue());
 
-        for (int i = 0; i < 10; i++) {
-            String messageId = "msg" + i;
-            queueDAO.pushIfNotExists(queueName, messageId, offsetTimeInSecond);
-        }
-
         List<String> popped = queueDAO.pop(queueName, 10, 100);
         assertNotNull(popped);
         assertEquals(10, popped.size());
@@ -117,32 +112,5 @@ public class DynoQueueDAOTest {
         unackedSize = verbose.get(queueName).get("a").get("uacked");
         assertEquals(0, shardSize);
         assertEquals(0, unackedSize);
-
-        popped = queueDAO.pop(queueName, 10, 100);
-        assertNotNull(popped);
-        assertEquals(0, popped.size());
-
-        for (int i = 0; i < 10; i++) {
-            String messageId = "msg" + i;
-            queueDAO.pushIfNotExists(queueName, messageId, offsetTimeInSecond);
-        }
-        size = queueDAO.getSize(queueName);
-        assertEquals(10, size);
-
-        for (int i = 0; i < 10; i++) {
-            String messageId = "msg" + i;
-            queueDAO.remove(queueName, messageId);
-        }
-
-        size = queueDAO.getSize(queueName);
-        assertEquals(0, size);
-
-        for (int i = 0; i < 10; i++) {
-            String messageId = "msg" + i;
-            queueDAO.pushIfNotExists(queueName, messageId, offsetTimeInSecond);
-        }
-        queueDAO.flush(queueName);
-        size = queueDAO.getSize(queueName);
-        assertEquals(0, size);
     }
 }
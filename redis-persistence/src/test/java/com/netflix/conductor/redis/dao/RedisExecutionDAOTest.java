@@ -13,6 +13,7 @@
 package com.netflix.conductor.redis.dao;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,8 +25,11 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.common.metadata.events.EventExecution;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.core.utils.JacksonModelSerializer;
+import com.netflix.conductor.core.utils.ModelSerializer;
 import com.netflix.conductor.dao.ExecutionDAO;
 import com.netflix.conductor.dao.ExecutionDAOTest;
 import com.netflix.conductor.model.TaskModel;
@@ -38,6 +42,7 @@ import redis.clients.jedis.commands.JedisCommands;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -57,8 +62,12 @@ public class RedisExecutionDAOTest extends ExecutionDAOTest {
         JedisCommands jedisMock = new JedisMock();
         JedisProxy jedisProxy = new JedisProxy(jedisMock);
 
+        ModelSerializer modelSerializer =
+                new JacksonModelSerializer(objectMapper, JacksonModelSerializer.Format.SMILE);
+
         executionDAO =
-                new RedisExecutionDAO(jedisProxy, objectMapper, conductorProperties, properties);
+                new RedisExecutionDAO(
+                        jedisProxy, objectMapper, modelSerializer, conductorProperties, properties);
     }
 
     @Test
@@ -89,6 +98,39 @@ public class RedisExecutionDAOTest extends ExecutionDAOTest {
         assertEquals(taskId, tasks.get(0).getTaskId());
     }
 
+    @Test
+    public void testBulkEventExecutions() {
+        EventExecution first = eventExecution("message1_0");
+        EventExecution second = eventExecution("message1_1");
+        assertEquals(
+                Collections.singletonList(first),
+                executionDAO.addEventExecutions(Collections.singletonList(first)));
+
+        // the first execution is already stored
+        List<EventExecution> added = executionDAO.addEventExecutions(Arrays.asList(first, second));
+        assertEquals(Collections.singletonList(second), added);
+
+        first.setStatus(EventExecution.Status.COMPLETED);
+        second.setStatus(EventExecution.Status.FAILED);
+        executionDAO.updateEventExecutions(Arrays.asList(first, second));
+        List<EventExecution> stored =
+                executionDAO.getEventExecutions("handler", "event", "message1", 2);
+        assertEquals(2, stored.size());
+        assertEquals(EventExecution.Status.COMPLETED, stored.get(0).getStatus());
+        assertEquals(EventExecution.Status.FAILED, stored.get(1).getStatus());
+
+        executionDAO.removeEventExecutions(Arrays.asList(first, second));
+        assertTrue(executionDAO.getEventExecutions("handler", "event", "message1", 2).isEmpty());
+    }
+
+    private EventExecution eventExecution(String id) {
+        EventExecution eventExecution = new EventExecution(id, "message1");
+        eventExecution.setName("handler");
+        eventExecution.setEvent("event");
+        eventExecution.setStatus(EventExecution.Status.IN_PROGRESS);
+        return eventExecution;
+    }
+
     @Override
     protected ExecutionDAO getExecutionDAO() {
         return executionDAO;
@@ -14,7 +14,9 @@ package com.netflix.conductor.redis.dao;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -31,7 +33,10 @@ import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
 import com.netflix.conductor.common.metadata.tasks.TaskDef;
 import com.netflix.conductor.common.metadata.tasks.TaskDef.RetryLogic;
 import com.netflix.conductor.common.metadata.tasks.TaskDef.TimeoutPolicy;
+import com.netflix.conductor.common.metadata.tasks.TaskType;
+import com.netflix.conductor.common.metadata.workflow.SubWorkflowParams;
 import com.netflix.conductor.common.metadata.workflow.WorkflowDef;
+import com.netflix.conductor.common.metadata.workflow.WorkflowTask;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.core.exception.ConflictException;
 import com.netflix.conductor.core.exception.NotFoundException;
@@ -39,13 +44,20 @@ import com.netflix.conductor.redis.config.RedisProperties;
 import com.netflix.conductor.redis.jedis.JedisMock;
 import com.netflix.conductor.redis.jedis.JedisProxy;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import redis.clients.jedis.commands.JedisCommands;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 @ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
@@ -54,15 +66,21 @@ public class RedisMetadataDAOTest {
 
     private RedisMetadataDAO redisMetadataDAO;
 
+    private JedisProxy jedisProxy;
+    private ConductorProperties conductorProperties;
+    private RedisProperties properties;
+
     @Autowired private ObjectMapper objectMapper;
 
     @Before
     public void init() {
-        ConductorProperties conductorProperties = mock(ConductorProperties.class);
-        RedisProperties properties = mock(RedisProperties.class);
+        conductorProperties = mock(ConductorProperties.class);
+        properties = mock(RedisProperties.class);
         when(properties.getTaskDefCacheRefreshInterval()).thenReturn(Duration.ofSeconds(60));
+        when(properties.getWorkflowDefCacheSize()).thenReturn(100);
+        when(properties.getWorkflowDefCacheRefreshInterval()).thenReturn(Duration.ofSeconds(60));
         JedisCommands jedisMock = new JedisMock();
-        JedisProxy jedisProxy = new JedisProxy(jedisMock);
+        jedisProxy = new JedisProxy(jedisMock);
 
         redisMetadataDAO =
                 new RedisMetadataDAO(jedisProxy, objectMapper, conductorProperties, properties);
@@ -160,6 +178,194 @@ public class RedisMetadataDAOTest {
         assertEquals(workflow.getVersion(), 3);
     }
 
+    @Test
+    public void testCachedWorkflowDefIsNotShared() {
+        WorkflowDef def = new WorkflowDef();
+        def.setName("testCached");
+        def.setVersion(1);
+        def.setDescription("description");
+        redisMetadataDAO.createWorkflowDef(def);
+
+        WorkflowDef first = redisMetadataDAO.getWorkflowDef("testCached", 1).get();
+        first.setDescription("changed by a caller");
+        WorkflowDef second = redisMetadataDAO.getLatestWorkflowDef("testCached").get();
+
+        assertNotSame(first, second);
+        assertEquals("description", second.getDescription());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCachedWorkflowDefIsCopiedDeeply() {
+        WorkflowTask subWorkflowTask = new WorkflowTask();
+        subWorkflowTask.setName("sub");
+        subWorkflowTask.setTaskReferenceName("sub");
+        subWorkflowTask.setWorkflowTaskType(TaskType.SUB_WORKFLOW);
+        SubWorkflowParams subWorkflowParams = new SubWorkflowParams();
+        subWorkflowParams.setName("subWorkflow");
+        subWorkflowTask.setSubWorkflowParam(subWorkflowParams);
+        WorkflowTask switchTask = new WorkflowTask();
+        switchTask.setName("switch");
+        switchTask.setTaskReferenceName("switch");
+        switchTask.setWorkflowTaskType(TaskType.SWITCH);
+        switchTask.getDecisionCases().put("case", List.of(subWorkflowTask));
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("key", "value");
+        switchTask.getInputParameters().put("nested", nested);
+        WorkflowDef def = new WorkflowDef();
+        def.setName("testCopied");
+        def.setVersion(1);
+        def.getTasks().add(switchTask);
+        redisMetadataDAO.createWorkflowDef(def);
+
+        WorkflowDef first = redisMetadataDAO.getWorkflowDef("testCopied", 1).get();
+        assertEquals(def, first);
+        // the callers populate the definitions they get
+        WorkflowTask firstSubWorkflowTask = first.getTaskByRefName("sub");
+        firstSubWorkflowTask.setTaskDefinition(new TaskDef("sub"));
+        firstSubWorkflowTask.getSubWorkflowParam().setVersion(3);
+        ((Map<String, Object>) first.getTaskByRefName("switch").getInputParameters().get("nested"))
+                .put("key", "changed");
+
+        WorkflowDef second = redisMetadataDAO.getWorkflowDef("testCopied", 1).get();
+        assertEquals(def, second);
+        assertNull(second.getTaskByRefName("sub").getTaskDefinition());
+        assertNull(second.getTaskByRefName("sub").getSubWorkflowParam().getVersion());
+    }
+
+    @Test
+    public void testCachedWorkflowDefCopyHasEveryField() {
+        WorkflowTask forkTask = new WorkflowTask();
+        forkTask.setName("fork");
+        forkTask.setTaskReferenceName("fork");
+        forkTask.setWorkflowTaskType(TaskType.FORK_JOIN_DYNAMIC);
+        forkTask.setDynamicForkJoinTasksParam("dynamicTasks");
+        forkTask.setDynamicForkTasksParam("dynamicForkTasks");
+        forkTask.setDynamicForkTasksInputParamName("dynamicForkTasksInput");
+        WorkflowTask simpleTask = new WorkflowTask();
+        simpleTask.setName("simple");
+        simpleTask.setTaskReferenceName("simple");
+        simpleTask.setDescription("description");
+        simpleTask.setStartDelay(5);
+        simpleTask.setRetryCount(2);
+        simpleTask.setOptional(true);
+        simpleTask.setRateLimited(true);
+        simpleTask.setAsyncComplete(true);
+        simpleTask.setSink("sink");
+        simpleTask.setTaskDefinition(new TaskDef("simple", "description", 3, 60));
+        simpleTask.getInputParameters().put("input", Map.of("nested", List.of("value")));
+        WorkflowTask doWhileTask = new WorkflowTask();
+        doWhileTask.setName("loop");
+        doWhileTask.setTaskReferenceName("loop");
+        doWhileTask.setWorkflowTaskType(TaskType.DO_WHILE);
+        doWhileTask.setLoopCondition("$.loop['iteration'] < 3");
+        doWhileTask.setLoopOver(List.of(simpleTask));
+        WorkflowTask joinTask = new WorkflowTask();
+        joinTask.setName("join");
+        joinTask.setTaskReferenceName("join");
+        joinTask.setWorkflowTaskType(TaskType.JOIN);
+        joinTask.setJoinOn(List.of("loop"));
+        joinTask.setDefaultExclusiveJoinTask(List.of("loop"));
+        WorkflowTask switchTask = new WorkflowTask();
+        switchTask.setName("switch");
+        switchTask.setTaskReferenceName("switch");
+        switchTask.setWorkflowTaskType(TaskType.SWITCH);
+        switchTask.setEvaluatorType("value-param");
+        switchTask.setExpression("switchCaseValue");
+        switchTask.setCaseValueParam("caseValue");
+        switchTask.setCaseExpression("$.caseValue");
+        switchTask.getDecisionCases().put("case", List.of(forkTask, joinTask));
+        switchTask.setDefaultCase(List.of(doWhileTask));
+        WorkflowDef def = new WorkflowDef();
+        def.setName("testCopyFields");
+        def.setVersion(1);
+        def.setDescription("description");
+        def.setInputParameters(List.of("input"));
+        def.setOutputParameters(Map.of("output", "${switch.output}"));
+        def.setFailureWorkflow("failureWorkflow");
+        def.setRestartable(false);
+        def.setWorkflowStatusListenerEnabled(true);
+        def.setOwnerEmail("owner@example.com");
+        def.setTimeoutPolicy(WorkflowDef.TimeoutPolicy.TIME_OUT_WF);
+        def.setTimeoutSeconds(120);
+        def.setVariables(Map.of("variable", "value"));
+        def.setInputTemplate(Map.of("input", "default"));
+        def.getTasks().add(switchTask);
+        redisMetadataDAO.createWorkflowDef(def);
+
+        WorkflowDef copy = redisMetadataDAO.getWorkflowDef("testCopyFields", 1).get();
+        assertNotSame(def, copy);
+        JsonNode expected = objectMapper.valueToTree(def);
+        JsonNode actual = objectMapper.valueToTree(copy);
+        assertEquals(expected, actual);
+        // and the cached instance is not handed out twice
+        assertNotSame(copy, redisMetadataDAO.getWorkflowDef("testCopyFields", 1).get());
+    }
+
+    @Test
+    public void testWorkflowDefLoadedAcrossAnInvalidationIsNotCached() {
+        JedisProxy jedisProxySpy = spy(jedisProxy);
+        RedisMetadataDAO metadataDAO =
+                new RedisMetadataDAO(jedisProxySpy, objectMapper, conductorProperties, properties);
+        RedisMetadataDAO otherMetadataDAO =
+                new RedisMetadataDAO(jedisProxy, objectMapper, conductorProperties, properties);
+        WorkflowDef def = new WorkflowDef();
+        def.setName("testInFlight");
+        def.setVersion(1);
+        def.setDescription("description");
+        otherMetadataDAO.createWorkflowDef(def);
+
+        boolean[] updated = {false};
+        doAnswer(
+                        invocation -> {
+                            Object workflowDef = invocation.callRealMethod();
+                            if (!updated[0]) {
+                                // another server updates the definition while it is being loaded
+                                updated[0] = true;
+                                def.setDescription("updated");
+                                otherMetadataDAO.updateWorkflowDef(def);
+                                metadataDAO.refreshWorkflowDefs();
+                            }
+                            return workflowDef;
+                        })
+                .when(jedisProxySpy)
+                .hget(anyString(), eq("1"));
+
+        assertEquals(
+                "updated", metadataDAO.getWorkflowDef("testInFlight", 1).get().getDescription());
+        assertEquals(
+                "updated", metadataDAO.getWorkflowDef("testInFlight", 1).get().getDescription());
+    }
+
+    @Test
+    public void testWorkflowDefChangedByAnotherServer() {
+        RedisMetadataDAO otherMetadataDAO =
+                new RedisMetadataDAO(jedisProxy, objectMapper, conductorProperties, properties);
+        WorkflowDef def = new WorkflowDef();
+        def.setName("testShared");
+        def.setVersion(1);
+        def.setDescription("description");
+        redisMetadataDAO.createWorkflowDef(def);
+        assertEquals(
+                "description",
+                otherMetadataDAO.getWorkflowDef("testShared", 1).get().getDescription());
+        assertEquals(1, otherMetadataDAO.getLatestWorkflowDef("testShared").get().getVersion());
+
+        def.setDescription("updated");
+        redisMetadataDAO.updateWorkflowDef(def);
+        def.setVersion(2);
+        redisMetadataDAO.createWorkflowDef(def);
+
+        // served from the cache until the other server checks the version of the definitions
+        assertEquals(
+                "description",
+                otherMetadataDAO.getWorkflowDef("testShared", 1).get().getDescription());
+        otherMetadataDAO.refreshWorkflowDefs();
+        assertEquals(
+                "updated", otherMetadataDAO.getWorkflowDef("testShared", 1).get().getDescription());
+        assertEquals(2, otherMetadataDAO.getLatestWorkflowDef("testShared").get().getVersion());
+    }
+
     @Test(expected = NotFoundException.class)
     public void removeInvalidWorkflowDef() {
         redisMetadataDAO.removeWorkflowDef("hello", 1);
@@ -12,13 +12,18 @@
  */
 package com.netflix.conductor.redis.dao;
 
+import java.time.Duration;
+import java.util.List;
+
 import org.junit.Before;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.core.config.ConductorProperties;
 import com.netflix.conductor.dao.PollDataDAO;
 import com.netflix.conductor.dao.PollDataDAOTest;
@@ -29,7 +34,11 @@ import com.netflix.conductor.redis.jedis.JedisProxy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import redis.clients.jedis.commands.JedisCommands;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
 @RunWith(SpringRunner.class)
@@ -39,17 +48,51 @@ public class RedisPollDataDAOTest extends PollDataDAOTest {
 
     @Autowired private ObjectMapper objectMapper;
 
+    private ConductorProperties conductorProperties;
+    private JedisCommands jedisMock;
+    private JedisProxy jedisProxy;
+
     @Before
     public void init() {
-        ConductorProperties conductorProperties = mock(ConductorProperties.class);
+        conductorProperties = mock(ConductorProperties.class);
         RedisProperties properties = mock(RedisProperties.class);
-        JedisCommands jedisMock = new JedisMock();
-        JedisProxy jedisProxy = new JedisProxy(jedisMock);
+        jedisMock = new JedisMock();
+        jedisProxy = new JedisProxy(jedisMock);
 
         redisPollDataDAO =
                 new RedisPollDataDAO(jedisProxy, objectMapper, conductorProperties, properties);
     }
 
+    @Test
+    public void testPollDataWriteBehind() {
+        RedisProperties properties = mock(RedisProperties.class);
+        when(properties.getPollDataFlushInterval()).thenReturn(Duration.ofHours(1));
+        RedisPollDataDAO pollDataDAO =
+                new RedisPollDataDAO(jedisProxy, objectMapper, conductorProperties, properties);
+        try {
+            pollDataDAO.updateLastPollData("taskDef", null, "workerId1");
+            pollDataDAO.updateLastPollData("taskDef", null, "workerId2");
+            pollDataDAO.updateLastPollData("taskDef", "domain1", "workerId1");
+
+            // the polls are only kept in memory, but are visible to the reads
+            assertNull(jedisMock.hget("POLL_DATA.taskDef", "DEFAULT"));
+            PollData pollData = pollDataDAO.getPollData("taskDef", null);
+            assertNotNull(pollData);
+            assertEquals("workerId2", pollData.getWorkerId());
+            assertEquals(2, pollDataDAO.getPollData("taskDef").size());
+
+            pollDataDAO.flush();
+            assertNotNull(jedisMock.hget("POLL_DATA.taskDef", "DEFAULT"));
+            assertNotNull(jedisMock.hget("POLL_DATA.taskDef", "domain1"));
+            pollData = redisPollDataDAO.getPollData("taskDef", null);
+            assertEquals("workerId2", pollData.getWorkerId());
+            List<PollData> pollDataList = redisPollDataDAO.getPollData("taskDef");
+            assertEquals(2, pollDataList.size());
+        } finally {
+            pollDataDAO.close();
+        }
+    }
+
     @Override
     protected PollDataDAO getPollDataDAO() {
         return redisPollDataDAO;
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.dao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.netflix.conductor.common.config.TestObjectMapperConfiguration;
+import com.netflix.conductor.core.config.ConductorProperties;
+import com.netflix.conductor.dao.QueueDAO;
+import com.netflix.conductor.dao.QueueDAOTest;
+import com.netflix.conductor.redis.config.RedisProperties;
+import com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider;
+import com.netflix.conductor.redis.jedis.JedisProxy;
+import com.netflix.conductor.redis.jedis.JedisStandalone;
+import com.netflix.dyno.connectionpool.Host;
+import com.netflix.dyno.queues.ShardSupplier;
+import com.netflix.dyno.queues.redis.RedisQueues;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import static com.netflix.conductor.redis.dynoqueue.RedisQueuesShardingStrategyProvider.LOCAL_ONLY_STRATEGY;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {TestObjectMapperConfiguration.class})
+@RunWith(SpringRunner.class)
+public class RedisStreamsQueueDAOTest extends QueueDAOTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisStreamsQueueDAOTest.class);
+
+    @ClassRule
+    public static final GenericContainer<?> redis =
+            new GenericContainer<>(DockerImageName.parse("redis:5.0.3-alpine"))
+                    .withExposedPorts(6379);
+
+    @Autowired private ObjectMapper objectMapper;
+
+    private JedisPool jedisPool;
+    private RedisProperties properties;
+    private QueueDAO queueDAO;
+
+    @Before
+    public void init() {
+        jedisPool = new JedisPool(redis.getHost(), redis.getFirstMappedPort());
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.flushAll();
+        }
+        properties = mock(RedisProperties.class);
+        when(properties.getQueuePrefix()).thenReturn("test");
+        when(properties.getQueuePriorityLanes()).thenReturn(4);
+        queueDAO = newQueueDAO();
+    }
+
+    private QueueDAO newQueueDAO() {
+        return new RedisStreamsQueueDAO(
+                new JedisProxy(new JedisStandalone(jedisPool)),
+                objectMapper,
+                mock(ConductorProperties.class),
+                properties);
+    }
+
+    @Override
+    protected QueueDAO getQueueDAO() {
+        return queueDAO;
+    }
+
+    @Test
+    public void testPriorityLanes() {
+        String queueName = "TestPriorityQueue";
+        queueDAO.push(queueName, "low", 90, 0);
+        queueDAO.push(queueName, "medium", 50, 0);
+        queueDAO.push(queueName, "high", 0, 0);
+
+        assertEquals(Arrays.asList("high", "medium", "low"), queueDAO.pop(queueName, 3, 100));
+    }
+
+    @Test
+    public void testPushAgainDeliversOnce() {
+        String queueName = "TestPushAgainQueue";
+        for (int i = 0; i < 3; i++) {
+            queueDAO.push(queueName, "msg", 0);
+        }
+        assertEquals(1, queueDAO.getSize(queueName));
+        assertEquals(Collections.singletonList("msg"), queueDAO.pop(queueName, 10, 100));
+
+        // pushing a delivered message queues it again, its delivery can no longer be acked
+        queueDAO.push(queueName, "msg", 0);
+        assertEquals(1, queueDAO.getSize(queueName));
+        assertFalse(queueDAO.ack(queueName, "msg"));
+        assertEquals(Collections.singletonList("msg"), queueDAO.pop(queueName, 10, 100));
+    }
+
+    @Test
+    public void testConcurrentConsumersDeliverOnce() throws Exception {
+        String queueName = "TestConcurrentQueue";
+        List<String> ids =
+                IntStream.range(0, 500).mapToObj(i -> "msg" + i).collect(Collectors.toList());
+        ids.forEach(id -> queueDAO.push(queueName, id, 0));
+
+        List<QueueDAO> servers = Arrays.asList(queueDAO, newQueueDAO());
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                QueueDAO server = servers.get(i % servers.size());
+                Callable<List<String>> consumer =
+                        () -> {
+                            List<String> consumed = new ArrayList<>();
+                            List<String> popped;
+                            while (!(popped = server.pop(queueName, 10, 0)).isEmpty()) {
+                                server.ackMessages(queueName, popped);
+                                consumed.addAll(popped);
+                            }
+                            return consumed;
+                        };
+                futures.add(executorService.submit(consumer));
+            }
+            List<String> consumed = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                consumed.addAll(future.get());
+            }
+            assertEquals(ids.size(), consumed.size());
+            assertEquals(new HashSet<>(ids), new HashSet<>(consumed));
+            assertEquals(0, queueDAO.getSize(queueName));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExpiredUnacksAreRedeliveredBySweep() {
+        when(properties.getQueueUnackSweepInterval()).thenReturn(Duration.ofMillis(100));
+        RedisStreamsQueueDAO sweepingQueueDAO = (RedisStreamsQueueDAO) newQueueDAO();
+        try {
+            String queueName = "TestSweptQueue";
+            sweepingQueueDAO.push(queueName, "msg", 0);
+            assertEquals(List.of("msg"), sweepingQueueDAO.pop(queueName, 1, 100));
+            assertTrue(sweepingQueueDAO.pop(queueName, 1, 100).isEmpty());
+
+            // the consumer never acks the message, whose unack timeout expires
+            assertTrue(sweepingQueueDAO.setUnackTimeout(queueName, "msg", 0));
+            assertEquals(List.of("msg"), sweepingQueueDAO.pop(queueName, 1, 2000));
+        } finally {
+            sweepingQueueDAO.close();
+        }
+    }
+
+    /**
+     * Compares the time taken to push, pop and ack the same messages with the dyno queues and with
+     * the streams. The times are logged rather than asserted, as they depend on the machine running
+     * the build.
+     */
+    @Test
+    public void testThroughputComparedToDynoQueues() {
+        ShardSupplier shardSupplier =
+                new ShardSupplier() {
+
+                    @Override
+                    public Set<String> getQueueShards() {
+                        return Collections.singleton("a");
+                    }
+
+                    @Override
+                    public String getCurrentShard() {
+                        return "a";
+                    }
+
+                    @Override
+                    public String getShardForHost(Host host) {
+                        return "a";
+                    }
+                };
+        RedisProperties dynoProperties = mock(RedisProperties.class);
+        when(dynoProperties.getQueueShardingStrategy()).thenReturn(LOCAL_ONLY_STRATEGY);
+        JedisStandalone jedisCommands = new JedisStandalone(jedisPool);
+        RedisQueues redisQueues =
+                new RedisQueues(
+                        jedisCommands,
+                        jedisCommands,
+                        "dyno",
+                        shardSupplier,
+                        60_000,
+                        60_000,
+                        new RedisQueuesShardingStrategyProvider(shardSupplier, dynoProperties)
+                                .get());
+
+        int count = 2000;
+        long dynoMillis = pushPopAck(new DynoQueueDAO(redisQueues), count);
+        long streamsMillis = pushPopAck(queueDAO, count);
+        LOGGER.info(
+                "Pushed, popped and acked {} messages in {} ms with dyno queues, "
+                        + "{} ms with streams",
+                count,
+                dynoMillis,
+                streamsMillis);
+    }
+
+    private long pushPopAck(QueueDAO queueDAO, int count) {
+        String queueName = "TestThroughputQueue";
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            queueDAO.push(queueName, "msg" + i, 0);
+        }
+        Set<String> consumed = new HashSet<>();
+        List<String> popped;
+        while (!(popped = queueDAO.pop(queueName, 100, 100)).isEmpty()) {
+            queueDAO.ackMessages(queueName, popped);
+            consumed.addAll(popped);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        assertEquals(count, consumed.size());
+        return elapsed;
+    }
+}
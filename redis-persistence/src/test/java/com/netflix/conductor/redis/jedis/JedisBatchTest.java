@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.redis.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+public class JedisBatchTest {
+
+    @Test
+    public void testExecuteSequentiallyWithoutPipelining() {
+        JedisMock jedisMock = new JedisMock();
+        JedisProxy jedisProxy = new JedisProxy(jedisMock);
+        jedisMock.sadd("set", "stale");
+        jedisMock.set("deleted", "value");
+
+        JedisBatch batch =
+                new JedisBatch()
+                        .set("key", "value")
+                        .sadd("set", "member")
+                        .srem("set", "stale")
+                        .hset("hash", "field", "value")
+                        .zadd("zset", 1, "member")
+                        .del("deleted");
+        assertEquals(6, batch.size());
+        jedisProxy.execute(batch);
+
+        assertEquals("value", jedisProxy.get("key"));
+        assertEquals(Set.of("member"), jedisProxy.smembers("set"));
+        assertEquals("value", jedisProxy.hget("hash", "field"));
+        assertEquals(1L, jedisProxy.zcard("zset").longValue());
+        assertNull(jedisProxy.get("deleted"));
+    }
+
+    @Test
+    public void testGroupBySlotKeepsCommandOrder() {
+        JedisBatch batch =
+                new JedisBatch()
+                        .set("{workflow}.a", "1")
+                        .set("task", "2")
+                        .set("{workflow}.b", "3")
+                        .del("{workflow}.a");
+
+        Map<Integer, JedisBatch> slots = batch.groupBySlot();
+        assertEquals(2, slots.size());
+        List<JedisBatch> batches = new ArrayList<>(slots.values());
+        assertEquals("{workflow}.a", batches.get(0).firstKey());
+        assertEquals(3, batches.get(0).size());
+        assertEquals("task", batches.get(1).firstKey());
+        assertEquals(1, batches.get(1).size());
+
+        // the commands of a slot are applied in the order they were added
+        JedisMock jedisMock = new JedisMock();
+        batches.get(0).executeSequentially(jedisMock);
+        assertFalse(jedisMock.exists("{workflow}.a"));
+        assertTrue(jedisMock.exists("{workflow}.b"));
+    }
+
+    @Test
+    public void testClusterWithoutPipeliningFallsBackToSequential() {
+        redis.clients.jedis.JedisCluster mockCluster = mock(redis.clients.jedis.JedisCluster.class);
+        JedisProxy jedisProxy = new JedisProxy(new JedisCluster(mockCluster));
+
+        jedisProxy.execute(new JedisBatch().set("key", "value").srem("set", "member"));
+
+        InOrder inOrder = inOrder(mockCluster);
+        inOrder.verify(mockCluster).set("key", "value");
+        inOrder.verify(mockCluster).srem("set", "member");
+    }
+}
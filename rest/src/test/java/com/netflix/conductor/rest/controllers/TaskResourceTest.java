@@ -26,6 +26,7 @@ import com.netflix.conductor.common.metadata.tasks.PollData;
 import com.netflix.conductor.common.metadata.tasks.Task;
 import com.netflix.conductor.common.metadata.tasks.TaskExecLog;
 import com.netflix.conductor.common.metadata.tasks.TaskResult;
+import com.netflix.conductor.common.model.BulkResponse;
 import com.netflix.conductor.common.run.ExternalStorageLocation;
 import com.netflix.conductor.common.run.SearchResult;
 import com.netflix.conductor.common.run.TaskSummary;
@@ -90,6 +91,18 @@ public class TaskResourceTest {
         assertEquals("123", taskResource.updateTask(taskResult));
     }
 
+    @Test
+    public void testUpdateTasks() {
+        TaskResult taskResult = new TaskResult();
+        taskResult.setStatus(TaskResult.Status.COMPLETED);
+        taskResult.setTaskId("123");
+        BulkResponse bulkResponse = new BulkResponse();
+        bulkResponse.appendSuccessResponse("123");
+        when(mockTaskService.updateTasks(anyList())).thenReturn(bulkResponse);
+        assertEquals(
+                bulkResponse, taskResource.updateTasks(Collections.singletonList(taskResult)));
+    }
+
     @Test
     public void testLog() {
         taskResource.log("123", "test log");
@@ -57,7 +57,7 @@ abstract class AbstractSpecification extends Specification {
     }
 
     void sweep(String workflowId) {
-        workflowSweeper.sweep(workflowId)
+        workflowSweeper.sweep([workflowId])
     }
 
     protected String startWorkflow(String name, Integer version, String correlationId, Map<String, Object> workflowInput, String workflowInputPath) {
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.test.benchmark
+
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Autowired
+
+import com.netflix.conductor.common.metadata.events.EventHandler
+import com.netflix.conductor.core.events.DefaultEventProcessor
+import com.netflix.conductor.core.events.EventQueues
+import com.netflix.conductor.core.events.queue.Message
+import com.netflix.conductor.core.events.queue.ObservableQueue
+import com.netflix.conductor.dao.QueueDAO
+import com.netflix.conductor.test.base.AbstractSpecification
+
+import spock.lang.Unroll
+
+/**
+ * Measures the number of events per second that a node handles, one message at a time and in
+ * batches, against the in-memory redis. The throughput is logged rather than asserted, as it
+ * depends on the machine running the build.
+ */
+class EventProcessingBenchmarkSpec extends AbstractSpecification {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventProcessingBenchmarkSpec.class)
+
+    private static final String QUEUE_NAME = 'event_benchmark'
+    private static final String EVENT = "conductor:$QUEUE_NAME"
+    private static final int MESSAGE_COUNT = 10_000
+
+    @Autowired
+    DefaultEventProcessor eventProcessor
+
+    @Autowired
+    EventQueues eventQueues
+
+    @Autowired
+    QueueDAO queueDAO
+
+    EventHandler eventHandler
+
+    def setup() {
+        // half of the messages complete a (missing) task, the other half skip the handler
+        def action = new EventHandler.Action(action: EventHandler.Action.Type.complete_task,
+                complete_task: new EventHandler.TaskDetails(taskId: '${taskId}'))
+        eventHandler = new EventHandler(name: 'event_benchmark_handler', event: EVENT,
+                condition: "\$.kind == 'complete'", actions: [action], active: true)
+        metadataService.addEventHandler(eventHandler)
+    }
+
+    def cleanup() {
+        metadataService.removeEventHandlerStatus(eventHandler.name)
+        queueDAO.flush(QUEUE_NAME)
+    }
+
+    @Unroll
+    def "Handle the benchmark events in batches of #batchSize"() {
+        given: "The messages of the benchmark in the event queue"
+        ObservableQueue queue = eventQueues.getQueue(EVENT)
+        queue.publish((0..<MESSAGE_COUNT).collect {
+            new Message("message_${batchSize}_$it", "{\"kind\": \"${it % 2 ? 'skip' : 'complete'}\", \"taskId\": \"task_$it\"}", null)
+        })
+
+        when: "The messages are polled and handled until the queue is empty"
+        int handled = 0
+        long start = System.nanoTime()
+        List<Message> messages
+        while (!(messages = queueDAO.pollMessages(QUEUE_NAME, pollCount, 100)).isEmpty()) {
+            if (batchSize == 1) {
+                messages.each { eventProcessor.handle(queue, it) }
+            } else {
+                messages.collate(batchSize).each { eventProcessor.handle(queue, it) }
+            }
+            handled += messages.size()
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d
+        LOGGER.info("Handled {} events in batches of {} in {} s: {} events/s",
+                handled, batchSize, String.format('%.2f', seconds), (long) (handled / seconds))
+
+        then: "All the messages were handled and acked"
+        handled == MESSAGE_COUNT
+        queueDAO.getSize(QUEUE_NAME) == 0
+
+        where:
+        batchSize | pollCount
+        1         | 100
+        100       | 100
+        500       | 500
+    }
+}
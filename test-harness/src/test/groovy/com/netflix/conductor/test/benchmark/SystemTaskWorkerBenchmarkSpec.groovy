@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.netflix.conductor.test.benchmark
+
+import java.lang.management.ManagementFactory
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Autowired
+
+import com.netflix.conductor.core.config.ConductorProperties
+import com.netflix.conductor.core.execution.AsyncSystemTaskExecutor
+import com.netflix.conductor.core.execution.tasks.SystemTaskWorker
+import com.netflix.conductor.core.execution.tasks.WorkflowSystemTask
+import com.netflix.conductor.dao.QueueDAO
+import com.netflix.conductor.service.ExecutionService
+import com.netflix.conductor.test.base.AbstractSpecification
+
+import spock.lang.Unroll
+
+/**
+ * Compares the system task workers on thread pools and on virtual threads, against the in-memory
+ * redis: the number of tasks per second that a node executes when the tasks block on I/O, and the
+ * peak number of platform threads. The figures are logged rather than asserted, as they depend on
+ * the machine running the build, and both modes run on thread pools before Java 21.
+ */
+class SystemTaskWorkerBenchmarkSpec extends AbstractSpecification {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SystemTaskWorkerBenchmarkSpec.class)
+
+    private static final String QUEUE_NAME = 'system_task_benchmark'
+    private static final int TASK_COUNT = 2_000
+    private static final long TASK_IO_MILLIS = 20
+
+    @Autowired
+    QueueDAO queueDAO
+
+    def cleanup() {
+        queueDAO.flush(QUEUE_NAME)
+    }
+
+    @Unroll
+    def "Execute the benchmark tasks with virtual threads: #virtualThreads"() {
+        given: "The tasks of the benchmark in the queue of a system task"
+        (0..<TASK_COUNT).each { queueDAO.push(QUEUE_NAME, "task_${virtualThreads}_$it", 0) }
+
+        and: "A system task worker whose tasks block on I/O"
+        def conductorProperties = new ConductorProperties()
+        conductorProperties.systemTaskWorkerThreadCount = 20
+        conductorProperties.systemTaskWorkerPollInterval = Duration.ofMillis(10)
+        conductorProperties.systemTaskWorkerVirtualThreadsEnabled = virtualThreads
+        conductorProperties.systemTaskWorkerMaxConcurrency = 1000
+        def executed = new AtomicInteger()
+        def asyncSystemTaskExecutor = Mock(AsyncSystemTaskExecutor) {
+            execute(*_) >> {
+                Thread.sleep(TASK_IO_MILLIS)
+                executed.incrementAndGet()
+            }
+        }
+        def worker = new SystemTaskWorker(queueDAO, asyncSystemTaskExecutor, conductorProperties,
+                Mock(ExecutionService))
+        def systemTask = new WorkflowSystemTask(QUEUE_NAME) {}
+        worker.start()
+
+        when: "The queue is polled until all the tasks are executed"
+        def threadMXBean = ManagementFactory.threadMXBean
+        threadMXBean.resetPeakThreadCount()
+        long start = System.nanoTime()
+        while (executed.get() < TASK_COUNT) {
+            worker.pollAndExecute(systemTask, QUEUE_NAME)
+            Thread.sleep(conductorProperties.systemTaskWorkerPollInterval.toMillis())
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d
+        LOGGER.info("Executed {} tasks with virtual threads: {} in {} s: {} tasks/s, {} peak platform threads",
+                TASK_COUNT, virtualThreads, String.format('%.2f', seconds),
+                (long) (TASK_COUNT / seconds), threadMXBean.peakThreadCount)
+
+        then: "All the tasks were executed"
+        executed.get() == TASK_COUNT
+
+        cleanup:
+        worker.stop()
+
+        where:
+        virtualThreads << [false, true]
+    }
+}